@@ -0,0 +1,87 @@
+package com.urlshortener.loadgen;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads access logs in Common or Combined Log Format, as written by Tomcat's
+ * access log valve (server.tomcat.accesslog.enabled=true) and most proxies:
+ *
+ *   127.0.0.1 - - [19/Oct/2026:10:15:32 +0000] "GET /aB3cD4e HTTP/1.1" 302 0
+ *
+ * Timestamps only have second resolution, so requests logged in the same
+ * second are spread evenly across it instead of being replayed as a burst.
+ */
+public final class AccessLogParser {
+
+    private static final Pattern LINE = Pattern.compile("^\\S+ \\S+ \\S+ \\[([^\\]]+)] \"(\\S+) (\\S+)[^\"]*\".*");
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH);
+
+    private int skippedLines;
+
+    /**
+     * A logged request, {@code offsetNanos} after the first one.
+     */
+    public record LoggedRequest(long offsetNanos, String method, String path) {}
+
+    public List<LoggedRequest> parse(Reader source) throws IOException {
+        List<long[]> times = new ArrayList<>();          // epoch second, line order
+        List<String[]> requests = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(source)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher m = LINE.matcher(line);
+                if (!m.matches()) {
+                    skippedLines++;
+                    continue;
+                }
+                try {
+                    long second = OffsetDateTime.parse(m.group(1), TIMESTAMP).toEpochSecond();
+                    times.add(new long[] { second, requests.size() });
+                    requests.add(new String[] { m.group(2), m.group(3) });
+                } catch (DateTimeParseException e) {
+                    skippedLines++;
+                }
+            }
+        }
+        // stable: keeps log order within a second
+        times.sort(Comparator.comparingLong((long[] t) -> t[0]));
+
+        List<LoggedRequest> result = new ArrayList<>(times.size());
+        if (times.isEmpty()) {
+            return result;
+        }
+        long first = times.get(0)[0];
+        int i = 0;
+        while (i < times.size()) {
+            int j = i;
+            while (j < times.size() && times.get(j)[0] == times.get(i)[0]) {
+                j++;
+            }
+            long secondStart = TimeUnit.SECONDS.toNanos(times.get(i)[0] - first);
+            long spacing = TimeUnit.SECONDS.toNanos(1) / (j - i);
+            for (int k = i; k < j; k++) {
+                String[] request = requests.get((int) times.get(k)[1]);
+                result.add(new LoggedRequest(secondStart + (k - i) * spacing, request[0], request[1]));
+            }
+            i = j;
+        }
+        return result;
+    }
+
+    public int skippedLines() {
+        return skippedLines;
+    }
+}
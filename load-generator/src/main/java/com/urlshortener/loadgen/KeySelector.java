@@ -0,0 +1,37 @@
+package com.urlshortener.loadgen;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks which of the preloaded short codes a redirect asks for.
+ */
+public interface KeySelector {
+
+    /** Returns a key index in [0, keyCount). */
+    int next();
+
+    static KeySelector uniform(int keyCount) {
+        return () -> ThreadLocalRandom.current().nextInt(keyCount);
+    }
+
+    /**
+     * Zipfian popularity: key k is requested with probability proportional to
+     * 1 / (k + 1)^exponent, so a few hot codes take most of the traffic.
+     */
+    static KeySelector zipfian(int keyCount, double exponent) {
+        double[] cdf = new double[keyCount];
+        double sum = 0;
+        for (int k = 0; k < keyCount; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < keyCount; k++) {
+            cdf[k] /= sum;
+        }
+        return () -> {
+            int index = Arrays.binarySearch(cdf, ThreadLocalRandom.current().nextDouble());
+            return Math.min(index >= 0 ? index : -index - 1, keyCount - 1);
+        };
+    }
+}
@@ -0,0 +1,113 @@
+package com.urlshortener.loadgen;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency histograms and status counts per operation.
+ *
+ * Each response is recorded twice: from the time the schedule intended to
+ * send the request (corrected for coordinated omission: a stalled server
+ * also delays the requests queued behind it, and that wait counts), and from
+ * the time it was actually sent (service time only, what a closed-loop
+ * client would report).
+ */
+public final class LatencyStats {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<Operation, Series> series = new EnumMap<>(Operation.class);
+
+    public LatencyStats() {
+        for (Operation operation : Operation.values()) {
+            series.put(operation, new Series());
+        }
+    }
+
+    /**
+     * @param status HTTP status, or -1 if the request failed without a response
+     */
+    public void record(Operation operation, int status, long fromIntendedNanos, long fromSentNanos) {
+        Series s = series.get(operation);
+        s.corrected.recordValue(Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(fromIntendedNanos)));
+        s.uncorrected.recordValue(Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(fromSentNanos)));
+        s.statuses.computeIfAbsent(status, k -> new LongAdder()).increment();
+    }
+
+    public long count(Operation operation) {
+        return series.get(operation).corrected.getTotalCount();
+    }
+
+    public Histogram corrected(Operation operation) {
+        return series.get(operation).corrected;
+    }
+
+    public Histogram uncorrected(Operation operation) {
+        return series.get(operation).uncorrected;
+    }
+
+    public Map<Integer, Long> statuses(Operation operation) {
+        Map<Integer, Long> result = new TreeMap<>();
+        series.get(operation).statuses.forEach((status, count) -> result.put(status, count.sum()));
+        return result;
+    }
+
+    /**
+     * Prints throughput and percentiles (milliseconds) for every operation that saw traffic.
+     */
+    public void print(PrintStream out, double measuredSeconds) {
+        out.println();
+        out.println("Latency from intended send time (coordinated-omission corrected), ms");
+        printTable(out, measuredSeconds, true);
+        out.println();
+        out.println("Service time from actual send (uncorrected), ms");
+        printTable(out, measuredSeconds, false);
+        out.println();
+        out.println("Responses by status (-1 = no response)");
+        for (Operation operation : Operation.values()) {
+            if (count(operation) > 0) {
+                out.printf("  %-26s %s%n", operation.label(), statuses(operation));
+            }
+        }
+    }
+
+    private void printTable(PrintStream out, double seconds, boolean corrected) {
+        out.printf("  %-26s %9s %9s %8s %8s %8s %8s %8s %8s%n",
+                "operation", "count", "req/s", "p50", "p90", "p99", "p99.9", "p99.99", "max");
+        Histogram total = new Histogram(HIGHEST_MICROS, 3);
+        for (Operation operation : Operation.values()) {
+            Histogram h = corrected ? corrected(operation) : uncorrected(operation);
+            if (h.getTotalCount() > 0) {
+                printRow(out, operation.label(), h, seconds);
+                total.add(h);
+            }
+        }
+        printRow(out, "all", total, seconds);
+    }
+
+    private static void printRow(PrintStream out, String label, Histogram h, double seconds) {
+        out.printf("  %-26s %9d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f %8.2f%n",
+                label, h.getTotalCount(), h.getTotalCount() / seconds,
+                ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(90)),
+                ms(h.getValueAtPercentile(99)), ms(h.getValueAtPercentile(99.9)),
+                ms(h.getValueAtPercentile(99.99)), ms(h.getMaxValue()));
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class Series {
+        final Histogram corrected = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        final Histogram uncorrected = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    }
+}
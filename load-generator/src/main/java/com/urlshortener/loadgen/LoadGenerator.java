@@ -0,0 +1,278 @@
+package com.urlshortener.loadgen;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.urlshortener.loadgen.AccessLogParser.LoggedRequest;
+
+/**
+ * Open-loop load generator for the URL shortener.
+ *
+ * Requests are sent on a fixed schedule (or the timing of a replayed access
+ * log) regardless of how fast responses come back; only --max-in-flight can
+ * hold the schedule back, and any such delay is charged to the requests that
+ * waited. Latencies go into HdrHistograms, see {@link LatencyStats}.
+ *
+ * Run against a local instance started with --app.rate-limit.enabled=false,
+ * otherwise most shorten calls are answered 429 by the per-client limiter.
+ */
+public final class LoadGenerator {
+
+    private static final Pattern SHORT_CODE = Pattern.compile("\"shortUrl\"\\s*:\\s*\"[^\"]*/([^\"/]+)\"");
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int PRELOAD_CONCURRENCY = 32;
+    private static final int URL_DOMAINS = 50;
+
+    private final LoadGeneratorOptions options;
+    private final ExecutorService httpThreads;
+    private final HttpClient client;
+    private final LatencyStats stats = new LatencyStats();
+    private final Semaphore inFlight;
+    private final AtomicLong urlSequence = new AtomicLong();
+    private final AtomicLong lastCompletionNanos = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private long measureFromNanos;
+
+    public LoadGenerator(LoadGeneratorOptions options) {
+        this.options = options;
+        this.inFlight = new Semaphore(options.maxInFlight);
+        this.httpThreads = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "loadgen-http");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(httpThreads)
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadGeneratorOptions options;
+        try {
+            options = LoadGeneratorOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadGeneratorOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        if (options.help) {
+            System.out.print(LoadGeneratorOptions.USAGE);
+            return;
+        }
+        LoadGenerator generator = new LoadGenerator(options);
+        try {
+            generator.run(System.out);
+        } finally {
+            generator.httpThreads.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the configured workload or replay, prints the report and returns the raw statistics.
+     */
+    public LatencyStats run(PrintStream out) throws Exception {
+        if (options.replay != null) {
+            replay(out);
+        } else {
+            runMix(out);
+        }
+        if (!inFlight.tryAcquire(options.maxInFlight, REQUEST_TIMEOUT.toSeconds() + 5, TimeUnit.SECONDS)) {
+            out.println("warning: some requests did not complete");
+        }
+        double seconds = Math.max(1e-9, (lastCompletionNanos.get() - measureFromNanos) / 1e9);
+        stats.print(out, seconds);
+        if (options.histograms != null) {
+            writeHistograms(out);
+        }
+        return stats;
+    }
+
+    // -----------------------------------------------------------------------
+    // Synthetic mix
+    // -----------------------------------------------------------------------
+
+    private void runMix(PrintStream out) throws Exception {
+        String[] codes = new String[0];
+        if (options.mix.getOrDefault(Operation.REDIRECT, 0) > 0) {
+            out.printf("Creating %d short codes on %s ...%n", options.keys, options.target);
+            codes = preload(options.keys);
+        }
+        KeySelector keys = "uniform".equals(options.distribution)
+                ? KeySelector.uniform(codes.length)
+                : KeySelector.zipfian(Math.max(1, codes.length), options.zipfExponent);
+        Operation[] wheel = weightedWheel(options.mix);
+
+        out.printf("Driving %s at %.0f req/s for %ds after %ds warm-up, mix %s, %s keys%n",
+                options.target, options.rate, options.duration.toSeconds(), options.warmup.toSeconds(),
+                options.mix, options.distribution);
+
+        long start = System.nanoTime();
+        measureFromNanos = start + options.warmup.toNanos();
+        long end = measureFromNanos + options.duration.toNanos();
+        double intervalNanos = 1e9 / options.rate;
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            if (intended >= end) {
+                break;
+            }
+            Operation operation = wheel[ThreadLocalRandom.current().nextInt(wheel.length)];
+            HttpRequest request = switch (operation) {
+                case SHORTEN -> shortenRequest();
+                case REDIRECT -> get("/" + codes[keys.next()]);
+                default -> get("/metrics/top-domains");
+            };
+            dispatch(intended, intended >= measureFromNanos, operation, request);
+        }
+    }
+
+    private String[] preload(int count) throws Exception {
+        String[] codes = new String[count];
+        Semaphore permits = new Semaphore(PRELOAD_CONCURRENCY);
+        AtomicReference<String> failure = new AtomicReference<>();
+        for (int i = 0; i < count && failure.get() == null; i++) {
+            int index = i;
+            permits.acquire();
+            client.sendAsync(shortenRequest(), HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+                if (error != null) {
+                    failure.compareAndSet(null, error.toString());
+                } else if (response.statusCode() != 201) {
+                    failure.compareAndSet(null, "POST /shorten returned " + response.statusCode()
+                            + (response.statusCode() == 429 ? " (start the service with --app.rate-limit.enabled=false)" : "")
+                            + ": " + response.body());
+                } else {
+                    Matcher m = SHORT_CODE.matcher(response.body());
+                    if (m.find()) {
+                        codes[index] = m.group(1);
+                    } else {
+                        failure.compareAndSet(null, "Unexpected shorten response: " + response.body());
+                    }
+                }
+                permits.release();
+            });
+        }
+        permits.acquire(PRELOAD_CONCURRENCY);
+        if (failure.get() != null) {
+            throw new IllegalStateException("Preloading short codes failed: " + failure.get());
+        }
+        return codes;
+    }
+
+    private static Operation[] weightedWheel(Map<Operation, Integer> mix) {
+        List<Operation> wheel = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                wheel.add(operation);
+            }
+        });
+        return wheel.toArray(new Operation[0]);
+    }
+
+    // -----------------------------------------------------------------------
+    // Access log replay
+    // -----------------------------------------------------------------------
+
+    private void replay(PrintStream out) throws Exception {
+        AccessLogParser parser = new AccessLogParser();
+        List<LoggedRequest> requests = parser.parse(Files.newBufferedReader(options.replay));
+        out.printf("Replaying %d requests from %s at %.1fx against %s (%d unparseable lines skipped)%n",
+                requests.size(), options.replay, options.speed, options.target, parser.skippedLines());
+
+        long start = System.nanoTime();
+        measureFromNanos = start + options.warmup.toNanos();
+        for (LoggedRequest logged : requests) {
+            long intended = start + (long) (logged.offsetNanos() / options.speed);
+            Operation operation = Operation.of(logged.method(), logged.path());
+            HttpRequest request = operation == Operation.SHORTEN
+                    ? shortenRequest()      // access logs carry no bodies
+                    : builder(logged.path()).method(logged.method(), HttpRequest.BodyPublishers.noBody()).build();
+            dispatch(intended, intended >= measureFromNanos, operation, request);
+        }
+    }
+
+    // -----------------------------------------------------------------------
+    // Sending
+    // -----------------------------------------------------------------------
+
+    private void dispatch(long intendedNanos, boolean measured, Operation operation, HttpRequest request)
+            throws InterruptedException {
+        sleepUntil(intendedNanos);
+        inFlight.acquire();
+        long sentNanos = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            long now = System.nanoTime();
+            inFlight.release();
+            if (measured) {
+                stats.record(operation, response != null ? response.statusCode() : -1,
+                        now - intendedNanos, now - sentNanos);
+                lastCompletionNanos.accumulateAndGet(now, Math::max);
+            }
+        });
+    }
+
+    private static void sleepUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private HttpRequest shortenRequest() {
+        long n = urlSequence.incrementAndGet();
+        String url = "https://site-" + (n % URL_DOMAINS) + ".loadtest.example/" + runId + "/" + n;
+        return builder("/shorten")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"url\": \"" + url + "\"}"))
+                .build();
+    }
+
+    private HttpRequest get(String path) {
+        return builder(path).GET().build();
+    }
+
+    private HttpRequest.Builder builder(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(options.target + path)).timeout(REQUEST_TIMEOUT);
+        if (options.apiKey != null) {
+            builder.header("X-API-Key", options.apiKey);
+        }
+        return builder;
+    }
+
+    private void writeHistograms(PrintStream out) throws IOException {
+        Files.createDirectories(options.histograms);
+        for (Operation operation : Operation.values()) {
+            if (stats.count(operation) == 0) {
+                continue;
+            }
+            var file = options.histograms.resolve(operation.name().toLowerCase(Locale.ROOT) + ".hgrm");
+            try (PrintStream ps = new PrintStream(Files.newOutputStream(file))) {
+                stats.corrected(operation).outputPercentileDistribution(ps, 1000.0);    // in ms
+            }
+            out.println("Wrote " + file);
+        }
+    }
+}
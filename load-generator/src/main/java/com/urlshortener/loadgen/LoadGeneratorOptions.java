@@ -0,0 +1,147 @@
+package com.urlshortener.loadgen;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command-line options. Every option has a default, so running with no
+ * arguments drives http://localhost:8080 for 30 seconds at 500 req/s.
+ */
+public final class LoadGeneratorOptions {
+
+    static final String USAGE = """
+            Usage: java -jar load-generator.jar [options]
+
+              --target URL            service to drive (default http://localhost:8080)
+              --rate N                requests per second, open loop (default 500)
+              --duration D            measured duration, e.g. 30s, 2m (default 30s)
+              --warmup D              unmeasured warm-up before it (default 5s)
+              --mix SPEC              operation weights (default shorten=10,redirect=85,metrics=5)
+              --keys N                short codes created before the run for redirects (default 10000)
+              --distribution NAME     zipfian or uniform popularity of those codes (default zipfian)
+              --zipf-exponent S       skew of the zipfian distribution (default 0.99)
+              --max-in-flight N       cap on outstanding requests (default 1000)
+              --api-key KEY           sent as X-API-Key on every request
+              --replay FILE           replay a Common/Combined Log Format access log instead of the mix
+              --speed X               replay speed multiplier (default 1.0)
+              --histograms DIR        write corrected .hgrm percentile files per operation
+              --help                  show this message
+
+            Latency is measured from each request's scheduled send time, so a slow
+            response also counts against the requests queued behind it.
+            """;
+
+    URI target = URI.create("http://localhost:8080");
+    double rate = 500;
+    Duration duration = Duration.ofSeconds(30);
+    Duration warmup = Duration.ofSeconds(5);
+    Map<Operation, Integer> mix = parseMix("shorten=10,redirect=85,metrics=5");
+    int keys = 10_000;
+    String distribution = "zipfian";
+    double zipfExponent = 0.99;
+    int maxInFlight = 1_000;
+    String apiKey;
+    Path replay;
+    double speed = 1.0;
+    Path histograms;
+    boolean help;
+
+    public static LoadGeneratorOptions parse(String... args) {
+        LoadGeneratorOptions options = new LoadGeneratorOptions();
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i];
+            String value = null;
+            int eq = name.indexOf('=');
+            if (eq > 0) {
+                value = name.substring(eq + 1);
+                name = name.substring(0, eq);
+            }
+            if ("--help".equals(name) || "-h".equals(name)) {
+                options.help = true;
+                continue;
+            }
+            if (value == null) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + name);
+                }
+                value = args[++i];
+            }
+            options.set(name, value);
+        }
+        options.validate();
+        return options;
+    }
+
+    private void set(String name, String value) {
+        switch (name) {
+            case "--target" -> target = URI.create(value.endsWith("/") ? value.substring(0, value.length() - 1) : value);
+            case "--rate" -> rate = Double.parseDouble(value);
+            case "--duration" -> duration = parseDuration(value);
+            case "--warmup" -> warmup = parseDuration(value);
+            case "--mix" -> mix = parseMix(value);
+            case "--keys" -> keys = Integer.parseInt(value);
+            case "--distribution" -> distribution = value.toLowerCase(Locale.ROOT);
+            case "--zipf-exponent" -> zipfExponent = Double.parseDouble(value);
+            case "--max-in-flight" -> maxInFlight = Integer.parseInt(value);
+            case "--api-key" -> apiKey = value;
+            case "--replay" -> replay = Path.of(value);
+            case "--speed" -> speed = Double.parseDouble(value);
+            case "--histograms" -> histograms = Path.of(value);
+            default -> throw new IllegalArgumentException("Unknown option: " + name);
+        }
+    }
+
+    private void validate() {
+        if (rate <= 0 || speed <= 0 || keys < 1 || maxInFlight < 1) {
+            throw new IllegalArgumentException("--rate, --speed, --keys and --max-in-flight must be positive");
+        }
+        if (!"zipfian".equals(distribution) && !"uniform".equals(distribution)) {
+            throw new IllegalArgumentException("--distribution must be zipfian or uniform");
+        }
+    }
+
+    /** Parses "30s", "2m", "500ms" or a bare number of seconds. */
+    static Duration parseDuration(String value) {
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        if (v.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        if (v.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(v));
+    }
+
+    /** Parses "shorten=10,redirect=85,metrics=5". */
+    static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split("=");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Bad --mix entry: " + part);
+            }
+            Operation operation = switch (kv[0].trim().toLowerCase(Locale.ROOT)) {
+                case "shorten" -> Operation.SHORTEN;
+                case "redirect" -> Operation.REDIRECT;
+                case "metrics", "top-domains" -> Operation.TOP_DOMAINS;
+                default -> throw new IllegalArgumentException("Unknown operation in --mix: " + kv[0]);
+            };
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight in --mix: " + part);
+            }
+            weights.put(operation, weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("--mix needs at least one positive weight");
+        }
+        return weights;
+    }
+}
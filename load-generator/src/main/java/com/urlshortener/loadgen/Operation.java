@@ -0,0 +1,39 @@
+package com.urlshortener.loadgen;
+
+/**
+ * Kinds of request the generator sends, reported separately.
+ */
+public enum Operation {
+
+    SHORTEN("POST /shorten"),
+    REDIRECT("GET /{shortCode}"),
+    TOP_DOMAINS("GET /metrics/top-domains"),
+    OTHER("other");
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    /** Classifies a request from an access log by method and path. */
+    public static Operation of(String method, String path) {
+        if ("POST".equals(method) && path.startsWith("/shorten")) {
+            return SHORTEN;
+        }
+        if ("GET".equals(method)) {
+            if (path.startsWith("/metrics/top-domains")) {
+                return TOP_DOMAINS;
+            }
+            // a single path segment that is not another route is a short code
+            if (path.length() > 1 && path.indexOf('/', 1) < 0 && path.indexOf('?') < 0) {
+                return REDIRECT;
+            }
+        }
+        return OTHER;
+    }
+}
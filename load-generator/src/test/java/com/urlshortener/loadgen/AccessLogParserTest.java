@@ -0,0 +1,51 @@
+package com.urlshortener.loadgen;
+
+import com.urlshortener.loadgen.AccessLogParser.LoggedRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessLogParserTest {
+
+    // ----------------------------------------------------
+    // 1️⃣ Parses Common And Combined Log Format
+    // ----------------------------------------------------
+    @Test
+    void shouldParseRequestsAndOffsets() throws Exception {
+
+        String log = """
+                10.0.0.1 - - [19/Oct/2026:10:15:30 +0000] "POST /shorten HTTP/1.1" 201 83
+                10.0.0.2 - - [19/Oct/2026:10:15:30 +0000] "GET /aB3cD4e HTTP/1.1" 302 0 "-" "Mozilla/5.0"
+                not an access log line
+                10.0.0.3 - alice [19/Oct/2026:10:15:32 +0000] "GET /metrics/top-domains HTTP/1.1" 200 41
+                """;
+
+        AccessLogParser parser = new AccessLogParser();
+        List<LoggedRequest> requests = parser.parse(new StringReader(log));
+
+        assertEquals(3, requests.size());
+        assertEquals(1, parser.skippedLines());
+
+        assertEquals(new LoggedRequest(0, "POST", "/shorten"), requests.get(0));
+        // two requests in the same second are spread across it
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), requests.get(1).offsetNanos());
+        assertEquals(TimeUnit.SECONDS.toNanos(2), requests.get(2).offsetNanos());
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Requests Are Classified By Route
+    // ----------------------------------------------------
+    @Test
+    void shouldClassifyOperations() {
+
+        assertEquals(Operation.SHORTEN, Operation.of("POST", "/shorten"));
+        assertEquals(Operation.REDIRECT, Operation.of("GET", "/aB3cD4e"));
+        assertEquals(Operation.TOP_DOMAINS, Operation.of("GET", "/metrics/top-domains"));
+        assertEquals(Operation.OTHER, Operation.of("GET", "/admin/aliases"));
+        assertEquals(Operation.OTHER, Operation.of("DELETE", "/aB3cD4e"));
+    }
+}
@@ -0,0 +1,44 @@
+package com.urlshortener.loadgen;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeySelectorTest {
+
+    private static final int SAMPLES = 200_000;
+
+    // ----------------------------------------------------
+    // 1️⃣ Zipfian Traffic Concentrates On The Hottest Keys
+    // ----------------------------------------------------
+    @Test
+    void shouldSkewTowardsLowRanks() {
+
+        int[] counts = sample(KeySelector.zipfian(1_000, 1.0), 1_000);
+
+        // P(rank 0) = 1 / H(1000) ≈ 0.1336
+        assertEquals(0.1336, counts[0] / (double) SAMPLES, 0.01);
+        assertTrue(counts[0] > counts[1] && counts[1] > counts[9] && counts[9] > counts[999]);
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Uniform Traffic Is Flat
+    // ----------------------------------------------------
+    @Test
+    void shouldSpreadUniformly() {
+
+        int[] counts = sample(KeySelector.uniform(10), 10);
+
+        for (int count : counts) {
+            assertEquals(0.1, count / (double) SAMPLES, 0.01);
+        }
+    }
+
+    private static int[] sample(KeySelector selector, int keys) {
+        int[] counts = new int[keys];
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[selector.next()]++;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,112 @@
+package com.urlshortener.loadgen;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives a stub of the service's three routes on localhost.
+ */
+class LoadGeneratorTest {
+
+    private HttpServer server;
+    private final AtomicInteger shortened = new AtomicInteger();
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    // ----------------------------------------------------
+    // 1️⃣ Open-Loop Mix Sends The Scheduled Number Of Requests
+    // ----------------------------------------------------
+    @Test
+    void shouldDriveMixAtConfiguredRate() throws Exception {
+
+        LatencyStats stats = generator("--rate", "200", "--duration", "2s", "--warmup", "500ms",
+                "--keys", "50", "--mix", "shorten=20,redirect=70,metrics=10")
+                .run(new PrintStream(new ByteArrayOutputStream()));
+
+        long total = stats.count(Operation.SHORTEN) + stats.count(Operation.REDIRECT) + stats.count(Operation.TOP_DOMAINS);
+        assertEquals(400, total, 2);
+        assertTrue(stats.count(Operation.REDIRECT) > stats.count(Operation.SHORTEN));
+        assertEquals(Map.of(302, stats.count(Operation.REDIRECT)), stats.statuses(Operation.REDIRECT));
+        assertEquals(Map.of(201, stats.count(Operation.SHORTEN)), stats.statuses(Operation.SHORTEN));
+        assertTrue(shortened.get() >= 50 + stats.count(Operation.SHORTEN));     // preload + measured
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Access Log Replay
+    // ----------------------------------------------------
+    @Test
+    void shouldReplayAccessLog() throws Exception {
+
+        Path log = Files.createTempFile("access", ".log");
+        Files.writeString(log, """
+                10.0.0.1 - - [19/Oct/2026:10:15:30 +0000] "POST /shorten HTTP/1.1" 201 83
+                10.0.0.1 - - [19/Oct/2026:10:15:30 +0000] "GET /aB3cD4e HTTP/1.1" 302 0
+                10.0.0.1 - - [19/Oct/2026:10:15:31 +0000] "GET /metrics/top-domains HTTP/1.1" 200 41
+                """);
+
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        LatencyStats stats = generator("--replay", log.toString(), "--speed", "4", "--warmup", "0s")
+                .run(new PrintStream(report, true, StandardCharsets.UTF_8));
+
+        assertEquals(1, stats.count(Operation.SHORTEN));
+        assertEquals(1, stats.count(Operation.REDIRECT));
+        assertEquals(1, stats.count(Operation.TOP_DOMAINS));
+        assertTrue(report.toString(StandardCharsets.UTF_8).contains("coordinated-omission corrected"));
+        Files.delete(log);
+    }
+
+    private LoadGenerator generator(String... args) {
+        String[] all = new String[args.length + 2];
+        all[0] = "--target";
+        all[1] = "http://localhost:" + server.getAddress().getPort();
+        System.arraycopy(args, 0, all, 2, args.length);
+        return new LoadGenerator(LoadGeneratorOptions.parse(all));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        exchange.getRequestBody().readAllBytes();
+        if ("POST".equals(exchange.getRequestMethod()) && path.equals("/shorten")) {
+            String code = "c" + shortened.incrementAndGet();
+            byte[] body = ("{\"originalUrl\":\"https://x\",\"shortUrl\":\"http://localhost/" + code + "\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(201, body.length);
+            exchange.getResponseBody().write(body);
+        } else if (path.equals("/metrics/top-domains")) {
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        } else {
+            exchange.getResponseHeaders().add("Location", "https://x");
+            exchange.sendResponseHeaders(302, -1);
+        }
+        exchange.close();
+    }
+}
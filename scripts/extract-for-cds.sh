@@ -0,0 +1,34 @@
+#!/bin/sh
+# Unpacks the Spring Boot fat JAR into a layout the JVM can archive with CDS:
+#
+#   <out>/application.jar   application classes + resources, manifest Main-Class and Class-Path
+#   <out>/lib/*.jar         dependencies
+#
+# CDS only archives classes loaded from plain JAR files on the class path,
+# not from JARs nested inside the fat JAR or from exploded directories.
+#
+# Usage: scripts/extract-for-cds.sh target/url-shortener-1.0.0.jar target/cds
+set -eu
+
+JAR=$1
+OUT=$2
+MAIN_CLASS=com.urlshortener.UrlShortenerApplication
+
+rm -rf "$OUT"
+mkdir -p "$OUT/unpacked" "$OUT/lib"
+JAR_ABS=$(cd "$(dirname "$JAR")" && pwd)/$(basename "$JAR")
+(cd "$OUT/unpacked" && jar -xf "$JAR_ABS")
+mv "$OUT"/unpacked/BOOT-INF/lib/*.jar "$OUT/lib/"
+
+# Manifest lines are limited to 72 bytes: one class path entry per continuation line
+{
+    echo "Main-Class: $MAIN_CLASS"
+    prefix="Class-Path:"
+    for dependency in $(cd "$OUT" && ls lib/*.jar | sort); do
+        echo "$prefix $dependency"
+        prefix=" "
+    done
+} > "$OUT/MANIFEST.txt"
+
+jar --create --file "$OUT/application.jar" --manifest "$OUT/MANIFEST.txt" -C "$OUT/unpacked/BOOT-INF/classes" .
+rm -rf "$OUT/unpacked" "$OUT/MANIFEST.txt"
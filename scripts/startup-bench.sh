@@ -0,0 +1,95 @@
+#!/usr/bin/env bash
+# Startup time and memory benchmark: fat JAR vs Spring AOT vs AOT + CDS vs GraalVM native.
+#
+# Each variant is started RUNS times. For every run we record the wall-clock
+# time from launch until GET /metrics/top-domains first answers 200, and the
+# process RSS at that moment. The table shows the median of each.
+#
+# The native variant is built only when native-image is on the PATH (GraalVM
+# for JDK 17+); otherwise it is reported as skipped.
+#
+# Usage: scripts/startup-bench.sh [runs] [port]
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${2:-18080}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+WORK=$ROOT/target/startup-bench
+JAR_NAME=url-shortener-1.0.0.jar
+MVN="$ROOT/mvnw"
+[ -x "$MVN" ] || MVN=mvn
+
+mkdir -p "$WORK"
+cd "$ROOT"
+
+echo "==> Building fat JAR"
+$MVN -B -q package -DskipTests
+cp "target/$JAR_NAME" "$WORK/fat.jar"
+
+echo "==> Building AOT JAR"
+$MVN -B -q package -Paot -DskipTests
+cp "target/$JAR_NAME" "$WORK/aot.jar"
+
+echo "==> Building CDS archive (training run on the AOT JAR)"
+"$ROOT/scripts/extract-for-cds.sh" "$WORK/aot.jar" "$WORK/cds"
+(cd "$WORK/cds" && java -XX:ArchiveClassesAtExit=app.jsa -Xlog:cds=off -Xlog:cds+dynamic=off \
+    -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh -jar application.jar > training.log 2>&1)
+
+NATIVE_BIN=""
+if command -v native-image > /dev/null 2>&1; then
+    echo "==> Building native image"
+    $MVN -B -q -Pnative native:compile -DskipTests
+    cp target/url-shortener "$WORK/url-shortener-native"
+    NATIVE_BIN=$WORK/url-shortener-native
+else
+    echo "==> native-image not found; skipping the native variant"
+fi
+
+# Prints "<millis> <rss_kb>" for one start of the given command
+measure() {
+    local start pid millis rss
+    start=$(date +%s%N)
+    "$@" --server.port="$PORT" > "$WORK/run.log" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "http://localhost:$PORT/metrics/top-domains"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "process exited during startup, see $WORK/run.log" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+    millis=$(( ($(date +%s%N) - start) / 1000000 ))
+    rss=$(awk '/VmRSS/ { print $2 }' "/proc/$pid/status")
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "$millis $rss"
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'
+}
+
+bench() {
+    local name=$1
+    shift
+    local results=()
+    for ((i = 0; i < RUNS; i++)); do
+        results+=("$(measure "$@")")
+    done
+    local ms rss
+    ms=$(printf '%s\n' "${results[@]}" | cut -d' ' -f1 | median)
+    rss=$(printf '%s\n' "${results[@]}" | cut -d' ' -f2 | median)
+    printf '%-10s %10s %10s\n' "$name" "$ms" "$((rss / 1024))"
+}
+
+echo
+printf '%-10s %10s %10s\n' "variant" "ready (ms)" "RSS (MB)"
+bench fat java -jar "$WORK/fat.jar"
+bench aot java -Dspring.aot.enabled=true -jar "$WORK/aot.jar"
+bench aot+cds java -XX:SharedArchiveFile="$WORK/cds/app.jsa" -Xlog:cds=off \
+    -Dspring.aot.enabled=true -jar "$WORK/cds/application.jar"
+if [ -n "$NATIVE_BIN" ]; then
+    bench native "$NATIVE_BIN"
+else
+    printf '%-10s %10s %10s\n' native skipped skipped
+fi
@@ -0,0 +1,12 @@
+package com.urlshortener.changefeed;
+
+import com.urlshortener.models.ShortenedUrl;
+
+/**
+ * One entry of the change feed: a mapping as it was saved, or as it was
+ * before it was removed. Its sequence number is its position in the feed.
+ */
+public record ChangeEvent(Type type, ShortenedUrl mapping) {
+
+    public enum Type { SAVED, REMOVED }
+}
@@ -0,0 +1,428 @@
+package com.urlshortener.changefeed;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.urlshortener.exception.SequenceExpiredException;
+import com.urlshortener.exception.ServiceOverloadedException;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.MappingListener;
+import com.urlshortener.repositories.UrlRepository;
+import com.urlshortener.util.SequencedRingBuffer;
+
+/**
+ * Sequenced feed of every save and removal in the repository, for consumers
+ * that keep their own copy of the mappings.
+ *
+ * Changes are appended to a {@link SequencedRingBuffer} from the repository's
+ * listener callback: one sequence claim and one slot write on the writing
+ * thread, plus a wake-up of the dispatcher when it is idle and someone is
+ * subscribed. The dispatcher waits {@code linger} after a wake-up so changes
+ * pile up, then hands every subscriber that is behind one send task, which
+ * delivers up to {@code maxBatch} changes per batch until the subscriber has
+ * caught up. A subscriber has at most one send in progress, so a slow one
+ * only holds up itself; if it falls more than {@code capacity} changes
+ * behind, its next changes are gone and it gets {@link Sink#expired}.
+ *
+ * Sequence numbers start at 1 when the application starts and are local to
+ * this node. Consumers get them back as cursors ({@link #cursor}) that also
+ * carry a random epoch drawn at startup, so a cursor from before a restart is
+ * recognised as such even once the new run has passed its sequence number.
+ */
+public class ChangeFeed implements MappingListener, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeed.class);
+
+    // Longest sleep of an idle dispatcher, which also bounds how late long-poll timeouts and heartbeats are
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    /**
+     * Up to {@code maxBatch} consecutive changes, those with sequence numbers
+     * {@code after + 1} to {@link #lastSequence()}.
+     *
+     * @param head highest sequence number in the feed when the batch was read
+     */
+    public record Batch(long after, List<ChangeEvent> events, long head) {
+
+        public long lastSequence() {
+            return after + events.size();
+        }
+    }
+
+    /**
+     * Receiver of a subscription's batches. Calls for one subscription never overlap.
+     */
+    public interface Sink {
+
+        /** Delivers the next batch. May block, which only delays this subscription. */
+        void send(Batch batch) throws IOException;
+
+        /** The next changes were overwritten before they were sent; the subscription has ended. */
+        void expired(long oldestSequence);
+
+        /** Called on a stream after {@code heartbeat} without changes, so proxies keep it open. */
+        default void heartbeat() throws IOException {
+        }
+    }
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, Character.MAX_RADIX);
+    private final SequencedRingBuffer<ChangeEvent> ring;
+    private final long lingerNanos;
+    private final int maxBatch;
+    private final int maxSubscribers;
+    private final long heartbeatNanos;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean pending = new AtomicBoolean();
+    private final ExecutorService senders;
+    private final Thread dispatcher;
+    private volatile boolean closed;
+
+    /**
+     * Subscribes to the repository's changes.
+     *
+     * @param capacity changes retained for consumers that fall behind; rounded up to a power of two
+     * @param linger how long the dispatcher gathers changes before sending them
+     * @param heartbeat silence after which streams get a heartbeat; zero for none
+     */
+    public ChangeFeed(UrlRepository repository, int capacity, Duration linger, int maxBatch,
+                      int maxSubscribers, Duration heartbeat) {
+        if (maxBatch < 1 || maxSubscribers < 1) {
+            throw new IllegalArgumentException("maxBatch and maxSubscribers must be at least 1");
+        }
+        this.ring = new SequencedRingBuffer<>(capacity);
+        this.lingerNanos = linger.toNanos();
+        this.maxBatch = maxBatch;
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeatNanos = heartbeat.toNanos();
+        this.senders = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::dispatch, "change-feed");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        repository.addListener(this);
+    }
+
+    @Override
+    public void onSaved(ShortenedUrl shortenedUrl) {
+        ring.append(new ChangeEvent(ChangeEvent.Type.SAVED, shortenedUrl));
+        if (!subscriptions.isEmpty()) {
+            signal();
+        }
+    }
+
+    @Override
+    public void onRemoved(ShortenedUrl shortenedUrl) {
+        ring.append(new ChangeEvent(ChangeEvent.Type.REMOVED, shortenedUrl));
+        if (!subscriptions.isEmpty()) {
+            signal();
+        }
+    }
+
+    /**
+     * Highest sequence number appended so far, 0 before the first change.
+     */
+    public long head() {
+        return ring.head();
+    }
+
+    /**
+     * Identifies this run of the feed; sequence numbers from another run mean nothing here.
+     */
+    public String epoch() {
+        return epoch;
+    }
+
+    /**
+     * Cursor a consumer hands back to resume after {@code sequence}, in the
+     * form {@code epoch:sequence}.
+     */
+    public String cursor(long sequence) {
+        return epoch + ':' + sequence;
+    }
+
+    /**
+     * Sequence number of a cursor from {@link #cursor}. A bare {@code 0}
+     * stands for the start of any run, for a consumer that has nothing yet.
+     *
+     * @throws SequenceExpiredException if the cursor has another epoch, or
+     *         none, because it was handed out before this node restarted
+     * @throws IllegalArgumentException if it is not a cursor at all
+     */
+    public long sequenceOf(String cursor) {
+        if (cursor.equals("0")) {
+            return 0;
+        }
+        int colon = cursor.lastIndexOf(':');
+        long sequence;
+        try {
+            sequence = Long.parseLong(cursor.substring(colon + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a change feed cursor: " + cursor);
+        }
+        if (colon < 0 || !epoch.equals(cursor.substring(0, colon))) {
+            throw new SequenceExpiredException(
+                    "Cursor " + cursor + " is from an earlier run of this feed, whose epoch is now " + epoch
+                            + "; the node restarted", ring.oldest());
+        }
+        return sequence;
+    }
+
+    /**
+     * Oldest sequence number that can still be read.
+     */
+    public long oldest() {
+        return ring.oldest();
+    }
+
+    public int capacity() {
+        return ring.capacity();
+    }
+
+    public int maxBatch() {
+        return maxBatch;
+    }
+
+    public int subscribers() {
+        return subscriptions.size();
+    }
+
+    /**
+     * The changes after sequence {@code after}, at most {@code max} of them
+     * and no more than maxBatch, without waiting; empty if there are none yet.
+     *
+     * @throws SequenceExpiredException if the change after {@code after} was
+     *         overwritten, or {@code after} is beyond the head because this
+     *         node restarted since the consumer read it
+     */
+    public Batch read(long after, int max) {
+        if (max < 1) {
+            throw new IllegalArgumentException("limit must be at least 1, was " + max);
+        }
+        long head = ring.head();
+        if (after < 0 || after > head) {
+            throw new SequenceExpiredException(
+                    "Sequence " + after + " is not in this feed, whose head is " + head
+                            + "; the node may have restarted", ring.oldest());
+        }
+        int limit = Math.min(max, maxBatch);
+        List<ChangeEvent> events = new ArrayList<>((int) Math.min(head - after, limit));
+        if (after < head && ring.read(after + 1, limit, events) == SequencedRingBuffer.GAP) {
+            throw new SequenceExpiredException(
+                    "Changes after sequence " + after + " were overwritten; the oldest retained is " + ring.oldest(),
+                    ring.oldest());
+        }
+        return new Batch(after, events, head);
+    }
+
+    /**
+     * Sends the sink one batch of the changes after {@code after}: at once if
+     * there are any, else as soon as one is appended, or an empty batch once
+     * {@code timeout} has passed.
+     *
+     * @throws SequenceExpiredException as {@link #read}
+     * @throws ServiceOverloadedException if there are maxSubscribers subscriptions already
+     */
+    public Subscription poll(long after, int max, Duration timeout, Sink sink) {
+        Batch batch = read(after, max);
+        Subscription subscription = new Subscription(after, max, System.nanoTime() + timeout.toNanos(), true, sink);
+        if (!batch.events().isEmpty()) {
+            subscription.cancelled = true;
+            try {
+                sink.send(batch);
+            } catch (IOException e) {
+                log.debug("Change feed consumer went away", e);
+            }
+            return subscription;
+        }
+        return subscribe(subscription);
+    }
+
+    /**
+     * Sends the sink every change after {@code after}, in batches of at most
+     * {@code max}, until the subscription is cancelled, the sink throws, or it
+     * falls behind the retained changes.
+     *
+     * @throws SequenceExpiredException as {@link #read}
+     * @throws ServiceOverloadedException if there are maxSubscribers subscriptions already
+     */
+    public Subscription stream(long after, int max, Sink sink) {
+        read(after, 1);
+        return subscribe(new Subscription(after, max, 0, false, sink));
+    }
+
+    private Subscription subscribe(Subscription subscription) {
+        if (subscriptions.size() >= maxSubscribers) {
+            throw new ServiceOverloadedException(
+                    "The change feed has its maximum of " + maxSubscribers + " subscribers", 1);
+        }
+        subscriptions.add(subscription);
+        signal();
+        return subscription;
+    }
+
+    private void signal() {
+        if (!pending.get() && pending.compareAndSet(false, true)) {
+            LockSupport.unpark(dispatcher);
+        }
+    }
+
+    private void dispatch() {
+        while (!closed) {
+            if (!pending.get()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            if (pending.get() && lingerNanos > 0) {
+                LockSupport.parkNanos(this, lingerNanos);
+            }
+            pending.set(false);
+            long head = ring.head();
+            long now = System.nanoTime();
+            for (Subscription subscription : subscriptions) {
+                try {
+                    subscription.check(head, now);
+                } catch (RuntimeException e) {
+                    // A rejected task after close, or a sink that failed on the dispatcher
+                    subscription.cancel();
+                    log.debug("Dropped change feed subscription", e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(dispatcher);
+        senders.shutdownNow();
+        subscriptions.clear();
+    }
+
+    /**
+     * A consumer's position in the feed. Cancel it when the consumer goes away.
+     */
+    public final class Subscription {
+
+        private final int max;
+        private final long deadlineNanos;
+        private final boolean once;
+        private final Sink sink;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        // Last sequence sent; written only by the task holding `sending`
+        private volatile long cursor;
+        private volatile long lastSentNanos = System.nanoTime();
+        private volatile boolean cancelled;
+
+        private Subscription(long after, int max, long deadlineNanos, boolean once, Sink sink) {
+            this.cursor = after;
+            this.max = max;
+            this.deadlineNanos = deadlineNanos;
+            this.once = once;
+            this.sink = sink;
+        }
+
+        /**
+         * Sequence number of the last change sent.
+         */
+        public long cursor() {
+            return cursor;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        private void check(long head, long now) {
+            if (cancelled || sending.get()) {
+                return;
+            }
+            if (head > cursor) {
+                if (sending.compareAndSet(false, true)) {
+                    senders.execute(this::send);
+                }
+            } else if (once && now - deadlineNanos >= 0) {
+                if (sending.compareAndSet(false, true)) {
+                    senders.execute(this::send);
+                }
+            } else if (!once && heartbeatNanos > 0 && now - lastSentNanos >= heartbeatNanos) {
+                if (sending.compareAndSet(false, true)) {
+                    senders.execute(this::heartbeat);
+                }
+            }
+        }
+
+        private void send() {
+            try {
+                while (!cancelled) {
+                    Batch batch;
+                    try {
+                        batch = read(cursor, max);
+                    } catch (SequenceExpiredException e) {
+                        cancel();
+                        sink.expired(e.getOldestSequence());
+                        return;
+                    }
+                    // An empty batch only ends a long poll, at its deadline
+                    if (batch.events().isEmpty() && !once) {
+                        return;
+                    }
+                    if (once) {
+                        // Before the answer, so a consumer that polls again has a free slot
+                        cancel();
+                        sink.send(batch);
+                        cursor = batch.lastSequence();
+                        lastSentNanos = System.nanoTime();
+                        return;
+                    }
+                    sink.send(batch);
+                    cursor = batch.lastSequence();
+                    lastSentNanos = System.nanoTime();
+                    if (batch.events().size() < Math.min(max, maxBatch)) {
+                        return;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                cancel();
+                log.debug("Change feed consumer went away", e);
+            } finally {
+                sending.set(false);
+                // Changes appended while this task was sending, when the dispatcher skipped us
+                if (!cancelled && ring.head() > cursor) {
+                    signal();
+                }
+            }
+        }
+
+        private void heartbeat() {
+            try {
+                sink.heartbeat();
+                lastSentNanos = System.nanoTime();
+            } catch (IOException | RuntimeException e) {
+                cancel();
+                log.debug("Change feed consumer went away", e);
+            } finally {
+                sending.set(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.urlshortener.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.urlshortener.changefeed.ChangeFeed;
+import com.urlshortener.repositories.UrlRepository;
+
+/**
+ * Wires the change feed behind GET /admin/changes.
+ *
+ * The last app.change-feed.capacity changes are kept for consumers that fall
+ * behind; batches are gathered for app.change-feed.linger-millis and hold at
+ * most app.change-feed.max-batch changes. Disabled with
+ * app.change-feed.enabled=false, which also removes the listener from the
+ * repository's write path.
+ */
+@Configuration
+public class ChangeFeedConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.change-feed.enabled", havingValue = "true", matchIfMissing = true)
+    public ChangeFeed changeFeed(
+            UrlRepository urlRepository,
+            @Value("${app.change-feed.capacity:65536}") int capacity,
+            @Value("${app.change-feed.linger-millis:50}") long lingerMillis,
+            @Value("${app.change-feed.max-batch:1000}") int maxBatch,
+            @Value("${app.change-feed.max-subscribers:256}") int maxSubscribers,
+            @Value("${app.change-feed.heartbeat-seconds:15}") long heartbeatSeconds) {
+        return new ChangeFeed(urlRepository, capacity, Duration.ofMillis(lingerMillis), maxBatch, maxSubscribers,
+                Duration.ofSeconds(heartbeatSeconds));
+    }
+}
@@ -0,0 +1,25 @@
+package com.urlshortener.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.urlshortener.repositories.compressed.CompressedUrlRepository;
+
+/**
+ * Replaces the single InMemoryUrlRepository with one that stores original
+ * URLs compressed when app.storage.mode=compressed. The shared dictionary is
+ * trained on the first app.storage.compressed.training-urls URLs saved.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.storage.mode", havingValue = "compressed")
+public class CompressedStorageConfig {
+
+    @Bean
+    public CompressedUrlRepository compressedUrlRepository(
+            @Value("${app.storage.compressed.training-urls:5000}") int trainingUrls) {
+
+        return new CompressedUrlRepository(trainingUrls);
+    }
+}
@@ -0,0 +1,63 @@
+package com.urlshortener.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.urlshortener.ratelimit.AdaptiveConcurrencyLimiter;
+import com.urlshortener.ratelimit.AdaptiveConcurrencyLimiter.Priority;
+import com.urlshortener.ratelimit.ConcurrencyLimitInterceptor;
+
+/**
+ * Puts an adaptive concurrency limit in front of the public endpoints, with
+ * redirects (GET /{shortCode}) as CRITICAL, POST /shorten as NORMAL, and
+ * GET /metrics/** and QR codes (GET /{shortCode}/qr) as LOW priority.
+ * Admin endpoints are not limited, so operators can still look inside an
+ * overloaded service.
+ *
+ * The limit starts at app.concurrency-limit.initial and moves between
+ * app.concurrency-limit.min and .max. Set app.concurrency-limit.enabled=false
+ * to turn it off.
+ */
+@Configuration
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    private final boolean enabled;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitConfig(
+            @Value("${app.concurrency-limit.enabled:true}") boolean enabled,
+            @Value("${app.concurrency-limit.initial:20}") int initialLimit,
+            @Value("${app.concurrency-limit.min:2}") int minLimit,
+            @Value("${app.concurrency-limit.max:200}") int maxLimit,
+            @Value("${app.concurrency-limit.latency-tolerance:2.0}") double tolerance,
+            @Value("${app.concurrency-limit.backoff:0.9}") double backoff,
+            @Value("${app.concurrency-limit.window-samples:100}") int windowSamples) {
+        this.enabled = enabled;
+        this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, tolerance, backoff, windowSamples);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter() {
+        return limiter;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (enabled) {
+            // Single-segment paths are redirects, apart from POST /shorten
+            registry.addInterceptor(new ConcurrencyLimitInterceptor(limiter, Priority.CRITICAL))
+                    .addPathPatterns("/*").excludePathPatterns("/shorten");
+            registry.addInterceptor(new ConcurrencyLimitInterceptor(limiter, Priority.NORMAL))
+                    .addPathPatterns("/shorten");
+            registry.addInterceptor(new ConcurrencyLimitInterceptor(limiter, Priority.LOW))
+                    .addPathPatterns("/metrics/**", "/*/qr");
+        }
+    }
+}
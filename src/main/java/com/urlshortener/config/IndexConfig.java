@@ -0,0 +1,47 @@
+package com.urlshortener.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+
+import com.urlshortener.repositories.UrlRepository;
+import com.urlshortener.repositories.index.CreatedAtIndex;
+import com.urlshortener.repositories.index.DomainIndex;
+import com.urlshortener.repositories.index.RecentDomainCounts;
+import com.urlshortener.repositories.index.TrigramIndex;
+
+/**
+ * Secondary indexes over the mapping store. Each one subscribes to the
+ * repository's change events, so they work with every storage mode and on
+ * replication followers. They are only created when
+ * {@link SecondaryIndexesCondition} matches, which by default leaves them out
+ * of the tiered and lsm modes; the endpoints backed by them go with them.
+ */
+@Configuration
+@Conditional(SecondaryIndexesCondition.class)
+public class IndexConfig {
+
+    @Bean
+    public DomainIndex domainIndex(UrlRepository urlRepository) {
+        return new DomainIndex(urlRepository);
+    }
+
+    @Bean
+    public TrigramIndex trigramIndex(UrlRepository urlRepository) {
+        return new TrigramIndex(urlRepository);
+    }
+
+    @Bean
+    public CreatedAtIndex createdAtIndex(UrlRepository urlRepository,
+                                         @Value("${app.created-at-index.partition-minutes:60}") long partitionMinutes) {
+        return new CreatedAtIndex(urlRepository, Duration.ofMinutes(partitionMinutes));
+    }
+
+    @Bean
+    public RecentDomainCounts recentDomainCounts(UrlRepository urlRepository) {
+        return new RecentDomainCounts(urlRepository);
+    }
+}
@@ -0,0 +1,36 @@
+package com.urlshortener.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.urlshortener.json.ShortenJsonHttpMessageConverter;
+
+/**
+ * Registers the hand-written POST /shorten JSON converter ahead of Jackson.
+ * Set app.json.fast-codec=false to go back to plain Jackson databinding.
+ */
+@Configuration
+public class JsonCodecConfig implements WebMvcConfigurer {
+
+    private final boolean enabled;
+    private final ObjectMapper objectMapper;
+
+    public JsonCodecConfig(
+            @Value("${app.json.fast-codec:true}") boolean enabled,
+            ObjectMapper objectMapper) {
+        this.enabled = enabled;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        if (enabled) {
+            converters.add(0, new ShortenJsonHttpMessageConverter(objectMapper));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.urlshortener.config;
+
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.urlshortener.repositories.lsm.LsmTree;
+import com.urlshortener.repositories.lsm.LsmUrlRepository;
+
+/**
+ * Replaces the single InMemoryUrlRepository with a persistent LSM-tree
+ * repository when app.storage.mode=lsm. Mappings live in SSTables and
+ * write-ahead logs under app.storage.lsm.directory and survive restarts;
+ * the heap holds the memtable, the tables' indexes and the alias trie.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.storage.mode", havingValue = "lsm")
+public class LsmStorageConfig {
+
+    @Bean
+    public LsmUrlRepository lsmUrlRepository(
+            @Value("${app.storage.lsm.directory:data/lsm}") String directory,
+            @Value("${app.storage.lsm.memtable-mb:16}") long memtableMb,
+            @Value("${app.storage.lsm.table-mb:8}") long tableMb,
+            @Value("${app.storage.lsm.level1-mb:64}") long level1Mb,
+            @Value("${app.storage.lsm.level0-tables:4}") int level0Tables) {
+
+        return new LsmUrlRepository(Path.of(directory),
+                new LsmTree.Options(memtableMb << 20, tableMb << 20, level1Mb << 20, level0Tables));
+    }
+}
@@ -0,0 +1,136 @@
+package com.urlshortener.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import com.urlshortener.controllers.AliasAdminController;
+import com.urlshortener.controllers.ChangeFeedController;
+import com.urlshortener.controllers.CoalescingAdminController;
+import com.urlshortener.controllers.ConcurrencyAdminController;
+import com.urlshortener.controllers.DomainController;
+import com.urlshortener.controllers.HealthController;
+import com.urlshortener.controllers.LinkAuditController;
+import com.urlshortener.controllers.MemoryAdminController;
+import com.urlshortener.controllers.ProfilingAdminController;
+import com.urlshortener.controllers.QrCodeController;
+import com.urlshortener.controllers.ReplicationAdminController;
+import com.urlshortener.controllers.SearchAdminController;
+import com.urlshortener.controllers.ShardAdminController;
+import com.urlshortener.controllers.TenantAdminController;
+import com.urlshortener.controllers.UrlShortenerController;
+import com.urlshortener.controllers.VisitorStatsController;
+import com.urlshortener.controllers.Request.ShortenRequest;
+import com.urlshortener.controllers.Request.VisitorUnionRequest;
+import com.urlshortener.controllers.Response.AliasAvailabilityResponse;
+import com.urlshortener.controllers.Response.AliasListResponse;
+import com.urlshortener.controllers.Response.ChangeBatchResponse;
+import com.urlshortener.controllers.Response.CoalescingStatsResponse;
+import com.urlshortener.controllers.Response.ConcurrencyLimitResponse;
+import com.urlshortener.controllers.Response.CreatedLinksResponse;
+import com.urlshortener.controllers.Response.DomainLinksResponse;
+import com.urlshortener.controllers.Response.MemoryFootprintResponse;
+import com.urlshortener.controllers.Response.ProfilingStatusResponse;
+import com.urlshortener.controllers.Response.ReadinessResponse;
+import com.urlshortener.controllers.Response.ReplicationStatusResponse;
+import com.urlshortener.controllers.Response.RetentionResponse;
+import com.urlshortener.controllers.Response.ShardStatusResponse;
+import com.urlshortener.controllers.Response.ShortenResponse;
+import com.urlshortener.controllers.Response.TenantListResponse;
+import com.urlshortener.controllers.Response.UrlSearchResponse;
+import com.urlshortener.controllers.Response.VisitorStatsResponse;
+import com.urlshortener.controllers.Response.VisitorUnionResponse;
+import com.urlshortener.models.ErrorResponse;
+import com.urlshortener.replication.ReplicationLeader;
+
+/**
+ * Reflection hints for the GraalVM native image (mvn -Pnative native:compile).
+ *
+ * Spring AOT infers most of these from the request mappings, but controllers
+ * that are only registered for some property values (sharding, replication)
+ * and the springdoc scan of @Schema annotations are not covered, so the
+ * controllers and every request/response DTO are registered explicitly.
+ * Add new controllers and DTOs here.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.ApiHints.class)
+public class NativeHintsConfig {
+
+    static final Class<?>[] CONTROLLERS = {
+            UrlShortenerController.class,
+            AliasAdminController.class,
+            ChangeFeedController.class,
+            CoalescingAdminController.class,
+            ConcurrencyAdminController.class,
+            DomainController.class,
+            HealthController.class,
+            LinkAuditController.class,
+            MemoryAdminController.class,
+            ProfilingAdminController.class,
+            QrCodeController.class,
+            ReplicationAdminController.class,
+            SearchAdminController.class,
+            ShardAdminController.class,
+            TenantAdminController.class,
+            VisitorStatsController.class,
+    };
+
+    static final Class<?>[] DTOS = {
+            ShortenRequest.class,
+            ShortenResponse.class,
+            ErrorResponse.class,
+            AliasAvailabilityResponse.class,
+            AliasListResponse.class,
+            ChangeBatchResponse.class,
+            ChangeBatchResponse.Change.class,
+            CoalescingStatsResponse.class,
+            ConcurrencyLimitResponse.class,
+            ConcurrencyLimitResponse.PriorityClass.class,
+            CreatedLinksResponse.class,
+            CreatedLinksResponse.Link.class,
+            DomainLinksResponse.class,
+            DomainLinksResponse.Link.class,
+            MemoryFootprintResponse.class,
+            MemoryFootprintResponse.Structure.class,
+            ProfilingStatusResponse.class,
+            ReadinessResponse.class,
+            ReplicationStatusResponse.class,
+            ReplicationLeader.FollowerStatus.class,
+            RetentionResponse.class,
+            ShardStatusResponse.class,
+            TenantListResponse.class,
+            TenantListResponse.TenantInfo.class,
+            UrlSearchResponse.class,
+            UrlSearchResponse.Match.class,
+            VisitorStatsResponse.class,
+            VisitorStatsResponse.Day.class,
+            VisitorUnionRequest.class,
+            VisitorUnionResponse.class,
+    };
+
+    static class ApiHints implements RuntimeHintsRegistrar {
+
+        private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (Class<?> controller : CONTROLLERS) {
+                hints.reflection().registerType(controller,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS,
+                        MemberCategory.INTROSPECT_DECLARED_METHODS);
+            }
+            // Jackson binding: constructors, fields, getters/setters and nested types
+            bindingRegistrar.registerReflectionHints(hints.reflection(), DTOS);
+            for (Class<?> dto : DTOS) {
+                hints.reflection().registerType(dto, MemberCategory.DECLARED_FIELDS);
+            }
+            // Tenant settings are bound through their record constructor
+            hints.reflection().registerType(TenantConfig.TenantProperties.class,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+}
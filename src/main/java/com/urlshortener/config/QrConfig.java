@@ -0,0 +1,20 @@
+package com.urlshortener.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.urlshortener.qr.QrImageCache;
+
+/**
+ * Cache of rendered QR images for GET /{shortCode}/qr, bounded by
+ * app.qr.cache-mb megabytes. Set it to 0 to render every request.
+ */
+@Configuration
+public class QrConfig {
+
+    @Bean
+    public QrImageCache qrImageCache(@Value("${app.qr.cache-mb:32}") long cacheMb) {
+        return new QrImageCache(cacheMb << 20);
+    }
+}
@@ -0,0 +1,46 @@
+package com.urlshortener.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.urlshortener.ratelimit.ClientRateLimiter;
+import com.urlshortener.ratelimit.RateLimitInterceptor;
+import com.urlshortener.tenant.TenantRegistry;
+
+/**
+ * Applies per-client rate limiting to POST /shorten.
+ *
+ * Each client (tenant API key or IP prefix) gets a token bucket of
+ * app.rate-limit.burst requests refilled at app.rate-limit.permits-per-second.
+ * Set app.rate-limit.enabled=false to turn it off.
+ */
+@Configuration
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private final boolean enabled;
+    private final ClientRateLimiter limiter;
+    private final TenantRegistry tenants;
+
+    public RateLimitConfig(
+            TenantRegistry tenants,
+            @Value("${app.rate-limit.enabled:true}") boolean enabled,
+            @Value("${app.rate-limit.permits-per-second:20}") double permitsPerSecond,
+            @Value("${app.rate-limit.burst:50}") int burst,
+            @Value("${app.rate-limit.max-clients:100000}") int maxClients,
+            @Value("${app.rate-limit.idle-timeout-seconds:300}") long idleTimeoutSeconds) {
+        this.enabled = enabled;
+        this.tenants = tenants;
+        this.limiter = new ClientRateLimiter(permitsPerSecond, burst, maxClients, idleTimeoutSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (enabled) {
+            registry.addInterceptor(new RateLimitInterceptor(limiter, tenants)).addPathPatterns("/shorten");
+        }
+    }
+}
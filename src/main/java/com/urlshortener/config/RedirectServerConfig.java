@@ -0,0 +1,39 @@
+package com.urlshortener.config;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.urlshortener.redirect.RedirectServer;
+import com.urlshortener.services.UrlShortenerService;
+import com.urlshortener.tenant.TenantRegistry;
+import com.urlshortener.visitors.UniqueVisitorCounter;
+
+/**
+ * Optional second listener that serves only redirects, without Spring MVC.
+ *
+ * app.redirect-server.enabled=true starts it on app.redirect-server.port
+ * with app.redirect-server.threads event loops. The main port keeps serving
+ * every endpoint, redirects included.
+ */
+@Configuration
+public class RedirectServerConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.redirect-server.enabled", havingValue = "true")
+    public RedirectServer redirectServer(
+            UrlShortenerService urlShortenerService,
+            TenantRegistry tenantRegistry,
+            UniqueVisitorCounter uniqueVisitorCounter,
+            @Value("${app.visitors.enabled:true}") boolean countVisitors,
+            @Value("${app.redirect-server.port:8081}") int port,
+            @Value("${app.redirect-server.threads:1}") int threads) throws IOException {
+        return new RedirectServer(urlShortenerService,
+                tenantRegistry.isEmpty() ? null : tenantRegistry,
+                countVisitors ? uniqueVisitorCounter : null,
+                port, threads);
+    }
+}
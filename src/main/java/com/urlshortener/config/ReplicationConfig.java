@@ -0,0 +1,43 @@
+package com.urlshortener.config;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.urlshortener.replication.ReplicationFollower;
+import com.urlshortener.replication.ReplicationLeader;
+import com.urlshortener.repositories.UrlRepository;
+
+/**
+ * Wires leader/follower replication of the mapping store.
+ *
+ * app.replication.role=leader   — ships saves and removals to followers on app.replication.port
+ * app.replication.role=follower — applies the leader's stream from app.replication.leader-host/-port
+ * app.replication.role=none     — no replication (default)
+ */
+@Configuration
+public class ReplicationConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.replication.role", havingValue = "leader")
+    public ReplicationLeader replicationLeader(
+            UrlRepository urlRepository,
+            @Value("${app.replication.port:9090}") int port,
+            @Value("${app.replication.log-capacity:1048576}") int logCapacity,
+            @Value("${app.replication.batch-size:512}") int batchSize,
+            @Value("${app.replication.max-in-flight:65536}") int maxInFlight) throws IOException {
+        return new ReplicationLeader(urlRepository, port, logCapacity, batchSize, maxInFlight);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.replication.role", havingValue = "follower")
+    public ReplicationFollower replicationFollower(
+            UrlRepository urlRepository,
+            @Value("${app.replication.leader-host:localhost}") String leaderHost,
+            @Value("${app.replication.leader-port:9090}") int leaderPort) {
+        return new ReplicationFollower(urlRepository, leaderHost, leaderPort);
+    }
+}
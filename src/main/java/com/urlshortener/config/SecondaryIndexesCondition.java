@@ -0,0 +1,29 @@
+package com.urlshortener.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/**
+ * Matches when the secondary indexes are enabled. app.indexes.enabled decides
+ * if set; otherwise they are on for the storage modes that keep every mapping
+ * on the heap anyway, and off for tiered and lsm. Those modes exist to keep
+ * the heap small, and each index holds an entry per link and scans the whole
+ * store at startup.
+ */
+public class SecondaryIndexesCondition extends SpringBootCondition {
+
+    @Override
+    public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        Environment environment = context.getEnvironment();
+        String mode = environment.getProperty("app.storage.mode", "memory");
+        boolean onHeap = !"tiered".equals(mode) && !"lsm".equals(mode);
+        Boolean enabled = environment.getProperty("app.indexes.enabled", Boolean.class);
+        if (enabled != null) {
+            return new ConditionOutcome(enabled, "app.indexes.enabled=" + enabled);
+        }
+        return new ConditionOutcome(onHeap, "app.storage.mode=" + mode);
+    }
+}
@@ -0,0 +1,37 @@
+package com.urlshortener.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.urlshortener.repositories.InMemoryUrlRepository;
+import com.urlshortener.repositories.sharding.ShardedUrlRepository;
+
+/**
+ * Replaces the single InMemoryUrlRepository with a sharded repository when
+ * app.storage.mode=sharded. Shards are in-process InMemoryUrlRepository
+ * instances named shard-0 .. shard-(N-1).
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.storage.mode", havingValue = "sharded")
+public class ShardingConfig {
+
+    @Bean
+    public ShardedUrlRepository shardedUrlRepository(
+            @Value("${app.storage.shards:4}") int shardCount,
+            @Value("${app.storage.virtual-nodes:128}") int virtualNodes) {
+
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("app.storage.shards must be at least 1");
+        }
+        Map<String, InMemoryUrlRepository> shards = new LinkedHashMap<>();
+        for (int i = 0; i < shardCount; i++) {
+            shards.put("shard-" + i, new InMemoryUrlRepository());
+        }
+        return new ShardedUrlRepository(shards, virtualNodes);
+    }
+}
@@ -0,0 +1,67 @@
+package com.urlshortener.config;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.urlshortener.tenant.Tenant;
+import com.urlshortener.tenant.TenantInterceptor;
+import com.urlshortener.tenant.TenantRegistry;
+
+/**
+ * Tenants served by this deployment, from app.tenants.&lt;id&gt;.*:
+ *
+ *   app.tenants.acme.hosts=go.acme.com
+ *   app.tenants.acme.api-keys=acme-key-1,acme-key-2
+ *   app.tenants.acme.base-url=https://go.acme.com
+ *   app.tenants.acme.max-links=100000
+ *
+ * Requests for none of them, and everything when no tenant is configured,
+ * belong to the default tenant with app.base-url. The tenant interceptor is
+ * only registered when there are tenants, so a single-brand deployment pays
+ * nothing for it.
+ */
+@Configuration
+public class TenantConfig implements WebMvcConfigurer {
+
+    private final TenantRegistry registry;
+
+    public TenantConfig(Environment environment, @Value("${app.base-url:http://localhost:8080}") String baseUrl) {
+        this.registry = new TenantRegistry(Tenant.defaultTenant(baseUrl));
+        Map<String, TenantProperties> tenants = Binder.get(environment)
+                .bind("app.tenants", Bindable.mapOf(String.class, TenantProperties.class))
+                .orElse(Map.of());
+        tenants.forEach((id, properties) -> registry.register(
+                new Tenant(id, properties.baseUrl(), properties.maxLinks() == null ? 0 : properties.maxLinks()),
+                properties.hosts() == null ? List.of() : properties.hosts(),
+                properties.apiKeys() == null ? List.of() : properties.apiKeys()));
+    }
+
+    @Bean
+    public TenantRegistry tenantRegistry() {
+        return registry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!this.registry.isEmpty()) {
+            // First, so the interceptors after it see the tenant until they complete
+            registry.addInterceptor(new TenantInterceptor(this.registry)).order(Ordered.HIGHEST_PRECEDENCE);
+        }
+    }
+
+    /**
+     * Settings of one tenant, bound from app.tenants.&lt;id&gt;.
+     */
+    public record TenantProperties(List<String> hosts, List<String> apiKeys, String baseUrl, Long maxLinks) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.urlshortener.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.urlshortener.repositories.tiered.TieredUrlRepository;
+
+/**
+ * Replaces the single InMemoryUrlRepository with a hot/cold tiered repository
+ * when app.storage.mode=tiered. Recently read mappings stay on the heap; idle
+ * ones, and the least recently used beyond app.storage.tiered.max-hot-entries,
+ * move to memory-mapped segment files under app.storage.tiered.directory.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.storage.mode", havingValue = "tiered")
+public class TieredStorageConfig {
+
+    @Bean
+    public TieredUrlRepository tieredUrlRepository(
+            @Value("${app.storage.tiered.directory:${java.io.tmpdir}/url-shortener-cold}") String directory,
+            @Value("${app.storage.tiered.max-hot-entries:1000000}") int maxHotEntries,
+            @Value("${app.storage.tiered.idle-hours:72}") long idleHours,
+            @Value("${app.storage.tiered.demote-interval-seconds:60}") long demoteIntervalSeconds,
+            @Value("${app.storage.tiered.max-segments:8}") int maxSegments) {
+
+        return new TieredUrlRepository(Path.of(directory), maxHotEntries, Duration.ofHours(idleHours),
+                Duration.ofSeconds(demoteIntervalSeconds), maxSegments);
+    }
+}
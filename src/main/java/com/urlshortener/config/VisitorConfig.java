@@ -0,0 +1,45 @@
+package com.urlshortener.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.urlshortener.visitors.UniqueVisitorCounter;
+import com.urlshortener.visitors.VisitorInterceptor;
+
+/**
+ * Counts unique visitors per short code on the redirect path.
+ *
+ * Each code keeps app.visitors.days daily HyperLogLog sketches of precision
+ * app.visitors.precision. Set app.visitors.enabled=false to stop counting;
+ * the stats endpoint then reports zero.
+ */
+@Configuration
+public class VisitorConfig implements WebMvcConfigurer {
+
+    private final boolean enabled;
+    private final UniqueVisitorCounter counter;
+
+    public VisitorConfig(
+            @Value("${app.visitors.enabled:true}") boolean enabled,
+            @Value("${app.visitors.precision:12}") int precision,
+            @Value("${app.visitors.days:7}") int days) {
+        this.enabled = enabled;
+        this.counter = new UniqueVisitorCounter(precision, days);
+    }
+
+    @Bean
+    public UniqueVisitorCounter uniqueVisitorCounter() {
+        return counter;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (enabled) {
+            // Single-segment paths are redirects; the interceptor only counts 302 responses
+            registry.addInterceptor(new VisitorInterceptor(counter)).addPathPatterns("/*");
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.urlshortener.config;
+
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.urlshortener.warmup.HotCodeTracker;
+
+/**
+ * Keeps the hottest short codes in app.warmup.hot-codes-file, for the next
+ * run's warm-up to preload. At most app.warmup.hot-codes codes are kept;
+ * the file is rewritten every app.warmup.save-interval-seconds and at shutdown.
+ * Nothing is tracked with app.warmup.enabled=false.
+ */
+@Configuration
+public class WarmupConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true", matchIfMissing = true)
+    public HotCodeTracker hotCodeTracker(
+            @Value("${app.warmup.hot-codes-file:data/hot-codes}") String file,
+            @Value("${app.warmup.hot-codes:10000}") int capacity,
+            @Value("${app.warmup.save-interval-seconds:300}") long saveIntervalSeconds) {
+        return new HotCodeTracker(Path.of(file), capacity, saveIntervalSeconds);
+    }
+}
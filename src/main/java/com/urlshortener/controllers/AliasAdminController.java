@@ -0,0 +1,67 @@
+package com.urlshortener.controllers;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.urlshortener.controllers.Response.AliasAvailabilityResponse;
+import com.urlshortener.controllers.Response.AliasListResponse;
+import com.urlshortener.services.UrlShortenerService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Admin API for browsing and checking vanity aliases.
+ *
+ * Endpoints:
+ *   GET /admin/aliases                — Lists aliases by prefix
+ *   GET /admin/aliases/availability   — Checks whether an alias can be claimed
+ */
+@RestController
+@RequestMapping("/admin/aliases")
+@Tag(name = "Aliases (admin)", description = "Prefix search and availability checks for vanity aliases")
+public class AliasAdminController {
+
+    private static final int MAX_LIMIT = 500;
+
+    private final UrlShortenerService urlShortenerService;
+
+    public AliasAdminController(UrlShortenerService urlShortenerService) {
+        this.urlShortenerService = urlShortenerService;
+    }
+
+    @Operation(summary = "List vanity aliases by prefix",
+            description = "Returns aliases starting with `prefix` in lexicographic order, plus the total match count.")
+    @GetMapping
+    public ResponseEntity<AliasListResponse> listAliases(
+            @Parameter(description = "Alias prefix; empty lists all aliases", example = "spring")
+            @RequestParam(defaultValue = "") String prefix,
+            @Parameter(description = "Maximum number of aliases to return (1-500)", example = "50")
+            @RequestParam(defaultValue = "50") int limit) {
+
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        List<String> aliases = urlShortenerService.findAliasesByPrefix(prefix, limit);
+        int total = urlShortenerService.countAliasesByPrefix(prefix);
+        return ResponseEntity.ok(new AliasListResponse(prefix, total, aliases));
+    }
+
+    @Operation(summary = "Check alias availability",
+            description = "Reports whether the alias is valid and unclaimed, and how many existing aliases extend it.")
+    @GetMapping("/availability")
+    public ResponseEntity<AliasAvailabilityResponse> checkAvailability(
+            @Parameter(description = "Alias to check", example = "spring-sale", required = true)
+            @RequestParam String alias) {
+
+        boolean available = urlShortenerService.isAliasAvailable(alias);
+        int withPrefix = urlShortenerService.countAliasesByPrefix(alias);
+        return ResponseEntity.ok(new AliasAvailabilityResponse(alias, available, withPrefix));
+    }
+}
@@ -0,0 +1,175 @@
+package com.urlshortener.controllers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.urlshortener.changefeed.ChangeEvent;
+import com.urlshortener.changefeed.ChangeFeed;
+import com.urlshortener.controllers.Response.ChangeBatchResponse;
+import com.urlshortener.exception.SequenceExpiredException;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.tenant.Tenant;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Admin API streaming every saved and removed mapping, for CDN edge workers
+ * and partner services that keep their own copy. Only registered while
+ * app.change-feed.enabled is true (the default).
+ *
+ * Endpoints:
+ *   GET /admin/changes?after=...          — Long poll: the next batch after a cursor
+ *   GET /admin/changes/stream?after=...   — Server-Sent Events: every batch, resumable with Last-Event-ID
+ */
+@RestController
+@RequestMapping("/admin/changes")
+@ConditionalOnProperty(name = "app.change-feed.enabled", havingValue = "true", matchIfMissing = true)
+@Tag(name = "Change feed (admin)", description = "Sequenced stream of saved and removed mappings")
+public class ChangeFeedController {
+
+    static final int MAX_WAIT_SECONDS = 60;
+
+    private final ChangeFeed changeFeed;
+
+    public ChangeFeedController(ChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    @Operation(summary = "Next batch of changes",
+            description = "Returns the changes after cursor `after` at once if there are any, else waits "
+                    + "up to waitSeconds for some and returns an empty batch if none arrive. Pass the returned cursor "
+                    + "as `after` in the next call. Without `after`, only changes from now on are returned.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "A batch, possibly empty"),
+            @ApiResponse(responseCode = "410", description = "The changes after `after` are no longer retained, "
+                    + "or this node restarted; rebuild the copy and start again without `after`"),
+            @ApiResponse(responseCode = "503", description = "Too many consumers are waiting")
+    })
+    @GetMapping
+    public DeferredResult<ResponseEntity<ChangeBatchResponse>> poll(
+            @Parameter(description = "Cursor of the last batch already applied")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Most changes to return; capped at app.change-feed.max-batch")
+            @RequestParam(defaultValue = "1000") int limit,
+            @Parameter(description = "How long to wait for a change, at most " + MAX_WAIT_SECONDS)
+            @RequestParam(defaultValue = "30") int waitSeconds) {
+        if (waitSeconds < 0 || waitSeconds > MAX_WAIT_SECONDS) {
+            throw new IllegalArgumentException("waitSeconds must be between 0 and " + MAX_WAIT_SECONDS);
+        }
+        // The feed answers at the deadline itself; the request timeout is only a backstop
+        DeferredResult<ResponseEntity<ChangeBatchResponse>> result =
+                new DeferredResult<>(Duration.ofSeconds(waitSeconds + 10L).toMillis());
+        ChangeFeed.Subscription subscription = changeFeed.poll(startingPoint(after), limit,
+                Duration.ofSeconds(waitSeconds), new ChangeFeed.Sink() {
+                    @Override
+                    public void send(ChangeFeed.Batch batch) {
+                        result.setResult(ResponseEntity.ok(toResponse(batch)));
+                    }
+
+                    @Override
+                    public void expired(long oldestSequence) {
+                        result.setErrorResult(new SequenceExpiredException(
+                                "Changes were overwritten while waiting; the oldest retained is " + oldestSequence,
+                                oldestSequence));
+                    }
+                });
+        result.onCompletion(subscription::cancel);
+        result.onTimeout(subscription::cancel);
+        return result;
+    }
+
+    @Operation(summary = "Stream of changes",
+            description = "Server-Sent Events. Each `changes` event carries a batch and has the batch's cursor "
+                    + "as its id, so a reconnecting EventSource resumes where it left off. If the "
+                    + "stream cannot continue from that point, a `reset` event is sent and the stream ends; rebuild "
+                    + "the copy and reconnect without `after`.")
+    @GetMapping("/stream")
+    public SseEmitter stream(
+            @Parameter(description = "Sent by EventSource when it reconnects; wins over `after`")
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId,
+            @Parameter(description = "Cursor of the last batch already applied")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Most changes per event; capped at app.change-feed.max-batch")
+            @RequestParam(defaultValue = "1000") int limit) throws IOException {
+        SseEmitter emitter = new SseEmitter(0L);
+        ChangeFeed.Subscription subscription;
+        try {
+            subscription = changeFeed.stream(startingPoint(lastEventId != null ? lastEventId : after), limit,
+                    new ChangeFeed.Sink() {
+                        @Override
+                        public void send(ChangeFeed.Batch batch) throws IOException {
+                            emitter.send(SseEmitter.event()
+                                    .name("changes")
+                                    .id(changeFeed.cursor(batch.lastSequence()))
+                                    .data(toResponse(batch), MediaType.APPLICATION_JSON));
+                        }
+
+                        @Override
+                        public void expired(long oldestSequence) {
+                            reset(emitter, oldestSequence);
+                        }
+
+                        @Override
+                        public void heartbeat() throws IOException {
+                            emitter.send(SseEmitter.event().comment("heartbeat"));
+                        }
+                    });
+        } catch (SequenceExpiredException e) {
+            reset(emitter, e.getOldestSequence());
+            return emitter;
+        }
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(error -> subscription.cancel());
+        return emitter;
+    }
+
+    private long startingPoint(String after) {
+        return after != null ? changeFeed.sequenceOf(after) : changeFeed.head();
+    }
+
+    private void reset(SseEmitter emitter, long oldestSequence) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("reset")
+                    .data(Map.of("oldestSequence", oldestSequence, "headSequence", changeFeed.head()),
+                            MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private ChangeBatchResponse toResponse(ChangeFeed.Batch batch) {
+        List<ChangeBatchResponse.Change> changes = new ArrayList<>(batch.events().size());
+        long sequence = batch.after();
+        for (ChangeEvent event : batch.events()) {
+            ShortenedUrl mapping = event.mapping();
+            String tenant = Tenant.idOf(mapping.getShortCode());
+            int prefix = tenant.isEmpty() ? 0 : tenant.length() + 1;
+            changes.add(new ChangeBatchResponse.Change(++sequence, event.type().name(), tenant,
+                    mapping.getShortCode().substring(prefix), mapping.getOriginalUrl().substring(prefix),
+                    mapping.isAlias(), mapping.getCreatedAt().toString()));
+        }
+        return new ChangeBatchResponse(changes, batch.lastSequence(), changeFeed.cursor(batch.lastSequence()),
+                batch.head());
+    }
+}
@@ -0,0 +1,42 @@
+package com.urlshortener.controllers;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.urlshortener.controllers.Response.CoalescingStatsResponse;
+import com.urlshortener.services.SingleFlight;
+import com.urlshortener.services.UrlShortenerService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Admin API exposing single-flight coalescing counters.
+ *
+ * Endpoints:
+ *   GET /admin/coalescing   — Executed vs coalesced shorten and resolve calls
+ */
+@RestController
+@RequestMapping("/admin/coalescing")
+@Tag(name = "Coalescing (admin)", description = "Single-flight request coalescing metrics")
+public class CoalescingAdminController {
+
+    private final UrlShortenerService urlShortenerService;
+
+    public CoalescingAdminController(UrlShortenerService urlShortenerService) {
+        this.urlShortenerService = urlShortenerService;
+    }
+
+    @Operation(summary = "Get coalescing counters",
+            description = "Counts since startup of calls that ran versus calls that shared a concurrent identical call.")
+    @GetMapping
+    public ResponseEntity<CoalescingStatsResponse> getStats() {
+        SingleFlight<String, String> shorten = urlShortenerService.shortenFlight();
+        SingleFlight<String, String> resolve = urlShortenerService.resolveFlight();
+        return ResponseEntity.ok(new CoalescingStatsResponse(
+                shorten.executions(), shorten.coalesced(),
+                urlShortenerService.isCoalescingResolves(), resolve.executions(), resolve.coalesced()));
+    }
+}
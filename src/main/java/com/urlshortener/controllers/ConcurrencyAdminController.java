@@ -0,0 +1,51 @@
+package com.urlshortener.controllers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.urlshortener.config.ConcurrencyLimitConfig;
+import com.urlshortener.controllers.Response.ConcurrencyLimitResponse;
+import com.urlshortener.ratelimit.AdaptiveConcurrencyLimiter;
+import com.urlshortener.ratelimit.AdaptiveConcurrencyLimiter.Priority;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Admin API exposing the adaptive concurrency limit.
+ *
+ * Endpoints:
+ *   GET /admin/concurrency   — Current limit, requests in flight, admitted vs shed per priority
+ */
+@RestController
+@RequestMapping("/admin/concurrency")
+@Tag(name = "Concurrency limit (admin)", description = "Adaptive concurrency limit and load shedding")
+public class ConcurrencyAdminController {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ConcurrencyLimitConfig config;
+
+    public ConcurrencyAdminController(AdaptiveConcurrencyLimiter limiter, ConcurrencyLimitConfig config) {
+        this.limiter = limiter;
+        this.config = config;
+    }
+
+    @Operation(summary = "Get the concurrency limit",
+            description = "The latency-driven limit on requests in flight, and since startup how many requests "
+                    + "of each priority were admitted or shed with 503.")
+    @GetMapping
+    public ResponseEntity<ConcurrencyLimitResponse> getStatus() {
+        List<ConcurrencyLimitResponse.PriorityClass> priorities = new ArrayList<>();
+        for (Priority priority : Priority.values()) {
+            priorities.add(new ConcurrencyLimitResponse.PriorityClass(
+                    priority.name(), limiter.admitted(priority), limiter.shed(priority)));
+        }
+        return ResponseEntity.ok(new ConcurrencyLimitResponse(
+                config.isEnabled(), limiter.limit(), limiter.inFlight(), priorities));
+    }
+}
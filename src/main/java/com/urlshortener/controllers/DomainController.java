@@ -0,0 +1,58 @@
+package com.urlshortener.controllers;
+
+import org.springframework.context.annotation.Conditional;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.urlshortener.config.SecondaryIndexesCondition;
+import com.urlshortener.controllers.Response.DomainLinksResponse;
+import com.urlshortener.repositories.index.DomainIndex;
+import com.urlshortener.services.DomainLinkService;
+import com.urlshortener.services.DomainLinkService.LinkPage;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Per-domain queries over the stored links.
+ *
+ * Endpoints:
+ *   GET /domains/{domain}/links   — Short links pointing at the domain, cursor-paginated
+ */
+@RestController
+@Conditional(SecondaryIndexesCondition.class)
+@RequestMapping("/domains")
+@Tag(name = "Domains", description = "Look up short links by destination domain")
+public class DomainController {
+
+    private final DomainLinkService domainLinkService;
+
+    public DomainController(DomainLinkService domainLinkService) {
+        this.domainLinkService = domainLinkService;
+    }
+
+    @Operation(summary = "List short links for a domain",
+            description = "Links are ordered by short code. Follow nextCursor until it is null to read them all; "
+                    + "links created while paging appear if their code sorts after the cursor. "
+                    + "`www.` and letter case are ignored, as in the top-domains metric.")
+    @GetMapping("/{domain}/links")
+    public ResponseEntity<DomainLinksResponse> getLinks(
+            @Parameter(description = "Destination domain", example = "youtube.com") @PathVariable String domain,
+            @Parameter(description = "nextCursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, at most " + DomainLinkService.MAX_PAGE_SIZE)
+            @RequestParam(defaultValue = "50") int limit) {
+        LinkPage page = domainLinkService.findLinks(domain, cursor, limit);
+        return ResponseEntity.ok(new DomainLinksResponse(
+                DomainIndex.normalize(domain),
+                page.links().stream()
+                        .map(link -> new DomainLinksResponse.Link(link.getShortCode(), domainLinkService.shortUrl(link),
+                                link.getOriginalUrl(), link.getCreatedAt() != null ? link.getCreatedAt().toString() : null))
+                        .toList(),
+                page.nextCursor()));
+    }
+}
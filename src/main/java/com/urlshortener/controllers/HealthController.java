@@ -0,0 +1,72 @@
+package com.urlshortener.controllers;
+
+import java.util.Map;
+
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.urlshortener.controllers.Response.ReadinessResponse;
+import com.urlshortener.warmup.WarmupRunner;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Liveness and readiness probes for orchestrators, load balancers and the
+ * container HEALTHCHECK.
+ *
+ * Endpoints:
+ *   GET /health/live    — 200 while the application is running, from the moment the port opens
+ *   GET /health/ready   — 200 once startup, bulk import and warm-up are done, 503 before
+ */
+@RestController
+@Tag(name = "Health", description = "Liveness and readiness for traffic")
+public class HealthController {
+
+    private final ApplicationAvailability availability;
+    private final WarmupRunner warmupRunner;
+
+    public HealthController(ApplicationAvailability availability, WarmupRunner warmupRunner) {
+        this.availability = availability;
+        this.warmupRunner = warmupRunner;
+    }
+
+    @Operation(summary = "Liveness",
+            description = "Up as soon as the port is open, including during warm-up. "
+                    + "Restart the application only when this fails; route traffic by /health/ready.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Running"),
+            @ApiResponse(responseCode = "503", description = "Broken beyond recovery")
+    })
+    @GetMapping("/health/live")
+    public ResponseEntity<Map<String, String>> live() {
+        LivenessState state = availability.getLivenessState();
+        return ResponseEntity
+                .status(state == LivenessState.CORRECT ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("status", state.name()));
+    }
+
+    @Operation(summary = "Readiness",
+            description = "Ready once every startup task has finished, the warm-up last: synthetic traffic "
+                    + "to compile the hot paths, then preloading the previous run's hottest short codes.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Ready for traffic"),
+            @ApiResponse(responseCode = "503", description = "Still starting or warming up")
+    })
+    @GetMapping("/health/ready")
+    public ResponseEntity<ReadinessResponse> ready() {
+        ReadinessState state = availability.getReadinessState();
+        ReadinessResponse body = new ReadinessResponse(
+                state.name(), warmupRunner.durationMillis(), warmupRunner.preloaded());
+        return ResponseEntity
+                .status(state == ReadinessState.ACCEPTING_TRAFFIC ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+                .body(body);
+    }
+}
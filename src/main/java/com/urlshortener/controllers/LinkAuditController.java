@@ -0,0 +1,78 @@
+package com.urlshortener.controllers;
+
+import java.time.Instant;
+
+import org.springframework.context.annotation.Conditional;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.urlshortener.config.SecondaryIndexesCondition;
+import com.urlshortener.controllers.Response.CreatedLinksResponse;
+import com.urlshortener.controllers.Response.RetentionResponse;
+import com.urlshortener.services.LinkAuditService;
+import com.urlshortener.services.LinkAuditService.LinkPage;
+import com.urlshortener.services.LinkAuditService.RetentionResult;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Admin API for auditing links by creation time and deleting old ones.
+ *
+ * Endpoints:
+ *   GET    /admin/links?from=...&to=...   — Links created in [from, to), oldest first, cursor-paginated
+ *   DELETE /admin/links?createdBefore=... — Deletes every link created before the instant
+ */
+@RestController
+@Conditional(SecondaryIndexesCondition.class)
+@RequestMapping("/admin/links")
+@Tag(name = "Link audit (admin)", description = "Creation-time range queries and retention")
+public class LinkAuditController {
+
+    private final LinkAuditService linkAuditService;
+
+    public LinkAuditController(LinkAuditService linkAuditService) {
+        this.linkAuditService = linkAuditService;
+    }
+
+    @Operation(summary = "List links created in a time range",
+            description = "Links are ordered by creation time, then short code. Follow nextCursor until it is null "
+                    + "to read them all.")
+    @GetMapping
+    public ResponseEntity<CreatedLinksResponse> getCreated(
+            @Parameter(description = "Start, inclusive (ISO-8601)", example = "2024-01-01T00:00:00Z")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "End, exclusive (ISO-8601)", example = "2024-02-01T00:00:00Z")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @Parameter(description = "nextCursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, at most " + LinkAuditService.MAX_PAGE_SIZE)
+            @RequestParam(defaultValue = "100") int limit) {
+        LinkPage page = linkAuditService.findCreatedBetween(from, to, cursor, limit);
+        return ResponseEntity.ok(new CreatedLinksResponse(
+                from.toString(), to.toString(),
+                page.links().stream()
+                        .map(link -> new CreatedLinksResponse.Link(link.getShortCode(), linkAuditService.shortUrl(link),
+                                link.getOriginalUrl(), link.getCreatedAt().toString()))
+                        .toList(),
+                page.nextCursor()));
+    }
+
+    @Operation(summary = "Delete links created before an instant",
+            description = "Retention cleanup. Time partitions that end before the cutoff are dropped from the "
+                    + "index whole; their mappings, and the older part of the partition containing the cutoff, "
+                    + "are deleted from the repository.")
+    @DeleteMapping
+    public ResponseEntity<RetentionResponse> deleteCreatedBefore(
+            @Parameter(description = "Cutoff (ISO-8601)", example = "2024-01-01T00:00:00Z")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdBefore) {
+        RetentionResult result = linkAuditService.deleteCreatedBefore(createdBefore);
+        return ResponseEntity.ok(new RetentionResponse(result.cutoff().toString(), result.partitionsDropped(),
+                result.deleted()));
+    }
+}
@@ -0,0 +1,85 @@
+package com.urlshortener.controllers;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.urlshortener.controllers.Response.MemoryFootprintResponse;
+import com.urlshortener.memory.MemoryAccountable;
+import com.urlshortener.memory.StructureFootprint;
+import com.urlshortener.repositories.UrlRepository;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Admin API reporting estimated heap usage of the stored mappings.
+ *
+ * Endpoints:
+ *   GET /admin/memory   — Entries and estimated bytes per structure, projected capacity
+ */
+@RestController
+@RequestMapping("/admin/memory")
+@Tag(name = "Memory (admin)", description = "Estimated heap footprint of mappings, indexes and caches")
+public class MemoryAdminController {
+
+    private final UrlRepository urlRepository;
+    private final List<MemoryAccountable> accountables;
+
+    public MemoryAdminController(UrlRepository urlRepository, List<MemoryAccountable> accountables) {
+        this.urlRepository = urlRepository;
+        this.accountables = accountables;
+    }
+
+    @Operation(summary = "Get the memory footprint",
+            description = "Estimates are maintained on every write, so this does not walk the heap and is safe to poll.")
+    @GetMapping
+    public ResponseEntity<MemoryFootprintResponse> getFootprint() {
+        List<MemoryFootprintResponse.Structure> structures = new ArrayList<>();
+        long estimatedBytes = 0;
+        for (MemoryAccountable accountable : accountables) {
+            for (StructureFootprint structure : accountable.memoryFootprint()) {
+                structures.add(new MemoryFootprintResponse.Structure(
+                        structure.name(), structure.entries(), structure.bytes()));
+                estimatedBytes += structure.bytes();
+            }
+        }
+
+        long mappings = urlRepository.count();
+        long average = mappings > 0 ? estimatedBytes / mappings : 0;
+        long live = heapLiveBytes();
+        long max = Runtime.getRuntime().maxMemory();
+        Long projected = average > 0 ? mappings + Math.max(0, max - live) / average : null;
+
+        return ResponseEntity.ok(new MemoryFootprintResponse(
+                structures, mappings, estimatedBytes, average, live, max, projected));
+    }
+
+    /**
+     * Heap occupancy right after the last collection, which excludes garbage;
+     * current usage if no collection has run yet.
+     */
+    private static long heapLiveBytes() {
+        long afterGc = 0;
+        long current = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP) {
+                continue;
+            }
+            MemoryUsage collected = pool.getCollectionUsage();
+            if (collected != null) {
+                afterGc += collected.getUsed();
+            }
+            current += pool.getUsage().getUsed();
+        }
+        return afterGc > 0 ? afterGc : current;
+    }
+}
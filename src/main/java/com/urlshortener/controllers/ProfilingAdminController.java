@@ -0,0 +1,92 @@
+package com.urlshortener.controllers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.urlshortener.controllers.Response.ProfilingStatusResponse;
+import com.urlshortener.profiling.ProfilingService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Admin API for on-demand JDK Flight Recorder profiling.
+ *
+ * Endpoints:
+ *   GET  /admin/profiling         — State of the current recording
+ *   POST /admin/profiling/start   — Start a bounded recording
+ *   POST /admin/profiling/stop    — Stop it and download the .jfr file
+ */
+@RestController
+@RequestMapping("/admin/profiling")
+@Tag(name = "Profiling (admin)", description = "On-demand Flight Recorder recordings")
+public class ProfilingAdminController {
+
+    private final ProfilingService profilingService;
+
+    public ProfilingAdminController(ProfilingService profilingService) {
+        this.profilingService = profilingService;
+    }
+
+    @Operation(summary = "Get the recording state")
+    @GetMapping
+    public ResponseEntity<ProfilingStatusResponse> getStatus() {
+        return ResponseEntity.ok(toResponse(profilingService.status()));
+    }
+
+    @Operation(summary = "Start a recording",
+            description = "Records JDK profiling events and the application's own events until the duration "
+                    + "elapses or the recording is stopped. Returns 409 if one is already running.")
+    @PostMapping("/start")
+    public ResponseEntity<ProfilingStatusResponse> start(
+            @Parameter(description = "Recording duration in seconds") @RequestParam(defaultValue = "60") long durationSeconds,
+            @Parameter(description = "Cap on recorded data in megabytes") @RequestParam(defaultValue = "64") long maxSizeMb,
+            @Parameter(description = "Skip application events shorter than this") @RequestParam(defaultValue = "0") long thresholdMillis) {
+        ProfilingService.Status status = profilingService.start(Duration.ofSeconds(durationSeconds),
+                maxSizeMb * 1024 * 1024, Duration.ofMillis(thresholdMillis));
+        return ResponseEntity.ok(toResponse(status));
+    }
+
+    @Operation(summary = "Stop the recording and download it",
+            description = "Streams the recording as a .jfr file for JDK Mission Control or `jfr print`. "
+                    + "Also works after the duration has elapsed. Returns 404 if there is no recording.")
+    @PostMapping("/stop")
+    public ResponseEntity<StreamingResponseBody> stop() {
+        Path file = profilingService.stop();
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(body);
+    }
+
+    private static ProfilingStatusResponse toResponse(ProfilingService.Status status) {
+        return new ProfilingStatusResponse(
+                status.state(),
+                status.startedAt() != null ? status.startedAt().toString() : null,
+                status.duration() != null ? status.duration().toSeconds() : null,
+                status.startedAt() != null ? status.maxSizeBytes() : null,
+                status.startedAt() != null ? status.sizeBytes() : null,
+                status.threshold() != null ? status.threshold().toMillis() : null);
+    }
+}
@@ -0,0 +1,59 @@
+package com.urlshortener.controllers;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.urlshortener.qr.QrImageCache;
+import com.urlshortener.qr.QrRenderer;
+import com.urlshortener.services.QrCodeService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * QR codes of short links.
+ *
+ * Endpoints:
+ *   GET /{shortCode}/qr   — PNG or SVG image of the short URL as a QR code
+ *
+ * The body is the cached array itself: the byte array converter writes it
+ * straight to the response stream, with no copy or re-encoding per request.
+ * Spring answers If-None-Match with 304 from the ETag on the response.
+ */
+@RestController
+@Tag(name = "QR codes", description = "QR code images of short links")
+public class QrCodeController {
+
+    private final QrCodeService qrCodeService;
+
+    public QrCodeController(QrCodeService qrCodeService) {
+        this.qrCodeService = qrCodeService;
+    }
+
+    @Operation(summary = "QR code of a short link",
+            description = "Encodes the short URL with a four-module quiet zone. A PNG uses whole pixels per module, "
+                    + "so it may be slightly smaller than the requested size; an SVG is exactly that size.")
+    @GetMapping("/{shortCode}/qr")
+    public ResponseEntity<byte[]> getQrCode(
+            @PathVariable String shortCode,
+            @Parameter(description = "Image width and height in pixels, " + QrCodeService.MIN_SIZE + " to "
+                    + QrCodeService.MAX_SIZE) @RequestParam(defaultValue = "256") int size,
+            @Parameter(description = "`png` or `svg`") @RequestParam(defaultValue = "png") String format) {
+        QrRenderer.Format imageFormat = QrRenderer.Format.of(format);
+        QrImageCache.Image image = qrCodeService.render(shortCode, imageFormat, size);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(imageFormat.contentType()))
+                .contentLength(image.bytes().length)
+                .eTag(image.etag())
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic())
+                .body(image.bytes());
+    }
+}
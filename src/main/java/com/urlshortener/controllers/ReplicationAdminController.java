@@ -0,0 +1,50 @@
+package com.urlshortener.controllers;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.urlshortener.controllers.Response.ReplicationStatusResponse;
+import com.urlshortener.replication.ReplicationFollower;
+import com.urlshortener.replication.ReplicationLeader;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Admin API reporting replication state.
+ *
+ * Endpoints:
+ *   GET /admin/replication   — Role, log position and lag of this node
+ */
+@RestController
+@Tag(name = "Replication (admin)", description = "Leader/follower replication status")
+public class ReplicationAdminController {
+
+    private final ObjectProvider<ReplicationLeader> leader;
+    private final ObjectProvider<ReplicationFollower> follower;
+
+    public ReplicationAdminController(ObjectProvider<ReplicationLeader> leader,
+                                      ObjectProvider<ReplicationFollower> follower) {
+        this.leader = leader;
+        this.follower = follower;
+    }
+
+    @Operation(summary = "Replication status",
+            description = "On a leader: head sequence and each follower's acknowledged position. "
+                    + "On a follower: connection state, applied sequence and replication lag.")
+    @GetMapping("/admin/replication")
+    public ResponseEntity<ReplicationStatusResponse> status() {
+        ReplicationLeader l = leader.getIfAvailable();
+        if (l != null) {
+            return ResponseEntity.ok(ReplicationStatusResponse.leader(l.headSequence(), l.followers()));
+        }
+        ReplicationFollower f = follower.getIfAvailable();
+        if (f != null) {
+            return ResponseEntity.ok(ReplicationStatusResponse.follower(
+                    f.isConnected(), f.appliedSequence(), f.lagEvents(), f.lagMillis()));
+        }
+        return ResponseEntity.ok(new ReplicationStatusResponse("none"));
+    }
+}
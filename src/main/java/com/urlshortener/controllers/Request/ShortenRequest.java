@@ -15,12 +15,25 @@ public class ShortenRequest {
     )
     private String url;
 
+    @Schema(
+            description = "Optional vanity alias to use instead of a generated code. "
+                    + "3-64 characters of [a-zA-Z0-9_-].",
+            example = "spring-sale",
+            requiredMode = Schema.RequiredMode.NOT_REQUIRED
+    )
+    private String alias;
+
     public ShortenRequest() {}
 
     public ShortenRequest(String url) {
         this.url = url;
     }
 
+    public ShortenRequest(String url, String alias) {
+        this.url = url;
+        this.alias = alias;
+    }
+
     public String getUrl() {
         return url;
     }
@@ -28,4 +41,12 @@ public class ShortenRequest {
     public void setUrl(String url) {
         this.url = url;
     }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public void setAlias(String alias) {
+        this.alias = alias;
+    }
 }
@@ -0,0 +1,33 @@
+package com.urlshortener.controllers.Request;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Request body for merging unique-visitor sketches.
+ */
+@Schema(description = "Base64-encoded visitor sketches to merge, as returned by GET /{shortCode}/stats?sketch=true")
+public class VisitorUnionRequest {
+
+    @Schema(
+            description = "Sketches of the same precision, e.g. one link's sketch from every node",
+            example = "[\"DAADAQIDBA==\", \"DAADBQYHCA==\"]",
+            requiredMode = Schema.RequiredMode.REQUIRED
+    )
+    private List<String> sketches;
+
+    public VisitorUnionRequest() {}
+
+    public VisitorUnionRequest(List<String> sketches) {
+        this.sketches = sketches;
+    }
+
+    public List<String> getSketches() {
+        return sketches;
+    }
+
+    public void setSketches(List<String> sketches) {
+        this.sketches = sketches;
+    }
+}
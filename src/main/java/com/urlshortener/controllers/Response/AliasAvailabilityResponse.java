@@ -0,0 +1,37 @@
+package com.urlshortener.controllers.Response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Response body for a vanity alias availability check.
+ */
+@Schema(description = "Whether a vanity alias can still be claimed")
+public class AliasAvailabilityResponse {
+
+    @Schema(description = "The alias that was checked", example = "spring-sale")
+    private final String alias;
+
+    @Schema(description = "True if the alias is well-formed and not taken", example = "true")
+    private final boolean available;
+
+    @Schema(description = "Number of existing aliases that start with this alias", example = "0")
+    private final int aliasesWithPrefix;
+
+    public AliasAvailabilityResponse(String alias, boolean available, int aliasesWithPrefix) {
+        this.alias = alias;
+        this.available = available;
+        this.aliasesWithPrefix = aliasesWithPrefix;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public int getAliasesWithPrefix() {
+        return aliasesWithPrefix;
+    }
+}
@@ -0,0 +1,40 @@
+package com.urlshortener.controllers.Response;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Response body listing vanity aliases that share a prefix.
+ */
+@Schema(description = "Vanity aliases starting with the requested prefix")
+public class AliasListResponse {
+
+    @Schema(description = "The prefix that was queried", example = "spring")
+    private final String prefix;
+
+    @Schema(description = "Total number of aliases starting with the prefix", example = "2")
+    private final int total;
+
+    @Schema(description = "Matching aliases in lexicographic order, truncated to the requested limit",
+            example = "[\"spring-launch\", \"spring-sale\"]")
+    private final List<String> aliases;
+
+    public AliasListResponse(String prefix, int total, List<String> aliases) {
+        this.prefix = prefix;
+        this.total = total;
+        this.aliases = aliases;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public List<String> getAliases() {
+        return aliases;
+    }
+}
@@ -0,0 +1,114 @@
+package com.urlshortener.controllers.Response;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Response body for one batch of the change feed.
+ */
+@Schema(description = "Consecutive changes to the mappings, oldest first")
+public class ChangeBatchResponse {
+
+    @Schema(description = "Changes in this batch; empty if none arrived before the wait ended")
+    private final List<Change> changes;
+
+    @Schema(description = "Sequence number of the last change in the batch", example = "1042")
+    private final long lastSequence;
+
+    @Schema(description = "Where the next batch starts; pass as ?after= for the next one", example = "k3x9q2ab7d:1042")
+    private final String cursor;
+
+    @Schema(description = "Highest sequence number in the feed when the batch was read", example = "1042")
+    private final long headSequence;
+
+    public ChangeBatchResponse(List<Change> changes, long lastSequence, String cursor, long headSequence) {
+        this.changes = changes;
+        this.lastSequence = lastSequence;
+        this.cursor = cursor;
+        this.headSequence = headSequence;
+    }
+
+    public List<Change> getChanges() {
+        return changes;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public long getHeadSequence() {
+        return headSequence;
+    }
+
+    /**
+     * One saved or removed mapping.
+     */
+    @Schema(description = "A mapping as it was saved, or as it was before it was removed")
+    public static class Change {
+
+        @Schema(description = "Position of the change in this node's feed", example = "1042")
+        private final long sequence;
+
+        @Schema(description = "SAVED or REMOVED", example = "SAVED")
+        private final String type;
+
+        @Schema(description = "Tenant id; empty for the default tenant", example = "")
+        private final String tenant;
+
+        @Schema(description = "Short code or vanity alias", example = "aB3cD4e")
+        private final String shortCode;
+
+        @Schema(description = "URL the short link redirects to", example = "https://www.youtube.com/watch?v=dQw4w9WgXcQ")
+        private final String originalUrl;
+
+        @Schema(description = "Whether the short code is a vanity alias", example = "false")
+        private final boolean alias;
+
+        @Schema(description = "When the link was created (ISO-8601)", example = "2024-01-15T10:30:00Z")
+        private final String createdAt;
+
+        public Change(long sequence, String type, String tenant, String shortCode, String originalUrl,
+                      boolean alias, String createdAt) {
+            this.sequence = sequence;
+            this.type = type;
+            this.tenant = tenant;
+            this.shortCode = shortCode;
+            this.originalUrl = originalUrl;
+            this.alias = alias;
+            this.createdAt = createdAt;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getTenant() {
+            return tenant;
+        }
+
+        public String getShortCode() {
+            return shortCode;
+        }
+
+        public String getOriginalUrl() {
+            return originalUrl;
+        }
+
+        public boolean isAlias() {
+            return alias;
+        }
+
+        public String getCreatedAt() {
+            return createdAt;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.urlshortener.controllers.Response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Response body for single-flight coalescing counters.
+ */
+@Schema(description = "How many shorten and resolve calls ran versus shared an in-flight call")
+public class CoalescingStatsResponse {
+
+    @Schema(description = "Shorten computations actually run", example = "1200")
+    private final long shortenExecutions;
+
+    @Schema(description = "Shorten calls that shared a concurrent call for the same URL", example = "340")
+    private final long shortenCoalesced;
+
+    @Schema(description = "Whether concurrent resolves of the same code are coalesced", example = "false")
+    private final boolean resolveCoalescingEnabled;
+
+    @Schema(description = "Resolve lookups actually run through the coalescer", example = "0")
+    private final long resolveExecutions;
+
+    @Schema(description = "Resolve calls that shared a concurrent lookup of the same code", example = "0")
+    private final long resolveCoalesced;
+
+    public CoalescingStatsResponse(long shortenExecutions, long shortenCoalesced,
+                                   boolean resolveCoalescingEnabled, long resolveExecutions, long resolveCoalesced) {
+        this.shortenExecutions = shortenExecutions;
+        this.shortenCoalesced = shortenCoalesced;
+        this.resolveCoalescingEnabled = resolveCoalescingEnabled;
+        this.resolveExecutions = resolveExecutions;
+        this.resolveCoalesced = resolveCoalesced;
+    }
+
+    public long getShortenExecutions() {
+        return shortenExecutions;
+    }
+
+    public long getShortenCoalesced() {
+        return shortenCoalesced;
+    }
+
+    public boolean isResolveCoalescingEnabled() {
+        return resolveCoalescingEnabled;
+    }
+
+    public long getResolveExecutions() {
+        return resolveExecutions;
+    }
+
+    public long getResolveCoalesced() {
+        return resolveCoalesced;
+    }
+}
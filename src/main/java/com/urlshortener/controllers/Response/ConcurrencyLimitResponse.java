@@ -0,0 +1,81 @@
+package com.urlshortener.controllers.Response;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Response body for the adaptive concurrency limit and load shedding counters.
+ */
+@Schema(description = "Current concurrency limit, requests in flight, and admitted vs shed requests per priority")
+public class ConcurrencyLimitResponse {
+
+    @Schema(description = "Whether the limit is applied to requests", example = "true")
+    private final boolean enabled;
+
+    @Schema(description = "Current limit on requests in flight", example = "24")
+    private final int limit;
+
+    @Schema(description = "Requests in flight now", example = "7")
+    private final int inFlight;
+
+    @Schema(description = "Counters per priority, highest first")
+    private final List<PriorityClass> priorities;
+
+    public ConcurrencyLimitResponse(boolean enabled, int limit, int inFlight, List<PriorityClass> priorities) {
+        this.enabled = enabled;
+        this.limit = limit;
+        this.inFlight = inFlight;
+        this.priorities = priorities;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public List<PriorityClass> getPriorities() {
+        return priorities;
+    }
+
+    /**
+     * Counters since startup for one priority.
+     */
+    @Schema(description = "Admitted and shed requests of one priority")
+    public static class PriorityClass {
+
+        @Schema(description = "Priority: CRITICAL (redirects), NORMAL (shorten) or LOW (metrics)", example = "LOW")
+        private final String priority;
+
+        @Schema(description = "Requests admitted", example = "1200")
+        private final long admitted;
+
+        @Schema(description = "Requests rejected with 503", example = "85")
+        private final long shed;
+
+        public PriorityClass(String priority, long admitted, long shed) {
+            this.priority = priority;
+            this.admitted = admitted;
+            this.shed = shed;
+        }
+
+        public String getPriority() {
+            return priority;
+        }
+
+        public long getAdmitted() {
+            return admitted;
+        }
+
+        public long getShed() {
+            return shed;
+        }
+    }
+}
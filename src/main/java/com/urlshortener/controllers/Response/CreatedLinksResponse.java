@@ -0,0 +1,89 @@
+package com.urlshortener.controllers.Response;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Response body for one page of links created within a time range.
+ */
+@Schema(description = "One page of links created in [from, to), oldest first")
+public class CreatedLinksResponse {
+
+    @Schema(description = "Start of the range, inclusive (ISO-8601)", example = "2024-01-01T00:00:00Z")
+    private final String from;
+
+    @Schema(description = "End of the range, exclusive (ISO-8601)", example = "2024-02-01T00:00:00Z")
+    private final String to;
+
+    @Schema(description = "Links on this page")
+    private final List<Link> links;
+
+    @Schema(description = "Pass as ?cursor= to get the next page; null on the last page", example = "1705314600000.aB3cD4e")
+    private final String nextCursor;
+
+    public CreatedLinksResponse(String from, String to, List<Link> links, String nextCursor) {
+        this.from = from;
+        this.to = to;
+        this.links = links;
+        this.nextCursor = nextCursor;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public List<Link> getLinks() {
+        return links;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * One short link.
+     */
+    @Schema(description = "A short link, its destination and creation time")
+    public static class Link {
+
+        @Schema(description = "Short code or vanity alias", example = "aB3cD4e")
+        private final String shortCode;
+
+        @Schema(description = "Complete short URL", example = "http://localhost:8080/aB3cD4e")
+        private final String shortUrl;
+
+        @Schema(description = "URL the short link redirects to", example = "https://www.youtube.com/watch?v=dQw4w9WgXcQ")
+        private final String originalUrl;
+
+        @Schema(description = "When the link was created (ISO-8601)", example = "2024-01-15T10:30:00Z")
+        private final String createdAt;
+
+        public Link(String shortCode, String shortUrl, String originalUrl, String createdAt) {
+            this.shortCode = shortCode;
+            this.shortUrl = shortUrl;
+            this.originalUrl = originalUrl;
+            this.createdAt = createdAt;
+        }
+
+        public String getShortCode() {
+            return shortCode;
+        }
+
+        public String getShortUrl() {
+            return shortUrl;
+        }
+
+        public String getOriginalUrl() {
+            return originalUrl;
+        }
+
+        public String getCreatedAt() {
+            return createdAt;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.urlshortener.controllers.Response;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Response body for one page of short links pointing at a domain.
+ */
+@Schema(description = "One page of short links for a domain, in short-code order")
+public class DomainLinksResponse {
+
+    @Schema(description = "Domain queried, lower case and without www.", example = "youtube.com")
+    private final String domain;
+
+    @Schema(description = "Links on this page")
+    private final List<Link> links;
+
+    @Schema(description = "Pass as ?cursor= to get the next page; null on the last page", example = "aB3cD4e")
+    private final String nextCursor;
+
+    public DomainLinksResponse(String domain, List<Link> links, String nextCursor) {
+        this.domain = domain;
+        this.links = links;
+        this.nextCursor = nextCursor;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+
+    public List<Link> getLinks() {
+        return links;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * One short link.
+     */
+    @Schema(description = "A short link and the URL it redirects to")
+    public static class Link {
+
+        @Schema(description = "Short code or vanity alias", example = "aB3cD4e")
+        private final String shortCode;
+
+        @Schema(description = "Complete short URL", example = "http://localhost:8080/aB3cD4e")
+        private final String shortUrl;
+
+        @Schema(description = "URL the short link redirects to", example = "https://www.youtube.com/watch?v=dQw4w9WgXcQ")
+        private final String originalUrl;
+
+        @Schema(description = "When the link was created (ISO-8601)", example = "2024-01-15T10:30:00Z")
+        private final String createdAt;
+
+        public Link(String shortCode, String shortUrl, String originalUrl, String createdAt) {
+            this.shortCode = shortCode;
+            this.shortUrl = shortUrl;
+            this.originalUrl = originalUrl;
+            this.createdAt = createdAt;
+        }
+
+        public String getShortCode() {
+            return shortCode;
+        }
+
+        public String getShortUrl() {
+            return shortUrl;
+        }
+
+        public String getOriginalUrl() {
+            return originalUrl;
+        }
+
+        public String getCreatedAt() {
+            return createdAt;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.urlshortener.controllers.Response;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Response body for estimated heap usage of the stored mappings and their indexes.
+ */
+@Schema(description = "Estimated retained heap per data structure and projected capacity")
+public class MemoryFootprintResponse {
+
+    @Schema(description = "Entries and estimated retained bytes per structure")
+    private final List<Structure> structures;
+
+    @Schema(description = "Stored mappings", example = "1000000")
+    private final long mappings;
+
+    @Schema(description = "Sum of the structure estimates in bytes", example = "271000000")
+    private final long estimatedBytes;
+
+    @Schema(description = "Estimated bytes per stored mapping, across all structures", example = "271")
+    private final long averageBytesPerMapping;
+
+    @Schema(description = "Heap occupied after the most recent GC, or currently used if no GC has run yet", example = "402653184")
+    private final long heapLiveBytes;
+
+    @Schema(description = "Maximum heap size (-Xmx or MaxRAMPercentage of the container limit)", example = "3221225472")
+    private final long heapMaxBytes;
+
+    @Schema(description = "Mappings that would fit in the maximum heap at the current average, "
+            + "assuming everything else stays the same size; null while there are no mappings", example = "11400000")
+    private final Long projectedMaxMappings;
+
+    public MemoryFootprintResponse(List<Structure> structures, long mappings, long estimatedBytes,
+                                   long averageBytesPerMapping, long heapLiveBytes, long heapMaxBytes,
+                                   Long projectedMaxMappings) {
+        this.structures = structures;
+        this.mappings = mappings;
+        this.estimatedBytes = estimatedBytes;
+        this.averageBytesPerMapping = averageBytesPerMapping;
+        this.heapLiveBytes = heapLiveBytes;
+        this.heapMaxBytes = heapMaxBytes;
+        this.projectedMaxMappings = projectedMaxMappings;
+    }
+
+    public List<Structure> getStructures() {
+        return structures;
+    }
+
+    public long getMappings() {
+        return mappings;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public long getAverageBytesPerMapping() {
+        return averageBytesPerMapping;
+    }
+
+    public long getHeapLiveBytes() {
+        return heapLiveBytes;
+    }
+
+    public long getHeapMaxBytes() {
+        return heapMaxBytes;
+    }
+
+    public Long getProjectedMaxMappings() {
+        return projectedMaxMappings;
+    }
+
+    /**
+     * One data structure, e.g. the short-code hash index.
+     */
+    @Schema(description = "Estimated footprint of one data structure")
+    public static class Structure {
+
+        @Schema(description = "Structure name", example = "byShortCode")
+        private final String name;
+
+        @Schema(description = "Number of entries", example = "1000000")
+        private final long entries;
+
+        @Schema(description = "Estimated retained bytes", example = "40388608")
+        private final long estimatedBytes;
+
+        public Structure(String name, long entries, long estimatedBytes) {
+            this.name = name;
+            this.entries = entries;
+            this.estimatedBytes = estimatedBytes;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getEntries() {
+            return entries;
+        }
+
+        public long getEstimatedBytes() {
+            return estimatedBytes;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.urlshortener.controllers.Response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Response body describing the on-demand JFR recording.
+ * Fields other than state are omitted when there is no recording.
+ */
+@Schema(description = "State of the on-demand Flight Recorder recording")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProfilingStatusResponse {
+
+    @Schema(description = "NONE, RUNNING, or STOPPED once the duration has elapsed", example = "RUNNING")
+    private final String state;
+
+    @Schema(description = "When the recording was started (ISO-8601)", example = "2024-01-15T10:30:00Z")
+    private final String startedAt;
+
+    @Schema(description = "Recording duration in seconds", example = "60")
+    private final Long durationSeconds;
+
+    @Schema(description = "Cap on recorded data in bytes", example = "67108864")
+    private final Long maxSizeBytes;
+
+    @Schema(description = "Recorded data so far in bytes", example = "1843200")
+    private final Long sizeBytes;
+
+    @Schema(description = "Application events shorter than this many milliseconds are not recorded", example = "0")
+    private final Long thresholdMillis;
+
+    public ProfilingStatusResponse(String state, String startedAt, Long durationSeconds,
+                                   Long maxSizeBytes, Long sizeBytes, Long thresholdMillis) {
+        this.state = state;
+        this.startedAt = startedAt;
+        this.durationSeconds = durationSeconds;
+        this.maxSizeBytes = maxSizeBytes;
+        this.sizeBytes = sizeBytes;
+        this.thresholdMillis = thresholdMillis;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public String getStartedAt() {
+        return startedAt;
+    }
+
+    public Long getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public Long getMaxSizeBytes() {
+        return maxSizeBytes;
+    }
+
+    public Long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public Long getThresholdMillis() {
+        return thresholdMillis;
+    }
+}
@@ -0,0 +1,38 @@
+package com.urlshortener.controllers.Response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Response body for the readiness probe.
+ */
+@Schema(description = "Whether the application takes traffic yet, and how its warm-up went")
+public class ReadinessResponse {
+
+    @Schema(description = "ACCEPTING_TRAFFIC once startup and warm-up are done, else REFUSING_TRAFFIC",
+            example = "ACCEPTING_TRAFFIC")
+    private final String status;
+
+    @Schema(description = "Milliseconds the warm-up took; -1 while it runs or if it is disabled", example = "850")
+    private final long warmupMillis;
+
+    @Schema(description = "Hot short codes from the previous run preloaded into the repository", example = "10000")
+    private final int preloadedCodes;
+
+    public ReadinessResponse(String status, long warmupMillis, int preloadedCodes) {
+        this.status = status;
+        this.warmupMillis = warmupMillis;
+        this.preloadedCodes = preloadedCodes;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public long getWarmupMillis() {
+        return warmupMillis;
+    }
+
+    public int getPreloadedCodes() {
+        return preloadedCodes;
+    }
+}
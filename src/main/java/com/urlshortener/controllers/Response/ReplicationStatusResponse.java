@@ -0,0 +1,67 @@
+package com.urlshortener.controllers.Response;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.urlshortener.replication.ReplicationLeader.FollowerStatus;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Response body describing this node's replication role and lag.
+ * Leader-only and follower-only fields are omitted for the other role.
+ */
+@Schema(description = "Replication role and lag of this node")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReplicationStatusResponse {
+
+    @Schema(description = "leader, follower or none", example = "follower")
+    private final String role;
+
+    @Schema(description = "Leader: sequence of the latest logged event", example = "10542")
+    private Long headSequence;
+
+    @Schema(description = "Leader: connected followers and their acknowledged position")
+    private List<FollowerStatus> followers;
+
+    @Schema(description = "Follower: whether the leader connection is up", example = "true")
+    private Boolean connected;
+
+    @Schema(description = "Follower: last applied leader sequence", example = "10540")
+    private Long appliedSequence;
+
+    @Schema(description = "Follower: leader events not yet applied", example = "2")
+    private Long lagEvents;
+
+    @Schema(description = "Follower: milliseconds this node has been behind the leader (0 when caught up)", example = "3")
+    private Long lagMillis;
+
+    public ReplicationStatusResponse(String role) {
+        this.role = role;
+    }
+
+    public static ReplicationStatusResponse leader(long headSequence, List<FollowerStatus> followers) {
+        ReplicationStatusResponse response = new ReplicationStatusResponse("leader");
+        response.headSequence = headSequence;
+        response.followers = followers;
+        return response;
+    }
+
+    public static ReplicationStatusResponse follower(boolean connected, long appliedSequence,
+                                                     long lagEvents, long lagMillis) {
+        ReplicationStatusResponse response = new ReplicationStatusResponse("follower");
+        response.connected = connected;
+        response.appliedSequence = appliedSequence;
+        response.lagEvents = lagEvents;
+        response.lagMillis = lagMillis;
+        return response;
+    }
+
+    public String getRole() { return role; }
+    public Long getHeadSequence() { return headSequence; }
+    public List<FollowerStatus> getFollowers() { return followers; }
+    public Boolean getConnected() { return connected; }
+    public Long getAppliedSequence() { return appliedSequence; }
+    public Long getLagEvents() { return lagEvents; }
+    public Long getLagMillis() { return lagMillis; }
+}
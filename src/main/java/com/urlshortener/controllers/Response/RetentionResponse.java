@@ -0,0 +1,37 @@
+package com.urlshortener.controllers.Response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Response body for a retention run.
+ */
+@Schema(description = "Outcome of deleting links older than a cutoff")
+public class RetentionResponse {
+
+    @Schema(description = "Links created before this instant were deleted (ISO-8601)", example = "2024-01-01T00:00:00Z")
+    private final String createdBefore;
+
+    @Schema(description = "Whole time partitions dropped from the creation-time index", example = "720")
+    private final int partitionsDropped;
+
+    @Schema(description = "Mappings deleted", example = "1250000")
+    private final long deleted;
+
+    public RetentionResponse(String createdBefore, int partitionsDropped, long deleted) {
+        this.createdBefore = createdBefore;
+        this.partitionsDropped = partitionsDropped;
+        this.deleted = deleted;
+    }
+
+    public String getCreatedBefore() {
+        return createdBefore;
+    }
+
+    public int getPartitionsDropped() {
+        return partitionsDropped;
+    }
+
+    public long getDeleted() {
+        return deleted;
+    }
+}
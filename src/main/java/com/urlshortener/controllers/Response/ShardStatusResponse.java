@@ -0,0 +1,32 @@
+package com.urlshortener.controllers.Response;
+
+import java.util.Map;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Response body describing the shard layout of the sharded repository.
+ */
+@Schema(description = "Shard layout and rebalancing state")
+public class ShardStatusResponse {
+
+    @Schema(description = "True while keys are migrating onto a newly added shard", example = "false")
+    private final boolean rebalancing;
+
+    @Schema(description = "Mapping count per shard id",
+            example = "{\"shard-0\": 2510, \"shard-1\": 2489}")
+    private final Map<String, Long> shards;
+
+    public ShardStatusResponse(boolean rebalancing, Map<String, Long> shards) {
+        this.rebalancing = rebalancing;
+        this.shards = shards;
+    }
+
+    public boolean isRebalancing() {
+        return rebalancing;
+    }
+
+    public Map<String, Long> getShards() {
+        return shards;
+    }
+}
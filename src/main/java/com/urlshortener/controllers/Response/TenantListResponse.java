@@ -0,0 +1,65 @@
+package com.urlshortener.controllers.Response;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Response body listing the tenants and their link quotas.
+ */
+@Schema(description = "Tenants served by this deployment")
+public class TenantListResponse {
+
+    @Schema(description = "The default tenant first, then the others by id")
+    private final List<TenantInfo> tenants;
+
+    public TenantListResponse(List<TenantInfo> tenants) {
+        this.tenants = tenants;
+    }
+
+    public List<TenantInfo> getTenants() {
+        return tenants;
+    }
+
+    /**
+     * One tenant and its usage.
+     */
+    @Schema(description = "A tenant, its base URL and its link quota")
+    public static class TenantInfo {
+
+        @Schema(description = "Tenant id, empty for the default tenant", example = "acme")
+        private final String id;
+
+        @Schema(description = "Prefix of the tenant's short URLs", example = "https://go.acme.com")
+        private final String baseUrl;
+
+        @Schema(description = "Links stored, or -1 when no tenant has a quota", example = "1520")
+        private final long links;
+
+        @Schema(description = "Most links the tenant may create, 0 for no quota", example = "100000")
+        private final long maxLinks;
+
+        public TenantInfo(String id, String baseUrl, long links, long maxLinks) {
+            this.id = id;
+            this.baseUrl = baseUrl;
+            this.links = links;
+            this.maxLinks = maxLinks;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+
+        public long getLinks() {
+            return links;
+        }
+
+        public long getMaxLinks() {
+            return maxLinks;
+        }
+    }
+}
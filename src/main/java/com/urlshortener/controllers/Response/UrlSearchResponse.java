@@ -0,0 +1,89 @@
+package com.urlshortener.controllers.Response;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Response body for a substring search over original URLs.
+ */
+@Schema(description = "Mappings whose original URL contains the search text")
+public class UrlSearchResponse {
+
+    @Schema(description = "Search text as given", example = "/wp-includes/kit/")
+    private final String query;
+
+    @Schema(description = "Matching mappings, oldest first")
+    private final List<Match> matches;
+
+    @Schema(description = "Mappings the trigram index could not rule out", example = "14")
+    private final int candidates;
+
+    @Schema(description = "Candidates checked against the stored URL", example = "14")
+    private final int verified;
+
+    @Schema(description = "Whether more matches may exist beyond the limit", example = "false")
+    private final boolean truncated;
+
+    public UrlSearchResponse(String query, List<Match> matches, int candidates, int verified, boolean truncated) {
+        this.query = query;
+        this.matches = matches;
+        this.candidates = candidates;
+        this.verified = verified;
+        this.truncated = truncated;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public List<Match> getMatches() {
+        return matches;
+    }
+
+    public int getCandidates() {
+        return candidates;
+    }
+
+    public int getVerified() {
+        return verified;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * One matching mapping.
+     */
+    @Schema(description = "A short link whose original URL contains the search text")
+    public static class Match {
+
+        @Schema(description = "Short code or vanity alias", example = "aB3cD4e")
+        private final String shortCode;
+
+        @Schema(description = "Complete short URL", example = "http://localhost:8080/aB3cD4e")
+        private final String shortUrl;
+
+        @Schema(description = "Original URL", example = "https://compromised.example/wp-includes/kit/login.php")
+        private final String originalUrl;
+
+        public Match(String shortCode, String shortUrl, String originalUrl) {
+            this.shortCode = shortCode;
+            this.shortUrl = shortUrl;
+            this.originalUrl = originalUrl;
+        }
+
+        public String getShortCode() {
+            return shortCode;
+        }
+
+        public String getShortUrl() {
+            return shortUrl;
+        }
+
+        public String getOriginalUrl() {
+            return originalUrl;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.urlshortener.controllers.Response;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Response body for a link's unique-visitor stats.
+ */
+@Schema(description = "Approximate unique visitors to one short link")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class VisitorStatsResponse {
+
+    @Schema(description = "The short code", example = "aB3cD4e")
+    private final String shortCode;
+
+    @Schema(description = "UTC days covered, ending today", example = "7")
+    private final int days;
+
+    @Schema(description = "Estimated distinct visitors over the whole period", example = "1834")
+    private final long uniqueVisitors;
+
+    @Schema(description = "Relative standard error of the estimates", example = "0.01625")
+    private final double standardError;
+
+    @Schema(description = "Estimate for each day, oldest first")
+    private final List<Day> daily;
+
+    @Schema(description = "Base64-encoded sketch of the period, only if sketch=true; merge sketches with "
+            + "POST /admin/visitors/union")
+    private final String sketch;
+
+    public VisitorStatsResponse(String shortCode, int days, long uniqueVisitors, double standardError,
+                                List<Day> daily, String sketch) {
+        this.shortCode = shortCode;
+        this.days = days;
+        this.uniqueVisitors = uniqueVisitors;
+        this.standardError = standardError;
+        this.daily = daily;
+        this.sketch = sketch;
+    }
+
+    public String getShortCode() {
+        return shortCode;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public long getUniqueVisitors() {
+        return uniqueVisitors;
+    }
+
+    public double getStandardError() {
+        return standardError;
+    }
+
+    public List<Day> getDaily() {
+        return daily;
+    }
+
+    public String getSketch() {
+        return sketch;
+    }
+
+    /**
+     * Unique visitors on one UTC day.
+     */
+    @Schema(description = "Unique visitors on one UTC day")
+    public static class Day {
+
+        @Schema(description = "UTC date", example = "2024-03-01")
+        private final String date;
+
+        @Schema(description = "Estimated distinct visitors that day", example = "312")
+        private final long uniqueVisitors;
+
+        public Day(String date, long uniqueVisitors) {
+            this.date = date;
+            this.uniqueVisitors = uniqueVisitors;
+        }
+
+        public String getDate() {
+            return date;
+        }
+
+        public long getUniqueVisitors() {
+            return uniqueVisitors;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.urlshortener.controllers.Response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Response body for a union of visitor sketches.
+ */
+@Schema(description = "Estimate for the union of several visitor sketches")
+public class VisitorUnionResponse {
+
+    @Schema(description = "Sketches merged", example = "3")
+    private final int merged;
+
+    @Schema(description = "Estimated distinct visitors across all sketches", example = "5120")
+    private final long uniqueVisitors;
+
+    @Schema(description = "Relative standard error of the estimate", example = "0.01625")
+    private final double standardError;
+
+    @Schema(description = "Base64-encoded merged sketch")
+    private final String sketch;
+
+    public VisitorUnionResponse(int merged, long uniqueVisitors, double standardError, String sketch) {
+        this.merged = merged;
+        this.uniqueVisitors = uniqueVisitors;
+        this.standardError = standardError;
+        this.sketch = sketch;
+    }
+
+    public int getMerged() {
+        return merged;
+    }
+
+    public long getUniqueVisitors() {
+        return uniqueVisitors;
+    }
+
+    public double getStandardError() {
+        return standardError;
+    }
+
+    public String getSketch() {
+        return sketch;
+    }
+}
@@ -0,0 +1,54 @@
+package com.urlshortener.controllers;
+
+import org.springframework.context.annotation.Conditional;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.urlshortener.config.SecondaryIndexesCondition;
+import com.urlshortener.controllers.Response.UrlSearchResponse;
+import com.urlshortener.services.UrlSearchService;
+import com.urlshortener.services.UrlSearchService.SearchResult;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Admin API for finding links by a fragment of their original URL.
+ *
+ * Endpoints:
+ *   GET /admin/search?contains=...   — Mappings whose original URL contains the text
+ */
+@RestController
+@Conditional(SecondaryIndexesCondition.class)
+@RequestMapping("/admin/search")
+@Tag(name = "Search (admin)", description = "Substring search over original URLs")
+public class SearchAdminController {
+
+    private final UrlSearchService urlSearchService;
+
+    public SearchAdminController(UrlSearchService urlSearchService) {
+        this.urlSearchService = urlSearchService;
+    }
+
+    @Operation(summary = "Search original URLs",
+            description = "Case-insensitive substring match, e.g. a phishing kit path or a query parameter. "
+                    + "Backed by a trigram index, so the text needs at least 3 characters.")
+    @GetMapping
+    public ResponseEntity<UrlSearchResponse> search(
+            @Parameter(description = "Text the original URL must contain", example = "/wp-includes/kit/")
+            @RequestParam String contains,
+            @Parameter(description = "Maximum matches, at most " + UrlSearchService.MAX_RESULTS)
+            @RequestParam(defaultValue = "100") int limit) {
+        SearchResult result = urlSearchService.search(contains, limit);
+        return ResponseEntity.ok(new UrlSearchResponse(
+                contains,
+                result.matches().stream()
+                        .map(m -> new UrlSearchResponse.Match(m.getShortCode(), urlSearchService.shortUrl(m), m.getOriginalUrl()))
+                        .toList(),
+                result.candidates(), result.verified(), result.truncated()));
+    }
+}
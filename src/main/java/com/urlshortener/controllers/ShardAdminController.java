@@ -0,0 +1,55 @@
+package com.urlshortener.controllers;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.urlshortener.controllers.Response.ShardStatusResponse;
+import com.urlshortener.repositories.InMemoryUrlRepository;
+import com.urlshortener.repositories.sharding.ShardedUrlRepository;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Admin API for the sharded repository. Only registered when app.storage.mode=sharded.
+ *
+ * Endpoints:
+ *   GET  /admin/shards   — Shard sizes and rebalancing state
+ *   POST /admin/shards   — Adds an in-process shard and rebalances online
+ */
+@RestController
+@RequestMapping("/admin/shards")
+@ConditionalOnProperty(name = "app.storage.mode", havingValue = "sharded")
+@Tag(name = "Shards (admin)", description = "Inspect and grow the sharded repository")
+public class ShardAdminController {
+
+    private final ShardedUrlRepository shardedUrlRepository;
+
+    public ShardAdminController(ShardedUrlRepository shardedUrlRepository) {
+        this.shardedUrlRepository = shardedUrlRepository;
+    }
+
+    @Operation(summary = "Shard status", description = "Returns the mapping count per shard and whether a rebalance is running.")
+    @GetMapping
+    public ResponseEntity<ShardStatusResponse> status() {
+        return ResponseEntity.ok(currentStatus());
+    }
+
+    @Operation(summary = "Add a shard",
+            description = "Adds an in-process shard to the ring. Keys it now owns migrate in the background "
+                    + "while reads and writes continue; poll GET /admin/shards until rebalancing is false.")
+    @PostMapping
+    public ResponseEntity<ShardStatusResponse> addShard() {
+        shardedUrlRepository.addShard(new InMemoryUrlRepository());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(currentStatus());
+    }
+
+    private ShardStatusResponse currentStatus() {
+        return new ShardStatusResponse(shardedUrlRepository.isRebalancing(), shardedUrlRepository.shardSizes());
+    }
+}
@@ -0,0 +1,55 @@
+package com.urlshortener.controllers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.urlshortener.controllers.Response.TenantListResponse;
+import com.urlshortener.tenant.Tenant;
+import com.urlshortener.tenant.TenantRegistry;
+import com.urlshortener.tenant.TenantUsage;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Admin API listing the tenants and their link quotas.
+ *
+ * Endpoints:
+ *   GET /admin/tenants   — Each tenant's base URL, links stored and quota
+ */
+@RestController
+@RequestMapping("/admin/tenants")
+@Tag(name = "Tenants (admin)", description = "Tenant namespaces and link quotas")
+public class TenantAdminController {
+
+    private final TenantRegistry registry;
+    private final TenantUsage usage;
+
+    public TenantAdminController(TenantRegistry registry, TenantUsage usage) {
+        this.registry = registry;
+        this.usage = usage;
+    }
+
+    @Operation(summary = "List tenants",
+            description = "The default tenant first, then the configured tenants by id. Links are only "
+                    + "counted when some tenant has a quota; otherwise they are reported as -1.")
+    @GetMapping
+    public ResponseEntity<TenantListResponse> listTenants() {
+        List<TenantListResponse.TenantInfo> tenants = new ArrayList<>();
+        tenants.add(info(registry.defaultTenant()));
+        for (Tenant tenant : registry.tenants()) {
+            tenants.add(info(tenant));
+        }
+        return ResponseEntity.ok(new TenantListResponse(tenants));
+    }
+
+    private TenantListResponse.TenantInfo info(Tenant tenant) {
+        return new TenantListResponse.TenantInfo(
+                tenant.id(), tenant.baseUrl(), usage.links(tenant), tenant.maxLinks());
+    }
+}
@@ -12,10 +12,12 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.urlshortener.controllers.Request.ShortenRequest;
 import com.urlshortener.controllers.Response.ShortenResponse;
+import com.urlshortener.repositories.index.RecentDomainCounts;
 import com.urlshortener.services.UrlShortenerService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -34,7 +36,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
  * Endpoints:
  *   POST /shorten               — Accepts a URL and returns a shortened URL
  *   GET  /{shortCode}           — Redirects to the original URL
- *   GET  /metrics/top-domains   — Returns top 3 most-shortened domains
+ *   GET  /metrics/top-domains   — Returns the most-shortened domains, all-time or in a recent window
  */
 @RestController
 @Tag(name = "URL Shortener", description = "Shorten URLs, resolve short codes, and view domain metrics")
@@ -54,7 +56,8 @@ public class UrlShortenerController {
                     This operation is **idempotent**: submitting the same URL multiple times
                     always returns the same short URL rather than generating a new one.
                     
-                    The short code is a randomly generated 7-character string using [a-zA-Z0-9].
+                    The short code is a randomly generated 7-character string using [a-zA-Z0-9],
+                    unless an optional `alias` is given, in which case that alias becomes the short code.
                     """
     )
     @ApiResponses({
@@ -82,6 +85,22 @@ public class UrlShortenerController {
                             mediaType = MediaType.TEXT_PLAIN_VALUE,
                             examples = @ExampleObject(value = "URL must include a scheme and host: youtube-dot-com")
                     )
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "The tenant has created as many links as its quota allows",
+                    content = @Content(
+                            mediaType = MediaType.TEXT_PLAIN_VALUE,
+                            examples = @ExampleObject(value = "Link quota of 100000 reached")
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "The requested alias is already mapped to a different URL",
+                    content = @Content(
+                            mediaType = MediaType.TEXT_PLAIN_VALUE,
+                            examples = @ExampleObject(value = "Alias is already in use: spring-sale")
+                    )
             )
     })
     @PostMapping("/shorten")
@@ -101,7 +120,9 @@ public class UrlShortenerController {
             )
             @RequestBody ShortenRequest request) {
 
-        String shortUrl = urlShortenerService.shorten(request.getUrl());
+        String shortUrl = request.getAlias() == null
+                ? urlShortenerService.shorten(request.getUrl())
+                : urlShortenerService.shorten(request.getUrl(), request.getAlias());
         ShortenResponse response = new ShortenResponse(request.getUrl(), shortUrl);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
@@ -158,14 +179,18 @@ public class UrlShortenerController {
     // -----------------------------------------------------------------------
 
     @Operation(
-            summary = "Top 3 most-shortened domains",
+            summary = "Most-shortened domains",
             description = """
-                    Returns the top 3 domains by total number of URLs shortened, ordered by count descending.
+                    Returns the top `limit` domains (3 by default) by number of URLs shortened, ordered by count descending.
+                    
+                    With the default `window=all` the counts cover every stored link. A window such as
+                    `15m`, `1h` or `24h` (at most one day) counts the links created in that period instead,
+                    from per-minute rolling counters.
                     
                     `www.` is stripped when grouping domains, so `www.youtube.com` and `youtube.com`
                     are counted together under `youtube.com`.
                     
-                    If fewer than 3 distinct domains have been shortened, only those are returned.
+                    If fewer than `limit` distinct domains have been shortened, only those are returned.
                     """
     )
     @ApiResponses({
@@ -199,8 +224,14 @@ public class UrlShortenerController {
             )
     })
     @GetMapping("/metrics/top-domains")
-    public ResponseEntity<LinkedHashMap<String, Long>> getTopDomains() {
-        LinkedHashMap<String, Long> topDomains = urlShortenerService.getTopDomains(TOP_DOMAINS_COUNT);
+    public ResponseEntity<LinkedHashMap<String, Long>> getTopDomains(
+            @Parameter(description = "Number of domains, at most " + UrlShortenerService.MAX_TOP_DOMAINS)
+            @RequestParam(defaultValue = "" + TOP_DOMAINS_COUNT) int limit,
+            @Parameter(description = "`all`, or a recent period such as 15m, 1h or 24h", example = "1h")
+            @RequestParam(defaultValue = "all") String window) {
+        LinkedHashMap<String, Long> topDomains = "all".equalsIgnoreCase(window)
+                ? urlShortenerService.getTopDomains(limit)
+                : urlShortenerService.getTopDomains(limit, RecentDomainCounts.parseWindow(window));
         return ResponseEntity.ok(topDomains);
     }
 
@@ -0,0 +1,66 @@
+package com.urlshortener.controllers;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.urlshortener.controllers.Request.VisitorUnionRequest;
+import com.urlshortener.controllers.Response.VisitorStatsResponse;
+import com.urlshortener.controllers.Response.VisitorUnionResponse;
+import com.urlshortener.services.VisitorStatsService;
+import com.urlshortener.services.VisitorStatsService.UnionResult;
+import com.urlshortener.services.VisitorStatsService.VisitorStats;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Approximate unique visitors per short link, counted on redirects.
+ *
+ * Endpoints:
+ *   GET  /{shortCode}/stats      — Unique visitors over the last days, with a per-day breakdown
+ *   POST /admin/visitors/union   — Estimate for the union of serialized sketches, e.g. from several nodes
+ */
+@RestController
+@Tag(name = "Visitor stats", description = "HyperLogLog unique-visitor estimates")
+public class VisitorStatsController {
+
+    private final VisitorStatsService visitorStatsService;
+
+    public VisitorStatsController(VisitorStatsService visitorStatsService) {
+        this.visitorStatsService = visitorStatsService;
+    }
+
+    @Operation(summary = "Unique visitors to a short link",
+            description = "Visitors are identified by the X-Visitor-Id header, or by client address and User-Agent, "
+                    + "and only a hash is kept. Counts are estimates with the given relative standard error.")
+    @GetMapping("/{shortCode}/stats")
+    public ResponseEntity<VisitorStatsResponse> getStats(
+            @PathVariable String shortCode,
+            @Parameter(description = "UTC days to cover, ending today") @RequestParam(defaultValue = "7") int days,
+            @Parameter(description = "Include the Base64-encoded sketch for merging across nodes")
+            @RequestParam(defaultValue = "false") boolean sketch) {
+        VisitorStats stats = visitorStatsService.stats(shortCode, days, sketch);
+        return ResponseEntity.ok(new VisitorStatsResponse(stats.shortCode(), stats.days(), stats.uniqueVisitors(),
+                stats.standardError(),
+                stats.daily().stream()
+                        .map(day -> new VisitorStatsResponse.Day(day.date().toString(), day.uniqueVisitors()))
+                        .toList(),
+                stats.sketch()));
+    }
+
+    @Operation(summary = "Merge visitor sketches (admin)",
+            description = "Sketches of the same link from several nodes give its cluster-wide count; sketches of "
+                    + "several links give their combined audience without double-counting shared visitors.")
+    @PostMapping("/admin/visitors/union")
+    public ResponseEntity<VisitorUnionResponse> union(@RequestBody VisitorUnionRequest request) {
+        UnionResult result = visitorStatsService.union(request.getSketches());
+        return ResponseEntity.ok(new VisitorUnionResponse(result.merged(), result.uniqueVisitors(),
+                result.standardError(), result.sketch()));
+    }
+}
@@ -2,6 +2,7 @@ package com.urlshortener.exception;
 
 import java.util.NoSuchElementException;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.web.servlet.NoHandlerFoundException;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 import com.urlshortener.models.ErrorResponse;
 
@@ -61,6 +63,18 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.BAD_REQUEST, message);
     }
 
+    // -----------------------------------------------------------------------
+    // 403 Forbidden
+    // -----------------------------------------------------------------------
+
+    /**
+     * Handles new links requested by a tenant that has used up its link quota.
+     */
+    @ExceptionHandler(TenantQuotaExceededException.class)
+    public ResponseEntity<ErrorResponse> handleTenantQuotaExceeded(TenantQuotaExceededException ex) {
+        return buildResponse(HttpStatus.FORBIDDEN, ex.getMessage());
+    }
+
     // -----------------------------------------------------------------------
     // 404 Not Found
     // -----------------------------------------------------------------------
@@ -83,6 +97,16 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.NOT_FOUND, message);
     }
 
+    /**
+     * Handles unmapped routes that fall through to static resource handling,
+     * e.g. endpoints of a feature that is switched off.
+     */
+    @ExceptionHandler(NoResourceFoundException.class)
+    public ResponseEntity<ErrorResponse> handleNoResourceFound(NoResourceFoundException ex) {
+        String message = String.format("Route '%s /%s' not found", ex.getHttpMethod(), ex.getResourcePath());
+        return buildResponse(HttpStatus.NOT_FOUND, message);
+    }
+
     // -----------------------------------------------------------------------
     // 405 Method Not Allowed
     // -----------------------------------------------------------------------
@@ -99,6 +123,70 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.METHOD_NOT_ALLOWED, message);
     }
 
+    // -----------------------------------------------------------------------
+    // 409 Conflict
+    // -----------------------------------------------------------------------
+
+    /**
+     * Handles attempts to claim a short code that is already taken.
+     */
+    @ExceptionHandler(ShortCodeConflictException.class)
+    public ResponseEntity<ErrorResponse> handleConflict(ShortCodeConflictException ex) {
+        return buildResponse(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    /**
+     * Handles a request to start a profiling recording while one is running.
+     */
+    @ExceptionHandler(RecordingInProgressException.class)
+    public ResponseEntity<ErrorResponse> handleRecordingInProgress(RecordingInProgressException ex) {
+        return buildResponse(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    // -----------------------------------------------------------------------
+    // 410 Gone
+    // -----------------------------------------------------------------------
+
+    /**
+     * Handles change feed reads from a sequence number whose changes are no longer retained.
+     */
+    @ExceptionHandler(SequenceExpiredException.class)
+    public ResponseEntity<ErrorResponse> handleSequenceExpired(SequenceExpiredException ex) {
+        return buildResponse(HttpStatus.GONE, ex.getMessage());
+    }
+
+    // -----------------------------------------------------------------------
+    // 429 Too Many Requests
+    // -----------------------------------------------------------------------
+
+    /**
+     * Handles clients that exceeded their rate limit. Retry-After tells them when to try again.
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimitExceeded(RateLimitExceededException ex) {
+        HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+        ErrorResponse body = new ErrorResponse(status.value(), status.getReasonPhrase(), ex.getMessage());
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(body);
+    }
+
+    // -----------------------------------------------------------------------
+    // 503 Service Unavailable
+    // -----------------------------------------------------------------------
+
+    /**
+     * Handles requests shed by the concurrency limiter, before they take any work.
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleServiceOverloaded(ServiceOverloadedException ex) {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        ErrorResponse body = new ErrorResponse(status.value(), status.getReasonPhrase(), ex.getMessage());
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(body);
+    }
+
     // -----------------------------------------------------------------------
     // 500 Internal Server Error
     // -----------------------------------------------------------------------
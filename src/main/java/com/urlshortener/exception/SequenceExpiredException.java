@@ -0,0 +1,19 @@
+package com.urlshortener.exception;
+
+/**
+ * Thrown when a change feed consumer asks for events that were already
+ * overwritten; it has to rebuild its copy and start again from the head.
+ */
+public class SequenceExpiredException extends RuntimeException {
+
+    private final long oldestSequence;
+
+    public SequenceExpiredException(String message, long oldestSequence) {
+        super(message);
+        this.oldestSequence = oldestSequence;
+    }
+
+    public long getOldestSequence() {
+        return oldestSequence;
+    }
+}
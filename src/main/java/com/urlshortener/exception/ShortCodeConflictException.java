@@ -0,0 +1,12 @@
+package com.urlshortener.exception;
+
+/**
+ * Thrown when a requested short code (for example a vanity alias) is already
+ * mapped to a different URL.
+ */
+public class ShortCodeConflictException extends RuntimeException {
+
+    public ShortCodeConflictException(String message) {
+        super(message);
+    }
+}
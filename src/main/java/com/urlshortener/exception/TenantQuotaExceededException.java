@@ -0,0 +1,11 @@
+package com.urlshortener.exception;
+
+/**
+ * Thrown when a tenant has created as many links as its quota allows.
+ */
+public class TenantQuotaExceededException extends RuntimeException {
+
+    public TenantQuotaExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,64 @@
+package com.urlshortener.importer;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.urlshortener.repositories.UrlRepository;
+
+/**
+ * Imports app.import.file at startup, before the application reports ready
+ * and before the warm-up, which may preload imported codes.
+ * With app.import.exit=true the application exits afterwards, for a one-off
+ * offline load; the exit code is 0 only if no line was invalid or conflicting.
+ *
+ *   java -jar url-shortener.jar --app.storage.mode=lsm --app.import.file=links.csv --app.import.exit=true
+ */
+@Component
+@ConditionalOnProperty(name = "app.import.file")
+@Order(0)
+public class BulkImportRunner implements ApplicationRunner {
+
+    private final UrlRepository repository;
+    private final ConfigurableApplicationContext context;
+    private final Path file;
+    private final String format;
+    private final int parallelism;
+    private final boolean exit;
+
+    public BulkImportRunner(
+            UrlRepository repository,
+            ConfigurableApplicationContext context,
+            @Value("${app.import.file}") String file,
+            @Value("${app.import.format:}") String format,
+            @Value("${app.import.parallelism:0}") int parallelism,
+            @Value("${app.import.exit:false}") boolean exit) {
+
+        this.repository = repository;
+        this.context = context;
+        this.file = Path.of(file);
+        this.format = format;
+        this.parallelism = parallelism;
+        this.exit = exit;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        BulkImporter.Format fileFormat = format.isBlank()
+                ? BulkImporter.Format.of(file)
+                : BulkImporter.Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        ImportReport report = new BulkImporter(repository, parallelism).importFile(file, fileFormat);
+        if (exit) {
+            boolean clean = report.invalid() == 0 && report.conflicts() == 0;
+            System.exit(SpringApplication.exit(context, () -> clean ? 0 : 2));
+        }
+    }
+}
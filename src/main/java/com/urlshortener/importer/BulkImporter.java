@@ -0,0 +1,401 @@
+package com.urlshortener.importer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.UrlRepository;
+import com.urlshortener.services.UrlShortenerService;
+
+/**
+ * Loads existing mappings, keeping their short codes, from a CSV or NDJSON
+ * file into the repository.
+ *
+ * The file is memory-mapped in chunks of about {@code chunkBytes}, which a
+ * fork-join pool parses, validates and saves in parallel. A line belongs to
+ * the chunk it starts in, so chunk boundaries need no coordination. Each
+ * chunk saves its mappings in batches with {@link UrlRepository#saveAllIfAbsent},
+ * and listeners see every saved mapping as they would for a shortened URL.
+ *
+ * CSV lines are {@code shortCode,originalUrl[,createdAt[,alias]]}, with
+ * RFC 4180 quoting and an optional header line. NDJSON lines are objects
+ * with the same field names. createdAt is an ISO-8601 instant or epoch
+ * milliseconds and defaults to the import time.
+ *
+ * Existing mappings are never overwritten. A code already stored with the
+ * same URL counts as a duplicate, so an interrupted import can simply be run
+ * again. A code taken by a different URL counts as a conflict and is
+ * reported. Within the file, if two lines use the same code, the first one
+ * saved wins; with parallel chunks that need not be the first in the file.
+ */
+public class BulkImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImporter.class);
+
+    static final int DEFAULT_CHUNK_BYTES = 4 << 20;
+    static final int MAX_LINE_BYTES = 64 << 10;
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int MAX_PROBLEMS = 100;
+    private static final Pattern CODE_PATTERN = Pattern.compile("[a-zA-Z0-9_-]{1,64}");
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    public enum Format {
+        CSV, NDJSON;
+
+        /** From the file extension: .csv, or .ndjson, .jsonl and .json. */
+        public static Format of(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json")) {
+                return NDJSON;
+            }
+            throw new IllegalArgumentException("Cannot tell the format of " + file + "; expected .csv or .ndjson");
+        }
+    }
+
+    private final UrlRepository repository;
+    private final int parallelism;
+    private final int chunkBytes;
+    private final Duration progressInterval;
+
+    /**
+     * @param parallelism threads parsing and saving; 0 for one per processor
+     */
+    public BulkImporter(UrlRepository repository, int parallelism) {
+        this(repository, parallelism, DEFAULT_CHUNK_BYTES, Duration.ofSeconds(5));
+    }
+
+    BulkImporter(UrlRepository repository, int parallelism, int chunkBytes, Duration progressInterval) {
+        if (parallelism < 0 || chunkBytes < 1) {
+            throw new IllegalArgumentException("parallelism must not be negative and chunkBytes must be positive");
+        }
+        this.repository = repository;
+        this.parallelism = parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism;
+        this.chunkBytes = chunkBytes;
+        this.progressInterval = progressInterval;
+    }
+
+    public ImportReport importFile(Path file, Format format) throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Run run = new Run(file, channel, channel.size(), format, start);
+            log.info("Importing {} ({} MB, {}) with {} threads", file, run.size >> 20, format, parallelism);
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "import-progress");
+                thread.setDaemon(true);
+                return thread;
+            });
+            progress.scheduleAtFixedRate(run::logProgress, progressInterval.toMillis(), progressInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+            try {
+                pool.invoke(new Chunk(run, 0, run.size));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                progress.shutdownNow();
+                pool.shutdown();
+            }
+            ImportReport report = run.report(Duration.ofNanos(System.nanoTime() - start));
+            log.info("Imported {}: {} records, {} saved, {} duplicates, {} conflicts, {} invalid in {} ms ({} records/s)",
+                    file, report.records(), report.imported(), report.duplicates(), report.conflicts(),
+                    report.invalid(), report.elapsed().toMillis(), Math.round(report.recordsPerSecond()));
+            return report;
+        }
+    }
+
+    /** A byte range of the file; splits in halves down to chunkBytes. */
+    private final class Chunk extends RecursiveAction {
+
+        private final Run run;
+        private final long from;
+        private final long to;
+
+        Chunk(Run run, long from, long to) {
+            this.run = run;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > chunkBytes) {
+                long middle = from + (to - from) / 2;
+                invokeAll(new Chunk(run, from, middle), new Chunk(run, middle, to));
+                return;
+            }
+            try {
+                run.importRange(from, to);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /** State shared by the chunks of one import. */
+    private final class Run {
+
+        final Path file;
+        final FileChannel channel;
+        final long size;
+        final Format format;
+        final long start;
+
+        final LongAdder records = new LongAdder();
+        final LongAdder imported = new LongAdder();
+        final LongAdder duplicates = new LongAdder();
+        final LongAdder conflicts = new LongAdder();
+        final LongAdder invalid = new LongAdder();
+        final LongAdder bytesDone = new LongAdder();
+        final Queue<String> problems = new ConcurrentLinkedQueue<>();
+        final AtomicInteger problemCount = new AtomicInteger();
+
+        Run(Path file, FileChannel channel, long size, Format format, long start) {
+            this.file = file;
+            this.channel = channel;
+            this.size = size;
+            this.format = format;
+            this.start = start;
+        }
+
+        /** Imports the lines that start in [from, to). */
+        void importRange(long from, long to) throws IOException {
+            // One byte before, to tell whether a line starts at from; room after, to finish the last line
+            long mapStart = Math.max(0, from - 1);
+            long mapEnd = Math.min(size, to + MAX_LINE_BYTES);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+            int position = (int) (from - mapStart);
+            int limit = (int) (to - mapStart);
+            if (from > 0) {
+                // Skip the rest of a line started in the previous chunk
+                while (position < buffer.limit() && buffer.get(position - 1) != '\n') {
+                    position++;
+                }
+            }
+            List<ShortenedUrl> batch = new ArrayList<>(BATCH_SIZE);
+            List<Long> offsets = new ArrayList<>(BATCH_SIZE);
+            while (position < limit) {
+                int end = position;
+                while (end < buffer.limit() && buffer.get(end) != '\n') {
+                    end++;
+                }
+                long offset = mapStart + position;
+                if (end == buffer.limit() && mapEnd < size) {
+                    records.increment();
+                    invalid(offset, "line longer than " + (MAX_LINE_BYTES >> 10) + " KB");
+                    break;
+                }
+                int length = end - position;
+                if (length > 0 && buffer.get(end - 1) == '\r') {
+                    length--;
+                }
+                byte[] bytes = new byte[length];
+                buffer.get(position, bytes);
+                position = end + 1;
+                String line = new String(bytes, StandardCharsets.UTF_8);
+                if (line.isBlank() || offset == 0 && format == Format.CSV && isHeader(line)) {
+                    continue;
+                }
+                records.increment();
+                try {
+                    batch.add(format == Format.CSV ? parseCsv(line) : parseJson(line));
+                    offsets.add(offset);
+                } catch (IllegalArgumentException e) {
+                    invalid(offset, e.getMessage());
+                }
+                if (batch.size() == BATCH_SIZE) {
+                    save(batch, offsets);
+                }
+            }
+            save(batch, offsets);
+            bytesDone.add(to - from);
+        }
+
+        private void save(List<ShortenedUrl> batch, List<Long> offsets) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<ShortenedUrl> rejected = repository.saveAllIfAbsent(batch);
+            imported.add(batch.size() - rejected.size());
+            if (!rejected.isEmpty()) {
+                Map<ShortenedUrl, Long> offsetOf = new IdentityHashMap<>();
+                for (int i = 0; i < batch.size(); i++) {
+                    offsetOf.put(batch.get(i), offsets.get(i));
+                }
+                for (ShortenedUrl mapping : rejected) {
+                    Optional<ShortenedUrl> existing = repository.findByShortCode(mapping.getShortCode());
+                    if (existing.isPresent() && existing.get().getOriginalUrl().equals(mapping.getOriginalUrl())) {
+                        duplicates.increment();
+                    } else {
+                        conflicts.increment();
+                        problem(offsetOf.get(mapping), "short code " + mapping.getShortCode() + " is taken by "
+                                + existing.map(ShortenedUrl::getOriginalUrl).orElse("an earlier line"));
+                    }
+                }
+            }
+            batch.clear();
+            offsets.clear();
+        }
+
+        private void invalid(long offset, String message) {
+            invalid.increment();
+            problem(offset, message);
+        }
+
+        private void problem(long offset, String message) {
+            if (problemCount.incrementAndGet() <= MAX_PROBLEMS) {
+                problems.add("offset " + offset + ": " + message);
+            }
+        }
+
+        void logProgress() {
+            long done = bytesDone.sum();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            log.info("Importing {}: {}% of {} MB, {} records ({} records/s), {} conflicts, {} invalid",
+                    file, size == 0 ? 100 : done * 100 / size, size >> 20, records.sum(),
+                    Math.round(records.sum() / seconds), conflicts.sum(), invalid.sum());
+        }
+
+        ImportReport report(Duration elapsed) {
+            return new ImportReport(records.sum(), imported.sum(), duplicates.sum(), conflicts.sum(), invalid.sum(),
+                    size, elapsed, List.copyOf(problems));
+        }
+    }
+
+    // -----------------------------------------------------------------------
+    // Parsing
+    // -----------------------------------------------------------------------
+
+    private static boolean isHeader(String line) {
+        String first = line.substring(0, Math.max(0, line.indexOf(','))).replace("\"", "").trim();
+        return first.equalsIgnoreCase("shortCode") || first.equalsIgnoreCase("short_code");
+    }
+
+    static ShortenedUrl parseCsv(String line) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        if (fields.size() < 2 || fields.size() > 4) {
+            throw new IllegalArgumentException("expected shortCode,originalUrl[,createdAt[,alias]] but found "
+                    + fields.size() + " fields");
+        }
+        return mapping(fields.get(0).trim(), fields.get(1).trim(),
+                fields.size() > 2 ? fields.get(2).trim() : "", fields.size() > 3 ? fields.get(3).trim() : "");
+    }
+
+    static ShortenedUrl parseJson(String line) {
+        JsonNode node;
+        try {
+            node = JSON.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("malformed JSON: " + e.getOriginalMessage());
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("expected a JSON object");
+        }
+        return mapping(node.path("shortCode").asText(""), node.path("originalUrl").asText(""),
+                node.path("createdAt").asText(""), node.path("alias").asText(""));
+    }
+
+    /**
+     * Validates the fields with the rules POST /shorten applies, and the
+     * reserved paths vanity aliases avoid.
+     */
+    private static ShortenedUrl mapping(String shortCode, String originalUrl, String createdAt, String alias) {
+        if (!CODE_PATTERN.matcher(shortCode).matches() || UrlShortenerService.isReservedPath(shortCode)) {
+            throw new IllegalArgumentException("invalid short code '" + shortCode + "'");
+        }
+        String host;
+        try {
+            URI uri = new URI(originalUrl);
+            host = uri.getHost();
+            if (uri.getScheme() == null || host == null) {
+                throw new IllegalArgumentException("URL must include a scheme and host: " + originalUrl);
+            }
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("malformed URL: " + originalUrl);
+        }
+        String domain = host.startsWith("www.") ? host.substring(4) : host;
+        return new ShortenedUrl(shortCode, originalUrl, domain, parseAlias(alias), parseInstant(createdAt));
+    }
+
+    private static Instant parseInstant(String value) {
+        if (value.isEmpty()) {
+            return Instant.now();
+        }
+        try {
+            return value.chars().allMatch(Character::isDigit)
+                    ? Instant.ofEpochMilli(Long.parseLong(value))
+                    : Instant.parse(value);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("invalid createdAt '" + value + "'");
+        }
+    }
+
+    private static boolean parseAlias(String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "", "false", "0" -> false;
+            case "true", "1" -> true;
+            default -> throw new IllegalArgumentException("invalid alias flag '" + value + "'");
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package com.urlshortener.importer;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import.
+ *
+ * @param records    non-blank data lines read
+ * @param imported   mappings saved
+ * @param duplicates mappings already stored with the same URL, such as from an earlier run
+ * @param conflicts  short codes already taken by a different URL, in the repository or earlier in the file
+ * @param invalid    lines that could not be parsed or failed validation
+ * @param bytes      size of the input
+ * @param elapsed    wall-clock time of the import
+ * @param problems   the first few invalid and conflicting lines, by byte offset
+ */
+public record ImportReport(long records, long imported, long duplicates, long conflicts, long invalid,
+                           long bytes, Duration elapsed, List<String> problems) {
+
+    public double recordsPerSecond() {
+        return elapsed.isZero() ? records : records * 1e9 / elapsed.toNanos();
+    }
+
+    public double megabytesPerSecond() {
+        return elapsed.isZero() ? 0 : bytes / 1048576.0 * 1e9 / elapsed.toNanos();
+    }
+}
@@ -0,0 +1,327 @@
+package com.urlshortener.json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.urlshortener.controllers.Request.ShortenRequest;
+import com.urlshortener.controllers.Response.ShortenResponse;
+
+/**
+ * Hand-written JSON codec for the POST /shorten request and response.
+ *
+ * Reading works directly on the UTF-8 bytes of the body and understands only
+ * the expected shape: one object whose members are "url" and/or "alias" with
+ * string or null values. Anything else (unknown members, numbers, nesting,
+ * malformed input) returns null so the caller can hand the body to Jackson,
+ * which either binds it or produces the usual parse error.
+ *
+ * Writing produces the same bytes Jackson would for a ShortenResponse.
+ */
+public final class ShortenJsonCodec {
+
+    private static final byte[] URL_KEY = "\"url\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ALIAS_KEY = "\"alias\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] ORIGINAL_URL_PREFIX = "{\"originalUrl\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SHORT_URL_PREFIX = ",\"shortUrl\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    // Returned by readString for input the fast path does not handle
+    private static final String UNSUPPORTED = new String("unsupported");
+
+    private final byte[] buf;
+    private final int end;
+    private int pos;
+
+    private ShortenJsonCodec(byte[] buf, int length) {
+        this.buf = buf;
+        this.end = length;
+    }
+
+    // -----------------------------------------------------------------------
+    // Reading
+    // -----------------------------------------------------------------------
+
+    /**
+     * Parses {"url": "...", "alias": "..."} from the first {@code length} bytes.
+     *
+     * @return the request, or null if the body is not in the simple shape
+     */
+    public static ShortenRequest readRequest(byte[] body, int length) {
+        return new ShortenJsonCodec(body, length).parseRequest();
+    }
+
+    private ShortenRequest parseRequest() {
+        skipWhitespace();
+        if (!consume('{')) {
+            return null;
+        }
+        String url = null;
+        String alias = null;
+        skipWhitespace();
+        if (!consume('}')) {
+            while (true) {
+                skipWhitespace();
+                boolean isUrl;
+                if (consume(URL_KEY)) {
+                    isUrl = true;
+                } else if (consume(ALIAS_KEY)) {
+                    isUrl = false;
+                } else {
+                    return null;
+                }
+                skipWhitespace();
+                if (!consume(':')) {
+                    return null;
+                }
+                skipWhitespace();
+                String value;
+                if (consume(NULL)) {
+                    value = null;
+                } else {
+                    value = readString();
+                    if (value == UNSUPPORTED) {
+                        return null;
+                    }
+                }
+                if (isUrl) {
+                    url = value;
+                } else {
+                    alias = value;
+                }
+                skipWhitespace();
+                if (consume(',')) {
+                    continue;
+                }
+                if (consume('}')) {
+                    break;
+                }
+                return null;
+            }
+        }
+        skipWhitespace();
+        return pos == end ? new ShortenRequest(url, alias) : null;
+    }
+
+    private String readString() {
+        if (!consume('"')) {
+            return UNSUPPORTED;
+        }
+        int start = pos;
+        boolean ascii = true;
+        while (pos < end) {
+            int b = buf[pos];
+            if (b == '"') {
+                String value = new String(buf, start, pos - start,
+                        ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+                pos++;
+                return value;
+            }
+            if (b == '\\') {
+                return readEscapedString(start);
+            }
+            if (b >= 0 && b < 0x20) {
+                return UNSUPPORTED;      // raw control character: invalid JSON
+            }
+            ascii &= b >= 0;
+            pos++;
+        }
+        return UNSUPPORTED;
+    }
+
+    /** Slow path for strings with escape sequences; {@code pos} is at the first backslash. */
+    private String readEscapedString(int start) {
+        StringBuilder sb = new StringBuilder(pos - start + 16);
+        int segment = start;
+        while (pos < end) {
+            int b = buf[pos];
+            if (b == '"') {
+                sb.append(new String(buf, segment, pos - segment, StandardCharsets.UTF_8));
+                pos++;
+                return sb.toString();
+            }
+            if (b >= 0 && b < 0x20) {
+                return UNSUPPORTED;
+            }
+            if (b != '\\') {
+                pos++;
+                continue;
+            }
+            sb.append(new String(buf, segment, pos - segment, StandardCharsets.UTF_8));
+            if (pos + 1 >= end) {
+                return UNSUPPORTED;
+            }
+            byte escape = buf[pos + 1];
+            pos += 2;
+            switch (escape) {
+                case '"' -> sb.append('"');
+                case '\\' -> sb.append('\\');
+                case '/' -> sb.append('/');
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'u' -> {
+                    int code = readHex4();
+                    if (code < 0) {
+                        return UNSUPPORTED;
+                    }
+                    sb.append((char) code);  // surrogate pairs arrive as two escapes
+                }
+                default -> {
+                    return UNSUPPORTED;
+                }
+            }
+            segment = pos;
+        }
+        return UNSUPPORTED;
+    }
+
+    private int readHex4() {
+        if (pos + 4 > end) {
+            return -1;
+        }
+        int code = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(buf[pos++], 16);
+            if (digit < 0) {
+                return -1;
+            }
+            code = (code << 4) | digit;
+        }
+        return code;
+    }
+
+    private void skipWhitespace() {
+        while (pos < end) {
+            byte b = buf[pos];
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    private boolean consume(char c) {
+        if (pos < end && buf[pos] == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean consume(byte[] token) {
+        if (end - pos < token.length || !Arrays.equals(buf, pos, pos + token.length, token, 0, token.length)) {
+            return false;
+        }
+        pos += token.length;
+        return true;
+    }
+
+    // -----------------------------------------------------------------------
+    // Writing
+    // -----------------------------------------------------------------------
+
+    /**
+     * Encodes the response as {"originalUrl":"...","shortUrl":"..."}.
+     */
+    public static byte[] writeResponse(ShortenResponse response) {
+        String originalUrl = response.getOriginalUrl();
+        String shortUrl = response.getShortUrl();
+        // exact for ASCII without escapes, the common case; the writer grows otherwise
+        Writer writer = new Writer(ORIGINAL_URL_PREFIX.length + SHORT_URL_PREFIX.length + 5
+                + lengthOf(originalUrl) + lengthOf(shortUrl));
+        writer.write(ORIGINAL_URL_PREFIX);
+        writer.writeString(originalUrl);
+        writer.write(SHORT_URL_PREFIX);
+        writer.writeString(shortUrl);
+        writer.write('}');
+        return writer.toByteArray();
+    }
+
+    private static int lengthOf(String s) {
+        return s == null ? NULL.length - 2 : s.length();
+    }
+
+    private static final class Writer {
+
+        private byte[] out;
+        private int p;
+
+        Writer(int capacity) {
+            this.out = new byte[capacity];
+        }
+
+        void write(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, out, p, bytes.length);
+            p += bytes.length;
+        }
+
+        void write(char c) {
+            ensure(1);
+            out[p++] = (byte) c;
+        }
+
+        void writeString(String s) {
+            if (s == null) {
+                write(NULL);
+                return;
+            }
+            // String.getBytes is vectorised for ASCII; UTF-8 continuation bytes are all >= 0x80,
+            // so scanning the encoded bytes for characters that need escaping is safe
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            ensure(utf8.length + 2);
+            out[p++] = '"';
+            int from = 0;
+            for (int i = 0; i < utf8.length; i++) {
+                byte b = utf8[i];
+                if (b == '"' || b == '\\' || (b >= 0 && b < 0x20)) {
+                    write(utf8, from, i);
+                    writeEscaped((char) b);
+                    from = i + 1;
+                }
+            }
+            write(utf8, from, utf8.length);
+            write('"');
+        }
+
+        private void write(byte[] bytes, int from, int to) {
+            ensure(to - from);
+            System.arraycopy(bytes, from, out, p, to - from);
+            p += to - from;
+        }
+
+        private void writeEscaped(char c) {
+            ensure(6);
+            out[p++] = '\\';
+            switch (c) {
+                case '"', '\\' -> out[p++] = (byte) c;
+                case '\b' -> out[p++] = 'b';
+                case '\f' -> out[p++] = 'f';
+                case '\n' -> out[p++] = 'n';
+                case '\r' -> out[p++] = 'r';
+                case '\t' -> out[p++] = 't';
+                default -> {
+                    out[p++] = 'u';
+                    out[p++] = '0';
+                    out[p++] = '0';
+                    out[p++] = HEX[c >> 4];
+                    out[p++] = HEX[c & 0xF];
+                }
+            }
+        }
+
+        private void ensure(int needed) {
+            if (out.length - p < needed) {
+                out = Arrays.copyOf(out, Math.max(out.length * 2, p + needed));
+            }
+        }
+
+        byte[] toByteArray() {
+            return p == out.length ? out : Arrays.copyOf(out, p);
+        }
+    }
+}
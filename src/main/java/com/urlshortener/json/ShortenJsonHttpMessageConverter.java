@@ -0,0 +1,83 @@
+package com.urlshortener.json;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.urlshortener.controllers.Request.ShortenRequest;
+import com.urlshortener.controllers.Response.ShortenResponse;
+
+/**
+ * Reads ShortenRequest and writes ShortenResponse with {@link ShortenJsonCodec},
+ * skipping Jackson databinding on the POST /shorten hot path.
+ *
+ * Bodies the codec does not recognise are passed to Jackson, so unusual but
+ * valid input still binds, and malformed input still fails with
+ * HttpMessageNotReadableException (400 via GlobalExceptionHandler).
+ */
+public class ShortenJsonHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private final ObjectMapper objectMapper;
+
+    public ShortenJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == ShortenRequest.class || clazz == ShortenResponse.class;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return clazz == ShortenRequest.class && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return clazz == ShortenResponse.class && canWrite(mediaType);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        byte[] body = inputMessage.getBody().readAllBytes();
+        Charset charset = charsetOf(inputMessage.getHeaders().getContentType());
+
+        if (charset == StandardCharsets.UTF_8) {
+            ShortenRequest request = ShortenJsonCodec.readRequest(body, body.length);
+            if (request != null) {
+                return request;
+            }
+        }
+        try {
+            if (charset == StandardCharsets.UTF_8) {
+                return objectMapper.readValue(body, ShortenRequest.class);
+            }
+            return objectMapper.readValue(new InputStreamReader(new ByteArrayInputStream(body), charset),
+                    ShortenRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object response, HttpOutputMessage outputMessage) throws IOException {
+        outputMessage.getBody().write(ShortenJsonCodec.writeResponse((ShortenResponse) response));
+    }
+
+    private static Charset charsetOf(MediaType contentType) {
+        Charset charset = contentType != null ? contentType.getCharset() : null;
+        return charset == null || charset.equals(StandardCharsets.UTF_8) ? StandardCharsets.UTF_8 : charset;
+    }
+}
@@ -0,0 +1,16 @@
+package com.urlshortener.memory;
+
+import java.util.List;
+
+/**
+ * A component that keeps a running estimate of the heap retained by its data
+ * structures. Estimates are maintained on every write, so reading them is
+ * cheap enough to poll; GET /admin/memory reports every such bean.
+ */
+public interface MemoryAccountable {
+
+    /**
+     * Estimated retained size per internal structure, or an empty list if not tracked.
+     */
+    List<StructureFootprint> memoryFootprint();
+}
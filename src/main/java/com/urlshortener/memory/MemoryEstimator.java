@@ -0,0 +1,89 @@
+package com.urlshortener.memory;
+
+import com.urlshortener.models.ShortenedUrl;
+
+/**
+ * Shallow size arithmetic for the objects the repositories keep, assuming a
+ * 64-bit HotSpot JVM with compressed oops and compact strings (the defaults
+ * below 32 GB of heap): 12-byte object headers, 4-byte references and 8-byte
+ * alignment. The results are estimates, typically within a few percent of a
+ * class histogram, and are cheap enough to compute on every write.
+ */
+public final class MemoryEstimator {
+
+    static final int OBJECT_HEADER = 12;
+    static final int ARRAY_HEADER = 16;
+    static final int REFERENCE = 4;
+
+    // String: header, value ref, hash, coder, hashIsZero
+    static final int STRING = 24;
+    // Instant: header, long seconds, int nanos
+    static final int INSTANT = 24;
+    // ShortenedUrl: header, four refs, boolean
+    static final int SHORTENED_URL = align(OBJECT_HEADER + 4 * REFERENCE + 1);
+    // ConcurrentHashMap.Node: header, hash, key, value, next
+    static final int HASH_NODE = align(OBJECT_HEADER + 4 + 3 * REFERENCE);
+    // ConcurrentRadixTrie.Node: header, label, terminal, children, size
+    static final int TRIE_NODE = align(OBJECT_HEADER + 2 * REFERENCE + 1 + 4);
+
+    private MemoryEstimator() {
+    }
+
+    /** A String and its backing array; one byte per char if all chars are Latin-1. */
+    public static long string(String s) {
+        if (s == null) {
+            return 0;
+        }
+        return STRING + byteArray(isLatin1(s) ? s.length() : 2L * s.length());
+    }
+
+    /** A ShortenedUrl with its short code, URL, domain and timestamp. */
+    public static long shortenedUrl(ShortenedUrl mapping) {
+        return SHORTENED_URL
+                + string(mapping.getShortCode())
+                + string(mapping.getOriginalUrl())
+                + string(mapping.getDomain())
+                + (mapping.getCreatedAt() != null ? INSTANT : 0);
+    }
+
+    /**
+     * Nodes and bucket table of a ConcurrentHashMap holding the given number of
+     * entries, excluding keys and values. The table doubles once it is 3/4 full.
+     */
+    public static long concurrentHashMap(long entries) {
+        if (entries == 0) {
+            return 0;
+        }
+        long table = Math.max(16, Long.highestOneBit(entries * 4 / 3) << 1);
+        return entries * HASH_NODE + byteArray(table * REFERENCE);
+    }
+
+    /**
+     * Upper bound for one key in a radix trie: a node, its label (at most the
+     * whole key), and the slot and header of the child array it hangs from.
+     */
+    public static long radixTrieKey(String key) {
+        return TRIE_NODE + string(key) + referenceArray(1);
+    }
+
+    public static long byteArray(long length) {
+        return align(ARRAY_HEADER + length);
+    }
+
+    public static long referenceArray(long length) {
+        return align(ARRAY_HEADER + length * REFERENCE);
+    }
+
+    static int align(long size) {
+        return (int) ((size + 7) & ~7L);
+    }
+
+    private static boolean isLatin1(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
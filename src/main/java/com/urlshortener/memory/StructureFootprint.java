@@ -0,0 +1,11 @@
+package com.urlshortener.memory;
+
+/**
+ * Entry count and estimated retained bytes of one data structure.
+ */
+public record StructureFootprint(String name, long entries, long bytes) {
+
+    public StructureFootprint plus(StructureFootprint other) {
+        return new StructureFootprint(name, entries + other.entries, bytes + other.bytes);
+    }
+}
@@ -11,12 +11,30 @@ public class ShortenedUrl {
     private final String originalUrl;
     private final String domain;
     private final Instant createdAt;
+    private final boolean alias;
 
     public ShortenedUrl(String shortCode, String originalUrl, String domain) {
+        this(shortCode, originalUrl, domain, false);
+    }
+
+    /**
+     * @param alias true when the short code was chosen by the caller (a vanity alias)
+     *              rather than generated
+     */
+    public ShortenedUrl(String shortCode, String originalUrl, String domain, boolean alias) {
+        this(shortCode, originalUrl, domain, alias, Instant.now());
+    }
+
+    /**
+     * Restores a mapping that was created elsewhere (replicated, imported, or
+     * read back from disk), keeping its original creation time.
+     */
+    public ShortenedUrl(String shortCode, String originalUrl, String domain, boolean alias, Instant createdAt) {
         this.shortCode = shortCode;
         this.originalUrl = originalUrl;
         this.domain = domain;
-        this.createdAt = Instant.now();
+        this.createdAt = createdAt;
+        this.alias = alias;
     }
 
     public String getShortCode() {
@@ -34,4 +52,8 @@ public class ShortenedUrl {
     public Instant getCreatedAt() {
         return createdAt;
     }
+
+    public boolean isAlias() {
+        return alias;
+    }
 }
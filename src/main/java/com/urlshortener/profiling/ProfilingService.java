@@ -0,0 +1,150 @@
+package com.urlshortener.profiling;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.urlshortener.exception.RecordingInProgressException;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * On-demand JDK Flight Recorder sessions.
+ *
+ * At most one recording exists at a time. It uses the JDK "profile" settings
+ * (CPU sampling, allocation, locks, GC) plus the application events in this
+ * package, and is bounded in both duration and size: JFR stops it when the
+ * duration elapses and drops the oldest chunks past the size limit. The data
+ * stays available until {@link #stop()} dumps it to a file.
+ *
+ * When no recording is running the application events are disabled and cost
+ * a few nanoseconds each; see JfrEventOverheadBenchmark.
+ */
+@Service
+public class ProfilingService {
+
+    static final List<Class<? extends Event>> APPLICATION_EVENTS = List.of(
+            ShortCodeGenerationEvent.class,
+            RepositoryLookupEvent.class,
+            RedirectEvent.class,
+            TopDomainsEvent.class);
+
+    private final Duration maxDuration;
+    private final long maxSizeBytes;
+
+    private Recording recording;
+    private Instant startedAt;
+    private Duration threshold;
+
+    public ProfilingService(
+            @Value("${app.profiling.max-duration-seconds:600}") long maxDurationSeconds,
+            @Value("${app.profiling.max-size-mb:256}") long maxSizeMb) {
+        this.maxDuration = Duration.ofSeconds(maxDurationSeconds);
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    /**
+     * Starts a recording.
+     *
+     * @param duration  how long to record; JFR stops the recording afterwards
+     * @param sizeBytes cap on recorded data
+     * @param threshold application events faster than this are not recorded
+     * @throws IllegalArgumentException     if a bound is not positive or exceeds the configured maximum
+     * @throws RecordingInProgressException if a recording is already running
+     */
+    public synchronized Status start(Duration duration, long sizeBytes, Duration threshold) {
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0) {
+            throw new IllegalArgumentException("Duration must be between 1 and " + maxDuration.toSeconds() + " seconds");
+        }
+        if (sizeBytes <= 0 || sizeBytes > maxSizeBytes) {
+            throw new IllegalArgumentException("Size must be between 1 and " + maxSizeBytes + " bytes");
+        }
+        if (threshold.isNegative()) {
+            throw new IllegalArgumentException("Threshold must not be negative");
+        }
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new RecordingInProgressException("A profiling recording is already running");
+        }
+        discard();
+
+        Recording r;
+        try {
+            r = new Recording(Configuration.getConfiguration("profile"));
+        } catch (IOException | ParseException e) {
+            r = new Recording();
+        }
+        for (Class<? extends Event> event : APPLICATION_EVENTS) {
+            r.enable(event).withThreshold(threshold);
+        }
+        r.setName("url-shortener-profiling");
+        r.setToDisk(true);
+        r.setMaxSize(sizeBytes);
+        r.setDuration(duration);
+        r.start();
+
+        this.recording = r;
+        this.startedAt = Instant.now();
+        this.threshold = threshold;
+        return status();
+    }
+
+    /**
+     * Stops the recording if it is still running and writes it to a temporary
+     * .jfr file, which the caller must delete.
+     *
+     * @throws NoSuchElementException if there is no recording
+     */
+    public synchronized Path stop() {
+        if (recording == null) {
+            throw new NoSuchElementException("No profiling recording to stop");
+        }
+        try {
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+            }
+            Path file = Files.createTempFile("url-shortener-", ".jfr");
+            recording.dump(file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            discard();
+        }
+    }
+
+    public synchronized Status status() {
+        if (recording == null) {
+            return new Status("NONE", null, null, 0, 0, null);
+        }
+        return new Status(recording.getState().name(), startedAt, recording.getDuration(),
+                recording.getMaxSize(), recording.getSize(), threshold);
+    }
+
+    private void discard() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+            startedAt = null;
+            threshold = null;
+        }
+    }
+
+    /**
+     * Snapshot of the current recording; state is NONE when there is none.
+     */
+    public record Status(String state, Instant startedAt, Duration duration,
+                         long maxSizeBytes, long sizeBytes, Duration threshold) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.urlshortener.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Resolving a short code for GET /{shortCode}, including any coalescing wait.
+ */
+@Name("com.urlshortener.Redirect")
+@Label("Redirect")
+@Category({ "URL Shortener", "Service" })
+@Description("Resolving a short code to its original URL")
+@StackTrace(false)
+public final class RedirectEvent extends Event {
+
+    @Label("Short Code")
+    public String shortCode;
+
+    @Label("Found")
+    public boolean found;
+
+    @Label("Coalesced")
+    @Description("Whether resolves of the same code were being coalesced")
+    public boolean coalesced;
+}
@@ -0,0 +1,47 @@
+package com.urlshortener.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A read from the UrlRepository on the request path. Recorded by the service
+ * rather than the repositories, so every storage mode is covered.
+ */
+@Name("com.urlshortener.RepositoryLookup")
+@Label("Repository Lookup")
+@Category({ "URL Shortener", "Repository" })
+@Description("Lookup of a mapping by short code or original URL")
+@StackTrace(false)
+public final class RepositoryLookupEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Key")
+    public String key;
+
+    @Label("Found")
+    public boolean found;
+
+    /** Starts timing a lookup. */
+    public static RepositoryLookupEvent start() {
+        RepositoryLookupEvent event = new RepositoryLookupEvent();
+        event.begin();
+        return event;
+    }
+
+    /** Stops timing and commits if a recording wants this event. */
+    public void finish(String operation, String key, boolean found) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.key = key;
+            this.found = found;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.urlshortener.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Drawing a random short code and saving the new mapping, with the number of
+ * candidates that were already taken and saves that lost a race.
+ */
+@Name("com.urlshortener.ShortCodeGeneration")
+@Label("Short Code Generation")
+@Category({ "URL Shortener", "Service" })
+@Description("Generating a unique short code and saving the mapping, including retries")
+@StackTrace(false)
+public final class ShortCodeGenerationEvent extends Event {
+
+    @Label("Domain")
+    public String domain;
+
+    @Label("Short Code")
+    public String shortCode;
+
+    @Label("Candidates")
+    @Description("Random codes drawn")
+    public int candidates;
+
+    @Label("Collisions")
+    @Description("Candidates that already existed in the repository")
+    public int collisions;
+
+    @Label("Save Retries")
+    @Description("Saves that lost a race for the code to a concurrent writer")
+    public int saveRetries;
+}
@@ -0,0 +1,27 @@
+package com.urlshortener.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Computing the top-domains ranking. Rare but a full scan, so the stack trace is kept.
+ */
+@Name("com.urlshortener.TopDomains")
+@Label("Top Domains")
+@Category({ "URL Shortener", "Service" })
+@Description("Counting mappings per domain and ranking them")
+public final class TopDomainsEvent extends Event {
+
+    @Label("Requested")
+    public int topN;
+
+    @Label("Window Minutes")
+    @Description("0 for all-time counts")
+    public long windowMinutes;
+
+    @Label("Distinct Domains")
+    public int domains;
+}
@@ -0,0 +1,538 @@
+package com.urlshortener.qr;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * QR code symbol (ISO/IEC 18004) encoding a string in byte mode.
+ *
+ * Picks the smallest of the 40 versions that holds the text at the requested
+ * error correction level, splits the data into Reed-Solomon blocks, places
+ * the interleaved codewords around the finder, timing and alignment
+ * patterns, and keeps whichever of the eight masks scores the lowest
+ * penalty. The result is an immutable grid of dark and light modules,
+ * without the quiet zone; {@link QrRenderer} draws it.
+ */
+public final class QrCode {
+
+    /** Error correction level: roughly 7%, 15%, 25% or 30% of the symbol can be lost. */
+    public enum Ecc {
+        L(1), M(0), Q(3), H(2);
+
+        // Two bits of the format information
+        private final int formatBits;
+
+        Ecc(int formatBits) {
+            this.formatBits = formatBits;
+        }
+    }
+
+    public static final int MIN_VERSION = 1;
+    public static final int MAX_VERSION = 40;
+
+    // By level (L, M, Q, H) and version; index 0 unused
+    private static final byte[][] ECC_CODEWORDS_PER_BLOCK = {
+            { -1, 7, 10, 15, 20, 26, 18, 20, 24, 30, 18, 20, 24, 26, 30, 22, 24, 28, 30, 28, 28, 28, 28, 30, 30, 26,
+                    28, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30 },
+            { -1, 10, 16, 26, 18, 24, 16, 18, 22, 22, 26, 30, 22, 22, 24, 24, 28, 28, 26, 26, 26, 26, 28, 28, 28, 28,
+                    28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28 },
+            { -1, 13, 22, 18, 26, 18, 24, 18, 22, 20, 24, 28, 26, 24, 20, 30, 24, 28, 28, 26, 30, 28, 30, 30, 30, 30,
+                    28, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30 },
+            { -1, 17, 28, 22, 16, 22, 28, 26, 26, 24, 28, 24, 28, 22, 24, 24, 30, 28, 28, 26, 28, 30, 24, 30, 30, 30,
+                    30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30 },
+    };
+    private static final byte[][] ECC_BLOCKS = {
+            { -1, 1, 1, 1, 1, 1, 2, 2, 2, 2, 4, 4, 4, 4, 4, 6, 6, 6, 6, 7, 8, 8, 9, 9, 10, 12, 12, 12, 13, 14, 15, 16,
+                    17, 18, 19, 19, 20, 21, 22, 24, 25 },
+            { -1, 1, 1, 1, 2, 2, 4, 4, 4, 5, 5, 5, 8, 9, 9, 10, 10, 11, 13, 14, 16, 17, 17, 18, 20, 21, 23, 25, 26,
+                    28, 29, 31, 33, 35, 37, 38, 40, 43, 45, 47, 49 },
+            { -1, 1, 1, 2, 2, 4, 4, 6, 6, 8, 8, 8, 10, 12, 16, 12, 17, 16, 18, 21, 20, 23, 23, 25, 27, 29, 34, 34, 35,
+                    38, 40, 43, 45, 48, 51, 53, 56, 59, 62, 65, 68 },
+            { -1, 1, 1, 2, 4, 4, 4, 5, 6, 8, 8, 11, 11, 16, 16, 18, 16, 19, 21, 25, 25, 25, 34, 30, 32, 35, 37, 40, 42,
+                    45, 48, 51, 54, 57, 60, 63, 66, 70, 74, 77, 81 },
+    };
+
+    private static final int PENALTY_RUN = 3;
+    private static final int PENALTY_BLOCK = 3;
+    private static final int PENALTY_FINDER_LIKE = 40;
+    private static final int PENALTY_BALANCE = 10;
+
+    private final int version;
+    private final int size;
+    private final Ecc ecc;
+    private final int mask;
+    // Row-major, true for dark
+    private final boolean[] modules;
+
+    private QrCode(int version, Ecc ecc, int mask, boolean[] modules) {
+        this.version = version;
+        this.size = version * 4 + 17;
+        this.ecc = ecc;
+        this.mask = mask;
+        this.modules = modules;
+    }
+
+    /**
+     * Encodes the UTF-8 bytes of the text in the smallest version that fits.
+     *
+     * @throws IllegalArgumentException if the text does not fit in version 40 at this level
+     */
+    public static QrCode encode(String text, Ecc ecc) {
+        byte[] data = text.getBytes(StandardCharsets.UTF_8);
+        for (int version = MIN_VERSION; version <= MAX_VERSION; version++) {
+            int countBits = version <= 9 ? 8 : 16;
+            if (4 + countBits + 8L * data.length <= 8L * dataCodewords(version, ecc)) {
+                return new Builder(version, ecc).build(data, countBits);
+            }
+        }
+        throw new IllegalArgumentException("Text of " + data.length + " bytes is too long for a QR code at level " + ecc);
+    }
+
+    public int version() {
+        return version;
+    }
+
+    /** Modules per side, without the quiet zone. */
+    public int size() {
+        return size;
+    }
+
+    public Ecc ecc() {
+        return ecc;
+    }
+
+    public int mask() {
+        return mask;
+    }
+
+    public boolean isDark(int x, int y) {
+        return x >= 0 && x < size && y >= 0 && y < size && modules[y * size + x];
+    }
+
+    // -----------------------------------------------------------------------
+    // Capacity
+    // -----------------------------------------------------------------------
+
+    /** Modules left for data and error correction once the function patterns are placed. */
+    static int rawDataModules(int version) {
+        int result = (16 * version + 128) * version + 64;
+        if (version >= 2) {
+            int alignments = version / 7 + 2;
+            result -= (25 * alignments - 10) * alignments - 55;
+            if (version >= 7) {
+                // Two copies of the version information
+                result -= 36;
+            }
+        }
+        return result;
+    }
+
+    static int dataCodewords(int version, Ecc ecc) {
+        return rawDataModules(version) / 8 - eccCodewordsPerBlock(version, ecc) * eccBlocks(version, ecc);
+    }
+
+    static int eccBlocks(int version, Ecc ecc) {
+        return ECC_BLOCKS[ecc.ordinal()][version];
+    }
+
+    static int eccCodewordsPerBlock(int version, Ecc ecc) {
+        return ECC_CODEWORDS_PER_BLOCK[ecc.ordinal()][version];
+    }
+
+    /** Level and mask as a BCH(15,5) code, XORed with the fixed pattern. */
+    static int formatBits(Ecc ecc, int mask) {
+        int data = ecc.formatBits << 3 | mask;
+        int remainder = data;
+        for (int i = 0; i < 10; i++) {
+            remainder = (remainder << 1) ^ ((remainder >>> 9) * 0x537);
+        }
+        return (data << 10 | remainder) ^ 0x5412;
+    }
+
+    /** Version as a BCH(18,6) code. */
+    static int versionBits(int version) {
+        int remainder = version;
+        for (int i = 0; i < 12; i++) {
+            remainder = (remainder << 1) ^ ((remainder >>> 11) * 0x1F25);
+        }
+        return version << 12 | remainder;
+    }
+
+    /** Centres of the alignment patterns along either axis, ascending. */
+    static int[] alignmentPositions(int version) {
+        if (version == 1) {
+            return new int[0];
+        }
+        int count = version / 7 + 2;
+        int step = version == 32 ? 26 : (version * 4 + count * 2 + 1) / (count * 2 - 2) * 2;
+        int[] positions = new int[count];
+        positions[0] = 6;
+        for (int i = count - 1, position = version * 4 + 10; i >= 1; i--, position -= step) {
+            positions[i] = position;
+        }
+        return positions;
+    }
+
+    // -----------------------------------------------------------------------
+    // Construction
+    // -----------------------------------------------------------------------
+
+    /** Mutable grid used while the symbol is built. */
+    private static final class Builder {
+
+        private final int version;
+        private final int size;
+        private final Ecc ecc;
+        private final boolean[] modules;
+        private final boolean[] function;
+
+        Builder(int version, Ecc ecc) {
+            this.version = version;
+            this.size = version * 4 + 17;
+            this.ecc = ecc;
+            this.modules = new boolean[size * size];
+            this.function = new boolean[size * size];
+        }
+
+        QrCode build(byte[] data, int countBits) {
+            drawFunctionPatterns();
+            byte[] codewords = interleave(dataCodewords(data, countBits));
+            drawCodewords(codewords);
+
+            int bestMask = 0;
+            long bestPenalty = Long.MAX_VALUE;
+            for (int mask = 0; mask < 8; mask++) {
+                applyMask(mask);
+                drawFormatBits(mask);
+                long penalty = penalty();
+                if (penalty < bestPenalty) {
+                    bestMask = mask;
+                    bestPenalty = penalty;
+                }
+                // XOR again to undo
+                applyMask(mask);
+            }
+            applyMask(bestMask);
+            drawFormatBits(bestMask);
+            return new QrCode(version, ecc, bestMask, modules);
+        }
+
+        private void set(int x, int y, boolean dark) {
+            modules[y * size + x] = dark;
+            function[y * size + x] = true;
+        }
+
+        private void drawFunctionPatterns() {
+            for (int i = 0; i < size; i++) {
+                set(6, i, i % 2 == 0);
+                set(i, 6, i % 2 == 0);
+            }
+            drawFinder(3, 3);
+            drawFinder(size - 4, 3);
+            drawFinder(3, size - 4);
+
+            int[] alignments = alignmentPositions(version);
+            int last = alignments.length - 1;
+            for (int i = 0; i <= last; i++) {
+                for (int j = 0; j <= last; j++) {
+                    // The three corners taken by finder patterns
+                    if (!(i == 0 && j == 0 || i == 0 && j == last || i == last && j == 0)) {
+                        drawAlignment(alignments[i], alignments[j]);
+                    }
+                }
+            }
+            // Reserve the format areas; the real bits are drawn once the mask is chosen
+            drawFormatBits(0);
+            drawVersion();
+        }
+
+        /** A 7x7 finder with its light separator, centred on (x, y). */
+        private void drawFinder(int x, int y) {
+            for (int dy = -4; dy <= 4; dy++) {
+                for (int dx = -4; dx <= 4; dx++) {
+                    int distance = Math.max(Math.abs(dx), Math.abs(dy));
+                    int xx = x + dx;
+                    int yy = y + dy;
+                    if (xx >= 0 && xx < size && yy >= 0 && yy < size) {
+                        set(xx, yy, distance != 2 && distance != 4);
+                    }
+                }
+            }
+        }
+
+        private void drawAlignment(int x, int y) {
+            for (int dy = -2; dy <= 2; dy++) {
+                for (int dx = -2; dx <= 2; dx++) {
+                    set(x + dx, y + dy, Math.max(Math.abs(dx), Math.abs(dy)) != 1);
+                }
+            }
+        }
+
+        /** Level and mask, in two copies. */
+        private void drawFormatBits(int mask) {
+            int bits = formatBits(ecc, mask);
+
+            // Around the top-left finder
+            for (int i = 0; i <= 5; i++) {
+                set(8, i, bit(bits, i));
+            }
+            set(8, 7, bit(bits, 6));
+            set(8, 8, bit(bits, 7));
+            set(7, 8, bit(bits, 8));
+            for (int i = 9; i < 15; i++) {
+                set(14 - i, 8, bit(bits, i));
+            }
+            // Split between the other two finders
+            for (int i = 0; i < 8; i++) {
+                set(size - 1 - i, 8, bit(bits, i));
+            }
+            for (int i = 8; i < 15; i++) {
+                set(8, size - 15 + i, bit(bits, i));
+            }
+            // Always dark
+            set(8, size - 8, true);
+        }
+
+        /** Version, from version 7, in two copies. */
+        private void drawVersion() {
+            if (version < 7) {
+                return;
+            }
+            int bits = versionBits(version);
+            for (int i = 0; i < 18; i++) {
+                boolean dark = bit(bits, i);
+                int a = size - 11 + i % 3;
+                int b = i / 3;
+                set(a, b, dark);
+                set(b, a, dark);
+            }
+        }
+
+        /** Mode, count, data, terminator and padding, in whole codewords. */
+        private byte[] dataCodewords(byte[] data, int countBits) {
+            int capacity = QrCode.dataCodewords(version, ecc);
+            byte[] codewords = new byte[capacity];
+            BitWriter writer = new BitWriter(codewords);
+            // Byte mode
+            writer.write(0b0100, 4);
+            writer.write(data.length, countBits);
+            for (byte b : data) {
+                writer.write(b & 0xFF, 8);
+            }
+            writer.write(0, Math.min(4, capacity * 8 - writer.position));
+            writer.write(0, (8 - writer.position % 8) % 8);
+            for (int pad = 0xEC; writer.position < capacity * 8; pad ^= 0xEC ^ 0x11) {
+                writer.write(pad, 8);
+            }
+            return codewords;
+        }
+
+        /**
+         * Splits the data into blocks, appends each block's error correction,
+         * and interleaves the blocks codeword by codeword. The last blocks
+         * may hold one more data codeword than the first.
+         */
+        private byte[] interleave(byte[] data) {
+            int blocks = eccBlocks(version, ecc);
+            int eccLength = eccCodewordsPerBlock(version, ecc);
+            int raw = rawDataModules(version) / 8;
+            int shortBlocks = blocks - raw % blocks;
+            int shortBlockLength = raw / blocks;
+
+            byte[] divisor = ReedSolomon.divisor(eccLength);
+            byte[][] withEcc = new byte[blocks][];
+            for (int i = 0, offset = 0; i < blocks; i++) {
+                int dataLength = shortBlockLength - eccLength + (i < shortBlocks ? 0 : 1);
+                byte[] block = Arrays.copyOfRange(data, offset, offset + dataLength);
+                offset += dataLength;
+                byte[] correction = ReedSolomon.remainder(block, divisor);
+                // Short blocks get a placeholder so all rows line up
+                withEcc[i] = Arrays.copyOf(block, shortBlockLength + 1);
+                System.arraycopy(correction, 0, withEcc[i], shortBlockLength + 1 - eccLength, eccLength);
+            }
+            byte[] result = new byte[raw];
+            int position = 0;
+            for (int i = 0; i <= shortBlockLength; i++) {
+                for (int j = 0; j < blocks; j++) {
+                    if (i != shortBlockLength - eccLength || j >= shortBlocks) {
+                        result[position++] = withEcc[j][i];
+                    }
+                }
+            }
+            return result;
+        }
+
+        /** Zigzags up and down two-module columns from the bottom right, skipping function modules. */
+        private void drawCodewords(byte[] codewords) {
+            int i = 0;
+            for (int right = size - 1; right >= 1; right -= 2) {
+                if (right == 6) {
+                    // The vertical timing pattern
+                    right = 5;
+                }
+                for (int vertical = 0; vertical < size; vertical++) {
+                    for (int j = 0; j < 2; j++) {
+                        int x = right - j;
+                        boolean upward = ((right + 1) & 2) == 0;
+                        int y = upward ? size - 1 - vertical : vertical;
+                        if (!function[y * size + x] && i < codewords.length * 8) {
+                            modules[y * size + x] = bit(codewords[i >>> 3], 7 - (i & 7));
+                            i++;
+                        }
+                    }
+                }
+            }
+        }
+
+        private void applyMask(int mask) {
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    boolean invert = switch (mask) {
+                        case 0 -> (x + y) % 2 == 0;
+                        case 1 -> y % 2 == 0;
+                        case 2 -> x % 3 == 0;
+                        case 3 -> (x + y) % 3 == 0;
+                        case 4 -> (x / 3 + y / 2) % 2 == 0;
+                        case 5 -> x * y % 2 + x * y % 3 == 0;
+                        case 6 -> (x * y % 2 + x * y % 3) % 2 == 0;
+                        default -> ((x + y) % 2 + x * y % 3) % 2 == 0;
+                    };
+                    if (invert && !function[y * size + x]) {
+                        modules[y * size + x] ^= true;
+                    }
+                }
+            }
+        }
+
+        /**
+         * The standard's four penalty rules: runs of five or more modules of
+         * one colour, 2x2 blocks, finder-like 1:1:3:1:1 patterns with four
+         * light modules on either side, and imbalance between dark and light.
+         */
+        private long penalty() {
+            long penalty = 0;
+            int dark = 0;
+            for (int a = 0; a < size; a++) {
+                int rowRun = 0;
+                int columnRun = 0;
+                boolean rowColour = false;
+                boolean columnColour = false;
+                int rowPattern = 0;
+                int columnPattern = 0;
+                for (int b = 0; b < size; b++) {
+                    boolean inRow = modules[a * size + b];
+                    boolean inColumn = modules[b * size + a];
+                    if (inRow) {
+                        dark++;
+                    }
+                    if (b == 0 || inRow != rowColour) {
+                        rowColour = inRow;
+                        rowRun = 1;
+                    } else if (++rowRun == 5) {
+                        penalty += PENALTY_RUN;
+                    } else if (rowRun > 5) {
+                        penalty++;
+                    }
+                    if (b == 0 || inColumn != columnColour) {
+                        columnColour = inColumn;
+                        columnRun = 1;
+                    } else if (++columnRun == 5) {
+                        penalty += PENALTY_RUN;
+                    } else if (columnRun > 5) {
+                        penalty++;
+                    }
+                    // The last 11 modules as bits
+                    rowPattern = (rowPattern << 1 | (inRow ? 1 : 0)) & 0x7FF;
+                    columnPattern = (columnPattern << 1 | (inColumn ? 1 : 0)) & 0x7FF;
+                    if (b >= 10) {
+                        penalty += finderLike(rowPattern) + finderLike(columnPattern);
+                    }
+                    if (a > 0 && b > 0) {
+                        boolean colour = modules[a * size + b];
+                        if (colour == modules[a * size + b - 1] && colour == modules[(a - 1) * size + b]
+                                && colour == modules[(a - 1) * size + b - 1]) {
+                            penalty += PENALTY_BLOCK;
+                        }
+                    }
+                }
+            }
+            int total = size * size;
+            int k = (Math.abs(dark * 20 - total * 10) + total - 1) / total - 1;
+            return penalty + (long) k * PENALTY_BALANCE;
+        }
+
+        private static int finderLike(int pattern) {
+            // dark-light-dark x3-light-dark, then or after four light modules
+            return pattern == 0b10111010000 || pattern == 0b00001011101 ? PENALTY_FINDER_LIKE : 0;
+        }
+    }
+
+    private static boolean bit(int value, int index) {
+        return (value >>> index & 1) != 0;
+    }
+
+    /** Appends big-endian bit fields to a byte array. */
+    private static final class BitWriter {
+
+        private final byte[] out;
+        int position;
+
+        BitWriter(byte[] out) {
+            this.out = out;
+        }
+
+        void write(int value, int bits) {
+            for (int i = bits - 1; i >= 0; i--, position++) {
+                if ((value >>> i & 1) != 0) {
+                    out[position >>> 3] |= (byte) (0x80 >>> (position & 7));
+                }
+            }
+        }
+    }
+
+    /** Reed-Solomon error correction over GF(256) with the QR polynomial x^8 + x^4 + x^3 + x^2 + 1. */
+    static final class ReedSolomon {
+
+        private ReedSolomon() {}
+
+        /** Coefficients of the generator polynomial of the degree, highest first, the leading 1 omitted. */
+        static byte[] divisor(int degree) {
+            byte[] result = new byte[degree];
+            result[degree - 1] = 1;
+            int root = 1;
+            for (int i = 0; i < degree; i++) {
+                for (int j = 0; j < degree; j++) {
+                    result[j] = (byte) multiply(result[j] & 0xFF, root);
+                    if (j + 1 < degree) {
+                        result[j] ^= result[j + 1];
+                    }
+                }
+                root = multiply(root, 0x02);
+            }
+            return result;
+        }
+
+        /** The error correction codewords: the data polynomial modulo the divisor. */
+        static byte[] remainder(byte[] data, byte[] divisor) {
+            byte[] result = new byte[divisor.length];
+            for (byte b : data) {
+                int factor = (b ^ result[0]) & 0xFF;
+                System.arraycopy(result, 1, result, 0, result.length - 1);
+                result[result.length - 1] = 0;
+                for (int i = 0; i < result.length; i++) {
+                    result[i] ^= (byte) multiply(divisor[i] & 0xFF, factor);
+                }
+            }
+            return result;
+        }
+
+        static int multiply(int x, int y) {
+            int z = 0;
+            for (int i = 7; i >= 0; i--) {
+                z = (z << 1) ^ ((z >>> 7) * 0x11D);
+                z ^= ((y >>> i) & 1) * x;
+            }
+            return z;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.urlshortener.qr;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.urlshortener.memory.MemoryAccountable;
+import com.urlshortener.memory.MemoryEstimator;
+import com.urlshortener.memory.StructureFootprint;
+
+/**
+ * Rendered QR images bounded by their total size in bytes.
+ *
+ * Eviction is second-chance FIFO (CLOCK): entries queue in insertion order
+ * and a hit only sets a flag, so reads take no lock and move nothing. When
+ * the cache is over its budget, the oldest entry is dropped unless its flag
+ * is set, in which case the flag is cleared and the entry goes to the back
+ * of the queue. Popular codes keep their images; codes rendered once for a
+ * batch job age out.
+ *
+ * The cached arrays are shared and must not be modified.
+ */
+public class QrImageCache implements MemoryAccountable {
+
+    /** An image with its entity tag. */
+    public record Image(byte[] bytes, String etag) {
+    }
+
+    private static final class Entry {
+        final String key;
+        final Image image;
+        volatile boolean referenced;
+
+        Entry(String key, Image image) {
+            this.key = key;
+            this.image = image;
+        }
+
+        long heapBytes() {
+            // Entry, image record, ETag, key, array, plus a map node and a queue node
+            return 24 + 16 + MemoryEstimator.string(image.etag()) + MemoryEstimator.string(key)
+                    + MemoryEstimator.byteArray(image.bytes().length) + 32 + 24;
+        }
+    }
+
+    private final long maxBytes;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong bytes = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param maxBytes budget for the cached images and their bookkeeping; 0 disables the cache
+     */
+    public QrImageCache(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must not be negative");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * The cached image for the key, or a new one from the renderer, which is
+     * cached if it fits. Concurrent misses on one key may both render.
+     */
+    public Image get(String key, Supplier<Image> renderer) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            hits.increment();
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            return entry.image;
+        }
+        misses.increment();
+        Image image = renderer.get();
+        if (maxBytes > 0) {
+            put(key, image);
+        }
+        return image;
+    }
+
+    private void put(String key, Image image) {
+        Entry entry = new Entry(key, image);
+        long size = entry.heapBytes();
+        if (size > maxBytes || entries.putIfAbsent(key, entry) != null) {
+            return;
+        }
+        queue.add(entry);
+        if (bytes.addAndGet(size) > maxBytes) {
+            evict();
+        }
+    }
+
+    private synchronized void evict() {
+        while (bytes.get() > maxBytes) {
+            Entry oldest = queue.poll();
+            if (oldest == null) {
+                return;
+            }
+            if (oldest.referenced) {
+                oldest.referenced = false;
+                queue.add(oldest);
+            } else if (entries.remove(oldest.key, oldest)) {
+                bytes.addAndGet(-oldest.heapBytes());
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long bytes() {
+        return bytes.get();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    @Override
+    public List<StructureFootprint> memoryFootprint() {
+        return List.of(new StructureFootprint("qrImageCache", entries.size(), bytes.get()));
+    }
+}
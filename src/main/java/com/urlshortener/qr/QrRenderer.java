@@ -0,0 +1,151 @@
+package com.urlshortener.qr;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Draws a {@link QrCode} as a PNG or SVG image with the standard four-module
+ * quiet zone, black on white.
+ *
+ * The PNG writer is hand-rolled: a 1-bit greyscale image needs only the
+ * IHDR, IDAT and IEND chunks, so rows are packed eight pixels per byte and
+ * deflated directly, with no BufferedImage or ImageIO (and no java.desktop
+ * module in the native image). The SVG draws each horizontal run of dark modules as one
+ * rectangle in a single path.
+ */
+public final class QrRenderer {
+
+    public enum Format {
+        PNG("image/png"), SVG("image/svg+xml");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public static Format of(String name) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported image format '" + name + "'; expected png or svg");
+        }
+    }
+
+    public static final int QUIET_ZONE = 4;
+
+    private static final byte[] PNG_SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+
+    private QrRenderer() {}
+
+    /**
+     * Renders an image about {@code size} pixels wide. A PNG uses the largest
+     * whole number of pixels per module that fits, at least one, so it may be
+     * a little smaller; an SVG is exactly {@code size} wide.
+     */
+    public static byte[] render(QrCode code, Format format, int size) {
+        return format == Format.PNG ? png(code, size) : svg(code, size);
+    }
+
+    static byte[] png(QrCode code, int size) {
+        int modules = code.size() + 2 * QUIET_ZONE;
+        int scale = Math.max(1, size / modules);
+        int width = modules * scale;
+        int rowBytes = (width + 7) / 8;
+
+        // Filter byte 0 (none) then the row; 1 is white in 1-bit greyscale
+        byte[] raw = new byte[(rowBytes + 1) * width];
+        byte[] row = new byte[rowBytes];
+        for (int y = 0; y < modules; y++) {
+            Arrays.fill(row, (byte) 0);
+            for (int x = 0; x < width; x++) {
+                if (!code.isDark(x / scale - QUIET_ZONE, y - QUIET_ZONE)) {
+                    row[x >>> 3] |= (byte) (0x80 >>> (x & 7));
+                }
+            }
+            for (int repeat = 0; repeat < scale; repeat++) {
+                int offset = (y * scale + repeat) * (rowBytes + 1);
+                System.arraycopy(row, 0, raw, offset + 1, rowBytes);
+            }
+        }
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 8 + 64);
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            compressed.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.size() + 64);
+        out.writeBytes(PNG_SIGNATURE);
+        byte[] header = new byte[13];
+        putInt(header, 0, width);
+        putInt(header, 4, width);
+        // Bit depth 1, greyscale, deflate, adaptive filtering, no interlace
+        header[8] = 1;
+        chunk(out, "IHDR", header);
+        chunk(out, "IDAT", compressed.toByteArray());
+        chunk(out, "IEND", new byte[0]);
+        return out.toByteArray();
+    }
+
+    static byte[] svg(QrCode code, int size) {
+        int modules = code.size() + 2 * QUIET_ZONE;
+        StringBuilder svg = new StringBuilder(code.size() * code.size() * 3);
+        svg.append("<svg xmlns=\"http://www.w3.org/2000/svg\" version=\"1.1\" viewBox=\"0 0 ")
+                .append(modules).append(' ').append(modules)
+                .append("\" width=\"").append(size).append("\" height=\"").append(size)
+                .append("\" shape-rendering=\"crispEdges\">")
+                .append("<rect width=\"100%\" height=\"100%\" fill=\"#fff\"/><path fill=\"#000\" d=\"");
+        for (int y = 0; y < code.size(); y++) {
+            for (int x = 0; x < code.size(); ) {
+                if (!code.isDark(x, y)) {
+                    x++;
+                    continue;
+                }
+                int start = x;
+                while (x < code.size() && code.isDark(x, y)) {
+                    x++;
+                }
+                svg.append('M').append(start + QUIET_ZONE).append(' ').append(y + QUIET_ZONE)
+                        .append('h').append(x - start).append("v1h-").append(x - start).append('z');
+            }
+        }
+        svg.append("\"/></svg>\n");
+        return svg.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static void chunk(ByteArrayOutputStream out, String type, byte[] data) {
+        byte[] length = new byte[4];
+        putInt(length, 0, data.length);
+        out.writeBytes(length);
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        out.writeBytes(typeBytes);
+        out.writeBytes(data);
+        byte[] checksum = new byte[4];
+        putInt(checksum, 0, (int) crc.getValue());
+        out.writeBytes(checksum);
+    }
+
+    private static void putInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+}
@@ -0,0 +1,179 @@
+package com.urlshortener.ratelimit;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the number of requests in flight, with a limit that adapts to
+ * measured latency (AIMD: additive increase, multiplicative decrease).
+ *
+ * Completed requests are sampled in windows of {@code windowSamples}. Each
+ * sample is compared with the no-load latency of its priority, a running
+ * estimate that follows drops quickly and rises slowly. If more than a tenth
+ * of a window's samples took longer than {@code tolerance} times that
+ * estimate, requests are queueing for the CPU or a lock, and the limit is
+ * multiplied by {@code backoff}. Otherwise, if the window used at least half
+ * the limit, the limit grows by one. A window that used less says nothing
+ * about a higher limit, so the limit stays.
+ *
+ * Priorities share the limit: each may only take requests while fewer than
+ * its share of the limit are in flight, and at least one. As the limit falls,
+ * LOW requests are shed first, then NORMAL ones, while CRITICAL requests can
+ * still use the whole limit. Shed requests fail at once instead of waiting
+ * for a thread.
+ *
+ * Releases take no lock: a sample updates its priority's estimate and the
+ * window's counters with compare-and-set, and only the release that
+ * completes a window locks to adjust the limit.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    public enum Priority {
+        CRITICAL(1.0), NORMAL(0.75), LOW(0.5);
+
+        private final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+    }
+
+    private static final double SLOW_FRACTION = 0.1;
+    private static final double BASELINE_DOWN = 0.1;
+    private static final double BASELINE_UP = 1.0 / 1024;
+    // The window is one long: samples, slow samples and the most requests seen in flight, 21 bits each
+    private static final int FIELD_BITS = 21;
+    private static final long FIELD_MASK = (1L << FIELD_BITS) - 1;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoff;
+    private final int windowSamples;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+    private final Map<Priority, LongAdder> admitted = new EnumMap<>(Priority.class);
+    private final Map<Priority, LongAdder> shed = new EnumMap<>(Priority.class);
+
+    private final AtomicLong window = new AtomicLong();
+    // Bits of each priority's no-load latency as a double, 0 before its first sample
+    private final AtomicLongArray baselineNanos = new AtomicLongArray(Priority.values().length);
+
+    // Guarded by this
+    private double exactLimit;
+
+    /**
+     * @param tolerance how many times its no-load latency a request may take before it counts as slow
+     * @param backoff   factor applied to the limit after a slow window, below 1
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance,
+                                      double backoff, int windowSamples) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Expected 1 <= minLimit <= initialLimit <= maxLimit");
+        }
+        if (tolerance <= 1 || backoff <= 0 || backoff >= 1 || windowSamples < 1 || windowSamples > FIELD_MASK) {
+            throw new IllegalArgumentException("tolerance must exceed 1, backoff must be in (0, 1) "
+                    + "and windowSamples must be between 1 and " + FIELD_MASK);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoff = backoff;
+        this.windowSamples = windowSamples;
+        this.limit = initialLimit;
+        this.exactLimit = initialLimit;
+        for (Priority priority : Priority.values()) {
+            admitted.put(priority, new LongAdder());
+            shed.put(priority, new LongAdder());
+        }
+    }
+
+    /**
+     * Takes a slot for a request, or returns false if its priority's share of
+     * the limit is in use. A true result must be followed by {@link #release}.
+     */
+    public boolean tryAcquire(Priority priority) {
+        int allowed = Math.max(1, (int) (limit * priority.share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                shed.get(priority).increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                admitted.get(priority).increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Frees the request's slot and records how long it took.
+     */
+    public void release(Priority priority, long latencyNanos) {
+        int before = inFlight.getAndDecrement();
+        long slow = sampleBaseline(priority, Math.max(1, latencyNanos)) ? 1 : 0;
+        long seen = Math.min(before, FIELD_MASK);
+        while (true) {
+            long current = window.get();
+            long samples = (current & FIELD_MASK) + 1;
+            long slowSamples = (current >>> FIELD_BITS & FIELD_MASK) + slow;
+            long maxInFlight = Math.max(current >>> 2 * FIELD_BITS, seen);
+            if (samples < windowSamples) {
+                if (window.compareAndSet(current,
+                        samples | slowSamples << FIELD_BITS | maxInFlight << 2 * FIELD_BITS)) {
+                    return;
+                }
+            } else if (window.compareAndSet(current, 0)) {
+                adjust(samples, slowSamples, maxInFlight);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Moves the priority's no-load estimate towards the sample. If another
+     * release moved it first, this sample's move is dropped rather than
+     * retried; the estimate only needs to follow the trend.
+     *
+     * @return whether the sample was slow against the estimate
+     */
+    private boolean sampleBaseline(Priority priority, long latencyNanos) {
+        int slot = priority.ordinal();
+        long bits = baselineNanos.get(slot);
+        double baseline = bits == 0 ? latencyNanos : Double.longBitsToDouble(bits);
+        double next = baseline + (latencyNanos - baseline) * (latencyNanos < baseline ? BASELINE_DOWN : BASELINE_UP);
+        baselineNanos.compareAndSet(slot, bits, Double.doubleToRawLongBits(next));
+        return latencyNanos > tolerance * baseline;
+    }
+
+    private synchronized void adjust(long samples, long slowSamples, long maxInFlight) {
+        if (slowSamples > SLOW_FRACTION * samples) {
+            exactLimit = Math.max(minLimit, exactLimit * backoff);
+        } else if (2 * maxInFlight >= exactLimit) {
+            exactLimit = Math.min(maxLimit, exactLimit + 1);
+        }
+        limit = (int) exactLimit;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public long admitted(Priority priority) {
+        return admitted.get(priority).sum();
+    }
+
+    public long shed(Priority priority) {
+        return shed.get(priority).sum();
+    }
+}
@@ -0,0 +1,92 @@
+package com.urlshortener.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client rate limiter: one {@link TokenBucket} per client key, held in a
+ * bounded concurrent map.
+ *
+ * The fast path for a known client is a lock-free map read plus one CAS.
+ * Buckets that have been full for longer than the idle timeout are evicted
+ * by a sweep that runs when the map reaches its bound (at most once a second)
+ * and otherwise once per idle interval. If the map is still full after sweeping, new
+ * clients share a single overflow bucket, so memory stays bounded even when
+ * an attacker rotates through many keys.
+ */
+public class ClientRateLimiter {
+
+    static final String OVERFLOW_KEY = "__overflow__";
+
+    /** A full map is swept at most this often, so key churn cannot turn every request into a scan. */
+    private static final long MIN_SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final double permitsPerSecond;
+    private final int burst;
+    private final int maxClients;
+    private final long idleNanos;
+    private final LongSupplier clock;
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private volatile long lastSweepNanos;
+
+    public ClientRateLimiter(double permitsPerSecond, int burst, int maxClients, long idleTimeout, TimeUnit unit) {
+        this(permitsPerSecond, burst, maxClients, unit.toNanos(idleTimeout), System::nanoTime);
+    }
+
+    ClientRateLimiter(double permitsPerSecond, int burst, int maxClients, long idleNanos, LongSupplier clock) {
+        if (permitsPerSecond <= 0 || burst < 1 || maxClients < 1) {
+            throw new IllegalArgumentException("Rate limit settings must be positive");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.maxClients = maxClients;
+        this.idleNanos = idleNanos;
+        this.clock = clock;
+        this.lastSweepNanos = clock.getAsLong();
+    }
+
+    /**
+     * Takes one permit for the client.
+     *
+     * @return 0 if allowed, otherwise the nanoseconds until the client may retry
+     */
+    public long tryAcquire(String clientKey) {
+        long now = clock.getAsLong();
+        TokenBucket bucket = buckets.get(clientKey);
+        if (bucket == null) {
+            bucket = bucketForNewClient(clientKey, now);
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    public int trackedClients() {
+        return buckets.size();
+    }
+
+    private TokenBucket bucketForNewClient(String clientKey, long now) {
+        long sinceSweep = now - lastSweepNanos;
+        if (sinceSweep >= idleNanos
+                || (buckets.size() >= maxClients && sinceSweep >= MIN_SWEEP_INTERVAL_NANOS)) {
+            sweep(now);
+        }
+        if (buckets.size() >= maxClients) {
+            return buckets.computeIfAbsent(OVERFLOW_KEY, k -> new TokenBucket(permitsPerSecond, burst, now));
+        }
+        return buckets.computeIfAbsent(clientKey, k -> new TokenBucket(permitsPerSecond, burst, now));
+    }
+
+    private void sweep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;     // another thread is already sweeping
+        }
+        try {
+            buckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+            lastSweepNanos = now;
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
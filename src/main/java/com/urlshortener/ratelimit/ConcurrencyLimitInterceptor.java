@@ -0,0 +1,46 @@
+package com.urlshortener.ratelimit;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.urlshortener.exception.ServiceOverloadedException;
+import com.urlshortener.ratelimit.AdaptiveConcurrencyLimiter.Priority;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admits requests of one priority through the {@link AdaptiveConcurrencyLimiter},
+ * and reports their latency to it when they complete.
+ */
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".start";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Priority priority;
+
+    public ConcurrencyLimitInterceptor(AdaptiveConcurrencyLimiter limiter, Priority priority) {
+        this.limiter = limiter;
+        this.priority = priority;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!limiter.tryAcquire(priority)) {
+            throw new ServiceOverloadedException("Service is overloaded. Retry after 1 second(s).", 1);
+        }
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        // Only called when preHandle returned true, so the slot is ours
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start != null) {
+            request.removeAttribute(START_ATTRIBUTE);
+            limiter.release(priority, System.nanoTime() - (Long) start);
+        }
+    }
+}
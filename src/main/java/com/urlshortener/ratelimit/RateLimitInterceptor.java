@@ -0,0 +1,73 @@
+package com.urlshortener.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.urlshortener.exception.RateLimitExceededException;
+import com.urlshortener.tenant.TenantRegistry;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Applies the {@link ClientRateLimiter} to the endpoints it is registered for.
+ *
+ * Clients are identified by their X-API-Key header when it is a tenant's
+ * configured key, otherwise by network prefix of the remote address (/24 for
+ * IPv4, /64 for IPv6), so one host cannot dodge the limit by cycling through
+ * neighbouring addresses. Unknown keys are ignored: honoring them would let a
+ * client get a fresh burst with every made-up key, and fill the limiter's
+ * table until other clients are pushed into its shared overflow bucket.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    public static final String API_KEY_HEADER = "X-API-Key";
+
+    private final ClientRateLimiter limiter;
+    private final TenantRegistry tenants;
+
+    public RateLimitInterceptor(ClientRateLimiter limiter, TenantRegistry tenants) {
+        this.limiter = limiter;
+        this.tenants = tenants;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String clientKey = clientKey(request, tenants);
+        long waitNanos = limiter.tryAcquire(clientKey);
+        if (waitNanos > 0) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            throw new RateLimitExceededException(
+                    "Rate limit exceeded. Retry after " + retryAfter + " second(s).", retryAfter);
+        }
+        return true;
+    }
+
+    static String clientKey(HttpServletRequest request, TenantRegistry tenants) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        if (apiKey != null && tenants.isApiKey(apiKey)) {
+            return "key:" + apiKey;
+        }
+        return "ip:" + networkPrefix(request.getRemoteAddr());
+    }
+
+    static String networkPrefix(String address) {
+        if (address == null) {
+            return "unknown";
+        }
+        if (address.indexOf(':') >= 0) {
+            // IPv6: keep the first four hextets (/64)
+            int end = -1;
+            for (int i = 0; i < 4; i++) {
+                end = address.indexOf(':', end + 1);
+                if (end < 0) {
+                    return address;
+                }
+            }
+            return address.substring(0, end);
+        }
+        int lastDot = address.lastIndexOf('.');
+        return lastDot < 0 ? address : address.substring(0, lastDot);
+    }
+}
@@ -0,0 +1,55 @@
+package com.urlshortener.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket.
+ *
+ * Implemented in its "virtual scheduling" form (GCRA): instead of a token
+ * count plus a last-refill timestamp, the whole state is a single
+ * theoretical arrival time (TAT) in nanoseconds. Each permit pushes TAT
+ * forward by one emission interval; a request is allowed while TAT stays
+ * within {@code burst} intervals of now. That is exactly a bucket of
+ * {@code burst} tokens refilled at {@code permitsPerSecond}, but one CAS on
+ * one long updates it, with no lock and no separate refill step.
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        this.emissionIntervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * burst;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one permit if available.
+     *
+     * @return 0 if the permit was granted, otherwise how many nanoseconds
+     *         until one will be available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat, nowNanos) + emissionIntervalNanos;
+            long wait = next - nowNanos - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * True if the bucket has been full since at least {@code idleNanos} ago.
+     * Dropping such a bucket loses nothing: a fresh one starts full too.
+     */
+    public boolean isIdle(long nowNanos, long idleNanos) {
+        return theoreticalArrival.get() + idleNanos <= nowNanos;
+    }
+}
@@ -0,0 +1,590 @@
+package com.urlshortener.redirect;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.urlshortener.services.UrlShortenerService;
+import com.urlshortener.tenant.TenantContext;
+import com.urlshortener.tenant.TenantRegistry;
+import com.urlshortener.util.Hashing;
+import com.urlshortener.visitors.UniqueVisitorCounter;
+import com.urlshortener.visitors.VisitorInterceptor;
+
+/**
+ * A minimal non-blocking HTTP/1.1 server that only answers redirects:
+ * GET or HEAD /{shortCode} gets a 302 to the original URL, anything else a
+ * fixed error response.
+ *
+ * It calls the same {@link UrlShortenerService#resolve} as the Spring
+ * endpoint, but skips the servlet container, DispatcherServlet, handler
+ * mapping, argument resolution and ResponseEntity. Each event loop owns a
+ * selector and a direct response buffer, and its connections are served
+ * entirely on that thread. Requests are parsed in place in the connection's
+ * read buffer. Responses are assembled from pre-encoded status lines and
+ * headers plus the URL bytes. Keep-alive and pipelining are supported;
+ * request bodies are not, so a request announcing one is answered and the
+ * connection closed.
+ *
+ * Tenants are resolved from the Host and X-API-Key headers, and visitors are
+ * counted as on the Spring path. Rate and concurrency limits do not apply;
+ * redirects are their highest priority anyway. The repository lookup runs on
+ * the event loop, so a repository that blocks on disk stalls that loop's
+ * connections for the duration.
+ */
+public class RedirectServer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RedirectServer.class);
+
+    /** Largest request head accepted; longer ones get 431 and the connection is closed. */
+    static final int MAX_REQUEST_BYTES = 8192;
+
+    private static final int RESPONSE_BUFFER_BYTES = 64 * 1024;
+    private static final int MAX_CODE_LENGTH = 64;
+
+    private static final byte[] FOUND = ascii("HTTP/1.1 302 Found\r\nContent-Length: 0\r\nLocation: ");
+    private static final byte[] CONNECTION_CLOSE = ascii("\r\nConnection: close");
+    private static final byte[] END_OF_HEAD = ascii("\r\n\r\n");
+    private static final byte[] NOT_FOUND = response("404 Not Found", "", 404, "Short code not found");
+    private static final byte[] NOT_FOUND_HEAD = head(NOT_FOUND);
+    private static final byte[] METHOD_NOT_ALLOWED = response("405 Method Not Allowed", "Allow: GET, HEAD\r\n",
+            405, "Only GET and HEAD are served on this port");
+    private static final byte[] BAD_REQUEST = response("400 Bad Request", "", 400, "Malformed request");
+    private static final byte[] HEAD_TOO_LARGE = response("431 Request Header Fields Too Large", "",
+            431, "Request head exceeds " + MAX_REQUEST_BYTES + " bytes");
+    private static final byte[] SERVER_ERROR = response("500 Internal Server Error", "",
+            500, "An unexpected error occurred");
+
+    private final UrlShortenerService service;
+    private final TenantRegistry tenants;
+    private final UniqueVisitorCounter visitors;
+    private final ServerSocketChannel serverChannel;
+    private final EventLoop[] loops;
+    private final LongAdder redirects = new LongAdder();
+    private final LongAdder notFound = new LongAdder();
+    private volatile boolean running = true;
+
+    /**
+     * Binds the port and starts the event loops.
+     *
+     * @param tenants  tenants to resolve requests to, or null when there are none
+     * @param visitors counter to record visitors in, or null not to count them
+     * @param port     TCP port to listen on; 0 picks a free port
+     * @param threads  number of event loops
+     */
+    public RedirectServer(UrlShortenerService service, TenantRegistry tenants, UniqueVisitorCounter visitors,
+                          int port, int threads) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        this.service = service;
+        this.tenants = tenants;
+        this.visitors = visitors;
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        serverChannel.bind(new InetSocketAddress(port), 1024);
+        serverChannel.configureBlocking(false);
+        this.loops = new EventLoop[threads];
+        for (int i = 0; i < threads; i++) {
+            loops[i] = new EventLoop(Selector.open());
+        }
+        serverChannel.register(loops[0].selector, SelectionKey.OP_ACCEPT);
+        for (int i = 0; i < threads; i++) {
+            Thread thread = new Thread(loops[i], "redirect-server-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        log.info("Redirect server listening on port {} with {} event loop(s)", getPort(), threads);
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public long redirects() {
+        return redirects.sum();
+    }
+
+    public long notFound() {
+        return notFound.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverChannel.close();
+        for (EventLoop loop : loops) {
+            loop.selector.wakeup();
+        }
+    }
+
+    /**
+     * State of one client connection. The read buffer holds unprocessed
+     * request bytes; {@code pending} holds response bytes the socket did not
+     * take yet, and reading pauses until they are written.
+     */
+    private static final class Connection {
+
+        final SocketChannel channel;
+        final String remoteAddr;
+        final ByteBuffer in = ByteBuffer.allocate(MAX_REQUEST_BYTES);
+        ByteBuffer pending;
+        boolean closing;
+
+        Connection(SocketChannel channel, String remoteAddr) {
+            this.channel = channel;
+            this.remoteAddr = remoteAddr;
+        }
+    }
+
+    private final class EventLoop implements Runnable {
+
+        final Selector selector;
+        final Queue<SocketChannel> accepted = new ConcurrentLinkedQueue<>();
+        final ByteBuffer out = ByteBuffer.allocateDirect(RESPONSE_BUFFER_BYTES);
+        int nextLoop;
+
+        EventLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    selector.select();
+                    SocketChannel channel;
+                    while ((channel = accepted.poll()) != null) {
+                        register(channel);
+                    }
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        handle(key);
+                    }
+                } catch (IOException e) {
+                    if (running) {
+                        log.warn("Redirect server event loop failed", e);
+                    }
+                }
+            }
+            try {
+                for (SelectionKey key : selector.keys()) {
+                    key.channel().close();
+                }
+                selector.close();
+            } catch (IOException e) {
+                log.debug("Error closing redirect server selector", e);
+            }
+        }
+
+        private void handle(SelectionKey key) {
+            if (!key.isValid()) {
+                return;
+            }
+            if (key.isAcceptable()) {
+                accept();
+                return;
+            }
+            Connection connection = (Connection) key.attachment();
+            try {
+                if (key.isWritable()) {
+                    if (!flushPending(connection)) {
+                        return;
+                    }
+                    key.interestOps(SelectionKey.OP_READ);
+                    serve(connection, key);             // requests that were pipelined behind the backlog
+                } else if (key.isReadable()) {
+                    if (connection.channel.read(connection.in) < 0) {
+                        close(key);
+                        return;
+                    }
+                    serve(connection, key);
+                }
+            } catch (IOException e) {
+                close(key);
+            }
+        }
+
+        private void accept() {
+            try {
+                SocketChannel channel;
+                while ((channel = serverChannel.accept()) != null) {
+                    EventLoop loop = loops[nextLoop];
+                    nextLoop = (nextLoop + 1) % loops.length;
+                    if (loop == this) {
+                        register(channel);
+                    } else {
+                        loop.accepted.add(channel);
+                        loop.selector.wakeup();
+                    }
+                }
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("Redirect server failed to accept a connection", e);
+                }
+            }
+        }
+
+        private void register(SocketChannel channel) {
+            try {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                String remoteAddr = ((InetSocketAddress) channel.getRemoteAddress()).getAddress().getHostAddress();
+                channel.register(selector, SelectionKey.OP_READ, new Connection(channel, remoteAddr));
+            } catch (IOException e) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // already failing
+                }
+            }
+        }
+
+        /**
+         * Answers every complete request in the read buffer, writing the
+         * responses in as few calls as possible. Stops when the socket does
+         * not take a batch, which is then written when it becomes writable,
+         * or when a response ends the connection.
+         */
+        private void serve(Connection connection, SelectionKey key) throws IOException {
+            ByteBuffer in = connection.in;
+            byte[] data = in.array();
+            while (true) {
+                int limit = in.position();
+                int start = 0;
+                out.clear();
+                while (!connection.closing && connection.pending == null) {
+                    int headEnd = indexOfEndOfHead(data, start, limit);
+                    if (headEnd < 0) {
+                        if (start == 0 && limit == data.length) {
+                            append(connection, HEAD_TOO_LARGE, true);
+                        }
+                        break;
+                    }
+                    if (out.remaining() < MAX_REQUEST_BYTES && out.position() > 0) {
+                        break;                              // answer the rest after this batch is written
+                    }
+                    answer(connection, data, start, headEnd);
+                    start = headEnd + 4;
+                }
+                System.arraycopy(data, start, data, 0, limit - start);
+                in.position(limit - start);
+
+                ByteBuffer batch = connection.pending;
+                if (batch == null) {
+                    out.flip();
+                    batch = out;
+                }
+                connection.pending = null;
+                if (batch.hasRemaining()) {
+                    connection.channel.write(batch);
+                }
+                if (batch.hasRemaining()) {
+                    connection.pending = batch != out ? batch : ByteBuffer.allocate(batch.remaining()).put(batch).flip();
+                    key.interestOps(SelectionKey.OP_WRITE);
+                    return;
+                }
+                if (connection.closing) {
+                    close(key);
+                    return;
+                }
+                if (start == 0 || indexOfEndOfHead(data, 0, in.position()) < 0) {
+                    return;                                 // wait for more input
+                }
+            }
+        }
+
+        /**
+         * @return whether everything pending was written and the connection is still open
+         */
+        private boolean flushPending(Connection connection) throws IOException {
+            connection.channel.write(connection.pending);
+            if (connection.pending.hasRemaining()) {
+                return false;
+            }
+            connection.pending = null;
+            if (connection.closing) {
+                connection.channel.close();
+                return false;
+            }
+            return true;
+        }
+
+        private void answer(Connection connection, byte[] data, int start, int headEnd) {
+            int lineEnd = indexOf(data, start, headEnd, (byte) '\r');
+            if (lineEnd < 0) {
+                lineEnd = headEnd;                          // a request without headers
+            }
+            int firstSpace = indexOf(data, start, lineEnd, (byte) ' ');
+            int secondSpace = indexOf(data, firstSpace + 1, lineEnd, (byte) ' ');
+            if (firstSpace < 0 || secondSpace < 0) {
+                append(connection, BAD_REQUEST, true);
+                return;
+            }
+            boolean http11 = matches(data, secondSpace + 1, lineEnd, "HTTP/1.1");
+            if (!http11 && !matches(data, secondSpace + 1, lineEnd, "HTTP/1.0")) {
+                append(connection, BAD_REQUEST, true);
+                return;
+            }
+
+            Headers headers = new Headers();
+            headers.parse(data, lineEnd + 2, headEnd);
+            boolean close = !http11 || headers.close || headers.hasBody;
+            boolean isHead = matches(data, start, firstSpace, "HEAD");
+            if (!isHead && !matches(data, start, firstSpace, "GET")) {
+                append(connection, METHOD_NOT_ALLOWED, true);
+                return;
+            }
+
+            String shortCode = shortCode(data, firstSpace + 1, secondSpace);
+            if (shortCode == null) {
+                notFound.increment();
+                append(connection, isHead ? NOT_FOUND_HEAD : NOT_FOUND, close);
+                return;
+            }
+            if (tenants != null) {
+                TenantContext.set(tenants.resolve(headers.host, headers.apiKey));
+            }
+            try {
+                String location = location(service.resolve(shortCode));
+                if (visitors != null) {
+                    String visitorId = VisitorInterceptor.visitorId(
+                            headers.visitorId, connection.remoteAddr, headers.userAgent);
+                    visitors.record(TenantContext.key(shortCode), Hashing.hash64(visitorId));
+                }
+                redirects.increment();
+                appendFound(connection, location, close);
+            } catch (NoSuchElementException e) {
+                notFound.increment();
+                append(connection, isHead ? NOT_FOUND_HEAD : NOT_FOUND, close);
+            } catch (RuntimeException e) {
+                log.warn("Redirect of {} failed", shortCode, e);
+                append(connection, SERVER_ERROR, true);
+            } finally {
+                if (tenants != null) {
+                    TenantContext.clear();
+                }
+            }
+        }
+
+        private void append(Connection connection, byte[] response, boolean close) {
+            put(connection, response);
+            connection.closing |= close;
+        }
+
+        private void appendFound(Connection connection, String location, boolean close) {
+            int length = FOUND.length + location.length() + (close ? CONNECTION_CLOSE.length : 0) + END_OF_HEAD.length;
+            byte[] response = new byte[length];
+            System.arraycopy(FOUND, 0, response, 0, FOUND.length);
+            int position = FOUND.length;
+            for (int i = 0; i < location.length(); i++) {
+                response[position++] = (byte) location.charAt(i);     // ASCII, see location()
+            }
+            if (close) {
+                System.arraycopy(CONNECTION_CLOSE, 0, response, position, CONNECTION_CLOSE.length);
+                position += CONNECTION_CLOSE.length;
+            }
+            System.arraycopy(END_OF_HEAD, 0, response, position, END_OF_HEAD.length);
+            append(connection, response, close);
+        }
+
+        /**
+         * Copies a response into the direct buffer. One that does not fit,
+         * such as for a very long URL, becomes a batch of its own together
+         * with what the buffer holds, and ends the current batch.
+         */
+        private void put(Connection connection, byte[] response) {
+            if (response.length <= out.remaining()) {
+                out.put(response);
+                return;
+            }
+            out.flip();
+            ByteBuffer combined = ByteBuffer.allocate(out.remaining() + response.length);
+            combined.put(out).put(response).flip();
+            out.clear();
+            connection.pending = combined;
+        }
+
+        private void close(SelectionKey key) {
+            key.cancel();
+            try {
+                key.channel().close();
+            } catch (IOException e) {
+                log.debug("Error closing redirect connection", e);
+            }
+        }
+    }
+
+    /**
+     * The headers a redirect needs, read without allocating for the others.
+     */
+    private static final class Headers {
+
+        String host;
+        String apiKey;
+        String visitorId;
+        String userAgent;
+        boolean close;
+        boolean hasBody;
+
+        void parse(byte[] data, int start, int end) {
+            int line = start;
+            while (line < end) {
+                int lineEnd = indexOf(data, line, end, (byte) '\r');
+                if (lineEnd < 0) {
+                    lineEnd = end;
+                }
+                int colon = indexOf(data, line, lineEnd, (byte) ':');
+                if (colon > 0) {
+                    header(data, line, colon, lineEnd);
+                }
+                line = lineEnd + 2;
+            }
+        }
+
+        private void header(byte[] data, int name, int colon, int end) {
+            int value = colon + 1;
+            while (value < end && (data[value] == ' ' || data[value] == '\t')) {
+                value++;
+            }
+            int valueEnd = end;
+            while (valueEnd > value && (data[valueEnd - 1] == ' ' || data[valueEnd - 1] == '\t')) {
+                valueEnd--;
+            }
+            if (equalsIgnoreCase(data, name, colon, "host")) {
+                host = string(data, value, valueEnd);
+            } else if (equalsIgnoreCase(data, name, colon, "x-api-key")) {
+                apiKey = string(data, value, valueEnd);
+            } else if (equalsIgnoreCase(data, name, colon, "x-visitor-id")) {
+                visitorId = string(data, value, valueEnd);
+            } else if (equalsIgnoreCase(data, name, colon, "user-agent")) {
+                userAgent = string(data, value, valueEnd);
+            } else if (equalsIgnoreCase(data, name, colon, "connection")) {
+                close = equalsIgnoreCase(data, value, valueEnd, "close");
+            } else if (equalsIgnoreCase(data, name, colon, "content-length")) {
+                hasBody |= !(valueEnd - value == 1 && data[value] == '0');
+            } else if (equalsIgnoreCase(data, name, colon, "transfer-encoding")) {
+                hasBody = true;
+            }
+        }
+    }
+
+    /**
+     * The short code of a request target like {@code /aB3cD4e?utm=x}, or null
+     * if the path is not a single segment of short-code characters.
+     */
+    static String shortCode(byte[] data, int start, int end) {
+        if (start >= end || data[start] != '/') {
+            return null;
+        }
+        int codeEnd = start + 1;
+        while (codeEnd < end && data[codeEnd] != '?') {
+            byte b = data[codeEnd];
+            boolean valid = (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9')
+                    || b == '-' || b == '_';
+            if (!valid) {
+                return null;
+            }
+            codeEnd++;
+        }
+        int length = codeEnd - start - 1;
+        return length == 0 || length > MAX_CODE_LENGTH ? null : string(data, start + 1, codeEnd);
+    }
+
+    /**
+     * The Location value for a URL: as-is when it is ASCII, otherwise
+     * percent-encoded the way Spring's HttpHeaders.setLocation does it.
+     */
+    static String location(String url) {
+        for (int i = 0; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c < 0x20 || c >= 0x7F) {
+                return URI.create(url).toASCIIString();
+            }
+        }
+        return url;
+    }
+
+    static int indexOfEndOfHead(byte[] data, int start, int end) {
+        for (int i = start; i + 3 < end; i++) {
+            if (data[i] == '\r' && data[i + 1] == '\n' && data[i + 2] == '\r' && data[i + 3] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(byte[] data, int start, int end, byte b) {
+        for (int i = start; i < end; i++) {
+            if (data[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matches(byte[] data, int start, int end, String token) {
+        if (end - start != token.length()) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (data[start + i] != token.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean equalsIgnoreCase(byte[] data, int start, int end, String lowerCase) {
+        if (end - start != lowerCase.length()) {
+            return false;
+        }
+        for (int i = 0; i < lowerCase.length(); i++) {
+            int b = data[start + i];
+            if (b >= 'A' && b <= 'Z') {
+                b += 'a' - 'A';
+            }
+            if (b != lowerCase.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String string(byte[] data, int start, int end) {
+        return new String(data, start, end - start, StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] response(String status, String headers, int code, String message) {
+        String body = "{\"status\":" + code + ",\"error\":\"" + status.substring(4) + "\",\"message\":\"" + message + "\"}";
+        String close = code == 404 ? "" : "Connection: close\r\n";
+        return ascii("HTTP/1.1 " + status + "\r\n" + headers + close
+                + "Content-Type: application/json\r\nContent-Length: " + body.length() + "\r\n\r\n" + body);
+    }
+
+    private static byte[] head(byte[] response) {
+        String text = new String(response, StandardCharsets.US_ASCII);
+        return ascii(text.substring(0, text.indexOf("\r\n\r\n") + 4));
+    }
+}
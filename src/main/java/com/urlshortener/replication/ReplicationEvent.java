@@ -0,0 +1,12 @@
+package com.urlshortener.replication;
+
+import com.urlshortener.models.ShortenedUrl;
+
+/**
+ * One entry of the replication log: a saved or removed mapping.
+ */
+record ReplicationEvent(byte op, ShortenedUrl mapping) {
+
+    static final byte SAVE = 1;
+    static final byte DELETE = 2;
+}
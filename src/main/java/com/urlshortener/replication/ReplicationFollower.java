@@ -0,0 +1,254 @@
+package com.urlshortener.replication;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.ShortenedUrlCodec;
+import com.urlshortener.repositories.UrlRepository;
+
+/**
+ * Follower side of replication: connects to the leader, applies the shipped
+ * events to the local repository, and acknowledges what it has applied.
+ *
+ * Redirects on a follower are served from its local repository, so they cost
+ * the same as on the leader. The connection is re-established with backoff
+ * if it drops, resuming from the last applied sequence as long as the leader
+ * is still the run that sequence came from. A snapshot replaces
+ * the local contents: mappings it does not contain are removed at its end.
+ *
+ * Writes must still go to the leader: a mapping created directly on a follower
+ * is not replicated anywhere.
+ */
+public class ReplicationFollower implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationFollower.class);
+
+    private static final long MAX_BACKOFF_MILLIS = 5_000;
+    private static final int CONNECT_TIMEOUT_MILLIS = 2_000;
+
+    private final UrlRepository repository;
+    private final String leaderHost;
+    private final int leaderPort;
+    private final Thread worker;
+
+    private volatile boolean running = true;
+    private volatile Socket socket;
+    private volatile boolean connected;
+    private volatile long appliedSequence;
+    private volatile long leaderRunId;          // run of the leader appliedSequence belongs to; 0 before any snapshot
+    private volatile long leaderHead;
+    private volatile long behindSinceMillis;   // 0 when caught up
+    private volatile long lastContactMillis;
+    private volatile long eventsApplied;
+    private Set<String> snapshotCodes;          // codes received so far in the current snapshot
+
+    public ReplicationFollower(UrlRepository repository, String leaderHost, int leaderPort) {
+        this.repository = repository;
+        this.leaderHost = leaderHost;
+        this.leaderPort = leaderPort;
+        this.worker = new Thread(this::connectLoop, "replication-follower");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void connectLoop() {
+        long backoff = 100;
+        while (running) {
+            try (Socket s = new Socket()) {
+                s.connect(new InetSocketAddress(leaderHost, leaderPort), CONNECT_TIMEOUT_MILLIS);
+                s.setTcpNoDelay(true);
+                socket = s;
+                connected = true;
+                backoff = 100;
+                log.info("Connected to replication leader {}:{} from sequence {}", leaderHost, leaderPort, appliedSequence);
+                replicate(s);
+            } catch (IOException e) {
+                if (running) {
+                    log.info("Replication leader {}:{} unavailable: {}", leaderHost, leaderPort, e.getMessage());
+                }
+            } finally {
+                connected = false;
+            }
+            sleepQuietly(backoff);
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+        }
+    }
+
+    private void replicate(Socket s) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream(), 64 * 1024));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+        out.writeInt(ReplicationProtocol.MAGIC);
+        out.writeByte(ReplicationProtocol.VERSION);
+        out.writeLong(leaderRunId);
+        out.writeLong(appliedSequence);
+        out.flush();
+        snapshotCodes = null;       // a snapshot cut off with the last connection starts over
+
+        while (running) {
+            byte type = in.readByte();
+            lastContactMillis = System.currentTimeMillis();
+            switch (type) {
+                case ReplicationProtocol.BATCH -> {
+                    long first = in.readLong();
+                    long head = in.readLong();
+                    long sentAt = in.readLong();
+                    int count = in.readInt();
+                    for (int i = 0; i < count; i++) {
+                        apply(ReplicationProtocol.readEvent(in));
+                    }
+                    advance(first + count - 1, head, sentAt);
+                    ack(out);
+                }
+                case ReplicationProtocol.HEARTBEAT -> {
+                    long head = in.readLong();
+                    long sentAt = in.readLong();
+                    advance(appliedSequence, head, sentAt);
+                }
+                case ReplicationProtocol.SNAPSHOT -> {
+                    if (snapshotCodes == null) {
+                        snapshotCodes = new HashSet<>();
+                    }
+                    int count = in.readInt();
+                    for (int i = 0; i < count; i++) {
+                        ShortenedUrl mapping = ShortenedUrlCodec.read(in);
+                        repository.save(mapping);
+                        snapshotCodes.add(mapping.getShortCode());
+                        eventsApplied++;
+                    }
+                }
+                case ReplicationProtocol.SNAPSHOT_END -> {
+                    long runId = in.readLong();
+                    long covered = in.readLong();
+                    dropMissingFromSnapshot();
+                    leaderRunId = runId;
+                    advance(covered, Math.max(leaderHead, covered), System.currentTimeMillis());
+                    ack(out);
+                }
+                default -> throw new IOException("Unknown replication frame type: " + type);
+            }
+        }
+    }
+
+    /**
+     * Removes local mappings the snapshot did not contain: deleted on the
+     * leader while this follower was away, or left from before the leader
+     * restarted. An empty snapshot sends no SNAPSHOT frame and empties the repository.
+     */
+    private void dropMissingFromSnapshot() {
+        Set<String> kept = snapshotCodes != null ? snapshotCodes : Set.of();
+        snapshotCodes = null;
+        int dropped = 0;
+        for (ShortenedUrl mapping : repository.findAll()) {
+            if (!kept.contains(mapping.getShortCode())
+                    && repository.deleteByShortCode(mapping.getShortCode()).isPresent()) {
+                dropped++;
+            }
+        }
+        if (dropped > 0) {
+            log.info("Removed {} mappings missing from the leader's snapshot", dropped);
+        }
+    }
+
+    private void apply(ReplicationEvent event) {
+        ShortenedUrl mapping = event.mapping();
+        if (event.op() == ReplicationEvent.SAVE) {
+            repository.save(mapping);
+        } else {
+            repository.deleteByShortCode(mapping.getShortCode());
+        }
+        eventsApplied++;
+    }
+
+    private void advance(long applied, long head, long sentAtMillis) {
+        appliedSequence = applied;
+        leaderHead = Math.max(leaderHead, head);
+        if (applied >= leaderHead) {
+            behindSinceMillis = 0;
+        } else if (behindSinceMillis == 0) {
+            behindSinceMillis = sentAtMillis;
+        }
+    }
+
+    private void ack(DataOutputStream out) throws IOException {
+        out.writeByte(ReplicationProtocol.ACK);
+        out.writeLong(appliedSequence);
+        out.flush();
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public long appliedSequence() {
+        return appliedSequence;
+    }
+
+    public long leaderHead() {
+        return leaderHead;
+    }
+
+    /** Number of leader events not yet applied here, as of the last frame received. */
+    public long lagEvents() {
+        return Math.max(0, leaderHead - appliedSequence);
+    }
+
+    /** How long this follower has been behind the leader; 0 when caught up. */
+    public long lagMillis() {
+        long since = behindSinceMillis;
+        return since == 0 ? 0 : Math.max(0, System.currentTimeMillis() - since);
+    }
+
+    public long lastContactMillis() {
+        return lastContactMillis;
+    }
+
+    public long eventsApplied() {
+        return eventsApplied;
+    }
+
+    /**
+     * Blocks until at least {@code sequence} has been applied.
+     *
+     * @return true if reached before the timeout
+     */
+    public boolean awaitSequence(long sequence, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (appliedSequence < sequence) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        Socket s = socket;
+        if (s != null) {
+            s.close();
+        }
+        worker.interrupt();
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.urlshortener.replication;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.MappingListener;
+import com.urlshortener.repositories.ShortenedUrlCodec;
+import com.urlshortener.repositories.UrlRepository;
+import com.urlshortener.util.SequencedRingBuffer;
+
+/**
+ * Leader side of replication: records every save and removal in a sequenced
+ * in-memory log and ships it to connected followers over TCP.
+ *
+ * Each follower gets its own sender thread with its own cursor into the log,
+ * so a slow follower never holds up the others or the write path. Events are
+ * sent in batches, several batches may be in flight before the follower
+ * acknowledges them, and the socket is flushed only when the follower has
+ * caught up or the buffer fills. A follower that is new, or that fell further
+ * behind than the log retains, or that last synced with an earlier run of the
+ * leader, first receives a snapshot of the repository.
+ */
+public class ReplicationLeader implements MappingListener, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationLeader.class);
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+    private static final long HEARTBEAT_INTERVAL_MILLIS = 1_000;
+    private static final int SOCKET_BUFFER_BYTES = 64 * 1024;
+
+    private final UrlRepository repository;
+    private final long runId = nextRunId();
+    private final SequencedRingBuffer<ReplicationEvent> replicationLog;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final ServerSocket serverSocket;
+    private final ExecutorService threads = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "replication-leader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<FollowerSession> sessions = ConcurrentHashMap.newKeySet();
+    private volatile boolean running = true;
+
+    /**
+     * Binds the replication port and starts accepting followers.
+     *
+     * @param port        TCP port to listen on; 0 picks a free port
+     * @param logCapacity number of recent events kept for followers to catch up from
+     * @param batchSize   maximum events per BATCH frame
+     * @param maxInFlight maximum events sent but not yet acknowledged, per follower
+     */
+    public ReplicationLeader(UrlRepository repository, int port, int logCapacity,
+                             int batchSize, int maxInFlight) throws IOException {
+        this.repository = repository;
+        this.replicationLog = new SequencedRingBuffer<>(logCapacity);
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+        this.serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(port));
+        repository.addListener(this);
+        threads.execute(this::acceptLoop);
+        log.info("Replication leader listening on port {}", getPort());
+    }
+
+    @Override
+    public void onSaved(ShortenedUrl shortenedUrl) {
+        replicationLog.append(new ReplicationEvent(ReplicationEvent.SAVE, shortenedUrl));
+    }
+
+    @Override
+    public void onRemoved(ShortenedUrl shortenedUrl) {
+        replicationLog.append(new ReplicationEvent(ReplicationEvent.DELETE, shortenedUrl));
+    }
+
+    private static long nextRunId() {
+        long id;
+        do {
+            id = new SecureRandom().nextLong();
+        } while (id == 0);      // 0 means "no run" in the handshake
+        return id;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /** Sequence number of the latest logged event. */
+    public long headSequence() {
+        return replicationLog.head();
+    }
+
+    public List<FollowerStatus> followers() {
+        List<FollowerStatus> result = new ArrayList<>();
+        long head = replicationLog.head();
+        for (FollowerSession session : sessions) {
+            result.add(new FollowerStatus(session.remote, session.ackedSequence,
+                    Math.max(0, head - session.ackedSequence), session.eventsSent));
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+        for (FollowerSession session : sessions) {
+            session.closeQuietly();
+        }
+        threads.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                FollowerSession session = new FollowerSession(socket);
+                sessions.add(session);
+                threads.execute(session::run);
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("Failed to accept replication follower", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replication state of one connected follower, as seen by the leader.
+     */
+    public record FollowerStatus(String address, long ackedSequence, long lagEvents, long eventsSent) {}
+
+    private final class FollowerSession {
+
+        final Socket socket;
+        final String remote;
+        volatile long ackedSequence;
+        volatile long eventsSent;
+
+        FollowerSession(Socket socket) {
+            this.socket = socket;
+            this.remote = socket.getRemoteSocketAddress().toString();
+        }
+
+        void run() {
+            try {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(socket.getOutputStream(), SOCKET_BUFFER_BYTES));
+
+                if (in.readInt() != ReplicationProtocol.MAGIC || in.readByte() != ReplicationProtocol.VERSION) {
+                    throw new IOException("Bad replication handshake from " + remote);
+                }
+                long followerRunId = in.readLong();
+                long applied = in.readLong();
+                ackedSequence = applied;
+                threads.execute(() -> readAcks(in));
+
+                // Another run id: the follower's sequence counts events of an earlier leader run
+                boolean needsSnapshot = followerRunId != runId || applied == 0
+                        || applied + 1 < replicationLog.oldest() || applied > replicationLog.head();
+                long next = (needsSnapshot ? sendSnapshot(out) : applied) + 1;
+                log.info("Replication follower {} connected at sequence {}", remote, next - 1);
+                stream(out, next);
+            } catch (IOException e) {
+                if (running) {
+                    log.info("Replication follower {} disconnected: {}", remote, e.getMessage());
+                }
+            } finally {
+                sessions.remove(this);
+                closeQuietly();
+            }
+        }
+
+        private void stream(DataOutputStream out, long next) throws IOException {
+            List<ReplicationEvent> batch = new ArrayList<>(batchSize);
+            long lastSendMillis = System.currentTimeMillis();
+            while (running && !socket.isClosed()) {
+                if (next - 1 - ackedSequence >= maxInFlight) {
+                    out.flush();
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+                batch.clear();
+                int count = replicationLog.read(next, batchSize, batch);
+                if (count == SequencedRingBuffer.GAP) {
+                    log.warn("Replication follower {} fell behind the log; resending snapshot", remote);
+                    next = sendSnapshot(out) + 1;
+                    continue;
+                }
+                long now = System.currentTimeMillis();
+                if (count == 0) {
+                    if (now - lastSendMillis >= HEARTBEAT_INTERVAL_MILLIS) {
+                        out.writeByte(ReplicationProtocol.HEARTBEAT);
+                        out.writeLong(replicationLog.head());
+                        out.writeLong(now);
+                        out.flush();
+                        lastSendMillis = now;
+                    }
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+                out.writeByte(ReplicationProtocol.BATCH);
+                out.writeLong(next);
+                out.writeLong(replicationLog.head());
+                out.writeLong(now);
+                out.writeInt(count);
+                for (ReplicationEvent event : batch) {
+                    ReplicationProtocol.writeEvent(out, event);
+                }
+                next += count;
+                eventsSent += count;
+                lastSendMillis = now;
+                if (replicationLog.head() < next) {
+                    out.flush();    // caught up: push out what is buffered
+                }
+            }
+        }
+
+        /**
+         * Streams the whole repository and returns the log sequence it covers.
+         * Events after that sequence are sent from the log afterwards; a mapping
+         * saved while the snapshot runs may arrive twice, which is harmless.
+         */
+        private long sendSnapshot(DataOutputStream out) throws IOException {
+            long covered = replicationLog.head();
+            List<ShortenedUrl> chunk = new ArrayList<>(batchSize);
+            for (ShortenedUrl mapping : repository.findAll()) {
+                chunk.add(mapping);
+                if (chunk.size() == batchSize) {
+                    writeSnapshotChunk(out, chunk);
+                }
+            }
+            writeSnapshotChunk(out, chunk);
+            out.writeByte(ReplicationProtocol.SNAPSHOT_END);
+            out.writeLong(runId);
+            out.writeLong(covered);
+            out.flush();
+            return covered;
+        }
+
+        private void writeSnapshotChunk(DataOutputStream out, List<ShortenedUrl> chunk) throws IOException {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            out.writeByte(ReplicationProtocol.SNAPSHOT);
+            out.writeInt(chunk.size());
+            for (ShortenedUrl mapping : chunk) {
+                ShortenedUrlCodec.write(out, mapping);
+            }
+            eventsSent += chunk.size();
+            chunk.clear();
+        }
+
+        private void readAcks(DataInputStream in) {
+            try {
+                while (running) {
+                    if (in.readByte() != ReplicationProtocol.ACK) {
+                        throw new IOException("Unexpected frame from follower " + remote);
+                    }
+                    ackedSequence = in.readLong();
+                }
+            } catch (IOException e) {
+                closeQuietly();
+            }
+        }
+
+        void closeQuietly() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // already closing
+            }
+        }
+    }
+}
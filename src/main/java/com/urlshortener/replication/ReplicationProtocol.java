@@ -0,0 +1,72 @@
+package com.urlshortener.replication;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.ShortenedUrlCodec;
+
+/**
+ * Wire format of the leader → follower log-shipping stream.
+ *
+ * <pre>
+ * follower → leader   HELLO         int magic, byte version, long leaderRunId, long appliedSequence
+ * leader → follower   BATCH         long firstSequence, long leaderHead, long sentAtMillis,
+ *                                   int count, count × event
+ *                     HEARTBEAT     long leaderHead, long sentAtMillis
+ *                     SNAPSHOT      int count, count × mapping
+ *                     SNAPSHOT_END  long runId, long sequence (the snapshot covers everything up to it)
+ * follower → leader   ACK           long appliedSequence
+ *
+ * event   = byte op, then a mapping (SAVE) or a short code (DELETE)
+ * mapping = {@link ShortenedUrlCodec} encoding
+ * </pre>
+ *
+ * Sequence numbers only mean something within one run of the leader: a
+ * restarted leader numbers its log from 1 again. Each run picks a random run
+ * id, sent with every snapshot; a follower presents the run id its applied
+ * sequence belongs to (0 before its first snapshot), and gets a fresh
+ * snapshot if it is not the leader's current one.
+ *
+ * Every frame starts with its one-byte type. The leader keeps sending batches
+ * without waiting for each ACK (pipelining), bounded by a window of unacked
+ * events.
+ */
+final class ReplicationProtocol {
+
+    static final int MAGIC = 0x55524C52;    // "URLR"
+    static final byte VERSION = 2;
+
+    static final byte BATCH = 1;
+    static final byte HEARTBEAT = 2;
+    static final byte SNAPSHOT = 3;
+    static final byte SNAPSHOT_END = 4;
+    static final byte ACK = 5;
+
+    private ReplicationProtocol() {}
+
+    static void writeEvent(DataOutput out, ReplicationEvent event) throws IOException {
+        out.writeByte(event.op());
+        if (event.op() == ReplicationEvent.SAVE) {
+            ShortenedUrlCodec.write(out, event.mapping());
+        } else {
+            ShortenedUrlCodec.writeString(out, event.mapping().getShortCode());
+        }
+    }
+
+    /**
+     * Reads one event; a DELETE comes back with only its short code populated.
+     */
+    static ReplicationEvent readEvent(DataInput in) throws IOException {
+        byte op = in.readByte();
+        if (op == ReplicationEvent.SAVE) {
+            return new ReplicationEvent(op, ShortenedUrlCodec.read(in));
+        }
+        if (op == ReplicationEvent.DELETE) {
+            String shortCode = ShortenedUrlCodec.readString(in);
+            return new ReplicationEvent(op, new ShortenedUrl(shortCode, "", ""));
+        }
+        throw new IOException("Unknown replication op: " + op);
+    }
+}
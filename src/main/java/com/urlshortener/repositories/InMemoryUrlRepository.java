@@ -1,20 +1,34 @@
 package com.urlshortener.repositories;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
+import com.urlshortener.memory.MemoryEstimator;
+import com.urlshortener.memory.StructureFootprint;
 import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.index.ConcurrentRadixTrie;
 
 /**
  * In-memory store for shortened URLs.
  * Uses two maps for O(1) lookups in both directions.
+ *
+ * Vanity aliases live in byShortCode like any generated code, so redirects
+ * never touch the alias trie; the trie only serves prefix queries.
+ *
+ * Retained memory is estimated incrementally: every write adds or subtracts
+ * the size of what it stored or dropped, so memoryFootprint() is O(1).
  */
 @Repository
-public class InMemoryUrlRepository {
+@ConditionalOnProperty(name = "app.storage.mode", havingValue = "memory", matchIfMissing = true)
+public class InMemoryUrlRepository implements UrlRepository {
 
     // shortCode -> ShortenedUrl
     private final Map<String, ShortenedUrl> byShortCode = new ConcurrentHashMap<>();
@@ -22,26 +36,136 @@ public class InMemoryUrlRepository {
     // originalUrl -> ShortenedUrl (for idempotent shortening)
     private final Map<String, ShortenedUrl> byOriginalUrl = new ConcurrentHashMap<>();
 
+    // vanity aliases, indexed for prefix lookups
+    private final ConcurrentRadixTrie aliases = new ConcurrentRadixTrie();
+
+    private final MappingListeners listeners = new MappingListeners();
+
+    // estimated bytes of the ShortenedUrl objects with their strings, and of the alias trie
+    private final LongAdder mappingBytes = new LongAdder();
+    private final LongAdder aliasBytes = new LongAdder();
+
+    @Override
     public void save(ShortenedUrl shortenedUrl) {
-        byShortCode.put(shortenedUrl.getShortCode(), shortenedUrl);
-        byOriginalUrl.put(shortenedUrl.getOriginalUrl(), shortenedUrl);
+        ShortenedUrl previous = byShortCode.put(shortenedUrl.getShortCode(), shortenedUrl);
+        mappingBytes.add(MemoryEstimator.shortenedUrl(shortenedUrl));
+        if (previous != null) {
+            mappingBytes.add(-MemoryEstimator.shortenedUrl(previous));
+            if (previous.isAlias() && !shortenedUrl.isAlias()) {
+                removeAlias(previous.getShortCode());
+            }
+        }
+        index(shortenedUrl);
+        listeners.fireSaved(shortenedUrl);
+    }
+
+    /**
+     * The check and the insert are a single putIfAbsent, so a vanity alias and
+     * a generated code can never claim the same short code.
+     */
+    @Override
+    public boolean saveIfAbsent(ShortenedUrl shortenedUrl) {
+        if (byShortCode.putIfAbsent(shortenedUrl.getShortCode(), shortenedUrl) != null) {
+            return false;
+        }
+        mappingBytes.add(MemoryEstimator.shortenedUrl(shortenedUrl));
+        index(shortenedUrl);
+        listeners.fireSaved(shortenedUrl);
+        return true;
+    }
+
+    private void index(ShortenedUrl shortenedUrl) {
+        if (shortenedUrl.isAlias()) {
+            if (aliases.add(shortenedUrl.getShortCode())) {
+                aliasBytes.add(MemoryEstimator.radixTrieKey(shortenedUrl.getShortCode()));
+            }
+        } else {
+            byOriginalUrl.put(shortenedUrl.getOriginalUrl(), shortenedUrl);
+        }
+    }
+
+    private void removeAlias(String shortCode) {
+        if (aliases.remove(shortCode)) {
+            aliasBytes.add(-MemoryEstimator.radixTrieKey(shortCode));
+        }
     }
 
+    @Override
     public Optional<ShortenedUrl> findByOriginalUrl(String originalUrl) {
         return Optional.ofNullable(byOriginalUrl.get(originalUrl));
     }
 
+    @Override
     public boolean existsByShortCode(String shortCode) {
         return byShortCode.containsKey(shortCode);
     }
 
 
+    @Override
     public Optional<ShortenedUrl> findByShortCode(String shortCode) {
         return Optional.ofNullable(byShortCode.get(shortCode));
     }
 
+    @Override
     public Collection<ShortenedUrl> findAll() {
         return byShortCode.values();
     }
 
+    @Override
+    public long count() {
+        return byShortCode.size();
+    }
+
+    @Override
+    public Optional<ShortenedUrl> deleteByShortCode(String shortCode) {
+        ShortenedUrl removed = byShortCode.remove(shortCode);
+        if (removed == null) {
+            return Optional.empty();
+        }
+        mappingBytes.add(-MemoryEstimator.shortenedUrl(removed));
+        if (removed.isAlias()) {
+            removeAlias(shortCode);
+        } else {
+            byOriginalUrl.remove(removed.getOriginalUrl(), removed);
+        }
+        listeners.fireRemoved(removed);
+        return Optional.of(removed);
+    }
+
+    @Override
+    public Map<String, Long> countByDomain() {
+        return byShortCode.values().stream()
+                .collect(Collectors.groupingBy(ShortenedUrl::getDomain, Collectors.counting()));
+    }
+
+    @Override
+    public List<String> findAliasesByPrefix(String prefix, int limit) {
+        return aliases.keysWithPrefix(prefix, limit);
+    }
+
+    @Override
+    public int countAliasesByPrefix(String prefix) {
+        return aliases.countWithPrefix(prefix);
+    }
+
+    /**
+     * The mapping objects are counted once under "mappings"; the two hash
+     * indexes only add their nodes and tables, since they share those objects.
+     */
+    @Override
+    public List<StructureFootprint> memoryFootprint() {
+        int mappings = byShortCode.size();
+        int reverse = byOriginalUrl.size();
+        return List.of(
+                new StructureFootprint("mappings", mappings, mappingBytes.sum()),
+                new StructureFootprint("byShortCode", mappings, MemoryEstimator.concurrentHashMap(mappings)),
+                new StructureFootprint("byOriginalUrl", reverse, MemoryEstimator.concurrentHashMap(reverse)),
+                new StructureFootprint("aliasTrie", aliases.countWithPrefix(""), aliasBytes.sum()));
+    }
+
+    @Override
+    public void addListener(MappingListener listener) {
+        listeners.add(listener);
+    }
+
 }
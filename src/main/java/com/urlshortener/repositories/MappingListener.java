@@ -0,0 +1,20 @@
+package com.urlshortener.repositories;
+
+import com.urlshortener.models.ShortenedUrl;
+
+/**
+ * Callback for changes to a {@link UrlRepository}.
+ *
+ * Listeners run synchronously on the writing thread after the change is
+ * visible, so they must be cheap and must not block; anything heavier should
+ * be handed off to another thread.
+ */
+public interface MappingListener {
+
+    /** Called after a mapping was stored (created or overwritten). */
+    void onSaved(ShortenedUrl shortenedUrl);
+
+    /** Called after a mapping was removed. */
+    default void onRemoved(ShortenedUrl shortenedUrl) {
+    }
+}
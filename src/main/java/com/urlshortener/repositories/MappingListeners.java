@@ -0,0 +1,31 @@
+package com.urlshortener.repositories;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.urlshortener.models.ShortenedUrl;
+
+/**
+ * Listener registry shared by the repository implementations.
+ * Registration is rare and notification is on every write, hence copy-on-write.
+ */
+public class MappingListeners {
+
+    private final List<MappingListener> listeners = new CopyOnWriteArrayList<>();
+
+    public void add(MappingListener listener) {
+        listeners.add(listener);
+    }
+
+    public void fireSaved(ShortenedUrl shortenedUrl) {
+        for (MappingListener listener : listeners) {
+            listener.onSaved(shortenedUrl);
+        }
+    }
+
+    public void fireRemoved(ShortenedUrl shortenedUrl) {
+        for (MappingListener listener : listeners) {
+            listener.onRemoved(shortenedUrl);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.urlshortener.repositories;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import com.urlshortener.models.ShortenedUrl;
+
+/**
+ * Compact binary encoding of a {@link ShortenedUrl}.
+ *
+ * Layout: flags (1 byte), then short code, original URL and domain as
+ * varint-length-prefixed UTF-8, then createdAt as epoch millis (8 bytes).
+ * A typical mapping encodes to its string bytes plus 12 bytes of overhead.
+ */
+public final class ShortenedUrlCodec {
+
+    private static final int FLAG_ALIAS = 1;
+
+    private ShortenedUrlCodec() {}
+
+    public static void write(DataOutput out, ShortenedUrl shortenedUrl) throws IOException {
+        out.writeByte(shortenedUrl.isAlias() ? FLAG_ALIAS : 0);
+        writeString(out, shortenedUrl.getShortCode());
+        writeString(out, shortenedUrl.getOriginalUrl());
+        writeString(out, shortenedUrl.getDomain());
+        out.writeLong(shortenedUrl.getCreatedAt().toEpochMilli());
+    }
+
+    public static ShortenedUrl read(DataInput in) throws IOException {
+        int flags = in.readUnsignedByte();
+        String shortCode = readString(in);
+        String originalUrl = readString(in);
+        String domain = readString(in);
+        Instant createdAt = Instant.ofEpochMilli(in.readLong());
+        return new ShortenedUrl(shortCode, originalUrl, domain, (flags & FLAG_ALIAS) != 0, createdAt);
+    }
+
+    public static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    public static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    public static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -0,0 +1,106 @@
+package com.urlshortener.repositories;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.urlshortener.memory.MemoryAccountable;
+import com.urlshortener.memory.StructureFootprint;
+import com.urlshortener.models.ShortenedUrl;
+
+/**
+ * Storage contract for short-code mappings.
+ *
+ * {@link InMemoryUrlRepository} is the default implementation; others (for
+ * example the sharded repository) are selected with {@code app.storage.mode}.
+ */
+public interface UrlRepository extends MemoryAccountable {
+
+    void save(ShortenedUrl shortenedUrl);
+
+    /**
+     * Saves the mapping only if its short code is not already taken, as one atomic step.
+     *
+     * @return true if the mapping was saved, false if the short code was taken
+     */
+    boolean saveIfAbsent(ShortenedUrl shortenedUrl);
+
+    /**
+     * {@link #saveIfAbsent} for each mapping, in order. Implementations with
+     * a per-write cost, such as a log append, may do the batch in one step.
+     *
+     * @return the mappings that were not saved because their short code was taken
+     */
+    default List<ShortenedUrl> saveAllIfAbsent(List<ShortenedUrl> shortenedUrls) {
+        List<ShortenedUrl> rejected = new ArrayList<>();
+        for (ShortenedUrl shortenedUrl : shortenedUrls) {
+            if (!saveIfAbsent(shortenedUrl)) {
+                rejected.add(shortenedUrl);
+            }
+        }
+        return rejected;
+    }
+
+    Optional<ShortenedUrl> findByOriginalUrl(String originalUrl);
+
+    boolean existsByShortCode(String shortCode);
+
+    Optional<ShortenedUrl> findByShortCode(String shortCode);
+
+    Collection<ShortenedUrl> findAll();
+
+    /**
+     * Number of stored mappings, from a count the implementation keeps up to
+     * date rather than a scan, so it is cheap enough to poll.
+     */
+    long count();
+
+    /**
+     * Removes the mapping for the short code.
+     *
+     * @return the removed mapping, or empty if there was none
+     */
+    Optional<ShortenedUrl> deleteByShortCode(String shortCode);
+
+    /**
+     * Number of stored mappings per domain, unordered.
+     */
+    Map<String, Long> countByDomain();
+
+    List<String> findAliasesByPrefix(String prefix, int limit);
+
+    int countAliasesByPrefix(String prefix);
+
+    /**
+     * Brings the mappings of these short codes into whatever fronts the store,
+     * a heap tier or the page cache, ahead of their first redirect. By
+     * default each one is looked up once.
+     *
+     * @return how many of the short codes were found
+     */
+    default int preload(Collection<String> shortCodes) {
+        int found = 0;
+        for (String shortCode : shortCodes) {
+            if (findByShortCode(shortCode).isPresent()) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Registers a listener that is notified after every save and removal.
+     */
+    void addListener(MappingListener listener);
+
+    /**
+     * Estimated retained size per internal structure. Implementations that do
+     * not track it return an empty list.
+     */
+    @Override
+    default List<StructureFootprint> memoryFootprint() {
+        return List.of();
+    }
+}
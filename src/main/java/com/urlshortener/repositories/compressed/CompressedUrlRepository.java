@@ -0,0 +1,496 @@
+package com.urlshortener.repositories.compressed;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.urlshortener.memory.MemoryEstimator;
+import com.urlshortener.memory.StructureFootprint;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.MappingListener;
+import com.urlshortener.repositories.MappingListeners;
+import com.urlshortener.repositories.UrlRepository;
+import com.urlshortener.repositories.index.ConcurrentRadixTrie;
+
+/**
+ * In-memory repository that keeps original URLs compressed with a shared
+ * {@link UrlDictionary} and domains interned in a table.
+ *
+ * A mapping is stored as a small packed record: the encoded URL bytes, a
+ * domain id, the creation time and the alias flag. Lookups rebuild the
+ * ShortenedUrl from it, so a redirect pays one decode and a few small
+ * allocations instead of holding every URL as a String.
+ *
+ * The dictionary is trained once, in the background, on the first
+ * {@code trainingUrls} URLs saved. Until then URLs are stored as plain UTF-8,
+ * and afterwards those records are replaced by encoded ones. The first byte
+ * of every encoded URL says which form it is in, so readers handle both.
+ *
+ * Every write, and every re-encoding, updates the reverse index inside a
+ * compute on its short code, so the two cannot interleave for one code.
+ */
+public class CompressedUrlRepository implements UrlRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(CompressedUrlRepository.class);
+
+    private static final byte RAW = 0;
+    private static final byte ENCODED = 1;
+    // Packed: header, url ref, urlHash, domain, createdAt, alias, padded to 8
+    private static final int PACKED_BYTES = 40;
+
+    // shortCode -> packed mapping
+    private final Map<String, Packed> byShortCode = new ConcurrentHashMap<>();
+
+    // packed mapping, compared by original URL -> shortCode (for idempotent shortening)
+    private final Map<Packed, String> byOriginalUrl = new ConcurrentHashMap<>();
+
+    private final ConcurrentRadixTrie aliases = new ConcurrentRadixTrie();
+    private final MappingListeners listeners = new MappingListeners();
+    private final DomainTable domains = new DomainTable();
+
+    private final int trainingUrls;
+    private final Object trainingLock = new Object();
+    // null once training has started
+    private List<String> trainingSample = new ArrayList<>();
+    private volatile UrlDictionary dictionary;
+    // Until the re-encoding pass is over, a URL may be indexed in either form
+    private volatile boolean rawRemaining = true;
+
+    // estimated bytes of the packed records with their short codes, and of the alias trie
+    private final LongAdder mappingBytes = new LongAdder();
+    private final LongAdder aliasBytes = new LongAdder();
+    private final LongAdder urlBytes = new LongAdder();
+    private final LongAdder encodedBytes = new LongAdder();
+
+    /**
+     * @param trainingUrls how many URLs to collect before training the dictionary
+     */
+    public CompressedUrlRepository(int trainingUrls) {
+        if (trainingUrls < 1) {
+            throw new IllegalArgumentException("trainingUrls must be at least 1");
+        }
+        this.trainingUrls = trainingUrls;
+    }
+
+    /**
+     * Starts with an already trained dictionary, for benchmarks and tests.
+     */
+    CompressedUrlRepository(UrlDictionary dictionary) {
+        this.trainingUrls = 0;
+        this.trainingSample = null;
+        this.dictionary = dictionary;
+        this.rawRemaining = false;
+    }
+
+    // -----------------------------------------------------------------------
+    // Writes
+    // -----------------------------------------------------------------------
+
+    @Override
+    public void save(ShortenedUrl shortenedUrl) {
+        Packed packed = pack(shortenedUrl);
+        byShortCode.compute(shortenedUrl.getShortCode(), (shortCode, previous) -> {
+            if (previous != null) {
+                mappingBytes.add(-bytes(shortCode, previous));
+                if (previous.alias && !shortenedUrl.isAlias()) {
+                    removeAlias(shortCode);
+                }
+                if (!previous.alias) {
+                    byOriginalUrl.remove(previous, shortCode);
+                }
+            }
+            mappingBytes.add(bytes(shortCode, packed));
+            index(shortenedUrl, packed);
+            return packed;
+        });
+        recodeIfTrained(shortenedUrl.getShortCode(), packed);
+        listeners.fireSaved(shortenedUrl);
+    }
+
+    @Override
+    public boolean saveIfAbsent(ShortenedUrl shortenedUrl) {
+        Packed packed = pack(shortenedUrl);
+        Packed stored = byShortCode.computeIfAbsent(shortenedUrl.getShortCode(), shortCode -> {
+            mappingBytes.add(bytes(shortCode, packed));
+            index(shortenedUrl, packed);
+            return packed;
+        });
+        if (stored != packed) {
+            return false;
+        }
+        recodeIfTrained(shortenedUrl.getShortCode(), packed);
+        listeners.fireSaved(shortenedUrl);
+        return true;
+    }
+
+    @Override
+    public Optional<ShortenedUrl> deleteByShortCode(String shortCode) {
+        Packed[] removed = new Packed[1];
+        byShortCode.computeIfPresent(shortCode, (key, packed) -> {
+            mappingBytes.add(-bytes(key, packed));
+            if (packed.alias) {
+                removeAlias(key);
+            } else {
+                byOriginalUrl.remove(packed, key);
+            }
+            removed[0] = packed;
+            return null;
+        });
+        if (removed[0] == null) {
+            return Optional.empty();
+        }
+        ShortenedUrl mapping = unpack(shortCode, removed[0]);
+        listeners.fireRemoved(mapping);
+        return Optional.of(mapping);
+    }
+
+    private void index(ShortenedUrl shortenedUrl, Packed packed) {
+        if (shortenedUrl.isAlias()) {
+            if (aliases.add(shortenedUrl.getShortCode())) {
+                aliasBytes.add(MemoryEstimator.radixTrieKey(shortenedUrl.getShortCode()));
+            }
+        } else {
+            byOriginalUrl.put(packed, shortenedUrl.getShortCode());
+        }
+    }
+
+    private void removeAlias(String shortCode) {
+        if (aliases.remove(shortCode)) {
+            aliasBytes.add(-MemoryEstimator.radixTrieKey(shortCode));
+        }
+    }
+
+    // -----------------------------------------------------------------------
+    // Reads
+    // -----------------------------------------------------------------------
+
+    @Override
+    public Optional<ShortenedUrl> findByShortCode(String shortCode) {
+        Packed packed = byShortCode.get(shortCode);
+        return packed != null ? Optional.of(unpack(shortCode, packed)) : Optional.empty();
+    }
+
+    @Override
+    public boolean existsByShortCode(String shortCode) {
+        return byShortCode.containsKey(shortCode);
+    }
+
+    @Override
+    public Optional<ShortenedUrl> findByOriginalUrl(String originalUrl) {
+        byte[] encoded = encode(originalUrl);
+        String shortCode = byOriginalUrl.get(new Packed(encoded, originalUrl.hashCode(), 0, 0, false));
+        if (shortCode == null && encoded[0] == ENCODED && rawRemaining) {
+            shortCode = byOriginalUrl.get(new Packed(raw(originalUrl), originalUrl.hashCode(), 0, 0, false));
+        }
+        if (shortCode == null) {
+            return Optional.empty();
+        }
+        Packed packed = byShortCode.get(shortCode);
+        return packed != null && !packed.alias ? Optional.of(unpack(shortCode, packed)) : Optional.empty();
+    }
+
+    /**
+     * Decodes every mapping into a new list; O(n) in time and heap.
+     */
+    @Override
+    public Collection<ShortenedUrl> findAll() {
+        List<ShortenedUrl> all = new ArrayList<>(byShortCode.size());
+        byShortCode.forEach((shortCode, packed) -> all.add(unpack(shortCode, packed)));
+        return all;
+    }
+
+    @Override
+    public long count() {
+        return byShortCode.size();
+    }
+
+    /** Counts by domain id, so no URL is decoded. */
+    @Override
+    public Map<String, Long> countByDomain() {
+        Map<Integer, Long> byId = new HashMap<>();
+        for (Packed packed : byShortCode.values()) {
+            byId.merge(packed.domain, 1L, Long::sum);
+        }
+        Map<String, Long> counts = new HashMap<>();
+        byId.forEach((id, count) -> counts.put(domains.name(id), count));
+        return counts;
+    }
+
+    @Override
+    public List<String> findAliasesByPrefix(String prefix, int limit) {
+        return aliases.keysWithPrefix(prefix, limit);
+    }
+
+    @Override
+    public int countAliasesByPrefix(String prefix) {
+        return aliases.countWithPrefix(prefix);
+    }
+
+    @Override
+    public void addListener(MappingListener listener) {
+        listeners.add(listener);
+    }
+
+    // -----------------------------------------------------------------------
+    // Encoding
+    // -----------------------------------------------------------------------
+
+    private Packed pack(ShortenedUrl shortenedUrl) {
+        String url = shortenedUrl.getOriginalUrl();
+        byte[] encoded = encode(url);
+        urlBytes.add(url.getBytes(StandardCharsets.UTF_8).length);
+        encodedBytes.add(encoded.length);
+        Instant createdAt = shortenedUrl.getCreatedAt();
+        Packed packed = new Packed(encoded, url.hashCode(), domains.id(shortenedUrl.getDomain()),
+                createdAt != null ? createdAt.toEpochMilli() : 0, shortenedUrl.isAlias());
+        if (encoded[0] == RAW) {
+            sample(url);
+        }
+        return packed;
+    }
+
+    private ShortenedUrl unpack(String shortCode, Packed packed) {
+        return new ShortenedUrl(shortCode, decode(dictionary, packed.url), domains.name(packed.domain), packed.alias,
+                Instant.ofEpochMilli(packed.createdAt));
+    }
+
+    private byte[] encode(String url) {
+        UrlDictionary current = dictionary;
+        return current != null ? encode(current, url) : raw(url);
+    }
+
+    private static byte[] raw(String url) {
+        byte[] utf8 = url.getBytes(StandardCharsets.UTF_8);
+        byte[] raw = new byte[utf8.length + 1];
+        System.arraycopy(utf8, 0, raw, 1, utf8.length);
+        raw[0] = RAW;
+        return raw;
+    }
+
+    private static byte[] encode(UrlDictionary dictionary, String url) {
+        byte[] encoded = dictionary.encode(url, 1);
+        encoded[0] = ENCODED;
+        return encoded;
+    }
+
+    /** An encoded record is only ever read after the dictionary that encoded it is published. */
+    private static String decode(UrlDictionary dictionary, byte[] encoded) {
+        if (encoded[0] == RAW) {
+            return new String(encoded, 1, encoded.length - 1, StandardCharsets.UTF_8);
+        }
+        return dictionary.decode(encoded, 1);
+    }
+
+    // -----------------------------------------------------------------------
+    // Training
+    // -----------------------------------------------------------------------
+
+    private void sample(String url) {
+        List<String> sample;
+        synchronized (trainingLock) {
+            if (trainingSample == null) {
+                return;
+            }
+            trainingSample.add(url);
+            if (trainingSample.size() < trainingUrls) {
+                return;
+            }
+            sample = trainingSample;
+            trainingSample = null;
+        }
+        Thread trainer = new Thread(() -> train(sample), "url-dictionary-trainer");
+        trainer.setDaemon(true);
+        trainer.start();
+    }
+
+    /**
+     * Trains the dictionary on the sample, then re-encodes the records stored
+     * before it existed. A write that encoded its URL before the dictionary
+     * was published may store it after this pass went by; such a write sees
+     * the dictionary once it has stored the record, and re-encodes it itself.
+     */
+    void train(List<String> sample) {
+        long start = System.nanoTime();
+        UrlDictionary trained = UrlDictionary.train(sample);
+        dictionary = trained;
+        int recoded = 0;
+        for (String shortCode : byShortCode.keySet()) {
+            if (recode(shortCode, trained)) {
+                recoded++;
+            }
+        }
+        rawRemaining = false;
+        log.info("Trained URL dictionary of {} symbols on {} URLs and re-encoded {} mappings in {} ms",
+                trained.symbolCount(), sample.size(), recoded, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void recodeIfTrained(String shortCode, Packed stored) {
+        UrlDictionary current = dictionary;
+        if (stored.url[0] == RAW && current != null) {
+            recode(shortCode, current);
+        }
+    }
+
+    /**
+     * Replaces the record of the code with an encoded one if it is still
+     * plain UTF-8, and moves its reverse index entry over before dropping the
+     * plain one, so the URL stays findable throughout.
+     *
+     * @return whether the record was re-encoded
+     */
+    private boolean recode(String shortCode, UrlDictionary trained) {
+        boolean[] changed = new boolean[1];
+        byShortCode.computeIfPresent(shortCode, (key, packed) -> {
+            if (packed.url[0] != RAW) {
+                return packed;
+            }
+            Packed recoded = new Packed(encode(trained, decode(trained, packed.url)), packed.urlHash,
+                    packed.domain, packed.createdAt, packed.alias);
+            if (!packed.alias && key.equals(byOriginalUrl.get(packed))) {
+                // A later save of the URL under another code keeps its entry
+                byOriginalUrl.putIfAbsent(recoded, key);
+                byOriginalUrl.remove(packed, key);
+            }
+            encodedBytes.add(recoded.url.length - packed.url.length);
+            mappingBytes.add(bytes(key, recoded) - bytes(key, packed));
+            changed[0] = true;
+            return recoded;
+        });
+        return changed[0];
+    }
+
+    // -----------------------------------------------------------------------
+    // Status
+    // -----------------------------------------------------------------------
+
+    /**
+     * Original URL bytes saved per encoded byte, over every save so far.
+     */
+    public double compressionRatio() {
+        long encoded = encodedBytes.sum();
+        return encoded == 0 ? 1 : (double) urlBytes.sum() / encoded;
+    }
+
+    public boolean isTrained() {
+        return dictionary != null;
+    }
+
+    /** Records still stored as plain UTF-8; O(n). */
+    long rawCount() {
+        return byShortCode.values().stream().filter(packed -> packed.url[0] == RAW).count();
+    }
+
+    private static long bytes(String shortCode, Packed packed) {
+        return PACKED_BYTES + MemoryEstimator.byteArray(packed.url.length) + MemoryEstimator.string(shortCode);
+    }
+
+    /**
+     * The packed records are counted under "mappings" with their short codes;
+     * the reverse index shares them, so it only adds its nodes and table.
+     */
+    @Override
+    public List<StructureFootprint> memoryFootprint() {
+        int mappings = byShortCode.size();
+        int reverse = byOriginalUrl.size();
+        UrlDictionary current = dictionary;
+        return List.of(
+                new StructureFootprint("mappings", mappings, mappingBytes.sum()),
+                new StructureFootprint("byShortCode", mappings, MemoryEstimator.concurrentHashMap(mappings)),
+                new StructureFootprint("byOriginalUrl", reverse, MemoryEstimator.concurrentHashMap(reverse)),
+                new StructureFootprint("aliasTrie", aliases.countWithPrefix(""), aliasBytes.sum()),
+                new StructureFootprint("domainTable", domains.size(), domains.heapBytes()),
+                new StructureFootprint("urlDictionary", current != null ? current.symbolCount() : 0,
+                        current != null ? current.heapBytes() : 0));
+    }
+
+    /**
+     * A stored mapping without its short code, which is the key it is stored under.
+     * Equal to another when the original URLs are stored as the same bytes, so a
+     * plain and an encoded record of one URL differ; lookups try both forms until
+     * the records stored before training have been re-encoded.
+     */
+    private static final class Packed {
+
+        final byte[] url;
+        final int urlHash;
+        final int domain;
+        final long createdAt;
+        final boolean alias;
+
+        Packed(byte[] url, int urlHash, int domain, long createdAt, boolean alias) {
+            this.url = url;
+            this.urlHash = urlHash;
+            this.domain = domain;
+            this.createdAt = createdAt;
+            this.alias = alias;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            // One dictionary, so the same URL in the same form is the same bytes
+            return other instanceof Packed that && that.urlHash == urlHash && Arrays.equals(url, that.url);
+        }
+
+        @Override
+        public int hashCode() {
+            return urlHash;
+        }
+    }
+
+    /**
+     * Interned domain names: each distinct domain is stored once and mappings refer to it by id.
+     */
+    private static final class DomainTable {
+
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+        private volatile String[] names = new String[64];
+        private int size;
+
+        int id(String domain) {
+            Integer id = ids.get(domain);
+            return id != null ? id : add(domain);
+        }
+
+        private synchronized int add(String domain) {
+            Integer id = ids.get(domain);
+            if (id != null) {
+                return id;
+            }
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+            }
+            // Written before the id is published, so a reader that has the id sees the name
+            names[size] = domain;
+            ids.put(domain, size);
+            return size++;
+        }
+
+        String name(int id) {
+            return names[id];
+        }
+
+        int size() {
+            return ids.size();
+        }
+
+        long heapBytes() {
+            long bytes = MemoryEstimator.concurrentHashMap(ids.size()) + MemoryEstimator.referenceArray(names.length);
+            for (String name : ids.keySet()) {
+                // name, plus the boxed id beyond the small-integer cache
+                bytes += MemoryEstimator.string(name) + 16;
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.urlshortener.repositories.compressed;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.urlshortener.memory.MemoryEstimator;
+
+/**
+ * Static symbol table that compresses short strings such as URLs, trained
+ * once on a sample of them.
+ *
+ * Each of up to {@value #MAX_SYMBOLS} one-byte codes stands for a symbol of
+ * 1 to {@value #MAX_SYMBOL_LENGTH} bytes: frequent fragments like "https://",
+ * ".com/", popular hosts or "utm_source=". Code {@value #ESCAPE} is followed
+ * by a literal byte. Encoding is a greedy longest match at each position;
+ * decoding looks each code up and copies its bytes, with no state between
+ * codes, so every string decodes on its own and fast.
+ *
+ * Training follows FSST (Boncz, Neumann and Leis): compress the sample with
+ * the current table, score every symbol and every pair of adjacent symbols
+ * that still fits in 8 bytes by frequency times length, keep the best 255,
+ * and repeat a few rounds.
+ */
+public final class UrlDictionary {
+
+    static final int MAX_SYMBOLS = 255;
+    static final int MAX_SYMBOL_LENGTH = 8;
+
+    private static final int ESCAPE = 255;
+    private static final int ROUNDS = 5;
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    // by code
+    private final byte[][] symbols;
+    // by code: the symbol's bytes little-endian in a long, and its length, so decode copies a word per code
+    private final long[] words;
+    private final byte[] lengths;
+    // codes of the symbols starting with each byte, longest first
+    private final byte[][] byFirstByte;
+
+    private UrlDictionary(byte[][] symbols) {
+        this.symbols = symbols;
+        this.words = new long[symbols.length];
+        this.lengths = new byte[symbols.length];
+        for (int code = 0; code < symbols.length; code++) {
+            for (int i = symbols[code].length - 1; i >= 0; i--) {
+                words[code] = words[code] << 8 | (symbols[code][i] & 0xFF);
+            }
+            lengths[code] = (byte) symbols[code].length;
+        }
+        List<List<Integer>> starts = new ArrayList<>(256);
+        for (int i = 0; i < 256; i++) {
+            starts.add(new ArrayList<>());
+        }
+        for (int code = 0; code < symbols.length; code++) {
+            starts.get(symbols[code][0] & 0xFF).add(code);
+        }
+        byFirstByte = new byte[256][];
+        for (int i = 0; i < 256; i++) {
+            List<Integer> codes = starts.get(i);
+            codes.sort((a, b) -> Integer.compare(symbols[b].length, symbols[a].length));
+            byFirstByte[i] = new byte[codes.size()];
+            for (int j = 0; j < codes.size(); j++) {
+                byFirstByte[i][j] = (byte) (int) codes.get(j);
+            }
+        }
+    }
+
+    /**
+     * Builds a table from sample strings. An empty sample gives an empty
+     * table, which escapes every byte.
+     */
+    public static UrlDictionary train(Collection<String> sample) {
+        List<byte[]> texts = new ArrayList<>(sample.size());
+        for (String text : sample) {
+            texts.add(text.getBytes(StandardCharsets.UTF_8));
+        }
+        UrlDictionary table = new UrlDictionary(new byte[0][]);
+        for (int round = 0; round < ROUNDS; round++) {
+            // Symbols as Latin-1 strings: one char per byte, with equals and hashCode for free
+            Map<String, Long> gains = new HashMap<>();
+            for (byte[] text : texts) {
+                String previous = null;
+                for (int i = 0; i < text.length; ) {
+                    int code = table.match(text, i);
+                    int length = code >= 0 ? table.symbols[code].length : 1;
+                    String token = new String(text, i, length, StandardCharsets.ISO_8859_1);
+                    gains.merge(token, (long) length, Long::sum);
+                    if (previous != null && previous.length() + length <= MAX_SYMBOL_LENGTH) {
+                        gains.merge(previous + token, (long) previous.length() + length, Long::sum);
+                    }
+                    previous = token;
+                    i += length;
+                }
+            }
+            List<Map.Entry<String, Long>> ranked = new ArrayList<>(gains.entrySet());
+            ranked.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+            byte[][] symbols = new byte[Math.min(MAX_SYMBOLS, ranked.size())][];
+            for (int code = 0; code < symbols.length; code++) {
+                symbols[code] = ranked.get(code).getKey().getBytes(StandardCharsets.ISO_8859_1);
+            }
+            table = new UrlDictionary(symbols);
+        }
+        return table;
+    }
+
+    /**
+     * Encodes the UTF-8 bytes of the text into a new array, after {@code header} zero bytes left for the caller.
+     */
+    public byte[] encode(String text, int header) {
+        byte[] in = text.getBytes(StandardCharsets.UTF_8);
+        byte[] out = new byte[header + 2 * in.length];
+        int length = header;
+        for (int i = 0; i < in.length; ) {
+            int code = match(in, i);
+            if (code >= 0) {
+                out[length++] = (byte) code;
+                i += symbols[code].length;
+            } else {
+                out[length++] = (byte) ESCAPE;
+                out[length++] = in[i++];
+            }
+        }
+        return Arrays.copyOf(out, length);
+    }
+
+    /**
+     * Decodes the codes from {@code offset} to the end of the array.
+     */
+    public String decode(byte[] encoded, int offset) {
+        int length = 0;
+        for (int i = offset; i < encoded.length; i++) {
+            int code = encoded[i] & 0xFF;
+            if (code == ESCAPE) {
+                i++;
+                length++;
+            } else {
+                length += lengths[code];
+            }
+        }
+        // Room to write a whole word at the last position
+        byte[] out = new byte[length + MAX_SYMBOL_LENGTH];
+        int position = 0;
+        for (int i = offset; i < encoded.length; i++) {
+            int code = encoded[i] & 0xFF;
+            if (code == ESCAPE) {
+                out[position++] = encoded[++i];
+            } else {
+                LONG.set(out, position, words[code]);
+                position += lengths[code];
+            }
+        }
+        return new String(out, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /** Code of the longest symbol at the position, or -1. */
+    private int match(byte[] text, int position) {
+        for (byte candidate : byFirstByte[text[position] & 0xFF]) {
+            byte[] symbol = symbols[candidate & 0xFF];
+            if (symbol.length <= text.length - position
+                    && Arrays.equals(symbol, 0, symbol.length, text, position, position + symbol.length)) {
+                return candidate & 0xFF;
+            }
+        }
+        return -1;
+    }
+
+    public int symbolCount() {
+        return symbols.length;
+    }
+
+    public long heapBytes() {
+        long bytes = 24 + MemoryEstimator.referenceArray(symbols.length) + MemoryEstimator.referenceArray(256)
+                + MemoryEstimator.byteArray(8L * words.length) + MemoryEstimator.byteArray(lengths.length);
+        for (byte[] symbol : symbols) {
+            bytes += MemoryEstimator.byteArray(symbol.length);
+        }
+        for (byte[] codes : byFirstByte) {
+            bytes += MemoryEstimator.byteArray(codes.length);
+        }
+        return bytes;
+    }
+}
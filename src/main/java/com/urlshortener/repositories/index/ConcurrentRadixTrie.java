@@ -0,0 +1,292 @@
+package com.urlshortener.repositories.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free radix (compressed prefix) trie of string keys.
+ *
+ * Nodes are immutable: every write builds a new path from the root down to the
+ * changed node and publishes it with a single compare-and-set on the root.
+ * Readers therefore never block and always see a consistent snapshot, while
+ * concurrent writers simply retry against the newer root.
+ *
+ * Each node caches the number of keys in its subtree, so prefix counts are
+ * O(prefix length) rather than O(matching keys).
+ */
+public class ConcurrentRadixTrie {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final AtomicReference<Node> root =
+            new AtomicReference<>(new Node("", false, NO_CHILDREN, 0));
+
+    /**
+     * Adds the key to the trie.
+     *
+     * @return true if the key was added, false if it was already present
+     */
+    public boolean add(String key) {
+        while (true) {
+            Node current = root.get();
+            Node updated = insert(current, key);
+            if (updated == current) {
+                return false;
+            }
+            if (root.compareAndSet(current, updated)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes the key from the trie.
+     *
+     * @return true if the key was removed, false if it was not present
+     */
+    public boolean remove(String key) {
+        while (true) {
+            Node current = root.get();
+            Node updated = delete(current, key);
+            if (updated == current) {
+                return false;
+            }
+            if (updated == null) {
+                updated = new Node("", false, NO_CHILDREN, 0);
+            }
+            if (root.compareAndSet(current, updated)) {
+                return true;
+            }
+        }
+    }
+
+    public boolean contains(String key) {
+        Node node = root.get();
+        String rest = key;
+        while (!rest.isEmpty()) {
+            Node child = node.childFor(rest.charAt(0));
+            if (child == null || !rest.startsWith(child.label)) {
+                return false;
+            }
+            rest = rest.substring(child.label.length());
+            node = child;
+        }
+        return node.terminal;
+    }
+
+    /**
+     * Returns how many keys start with the given prefix.
+     */
+    public int countWithPrefix(String prefix) {
+        Node node = findPrefixNode(root.get(), prefix);
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Returns up to {@code limit} keys that start with the given prefix, in
+     * lexicographic order.
+     */
+    public List<String> keysWithPrefix(String prefix, int limit) {
+        List<String> result = new ArrayList<>();
+        Node snapshot = root.get();
+        StringBuilder path = new StringBuilder();
+        Node node = snapshot;
+        String rest = prefix;
+        while (!rest.isEmpty()) {
+            Node child = node.childFor(rest.charAt(0));
+            if (child == null) {
+                return result;
+            }
+            if (child.label.length() >= rest.length()) {
+                if (!child.label.startsWith(rest)) {
+                    return result;
+                }
+            } else if (!rest.startsWith(child.label)) {
+                return result;
+            }
+            path.append(child.label);
+            rest = rest.length() > child.label.length() ? rest.substring(child.label.length()) : "";
+            node = child;
+        }
+        collect(node, path, result, limit);
+        return result;
+    }
+
+    public int size() {
+        return root.get().size;
+    }
+
+    // -----------------------------------------------------------------------
+    // Internals
+    // -----------------------------------------------------------------------
+
+    private static Node findPrefixNode(Node node, String prefix) {
+        String rest = prefix;
+        while (!rest.isEmpty()) {
+            Node child = node.childFor(rest.charAt(0));
+            if (child == null) {
+                return null;
+            }
+            if (child.label.length() >= rest.length()) {
+                return child.label.startsWith(rest) ? child : null;
+            }
+            if (!rest.startsWith(child.label)) {
+                return null;
+            }
+            rest = rest.substring(child.label.length());
+            node = child;
+        }
+        return node;
+    }
+
+    private static void collect(Node node, StringBuilder path, List<String> out, int limit) {
+        if (out.size() >= limit) {
+            return;
+        }
+        if (node.terminal) {
+            out.add(path.toString());
+        }
+        for (Node child : node.children) {
+            if (out.size() >= limit) {
+                return;
+            }
+            int mark = path.length();
+            path.append(child.label);
+            collect(child, path, out, limit);
+            path.setLength(mark);
+        }
+    }
+
+    /** Returns the same node instance when the key is already present. */
+    private static Node insert(Node node, String rest) {
+        if (rest.isEmpty()) {
+            return node.terminal ? node : new Node(node.label, true, node.children, node.size + 1);
+        }
+        int index = node.indexOf(rest.charAt(0));
+        if (index < 0) {
+            return node.withChildAdded(-index - 1, new Node(rest, true, NO_CHILDREN, 1));
+        }
+        Node child = node.children[index];
+        int common = commonPrefixLength(child.label, rest);
+        if (common == child.label.length()) {
+            Node updatedChild = insert(child, rest.substring(common));
+            return updatedChild == child ? node : node.withChildReplaced(index, updatedChild);
+        }
+        // Split the child's edge at the first differing character.
+        Node tail = new Node(child.label.substring(common), child.terminal, child.children, child.size);
+        Node split = new Node(child.label.substring(0, common), false, new Node[] { tail }, tail.size);
+        return node.withChildReplaced(index, insert(split, rest.substring(common)));
+    }
+
+    /** Returns the same node instance when the key is absent, or null when the node becomes empty. */
+    private static Node delete(Node node, String rest) {
+        if (rest.isEmpty()) {
+            if (!node.terminal) {
+                return node;
+            }
+            return compact(new Node(node.label, false, node.children, node.size - 1));
+        }
+        int index = node.indexOf(rest.charAt(0));
+        if (index < 0) {
+            return node;
+        }
+        Node child = node.children[index];
+        if (!rest.startsWith(child.label)) {
+            return node;
+        }
+        Node updatedChild = delete(child, rest.substring(child.label.length()));
+        if (updatedChild == child) {
+            return node;
+        }
+        Node updated = updatedChild == null
+                ? node.withChildRemoved(index)
+                : node.withChildReplaced(index, updatedChild);
+        return compact(updated);
+    }
+
+    /** Drops empty nodes and merges a non-terminal node into its only child. */
+    private static Node compact(Node node) {
+        if (node.label.isEmpty()) {
+            return node; // the root is never merged away
+        }
+        if (!node.terminal && node.children.length == 0) {
+            return null;
+        }
+        if (!node.terminal && node.children.length == 1) {
+            Node only = node.children[0];
+            return new Node(node.label + only.label, only.terminal, only.children, only.size);
+        }
+        return node;
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+
+        final String label;
+        final boolean terminal;
+        final Node[] children;   // sorted by the first character of each label
+        final int size;          // number of keys in this subtree
+
+        Node(String label, boolean terminal, Node[] children, int size) {
+            this.label = label;
+            this.terminal = terminal;
+            this.children = children;
+            this.size = size;
+        }
+
+        Node childFor(char first) {
+            int index = indexOf(first);
+            return index < 0 ? null : children[index];
+        }
+
+        /** Binary search by first character; returns -(insertionPoint + 1) when absent. */
+        int indexOf(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char c = children[mid].label.charAt(0);
+                if (c < first) {
+                    low = mid + 1;
+                } else if (c > first) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        Node withChildAdded(int position, Node child) {
+            Node[] copy = new Node[children.length + 1];
+            System.arraycopy(children, 0, copy, 0, position);
+            copy[position] = child;
+            System.arraycopy(children, position, copy, position + 1, children.length - position);
+            return new Node(label, terminal, copy, size + child.size);
+        }
+
+        Node withChildReplaced(int position, Node child) {
+            Node[] copy = Arrays.copyOf(children, children.length);
+            int delta = child.size - copy[position].size;
+            copy[position] = child;
+            return new Node(label, terminal, copy, size + delta);
+        }
+
+        Node withChildRemoved(int position) {
+            Node[] copy = new Node[children.length - 1];
+            System.arraycopy(children, 0, copy, 0, position);
+            System.arraycopy(children, position + 1, copy, position, children.length - position - 1);
+            return new Node(label, terminal, copy, size - children[position].size);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.urlshortener.repositories.index;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.urlshortener.memory.MemoryAccountable;
+import com.urlshortener.memory.StructureFootprint;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.MappingListener;
+import com.urlshortener.repositories.UrlRepository;
+
+/**
+ * Index of short codes by creation time, split into fixed-width time partitions.
+ *
+ * Partitions live in a ConcurrentSkipListMap keyed by their start in epoch
+ * millis; each holds a ConcurrentSkipListSet of (createdAt, short code)
+ * entries. A range scan walks the overlapping partitions and, inside them, the
+ * entries in time order. Retention detaches every partition that ends before
+ * a cutoff with one map removal each, however many entries it holds.
+ *
+ * A save racing with the detachment of its partition (only possible for
+ * mappings restored with an old creation time) re-adds its entry to a fresh
+ * partition, so no live mapping drops out of the index. Partitions emptied by
+ * removals stay until retention drops them.
+ *
+ * As in {@link DomainIndex}, an overwritten code leaves its old entry behind,
+ * so readers must check each entry against the repository.
+ */
+public class CreatedAtIndex implements MappingListener, MemoryAccountable {
+
+    // Entry object, skip list node, and on average half an index node
+    private static final int ENTRY_BYTES = 24 + 24 + 24 / 2;
+    // Map node and index share, boxed key, partition, set, backing map, head index and base node
+    private static final int PARTITION_BYTES = 36 + 16 + 24 + 16 + 48 + 24 + 24;
+
+    private final long partitionMillis;
+    private final ConcurrentSkipListMap<Long, Partition> partitions = new ConcurrentSkipListMap<>();
+    private final LongAdder entries = new LongAdder();
+
+    /**
+     * Indexes the repository's current mappings and subscribes to its changes.
+     *
+     * @param partitionWidth time span of one partition, the granularity of cheap retention
+     */
+    public CreatedAtIndex(UrlRepository repository, Duration partitionWidth) {
+        if (partitionWidth.toMillis() < 1) {
+            throw new IllegalArgumentException("Partition width must be at least 1 ms");
+        }
+        this.partitionMillis = partitionWidth.toMillis();
+        repository.addListener(this);
+        for (ShortenedUrl mapping : repository.findAll()) {
+            onSaved(mapping);
+        }
+    }
+
+    @Override
+    public void onSaved(ShortenedUrl shortenedUrl) {
+        if (shortenedUrl.getCreatedAt() == null) {
+            return;
+        }
+        Entry entry = new Entry(shortenedUrl.getCreatedAt().toEpochMilli(), shortenedUrl.getShortCode());
+        Partition partition;
+        do {
+            partition = partitions.computeIfAbsent(partitionStart(entry.createdAtMillis()), Partition::new);
+            if (partition.entries.add(entry)) {
+                entries.increment();
+            }
+            // Retention sets detached before walking the partition, so if it is still
+            // false here the walk will see this entry
+        } while (partition.detached);
+    }
+
+    @Override
+    public void onRemoved(ShortenedUrl shortenedUrl) {
+        if (shortenedUrl.getCreatedAt() == null) {
+            return;
+        }
+        long createdAt = shortenedUrl.getCreatedAt().toEpochMilli();
+        remove(new Entry(createdAt, shortenedUrl.getShortCode()));
+    }
+
+    /**
+     * Drops one entry, e.g. a stale one found while reading.
+     */
+    public void remove(Entry entry) {
+        Partition partition = partitions.get(partitionStart(entry.createdAtMillis()));
+        if (partition != null && partition.entries.remove(entry)) {
+            entries.decrement();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} entries created in [fromMillis, toMillis),
+     * ordered by creation time then short code, starting after {@code after}
+     * (exclusive), or from the first if null. Entries may be stale; see the class comment.
+     */
+    public List<Entry> range(long fromMillis, long toMillis, Entry after, int limit) {
+        Entry low = new Entry(fromMillis, "");
+        boolean lowInclusive = true;
+        if (after != null && after.compareTo(low) >= 0) {
+            low = after;
+            lowInclusive = false;
+        }
+        Entry high = new Entry(toMillis, "");
+        List<Entry> page = new ArrayList<>(Math.min(limit, 256));
+        if (low.compareTo(high) >= 0) {
+            return page;
+        }
+        // The partition holding the low end, if any, then every later one starting before toMillis
+        Long first = partitions.floorKey(low.createdAtMillis());
+        Map<Long, Partition> overlapping = first != null
+                ? partitions.subMap(first, true, toMillis, false)
+                : partitions.headMap(toMillis, false);
+        for (Partition partition : overlapping.values()) {
+            for (Entry entry : partition.entries.subSet(low, lowInclusive, high, false)) {
+                if (page.size() == limit) {
+                    return page;
+                }
+                page.add(entry);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Removes every partition that ends at or before the cutoff from the index
+     * and returns them. Their entries are no longer reachable through
+     * {@link #range}; the caller is expected to delete the mappings.
+     */
+    public List<Partition> detachPartitionsBefore(long cutoffMillis) {
+        List<Partition> detached = new ArrayList<>();
+        ConcurrentNavigableMap<Long, Partition> old = partitions.headMap(partitionStart(cutoffMillis) - partitionMillis, true);
+        for (Map.Entry<Long, Partition> e : old.entrySet()) {
+            Partition partition = e.getValue();
+            if (partitions.remove(e.getKey(), partition)) {
+                partition.detached = true;
+                entries.add(-partition.entries.size());
+                detached.add(partition);
+            }
+        }
+        return detached;
+    }
+
+    /**
+     * Start of the partition containing the instant: the largest multiple of the width not above it.
+     */
+    public long partitionStart(long epochMillis) {
+        return Math.floorDiv(epochMillis, partitionMillis) * partitionMillis;
+    }
+
+    public long partitionMillis() {
+        return partitionMillis;
+    }
+
+    public int partitionCount() {
+        return partitions.size();
+    }
+
+    /**
+     * Short-code strings are shared with the mappings, so only the index's own objects count.
+     */
+    @Override
+    public List<StructureFootprint> memoryFootprint() {
+        long count = entries.sum();
+        return List.of(new StructureFootprint("createdAtIndex", count,
+                count * ENTRY_BYTES + (long) partitions.size() * PARTITION_BYTES));
+    }
+
+    /**
+     * One indexed mapping; orders by creation time, then short code.
+     */
+    public record Entry(long createdAtMillis, String shortCode) implements Comparable<Entry> {
+
+        @Override
+        public int compareTo(Entry other) {
+            int byTime = Long.compare(createdAtMillis, other.createdAtMillis);
+            return byTime != 0 ? byTime : shortCode.compareTo(other.shortCode);
+        }
+    }
+
+    /**
+     * The entries created in [start, start + width).
+     */
+    public static final class Partition {
+
+        private final long start;
+        private final ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>();
+        private volatile boolean detached;
+
+        private Partition(long start) {
+            this.start = start;
+        }
+
+        public long start() {
+            return start;
+        }
+
+        public NavigableSet<Entry> entries() {
+            return entries;
+        }
+    }
+}
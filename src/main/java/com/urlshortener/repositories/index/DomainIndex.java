@@ -0,0 +1,130 @@
+package com.urlshortener.repositories.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.urlshortener.memory.MemoryAccountable;
+import com.urlshortener.memory.MemoryEstimator;
+import com.urlshortener.memory.StructureFootprint;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.MappingListener;
+import com.urlshortener.repositories.UrlRepository;
+import com.urlshortener.tenant.Tenant;
+
+/**
+ * Inverted index from domain to the short codes pointing at it, kept in sync
+ * through {@link MappingListener} callbacks.
+ *
+ * Each domain holds a ConcurrentSkipListSet of codes, so a page is a tailSet
+ * walk from the cursor. Adding and removing run inside compute() on the
+ * domain's entry, so a set emptied by a removal cannot swallow a concurrent add.
+ *
+ * Listeners only see the new mapping when a short code is overwritten, so an
+ * entry may linger under the code's previous domain. Readers must check each
+ * code against the repository and call {@link #remove} for stale ones.
+ */
+public class DomainIndex implements MappingListener, MemoryAccountable {
+
+    // Skip list node (key, value, next) plus on average half an index node (node, down, right)
+    private static final int ENTRY_BYTES = 24 + 24 / 2;
+    // Map node, set, backing map, head index and base node
+    private static final int DOMAIN_BYTES = 32 + 16 + 48 + 24 + 24;
+
+    private final ConcurrentHashMap<String, ConcurrentSkipListSet<String>> codesByDomain = new ConcurrentHashMap<>();
+    private final LongAdder entries = new LongAdder();
+    private final LongAdder domainBytes = new LongAdder();
+
+    /**
+     * Indexes the repository's current mappings and subscribes to its changes.
+     */
+    public DomainIndex(UrlRepository repository) {
+        repository.addListener(this);
+        for (ShortenedUrl mapping : repository.findAll()) {
+            onSaved(mapping);
+        }
+    }
+
+    @Override
+    public void onSaved(ShortenedUrl shortenedUrl) {
+        String shortCode = shortenedUrl.getShortCode();
+        codesByDomain.compute(normalize(shortenedUrl.getDomain()), (domain, codes) -> {
+            if (codes == null) {
+                codes = new ConcurrentSkipListSet<>();
+                domainBytes.add(DOMAIN_BYTES + MemoryEstimator.string(domain));
+            }
+            if (codes.add(shortCode)) {
+                entries.increment();
+            }
+            return codes;
+        });
+    }
+
+    @Override
+    public void onRemoved(ShortenedUrl shortenedUrl) {
+        remove(shortenedUrl.getDomain(), shortenedUrl.getShortCode());
+    }
+
+    /**
+     * Drops one code from a domain, e.g. a stale entry found while reading.
+     */
+    public void remove(String domain, String shortCode) {
+        codesByDomain.computeIfPresent(normalize(domain), (key, codes) -> {
+            if (codes.remove(shortCode)) {
+                entries.decrement();
+            }
+            if (codes.isEmpty()) {
+                domainBytes.add(-(DOMAIN_BYTES + MemoryEstimator.string(key)));
+                return null;
+            }
+            return codes;
+        });
+    }
+
+    /**
+     * Returns up to {@code limit} codes for the domain in ascending order,
+     * starting after {@code afterCode} (exclusive), or from the first if null.
+     * Entries may be stale; see the class comment.
+     */
+    public List<String> codes(String domain, String afterCode, int limit) {
+        NavigableSet<String> codes = codesByDomain.get(normalize(domain));
+        if (codes == null) {
+            return List.of();
+        }
+        if (afterCode != null) {
+            codes = codes.tailSet(afterCode, false);
+        }
+        List<String> page = new ArrayList<>(Math.min(limit, 256));
+        for (String code : codes) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(code);
+        }
+        return page;
+    }
+
+    /**
+     * Canonical form used as the index key: lower case, without a leading
+     * "www.". A tenant's prefix is kept and the host after it is normalized.
+     */
+    public static String normalize(String domain) {
+        int host = domain.indexOf(Tenant.SEPARATOR) + 1;
+        String lower = domain.substring(host).toLowerCase(Locale.ROOT);
+        return domain.substring(0, host) + (lower.startsWith("www.") ? lower.substring(4) : lower);
+    }
+
+    /**
+     * Short-code strings are shared with the mappings, so only the index's own nodes count.
+     */
+    @Override
+    public List<StructureFootprint> memoryFootprint() {
+        long count = entries.sum();
+        return List.of(new StructureFootprint("domainIndex", count,
+                count * ENTRY_BYTES + domainBytes.sum() + MemoryEstimator.concurrentHashMap(codesByDomain.size())));
+    }
+}
@@ -0,0 +1,259 @@
+package com.urlshortener.repositories.index;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import com.urlshortener.memory.MemoryAccountable;
+import com.urlshortener.memory.MemoryEstimator;
+import com.urlshortener.memory.StructureFootprint;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.MappingListener;
+import com.urlshortener.repositories.UrlRepository;
+
+/**
+ * Per-domain counts of links created in the last minutes or hours, for
+ * windowed top-domains metrics.
+ *
+ * Saves are counted into a ring of one-minute buckets and a ring of one-hour
+ * buckets, both keyed by the mapping's creation time. A bucket is a map of
+ * domain to LongAdder; when a ring wraps around, the stale bucket in the slot
+ * is swapped for an empty one with a CAS, so counting never locks. A window
+ * is read by merging whole hours from the hour ring and the partial hours at
+ * either end from the minute ring: at most {@value #MAX_MERGED_BUCKETS}
+ * buckets for the longest window, whatever the number of stored links.
+ *
+ * These are creation counts: removals do not decrement them, and an
+ * overwritten mapping counts again.
+ */
+public class RecentDomainCounts implements MappingListener, MemoryAccountable {
+
+    public static final Duration MAX_WINDOW = Duration.ofDays(1);
+
+    private static final long MINUTE = 60_000;
+    private static final long HOUR = 60 * MINUTE;
+    private static final int MINUTES_PER_HOUR = 60;
+    private static final int MINUTE_SLOTS = (int) (MAX_WINDOW.toMillis() / MINUTE);
+    private static final int HOUR_SLOTS = (int) (MAX_WINDOW.toMillis() / HOUR) + 1;
+    static final int MAX_MERGED_BUCKETS = 2 * MINUTES_PER_HOUR + HOUR_SLOTS;
+
+    // Bucket, its map and period, plus a LongAdder and map node per domain
+    private static final int BUCKET_BYTES = 16 + 64;
+    private static final int DOMAIN_BYTES = 32 + 24;
+
+    private final Ring minutes = new Ring(MINUTE_SLOTS);
+    private final Ring hours = new Ring(HOUR_SLOTS);
+    private final LongSupplier clock;
+
+    /**
+     * Counts the repository's recent mappings and subscribes to its changes.
+     */
+    public RecentDomainCounts(UrlRepository repository) {
+        this(repository, System::currentTimeMillis);
+    }
+
+    RecentDomainCounts(UrlRepository repository, LongSupplier clock) {
+        this.clock = clock;
+        repository.addListener(this);
+        for (ShortenedUrl mapping : repository.findAll()) {
+            onSaved(mapping);
+        }
+    }
+
+    @Override
+    public void onSaved(ShortenedUrl shortenedUrl) {
+        if (shortenedUrl.getCreatedAt() == null) {
+            return;
+        }
+        long createdAt = shortenedUrl.getCreatedAt().toEpochMilli();
+        long now = clock.getAsLong();
+        // Too old for any window, or dated in the future where it would claim a slot early
+        if (createdAt <= now - MAX_WINDOW.toMillis() || createdAt > now + MINUTE) {
+            return;
+        }
+        String domain = shortenedUrl.getDomain();
+        minutes.add(Math.floorDiv(createdAt, MINUTE), domain);
+        hours.add(Math.floorDiv(createdAt, HOUR), domain);
+    }
+
+    /**
+     * Returns the {@code topN} entries with the highest counts, highest first;
+     * ties are ordered by domain. Keeps a heap of topN entries rather than
+     * sorting every domain.
+     */
+    public static LinkedHashMap<String, Long> top(Map<String, Long> counts, int topN) {
+        ByCount order = new ByCount();
+        PriorityQueue<Map.Entry<String, Long>> heap = new PriorityQueue<>(topN + 1, order);
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            heap.add(entry);
+            if (heap.size() > topN) {
+                heap.poll();
+            }
+        }
+        List<Map.Entry<String, Long>> top = new ArrayList<>(heap);
+        top.sort(order.reversed());
+        LinkedHashMap<String, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : top) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Counts per domain for the links created in the window ending now.
+     *
+     * @param window whole minutes, 1 minute to {@link #MAX_WINDOW}
+     * @throws IllegalArgumentException if the window is out of range
+     */
+    public Map<String, Long> counts(Duration window) {
+        long windowMinutes = window.toMinutes();
+        if (windowMinutes < 1 || window.compareTo(MAX_WINDOW) > 0) {
+            throw new IllegalArgumentException("window must be between 1 minute and " + MAX_WINDOW.toHours() + " hours");
+        }
+        long nowMinute = Math.floorDiv(clock.getAsLong(), MINUTE);
+        long firstMinute = nowMinute - windowMinutes + 1;
+        // Whole hours inside [firstMinute, nowMinute]
+        long firstHour = Math.floorDiv(firstMinute + MINUTES_PER_HOUR - 1, MINUTES_PER_HOUR);
+        long endHour = Math.floorDiv(nowMinute + 1, MINUTES_PER_HOUR);
+
+        Map<String, long[]> sums = new HashMap<>();
+        if (firstHour >= endHour) {
+            minutes.mergeInto(firstMinute, nowMinute + 1, sums);
+        } else {
+            minutes.mergeInto(firstMinute, firstHour * MINUTES_PER_HOUR, sums);
+            hours.mergeInto(firstHour, endHour, sums);
+            minutes.mergeInto(endHour * MINUTES_PER_HOUR, nowMinute + 1, sums);
+        }
+        Map<String, Long> counts = new HashMap<>(sums.size() * 4 / 3 + 1);
+        sums.forEach((domain, sum) -> counts.put(domain, sum[0]));
+        return counts;
+    }
+
+    /**
+     * Parses "15m", "1h", "24h", "1d" or an ISO-8601 duration such as "PT30M".
+     *
+     * @throws IllegalArgumentException if the text is not a duration
+     */
+    public static Duration parseWindow(String text) {
+        String value = text.trim().toLowerCase(Locale.ROOT);
+        try {
+            if (value.startsWith("p")) {
+                return Duration.parse(value.toUpperCase(Locale.ROOT));
+            }
+            long amount = Long.parseLong(value.substring(0, value.length() - 1));
+            Duration window = switch (value.charAt(value.length() - 1)) {
+                case 'm' -> Duration.ofMinutes(amount);
+                case 'h' -> Duration.ofHours(amount);
+                case 'd' -> Duration.ofDays(amount);
+                default -> null;
+            };
+            if (window != null) {
+                return window;
+            }
+        } catch (RuntimeException e) {
+            // fall through
+        }
+        throw new IllegalArgumentException("Invalid window '" + text + "'; use e.g. 15m, 1h or 24h");
+    }
+
+    /**
+     * Domain strings are shared with the mappings, so only maps, adders and buckets count.
+     */
+    @Override
+    public List<StructureFootprint> memoryFootprint() {
+        long entries = 0;
+        long bytes = MemoryEstimator.referenceArray(MINUTE_SLOTS) + MemoryEstimator.referenceArray(HOUR_SLOTS);
+        for (Ring ring : new Ring[] { minutes, hours }) {
+            for (int i = 0; i < ring.slots.length(); i++) {
+                Bucket bucket = ring.slots.get(i);
+                if (bucket != null) {
+                    int domains = bucket.counts.size();
+                    entries += domains;
+                    bytes += BUCKET_BYTES + MemoryEstimator.concurrentHashMap(domains) + (long) domains * DOMAIN_BYTES;
+                }
+            }
+        }
+        return List.of(new StructureFootprint("recentDomainCounts", entries, bytes));
+    }
+
+    /**
+     * Orders by count, then by domain descending, so the heap's head is the entry to evict.
+     */
+    private static final class ByCount implements Comparator<Map.Entry<String, Long>> {
+
+        @Override
+        public int compare(Map.Entry<String, Long> a, Map.Entry<String, Long> b) {
+            int byCount = Long.compare(a.getValue(), b.getValue());
+            return byCount != 0 ? byCount : b.getKey().compareTo(a.getKey());
+        }
+    }
+
+    /**
+     * Counts for one minute or one hour.
+     */
+    private static final class Bucket {
+
+        final long period;
+        final ConcurrentHashMap<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+        Bucket(long period) {
+            this.period = period;
+        }
+    }
+
+    /**
+     * Fixed ring of buckets; slot i holds the most recent period p with p mod size == i.
+     */
+    private static final class Ring {
+
+        final AtomicReferenceArray<Bucket> slots;
+
+        Ring(int size) {
+            this.slots = new AtomicReferenceArray<>(size);
+        }
+
+        void add(long period, String domain) {
+            int slot = (int) Math.floorMod(period, (long) slots.length());
+            Bucket bucket = slots.get(slot);
+            while (bucket == null || bucket.period < period) {
+                Bucket fresh = new Bucket(period);
+                if (slots.compareAndSet(slot, bucket, fresh)) {
+                    bucket = fresh;
+                    break;
+                }
+                bucket = slots.get(slot);
+            }
+            if (bucket.period != period) {
+                return;     // the slot already moved on to a later period
+            }
+            LongAdder count = bucket.counts.get(domain);
+            if (count == null) {
+                count = bucket.counts.computeIfAbsent(domain, key -> new LongAdder());
+            }
+            count.increment();
+        }
+
+        /**
+         * Adds the counts of periods [from, to) still held by the ring.
+         */
+        void mergeInto(long from, long to, Map<String, long[]> into) {
+            for (long period = Math.max(from, to - slots.length()); period < to; period++) {
+                Bucket bucket = slots.get((int) Math.floorMod(period, (long) slots.length()));
+                if (bucket != null && bucket.period == period) {
+                    // Mutable sums, so merging many buckets does not box a Long per domain per bucket
+                    bucket.counts.forEach((domain, count) -> into.computeIfAbsent(domain, key -> new long[1])[0] += count.sum());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,535 @@
+package com.urlshortener.repositories.index;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.urlshortener.memory.MemoryAccountable;
+import com.urlshortener.memory.MemoryEstimator;
+import com.urlshortener.memory.StructureFootprint;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.MappingListener;
+import com.urlshortener.repositories.UrlRepository;
+import com.urlshortener.util.Hashing;
+
+/**
+ * Trigram inverted index over original URLs for case-insensitive substring search.
+ *
+ * Every saved mapping gets the next document id. For each distinct trigram of
+ * its lower-cased URL the id is appended to that trigram's posting list, which
+ * stores ascending ids as varint-encoded gaps (usually one byte per posting).
+ * A query's candidates are the ids present in the posting lists of all its
+ * trigrams; they are only candidates, so the caller must verify each one
+ * against the stored URL.
+ *
+ * The listener only queues the mapping; a single indexer thread assigns ids
+ * and appends postings, so saves do not pay the ~6 us of posting list updates
+ * and ids reach every list in ascending order without locking. Search is
+ * therefore eventually consistent, normally lagging saves by well under a
+ * millisecond. Readers never lock: a list publishes its length through a
+ * volatile write after the bytes, and readers read the length first.
+ *
+ * Removals and overwrites go through the same queue. The indexer finds the
+ * code's current id in an open-addressing table of ids and clears that id's
+ * code, so readers skip it at once. Its postings stay until dead ids make up
+ * a quarter of all ids. Then the indexer rewrites every posting list without
+ * them and renumbers the live ids densely, keeping their order, and readers
+ * switch to the new lists in one volatile write.
+ */
+public class TrigramIndex implements MappingListener, MemoryAccountable, AutoCloseable {
+
+    public static final int MIN_QUERY_LENGTH = 3;
+
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    // A posting list is only worth intersecting if it is not much longer than the
+    // candidates left; verifying a candidate costs about as much as decoding 50 postings
+    private static final int DECODE_PER_VERIFY = 50;
+
+    private static final int DRAIN_BATCH = 1024;
+
+    // Compact once dead ids are this fraction (1/n) of all ids
+    private static final int DEAD_FRACTION = 4;
+
+    private volatile Generation generation = new Generation(new ConcurrentHashMap<>(), new String[16][], 0, 0);
+
+    // short code -> id of its live document; open addressing, used by the indexer thread only
+    private int[] ids = emptyIds(16);
+    private int usedSlots;
+    private int deadDocuments;
+
+    private final BlockingQueue<Change> pending = new LinkedBlockingQueue<>();
+    private final AtomicLong queued = new AtomicLong();
+    private volatile long indexed;
+    private final Thread indexer;
+
+    /**
+     * Posting lists and the id-to-code table that go with them, replaced as a
+     * whole by compaction. Only the indexer thread writes to them.
+     */
+    private static final class Generation {
+
+        final Map<Long, PostingList> postings;
+        // document id -> short code (null once removed or overwritten), in chunks so growing never copies entries
+        volatile String[][] codes;
+        volatile int documents;
+        volatile long postingBytes;
+
+        Generation(Map<Long, PostingList> postings, String[][] codes, int documents, long postingBytes) {
+            this.postings = postings;
+            this.codes = codes;
+            this.documents = documents;
+            this.postingBytes = postingBytes;
+        }
+
+        String code(int id) {
+            return codes[id >>> CHUNK_BITS][id & (CHUNK_SIZE - 1)];
+        }
+    }
+
+    /** A queued save or removal. */
+    private record Change(ShortenedUrl mapping, boolean removed) {
+    }
+
+    /**
+     * Indexes the repository's current mappings and subscribes to its changes.
+     */
+    public TrigramIndex(UrlRepository repository) {
+        repository.addListener(this);
+        for (ShortenedUrl mapping : repository.findAll()) {
+            index(mapping);
+        }
+        this.indexer = new Thread(this::indexLoop, "trigram-indexer");
+        indexer.setDaemon(true);
+        indexer.start();
+    }
+
+    @Override
+    public void onSaved(ShortenedUrl shortenedUrl) {
+        queued.incrementAndGet();
+        pending.add(new Change(shortenedUrl, false));
+    }
+
+    @Override
+    public void onRemoved(ShortenedUrl shortenedUrl) {
+        queued.incrementAndGet();
+        pending.add(new Change(shortenedUrl, true));
+    }
+
+    /**
+     * Waits until every save and removal made before this call is applied.
+     *
+     * @return false if that did not happen within the timeout
+     */
+    public boolean awaitIndexed(Duration timeout) throws InterruptedException {
+        long target = queued.get();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (indexed < target) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    /** Saves and removals not yet applied. */
+    public long backlog() {
+        return queued.get() - indexed;
+    }
+
+    @Override
+    public void close() {
+        indexer.interrupt();
+    }
+
+    private void indexLoop() {
+        List<Change> batch = new ArrayList<>(DRAIN_BATCH);
+        try {
+            while (true) {
+                batch.add(pending.take());
+                pending.drainTo(batch, DRAIN_BATCH - 1);
+                for (Change change : batch) {
+                    if (change.removed()) {
+                        remove(change.mapping().getShortCode());
+                    } else {
+                        index(change.mapping());
+                    }
+                }
+                if (deadDocuments > 0 && (long) deadDocuments * DEAD_FRACTION >= generation.documents) {
+                    compact();
+                }
+                indexed += batch.size();
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void index(ShortenedUrl shortenedUrl) {
+        String code = shortenedUrl.getShortCode();
+        remove(code);       // an overwrite replaces the code's document
+        Generation g = generation;
+        int id = g.documents;
+        int chunk = id >>> CHUNK_BITS;
+        String[][] table = g.codes;
+        if (chunk == table.length) {
+            table = Arrays.copyOf(table, table.length * 2);
+        }
+        if (table[chunk] == null) {
+            table[chunk] = new String[CHUNK_SIZE];
+        }
+        table[chunk][id & (CHUNK_SIZE - 1)] = code;
+        g.codes = table;
+
+        long grown = 0;
+        for (long trigram : trigrams(shortenedUrl.getOriginalUrl())) {
+            PostingList list = g.postings.get(trigram);
+            if (list == null) {
+                list = new PostingList();
+                g.postings.put(trigram, list);
+                grown += list.retainedBytes();
+            }
+            grown += list.append(id);
+        }
+        g.postingBytes += grown;
+        g.documents = id + 1;
+        insertId(code, id);
+    }
+
+    /** Marks the code's document dead; its postings go at the next compaction. */
+    private void remove(String code) {
+        Generation g = generation;
+        int id = findId(g, code);
+        if (id >= 0) {
+            g.codes[id >>> CHUNK_BITS][id & (CHUNK_SIZE - 1)] = null;
+            deadDocuments++;
+        }
+    }
+
+    /**
+     * Rewrites every posting list without dead ids, renumbering live ids
+     * densely in their old order, and publishes the result.
+     */
+    private void compact() {
+        Generation old = generation;
+        int documents = old.documents;
+        int[] renumbered = new int[documents];
+        String[][] codes = new String[Math.max(16, Integer.highestOneBit(Math.max(1, documents >>> CHUNK_BITS)) * 2)][];
+        int live = 0;
+        for (int id = 0; id < documents; id++) {
+            String code = old.code(id);
+            if (code == null) {
+                renumbered[id] = -1;
+                continue;
+            }
+            int chunk = live >>> CHUNK_BITS;
+            if (codes[chunk] == null) {
+                codes[chunk] = new String[CHUNK_SIZE];
+            }
+            codes[chunk][live & (CHUNK_SIZE - 1)] = code;
+            renumbered[id] = live++;
+        }
+
+        Map<Long, PostingList> postings = new ConcurrentHashMap<>();
+        long bytes = 0;
+        for (Map.Entry<Long, PostingList> entry : old.postings.entrySet()) {
+            PostingList kept = new PostingList();
+            for (int id : entry.getValue().decode()) {
+                if (renumbered[id] >= 0) {
+                    kept.append(renumbered[id]);
+                }
+            }
+            if (kept.size() > 0) {
+                postings.put(entry.getKey(), kept);
+                bytes += kept.retainedBytes();
+            }
+        }
+
+        Generation next = new Generation(postings, codes, live, bytes);
+        ids = emptyIds(idCapacity(live));
+        usedSlots = 0;
+        for (int id = 0; id < live; id++) {
+            insertSlot(next.code(id), id);
+        }
+        deadDocuments = 0;
+        generation = next;
+    }
+
+    // -----------------------------------------------------------------------
+    // Code -> id table. A slot whose document died acts as a tombstone until
+    // the table is rebuilt, so lookups probe past it.
+    // -----------------------------------------------------------------------
+
+    private int findId(Generation g, String code) {
+        int mask = ids.length - 1;
+        for (int slot = (int) Hashing.mix64(code.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            int id = ids[slot];
+            if (id < 0) {
+                return -1;
+            }
+            if (code.equals(g.code(id))) {
+                return id;
+            }
+        }
+    }
+
+    private void insertId(String code, int id) {
+        if ((usedSlots + 1) * 2 > ids.length) {
+            Generation g = generation;
+            int[] old = ids;
+            ids = emptyIds(idCapacity(g.documents - deadDocuments));
+            usedSlots = 0;
+            for (int previous : old) {
+                if (previous >= 0 && previous != id && g.code(previous) != null) {
+                    insertSlot(g.code(previous), previous);
+                }
+            }
+        }
+        insertSlot(code, id);
+    }
+
+    private void insertSlot(String code, int id) {
+        int mask = ids.length - 1;
+        int slot = (int) Hashing.mix64(code.hashCode()) & mask;
+        while (ids[slot] >= 0) {
+            slot = (slot + 1) & mask;
+        }
+        ids[slot] = id;
+        usedSlots++;
+    }
+
+    /** Room for the live ids at a load factor of at most 1/4, so inserts can follow. */
+    private static int idCapacity(int live) {
+        return Math.max(16, Integer.highestOneBit(Math.max(1, live)) * 4);
+    }
+
+    private static int[] emptyIds(int capacity) {
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, -1);
+        return slots;
+    }
+
+    /**
+     * Returns candidate short codes for URLs that may contain the query, in
+     * insertion order, without duplicates removed. Verify each one.
+     *
+     * @throws IllegalArgumentException if the query is shorter than three characters
+     */
+    public CandidateIterator candidates(String query) {
+        long[] grams = trigrams(query);
+        if (grams.length == 0) {
+            throw new IllegalArgumentException("Query must have at least " + MIN_QUERY_LENGTH + " characters");
+        }
+        Generation g = generation;
+        List<PostingList> lists = new ArrayList<>(grams.length);
+        for (long gram : grams) {
+            PostingList list = g.postings.get(gram);
+            if (list == null) {
+                return new CandidateIterator(g, new int[0], 0);
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+
+        int[] candidates = lists.get(0).decode();
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            PostingList next = lists.get(i);
+            if ((long) next.size() > (long) count * DECODE_PER_VERIFY) {
+                break;      // cheaper to verify what is left than to decode this list
+            }
+            count = next.retainAll(candidates, count);
+        }
+        return new CandidateIterator(g, candidates, count);
+    }
+
+    /**
+     * Candidate short codes in ascending document id order. Ids removed since
+     * the lists were read are skipped; size() still counts them.
+     */
+    public static final class CandidateIterator {
+
+        private final Generation generation;
+        private final int[] ids;
+        private final int count;
+        private int position;
+        private String next;
+
+        private CandidateIterator(Generation generation, int[] ids, int count) {
+            this.generation = generation;
+            this.ids = ids;
+            this.count = count;
+        }
+
+        public int size() {
+            return count;
+        }
+
+        public boolean hasNext() {
+            while (next == null && position < count) {
+                next = generation.code(ids[position++]);
+            }
+            return next != null;
+        }
+
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String code = next;
+            next = null;
+            return code;
+        }
+    }
+
+    /**
+     * Distinct trigrams of the lower-cased text, each packed into a long as
+     * three 16-bit chars. The packed value is scrambled with mix64, which is a
+     * bijection, because Long.hashCode of the raw packing clusters badly.
+     */
+    static long[] trigrams(String text) {
+        if (text == null || text.length() < MIN_QUERY_LENGTH) {
+            return new long[0];
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        long[] grams = new long[lower.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = Hashing.mix64(((long) lower.charAt(i) << 32) | ((long) lower.charAt(i + 1) << 16) | lower.charAt(i + 2));
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    /**
+     * Entries are live documents; bytes include the postings of dead ones not yet compacted away.
+     */
+    @Override
+    public List<StructureFootprint> memoryFootprint() {
+        Generation g = generation;
+        long bytes = g.postingBytes;
+        int distinct = g.postings.size();
+        // boxed Long keys plus the map itself
+        bytes += distinct * 16L + MemoryEstimator.concurrentHashMap(distinct);
+        int n = g.documents;
+        bytes += MemoryEstimator.referenceArray(g.codes.length)
+                + (long) ((n + CHUNK_SIZE - 1) >>> CHUNK_BITS) * MemoryEstimator.referenceArray(CHUNK_SIZE)
+                + MemoryEstimator.byteArray(4L * ids.length);
+        return List.of(new StructureFootprint("trigramIndex", n - deadDocuments, bytes));
+    }
+
+    /**
+     * Ascending ids as varint gaps. Single writer (the indexer thread), many readers.
+     */
+    static final class PostingList {
+
+        private byte[] bytes = new byte[8];
+        private volatile int length;    // bytes in use, published after they are written
+        private volatile int size;      // number of ids
+        private int last = -1;
+
+        /**
+         * @return how many bytes the backing array grew by
+         */
+        int append(int id) {
+            int gap = id - last;
+            last = id;
+            int end = length;
+            int grown = 0;
+            if (bytes.length - end < 5) {
+                int capacity = Math.max(16, bytes.length + (bytes.length >> 1));
+                grown = (int) (MemoryEstimator.byteArray(capacity) - MemoryEstimator.byteArray(bytes.length));
+                bytes = Arrays.copyOf(bytes, capacity);
+            }
+            while ((gap & ~0x7F) != 0) {
+                bytes[end++] = (byte) ((gap & 0x7F) | 0x80);
+                gap >>>= 7;
+            }
+            bytes[end++] = (byte) gap;
+            length = end;
+            size = size + 1;
+            return grown;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] decode() {
+            int n = size;
+            int end = length;
+            byte[] b = bytes;
+            int[] ids = new int[n];
+            int id = -1;
+            int pos = 0;
+            for (int i = 0; i < n && pos < end; i++) {
+                int gap = 0;
+                int shift = 0;
+                byte next;
+                do {
+                    next = b[pos++];
+                    gap |= (next & 0x7F) << shift;
+                    shift += 7;
+                } while (next < 0);
+                id += gap;
+                ids[i] = id;
+            }
+            return ids;
+        }
+
+        /**
+         * Keeps the first {@code count} ids of the sorted array that also appear
+         * in this list, compacting them to the front.
+         *
+         * @return how many were kept
+         */
+        int retainAll(int[] ids, int count) {
+            int end = length;
+            byte[] b = bytes;
+            int pos = 0;
+            int id = -1;
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                int wanted = ids[i];
+                while (id < wanted && pos < end) {
+                    int gap = 0;
+                    int shift = 0;
+                    byte next;
+                    do {
+                        next = b[pos++];
+                        gap |= (next & 0x7F) << shift;
+                        shift += 7;
+                    } while (next < 0);
+                    id += gap;
+                }
+                if (id == wanted) {
+                    ids[kept++] = wanted;
+                } else if (id < wanted) {
+                    break;      // list exhausted
+                }
+            }
+            return kept;
+        }
+
+        long retainedBytes() {
+            return MemoryEstimator.byteArray(bytes.length) + 32;   // array plus this object
+        }
+    }
+}
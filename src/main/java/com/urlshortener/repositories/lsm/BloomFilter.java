@@ -0,0 +1,81 @@
+package com.urlshortener.repositories.lsm;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.urlshortener.memory.MemoryEstimator;
+
+/**
+ * Bloom filter over 64-bit key hashes, one per SSTable, so a point read skips
+ * the tables that cannot hold the key without touching their blocks.
+ *
+ * The k probe positions come from double hashing the two halves of the hash
+ * (Kirsch and Mitzenmacher), so a key is hashed once however many probes
+ * there are. With 10 bits per key and 7 probes the false-positive rate is
+ * about 0.8%.
+ */
+final class BloomFilter {
+
+    static final int BITS_PER_KEY = 10;
+
+    private final long[] bits;
+    private final int probes;
+
+    private BloomFilter(long[] bits, int probes) {
+        this.bits = bits;
+        this.probes = probes;
+    }
+
+    /**
+     * An empty filter sized for the expected number of keys.
+     */
+    static BloomFilter forKeys(long keys) {
+        long bitCount = Math.max(64, keys * BITS_PER_KEY);
+        // ln 2 * bits per key minimises the false-positive rate
+        int probes = (int) Math.max(1, Math.min(30, Math.round(BITS_PER_KEY * 0.69)));
+        return new BloomFilter(new long[(int) ((bitCount + 63) >>> 6)], probes);
+    }
+
+    void add(long hash) {
+        long bitCount = (long) bits.length << 6;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < probes; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    boolean mightContain(long hash) {
+        long bitCount = (long) bits.length << 6;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < probes; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void write(DataOutput out) throws IOException {
+        out.writeInt(probes);
+        out.writeInt(bits.length);
+        for (long word : bits) {
+            out.writeLong(word);
+        }
+    }
+
+    static BloomFilter read(ByteBuffer in) {
+        int probes = in.getInt();
+        long[] bits = new long[in.getInt()];
+        in.asLongBuffer().get(bits);
+        return new BloomFilter(bits, probes);
+    }
+
+    long heapBytes() {
+        return 16 + MemoryEstimator.byteArray(8L * bits.length);
+    }
+}
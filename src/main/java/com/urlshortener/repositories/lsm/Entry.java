@@ -0,0 +1,25 @@
+package com.urlshortener.repositories.lsm;
+
+/**
+ * A key and its value, or a tombstone (null value) recording a delete that
+ * must shadow older values of the key until compaction drops both.
+ */
+public record Entry(byte[] key, byte[] value) {
+
+    public static Entry put(byte[] key, byte[] value) {
+        return new Entry(key, value);
+    }
+
+    public static Entry delete(byte[] key) {
+        return new Entry(key, null);
+    }
+
+    public boolean isTombstone() {
+        return value == null;
+    }
+
+    /** Key and value bytes, the unit of write amplification. */
+    long bytes() {
+        return key.length + (value != null ? value.length : 0);
+    }
+}
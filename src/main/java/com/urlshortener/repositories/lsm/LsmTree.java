@@ -0,0 +1,757 @@
+package com.urlshortener.repositories.lsm;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Log-structured merge tree: an embedded, persistent, sorted key-value store.
+ *
+ * Writes go to a write-ahead log and a skip-list memtable. A full memtable is
+ * frozen and a background thread flushes it to a level-0 {@link SSTable}.
+ * Level-0 tables may overlap, so once there are {@code level0Tables} of them
+ * they are merged with the overlapping level-1 tables. Every deeper level is
+ * a sorted run of non-overlapping tables, {@value #LEVEL_MULTIPLIER} times
+ * larger than the one above. When a level outgrows its target, one of its
+ * tables (round robin through the key space) is merged into the next level.
+ * A tombstone is dropped by the first compaction after which no deeper
+ * table's key range covers it.
+ *
+ * A read checks the memtables, then the level-0 tables newest first, then at
+ * most one table per deeper level. The tables' Bloom filters skip those that
+ * cannot hold the key. Reads and scans take no locks. Writes are serialised,
+ * and a writer stalls if flushes fall {@value #MAX_IMMUTABLE_MEMTABLES}
+ * memtables behind.
+ *
+ * The set of live tables is recorded in a MANIFEST file, rewritten atomically
+ * after every flush and compaction. On open, the tables in the manifest are
+ * mapped and any write-ahead logs are replayed into the memtable.
+ *
+ * A flushed memtable's log is deleted only after its table, the manifest and
+ * the directory entries naming them have been forced to the device, so a
+ * flush never loses writes the log already held. The log itself is not
+ * forced on every write (see {@link WriteAheadLog}).
+ */
+public class LsmTree implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(LsmTree.class);
+
+    static final int MAX_LEVELS = 7;
+    static final int LEVEL_MULTIPLIER = 10;
+    static final int MAX_IMMUTABLE_MEMTABLES = 2;
+
+    private static final String MANIFEST = "MANIFEST";
+    private static final String WAL_SUFFIX = ".wal";
+
+    private final Path directory;
+    private final Options options;
+    private final Object writeLock = new Object();
+    private final AtomicLong nextNumber = new AtomicLong(1);
+    private final byte[][] compactPointers = new byte[MAX_LEVELS][];
+    private final Thread worker;
+
+    // Replaced as a whole under the monitor of this; read without locking
+    private volatile Version version;
+    private WriteAheadLog wal;
+    private volatile boolean closed;
+
+    private final LongAdder userBytes = new LongAdder();
+    private final LongAdder walBytes = new LongAdder();
+    private final LongAdder flushBytes = new LongAdder();
+    private final LongAdder compactionReadBytes = new LongAdder();
+    private final LongAdder compactionWriteBytes = new LongAdder();
+    private final LongAdder compactions = new LongAdder();
+
+    /**
+     * Sizes that shape the tree.
+     *
+     * @param memtableBytes memtable size that triggers a flush
+     * @param tableBytes    target size of the tables a compaction writes
+     * @param level1Bytes   target size of level 1; each deeper level is ten times larger
+     * @param level0Tables  level-0 table count that triggers a compaction into level 1
+     */
+    public record Options(long memtableBytes, long tableBytes, long level1Bytes, int level0Tables) {
+
+        public Options {
+            if (memtableBytes < 1 || tableBytes < 1 || level1Bytes < 1 || level0Tables < 1) {
+                throw new IllegalArgumentException("LSM sizes must be positive");
+            }
+        }
+
+        public static Options defaults() {
+            return new Options(16L << 20, 8L << 20, 64L << 20, 4);
+        }
+    }
+
+    /**
+     * Live memtables and tables. levels.get(0) is newest first; deeper levels are ordered by key.
+     */
+    private record Version(Memtable active, List<Memtable> immutables, List<List<SSTable>> levels) {
+    }
+
+    /**
+     * Opens the tree in the directory, creating it if needed and recovering
+     * the tables and unflushed writes of a previous run.
+     */
+    public LsmTree(Path directory, Options options) {
+        this.directory = directory;
+        this.options = options;
+        try {
+            Files.createDirectories(directory);
+            List<List<SSTable>> levels = readManifest();
+            List<Path> wals = listWals();
+            Memtable active = new Memtable(new ArrayList<>(wals));
+            int replayed = 0;
+            for (Path file : wals) {
+                replayed += WriteAheadLog.replay(file, active::apply);
+            }
+            wal = new WriteAheadLog(walPath(nextNumber.getAndIncrement()));
+            active.wals().add(wal.file());
+            version = new Version(active, List.of(), levels);
+            int tables = levels.stream().mapToInt(List::size).sum();
+            if (tables > 0 || replayed > 0) {
+                log.info("Opened LSM tree in {}: {} tables, {} writes replayed from the log", directory, tables, replayed);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open LSM tree in " + directory, e);
+        }
+        worker = new Thread(this::workLoop, "lsm-compactor");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // -----------------------------------------------------------------------
+    // Reads
+    // -----------------------------------------------------------------------
+
+    /**
+     * @return the value of the key, or null if it is absent or deleted
+     */
+    public byte[] get(byte[] key) {
+        Version v = version;
+        byte[] value = v.active.get(key);
+        for (int i = 0; value == null && i < v.immutables.size(); i++) {
+            value = v.immutables.get(i).get(key);
+        }
+        for (int level = 0; value == null && level < v.levels.size(); level++) {
+            List<SSTable> tables = v.levels.get(level);
+            if (level == 0) {
+                for (int i = 0; value == null && i < tables.size(); i++) {
+                    value = tables.get(i).get(key);
+                }
+            } else {
+                SSTable table = find(tables, key);
+                if (table != null) {
+                    value = table.get(key);
+                }
+            }
+        }
+        return value == Memtable.TOMBSTONE ? null : value;
+    }
+
+    /** The table of a sorted level whose range covers the key, or null. */
+    private static SSTable find(List<SSTable> tables, byte[] key) {
+        int low = 0;
+        int high = tables.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            SSTable table = tables.get(mid);
+            if (Arrays.compareUnsigned(table.lastKey(), key) < 0) {
+                low = mid + 1;
+            } else if (Arrays.compareUnsigned(table.firstKey(), key) > 0) {
+                high = mid - 1;
+            } else {
+                return table;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Live entries whose keys start with the prefix, in key order. The scan
+     * sees a consistent set of tables, and concurrent writes may or may not
+     * appear in it.
+     */
+    public Iterator<Entry> scan(byte[] prefix) {
+        Version v = version;
+        List<Iterator<Entry>> sources = new ArrayList<>();
+        sources.add(v.active.iterator(prefix));
+        for (Memtable memtable : v.immutables) {
+            sources.add(memtable.iterator(prefix));
+        }
+        for (List<SSTable> level : v.levels) {
+            for (SSTable table : level) {
+                if (Arrays.compareUnsigned(table.lastKey(), prefix) >= 0) {
+                    sources.add(table.iterator(prefix));
+                }
+            }
+        }
+        PeekingIterator<Entry> merged = merge(sources);
+        return new PeekingIterator<>() {
+            @Override
+            protected Entry computeNext() {
+                while (merged.hasNext()) {
+                    Entry entry = merged.next();
+                    if (!startsWith(entry.key(), prefix)) {
+                        return null;
+                    }
+                    if (!entry.isTombstone()) {
+                        return entry;
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Merges sorted sources into one sorted stream. Sources are in priority
+     * order: for a key present in several, only the first source's entry is kept.
+     */
+    static PeekingIterator<Entry> merge(List<? extends Iterator<Entry>> sources) {
+        List<PeekingIterator<Entry>> heads = new ArrayList<>();
+        for (Iterator<Entry> source : sources) {
+            heads.add(source instanceof PeekingIterator<Entry> peeking ? peeking : PeekingIterator.of(source));
+        }
+        PriorityQueue<Integer> queue = new PriorityQueue<>(Math.max(1, heads.size()),
+                Comparator.<Integer, byte[]>comparing(i -> heads.get(i).peek().key(), Arrays::compareUnsigned)
+                        .thenComparing(Comparator.naturalOrder()));
+        for (int i = 0; i < heads.size(); i++) {
+            if (heads.get(i).hasNext()) {
+                queue.add(i);
+            }
+        }
+        return new PeekingIterator<>() {
+            @Override
+            protected Entry computeNext() {
+                Integer first = queue.poll();
+                if (first == null) {
+                    return null;
+                }
+                Entry entry = heads.get(first).next();
+                requeue(first);
+                // Older versions of the same key
+                while (!queue.isEmpty() && Arrays.equals(heads.get(queue.peek()).peek().key(), entry.key())) {
+                    int older = queue.poll();
+                    heads.get(older).next();
+                    requeue(older);
+                }
+                return entry;
+            }
+
+            private void requeue(int source) {
+                if (heads.get(source).hasNext()) {
+                    queue.add(source);
+                }
+            }
+        };
+    }
+
+    private static boolean startsWith(byte[] key, byte[] prefix) {
+        return key.length >= prefix.length && Arrays.equals(key, 0, prefix.length, prefix, 0, prefix.length);
+    }
+
+    // -----------------------------------------------------------------------
+    // Writes
+    // -----------------------------------------------------------------------
+
+    public void put(byte[] key, byte[] value) {
+        write(List.of(Entry.put(key, value)));
+    }
+
+    public void delete(byte[] key) {
+        write(List.of(Entry.delete(key)));
+    }
+
+    /**
+     * Applies the entries in order. They are logged together, but readers may
+     * see some of them before the others.
+     */
+    public void write(List<Entry> batch) {
+        synchronized (writeLock) {
+            if (closed) {
+                throw new IllegalStateException("LSM tree is closed");
+            }
+            Memtable active = version.active;
+            try {
+                for (Entry entry : batch) {
+                    walBytes.add(wal.append(entry));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot append to " + wal.file(), e);
+            }
+            for (Entry entry : batch) {
+                active.apply(entry);
+                userBytes.add(entry.bytes());
+            }
+            if (active.bytes() >= options.memtableBytes()) {
+                rotate();
+            }
+        }
+    }
+
+    /**
+     * Freezes the active memtable and starts a new one with its own log.
+     * Called with the write lock held.
+     */
+    private void rotate() {
+        try {
+            synchronized (this) {
+                while (version.immutables.size() >= MAX_IMMUTABLE_MEMTABLES && !closed) {
+                    wait();             // write stall: the flushes are behind
+                }
+            }
+            wal.close();
+            wal = new WriteAheadLog(walPath(nextNumber.getAndIncrement()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot start a new write-ahead log in " + directory, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a flush", e);
+        }
+        synchronized (this) {
+            Version v = version;
+            List<Memtable> immutables = new ArrayList<>();
+            immutables.add(v.active);
+            immutables.addAll(v.immutables);
+            version = new Version(new Memtable(new ArrayList<>(List.of(wal.file()))), immutables, v.levels);
+            notifyAll();
+        }
+    }
+
+    /**
+     * Flushes the memtable to disk and waits until it and every earlier one are in tables.
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            if (version.active.size() > 0) {
+                rotate();
+            }
+        }
+        awaitIdle(false);
+    }
+
+    /**
+     * Waits until there is nothing to flush and, if asked, no compaction due.
+     */
+    public void awaitIdle(boolean compactions) {
+        synchronized (this) {
+            while (!closed && (!version.immutables.isEmpty() || compactions && pickCompaction(version) != null)) {
+                try {
+                    wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // -----------------------------------------------------------------------
+    // Flush and compaction
+    // -----------------------------------------------------------------------
+
+    private void workLoop() {
+        while (!closed) {
+            try {
+                if (!flushOldest() && !compactOnce()) {
+                    synchronized (this) {
+                        if (!closed && version.immutables.isEmpty() && pickCompaction(version) == null) {
+                            wait(1_000);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                if (closed) {
+                    return;
+                }
+                log.error("LSM background work failed; retrying", e);
+                try {
+                    Thread.sleep(1_000);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean flushOldest() throws IOException {
+        Memtable memtable;
+        synchronized (this) {
+            List<Memtable> immutables = version.immutables;
+            if (immutables.isEmpty()) {
+                return false;
+            }
+            memtable = immutables.get(immutables.size() - 1);
+        }
+        SSTable table = SSTable.write(directory, nextNumber.getAndIncrement(),
+                PeekingIterator.of(memtable.iterator(new byte[0])), Long.MAX_VALUE);
+        synchronized (this) {
+            Version v = version;
+            List<Memtable> immutables = new ArrayList<>(v.immutables);
+            immutables.remove(memtable);
+            List<List<SSTable>> levels = copyLevels(v.levels);
+            if (table != null) {
+                levels.get(0).add(0, table);
+                flushBytes.add(table.fileBytes());
+            }
+            writeManifest(levels);
+            version = new Version(v.active, immutables, levels);
+            notifyAll();
+        }
+        for (Path file : memtable.wals()) {
+            Files.deleteIfExists(file);
+        }
+        return true;
+    }
+
+    /** A merge of input tables into the next level. */
+    private record Compaction(int level, List<SSTable> upper, List<SSTable> lower) {
+    }
+
+    private Compaction pickCompaction(Version v) {
+        List<SSTable> level0 = v.levels.get(0);
+        if (level0.size() >= options.level0Tables()) {
+            byte[] from = null;
+            byte[] to = null;
+            for (SSTable table : level0) {
+                from = from == null || Arrays.compareUnsigned(table.firstKey(), from) < 0 ? table.firstKey() : from;
+                to = to == null || Arrays.compareUnsigned(table.lastKey(), to) > 0 ? table.lastKey() : to;
+            }
+            return new Compaction(0, level0, overlapping(v.levels.get(1), from, to));
+        }
+        for (int level = 1; level < MAX_LEVELS - 1; level++) {
+            List<SSTable> tables = v.levels.get(level);
+            if (bytes(tables) > targetBytes(level)) {
+                // Round robin through the key space, so every range gets compacted in turn
+                SSTable chosen = tables.get(0);
+                byte[] pointer = compactPointers[level];
+                if (pointer != null) {
+                    for (SSTable table : tables) {
+                        if (Arrays.compareUnsigned(table.firstKey(), pointer) > 0) {
+                            chosen = table;
+                            break;
+                        }
+                    }
+                }
+                return new Compaction(level, List.of(chosen),
+                        overlapping(v.levels.get(level + 1), chosen.firstKey(), chosen.lastKey()));
+            }
+        }
+        return null;
+    }
+
+    private boolean compactOnce() throws IOException {
+        Compaction compaction;
+        Version v;
+        synchronized (this) {
+            v = version;
+            compaction = pickCompaction(v);
+        }
+        if (compaction == null) {
+            return false;
+        }
+        int output = compaction.level + 1;
+        // Upper inputs are newer than lower ones, and level 0 is already newest first
+        List<Iterator<Entry>> sources = new ArrayList<>();
+        for (SSTable table : compaction.upper) {
+            sources.add(table.iterator(new byte[0]));
+            compactionReadBytes.add(table.fileBytes());
+        }
+        for (SSTable table : compaction.lower) {
+            sources.add(table.iterator(new byte[0]));
+            compactionReadBytes.add(table.fileBytes());
+        }
+        // Only this thread moves tables below level 0, so the deeper levels of v are current
+        List<List<SSTable>> deeper = v.levels.subList(output + 1, MAX_LEVELS);
+        PeekingIterator<Entry> merged = merge(sources);
+        PeekingIterator<Entry> entries = new PeekingIterator<>() {
+            @Override
+            protected Entry computeNext() {
+                while (merged.hasNext()) {
+                    Entry entry = merged.next();
+                    // A tombstone is needed only while a deeper level may hold an older value
+                    if (!entry.isTombstone() || coveredBy(deeper, entry.key())) {
+                        return entry;
+                    }
+                }
+                return null;
+            }
+        };
+        List<SSTable> written = new ArrayList<>();
+        while (entries.hasNext()) {
+            SSTable table = SSTable.write(directory, nextNumber.getAndIncrement(), entries, options.tableBytes());
+            written.add(table);
+            compactionWriteBytes.add(table.fileBytes());
+        }
+
+        synchronized (this) {
+            Version current = version;
+            List<List<SSTable>> levels = copyLevels(current.levels);
+            levels.get(compaction.level).removeAll(compaction.upper);
+            levels.get(output).removeAll(compaction.lower);
+            levels.get(output).addAll(written);
+            levels.get(output).sort((a, b) -> Arrays.compareUnsigned(a.firstKey(), b.firstKey()));
+            if (compaction.level > 0) {
+                compactPointers[compaction.level] = compaction.upper.get(0).lastKey();
+            }
+            writeManifest(levels);
+            version = new Version(current.active, current.immutables, levels);
+            notifyAll();
+        }
+        for (SSTable table : compaction.upper) {
+            table.delete();
+        }
+        for (SSTable table : compaction.lower) {
+            table.delete();
+        }
+        compactions.increment();
+        return true;
+    }
+
+    private static boolean coveredBy(List<List<SSTable>> levels, byte[] key) {
+        for (List<SSTable> level : levels) {
+            if (find(level, key) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<SSTable> overlapping(List<SSTable> tables, byte[] from, byte[] to) {
+        List<SSTable> result = new ArrayList<>();
+        for (SSTable table : tables) {
+            if (table.overlaps(from, to)) {
+                result.add(table);
+            }
+        }
+        return result;
+    }
+
+    private long targetBytes(int level) {
+        long target = options.level1Bytes();
+        for (int i = 1; i < level; i++) {
+            target *= LEVEL_MULTIPLIER;
+        }
+        return target;
+    }
+
+    private static long bytes(List<SSTable> tables) {
+        long bytes = 0;
+        for (SSTable table : tables) {
+            bytes += table.fileBytes();
+        }
+        return bytes;
+    }
+
+    private static List<List<SSTable>> copyLevels(List<List<SSTable>> levels) {
+        List<List<SSTable>> copy = new ArrayList<>(levels.size());
+        for (List<SSTable> level : levels) {
+            copy.add(new ArrayList<>(level));
+        }
+        return copy;
+    }
+
+    // -----------------------------------------------------------------------
+    // Manifest and logs
+    // -----------------------------------------------------------------------
+
+    /**
+     * One line per table ("level number"), written to a temporary file and moved into place.
+     * The file and then the directory are forced, which also makes the
+     * directory entries of newly written tables durable.
+     */
+    private void writeManifest(List<List<SSTable>> levels) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int level = 0; level < levels.size(); level++) {
+            for (SSTable table : levels.get(level)) {
+                text.append(level).append(' ').append(table.number()).append('\n');
+            }
+        }
+        Path temp = directory.resolve(MANIFEST + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(text));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory();
+    }
+
+    /**
+     * Forces the directory's entries (created, renamed and deleted files) to the device.
+     */
+    private void forceDirectory() throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private List<List<SSTable>> readManifest() throws IOException {
+        List<List<SSTable>> levels = new ArrayList<>();
+        for (int i = 0; i < MAX_LEVELS; i++) {
+            levels.add(new ArrayList<>());
+        }
+        Path manifest = directory.resolve(MANIFEST);
+        List<Long> live = new ArrayList<>();
+        if (Files.exists(manifest)) {
+            // Level 0 is newest first, which is descending table number
+            TreeMap<Long, Integer> tables = new TreeMap<>(Comparator.reverseOrder());
+            for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    String[] parts = line.trim().split(" ");
+                    tables.put(Long.parseLong(parts[1]), Integer.parseInt(parts[0]));
+                }
+            }
+            for (var table : tables.entrySet()) {
+                levels.get(table.getValue()).add(SSTable.open(SSTable.path(directory, table.getKey()), table.getKey()));
+                live.add(table.getKey());
+            }
+            for (int level = 1; level < MAX_LEVELS; level++) {
+                levels.get(level).sort((a, b) -> Arrays.compareUnsigned(a.firstKey(), b.firstKey()));
+            }
+        }
+        // Tables a crash left out of the manifest are unreachable
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SSTable.SUFFIX)) {
+            for (Path file : files) {
+                long number = number(file);
+                nextNumber.accumulateAndGet(number + 1, Math::max);
+                if (!live.contains(number)) {
+                    Files.delete(file);
+                }
+            }
+        }
+        return levels;
+    }
+
+    private List<Path> listWals() throws IOException {
+        List<Path> wals = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + WAL_SUFFIX)) {
+            files.forEach(wals::add);
+        }
+        wals.sort(Comparator.comparingLong(LsmTree::number));
+        for (Path file : wals) {
+            nextNumber.accumulateAndGet(number(file) + 1, Math::max);
+        }
+        return wals;
+    }
+
+    private Path walPath(long number) {
+        return directory.resolve(String.format("%08d%s", number, WAL_SUFFIX));
+    }
+
+    private static long number(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.indexOf('.')));
+    }
+
+    // -----------------------------------------------------------------------
+    // Status
+    // -----------------------------------------------------------------------
+
+    /**
+     * Counters since open. Write amplification is the bytes written to tables
+     * by flushes and compactions per byte of keys and values written by the
+     * caller; the write-ahead log adds about one more.
+     */
+    public record Stats(long userBytes, long walBytes, long flushBytes, long compactionReadBytes,
+                        long compactionWriteBytes, long compactions, int[] tablesPerLevel, long[] bytesPerLevel) {
+
+        public double writeAmplification() {
+            return userBytes == 0 ? 0 : (double) (flushBytes + compactionWriteBytes) / userBytes;
+        }
+    }
+
+    public Stats stats() {
+        Version v = version;
+        int[] tables = new int[MAX_LEVELS];
+        long[] bytes = new long[MAX_LEVELS];
+        for (int level = 0; level < MAX_LEVELS; level++) {
+            tables[level] = v.levels.get(level).size();
+            bytes[level] = bytes(v.levels.get(level));
+        }
+        return new Stats(userBytes.sum(), walBytes.sum(), flushBytes.sum(), compactionReadBytes.sum(),
+                compactionWriteBytes.sum(), compactions.sum(), tables, bytes);
+    }
+
+    /** Memtables, which hold recent writes, and the tables' sparse indexes and Bloom filters. */
+    public long memtableBytes() {
+        Version v = version;
+        long bytes = v.active.bytes();
+        for (Memtable memtable : v.immutables) {
+            bytes += memtable.bytes();
+        }
+        return bytes;
+    }
+
+    public long tableIndexBytes() {
+        long bytes = 0;
+        for (List<SSTable> level : version.levels) {
+            for (SSTable table : level) {
+                bytes += table.heapBytes();
+            }
+        }
+        return bytes;
+    }
+
+    public int memtableEntries() {
+        Version v = version;
+        int entries = v.active.size();
+        for (Memtable memtable : v.immutables) {
+            entries += memtable.size();
+        }
+        return entries;
+    }
+
+    public int tableCount() {
+        return version.levels.stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * Stops the background thread and closes the log. Unflushed writes stay
+     * in the log and are replayed on the next open.
+     */
+    @Override
+    public void close() {
+        synchronized (writeLock) {
+            closed = true;
+            synchronized (this) {
+                notifyAll();
+            }
+            worker.interrupt();
+            try {
+                worker.join(10_000);
+                wal.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package com.urlshortener.repositories.lsm;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import com.urlshortener.memory.MemoryEstimator;
+import com.urlshortener.memory.StructureFootprint;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.MappingListener;
+import com.urlshortener.repositories.MappingListeners;
+import com.urlshortener.repositories.ShortenedUrlCodec;
+import com.urlshortener.repositories.UrlRepository;
+import com.urlshortener.repositories.index.ConcurrentRadixTrie;
+
+/**
+ * Persistent repository on an {@link LsmTree} in a local directory.
+ *
+ * Two key spaces share the tree: "c" + short code holds the mapping encoded
+ * with {@link ShortenedUrlCodec}, and "u" + original URL holds the short code
+ * of a generated mapping, for idempotent shortening. findByShortCode is one
+ * point read; findByOriginalUrl is two, and checks that the mapping still
+ * points back at the URL.
+ *
+ * Writes are serialised so a read-modify-write of the two keys is atomic;
+ * the tree's own writes are serialised anyway. Only the vanity alias trie is
+ * kept on the heap, rebuilt from the tree when the repository opens.
+ * Unlike the other repositories, the mappings survive a restart.
+ */
+public class LsmUrlRepository implements UrlRepository, AutoCloseable {
+
+    private static final byte CODE = 'c';
+    private static final byte URL = 'u';
+    // First byte of a ShortenedUrlCodec record
+    private static final int FLAG_ALIAS = 1;
+
+    private final LsmTree tree;
+    // Not the tree's own monitor, which its flushes and compactions take to publish their tables
+    private final Object writeLock = new Object();
+    private final ConcurrentRadixTrie aliases = new ConcurrentRadixTrie();
+    private final MappingListeners listeners = new MappingListeners();
+    private final LongAdder aliasBytes = new LongAdder();
+    // Kept under the write lock; counted once from the tree when the repository opens
+    private final LongAdder mappings = new LongAdder();
+
+    public LsmUrlRepository(Path directory, LsmTree.Options options) {
+        this.tree = new LsmTree(directory, options);
+        Iterator<Entry> codes = tree.scan(new byte[] { CODE });
+        while (codes.hasNext()) {
+            Entry entry = codes.next();
+            mappings.increment();
+            if ((entry.value()[0] & FLAG_ALIAS) != 0) {
+                addAlias(new String(entry.key(), 1, entry.key().length - 1, StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    // -----------------------------------------------------------------------
+    // Writes
+    // -----------------------------------------------------------------------
+
+    @Override
+    public void save(ShortenedUrl shortenedUrl) {
+        synchronized (writeLock) {
+            ShortenedUrl previous = read(tree.get(codeKey(shortenedUrl.getShortCode())));
+            List<Entry> batch = new ArrayList<>(3);
+            if (previous != null && !previous.isAlias()
+                    && !previous.getOriginalUrl().equals(shortenedUrl.getOriginalUrl())) {
+                unindexUrl(previous, batch);
+            }
+            stage(shortenedUrl, batch);
+            tree.write(batch);
+            if (previous == null) {
+                mappings.increment();
+            }
+            if (shortenedUrl.isAlias()) {
+                addAlias(shortenedUrl.getShortCode());
+            } else if (previous != null && previous.isAlias()) {
+                removeAlias(previous.getShortCode());
+            }
+        }
+        listeners.fireSaved(shortenedUrl);
+    }
+
+    @Override
+    public boolean saveIfAbsent(ShortenedUrl shortenedUrl) {
+        synchronized (writeLock) {
+            if (tree.get(codeKey(shortenedUrl.getShortCode())) != null) {
+                return false;
+            }
+            List<Entry> batch = new ArrayList<>(2);
+            stage(shortenedUrl, batch);
+            tree.write(batch);
+            mappings.increment();
+            if (shortenedUrl.isAlias()) {
+                addAlias(shortenedUrl.getShortCode());
+            }
+        }
+        listeners.fireSaved(shortenedUrl);
+        return true;
+    }
+
+    /**
+     * One lock and one log append for the whole batch.
+     */
+    @Override
+    public List<ShortenedUrl> saveAllIfAbsent(List<ShortenedUrl> shortenedUrls) {
+        List<ShortenedUrl> rejected = new ArrayList<>();
+        List<ShortenedUrl> saved = new ArrayList<>(shortenedUrls.size());
+        synchronized (writeLock) {
+            Set<String> batchCodes = new HashSet<>();
+            List<Entry> batch = new ArrayList<>(2 * shortenedUrls.size());
+            for (ShortenedUrl shortenedUrl : shortenedUrls) {
+                if (!batchCodes.add(shortenedUrl.getShortCode())
+                        || tree.get(codeKey(shortenedUrl.getShortCode())) != null) {
+                    rejected.add(shortenedUrl);
+                    continue;
+                }
+                stage(shortenedUrl, batch);
+                saved.add(shortenedUrl);
+            }
+            tree.write(batch);
+            mappings.add(saved.size());
+            for (ShortenedUrl shortenedUrl : saved) {
+                if (shortenedUrl.isAlias()) {
+                    addAlias(shortenedUrl.getShortCode());
+                }
+            }
+        }
+        saved.forEach(listeners::fireSaved);
+        return rejected;
+    }
+
+    @Override
+    public Optional<ShortenedUrl> deleteByShortCode(String shortCode) {
+        ShortenedUrl removed;
+        synchronized (writeLock) {
+            byte[] key = codeKey(shortCode);
+            removed = read(tree.get(key));
+            if (removed == null) {
+                return Optional.empty();
+            }
+            List<Entry> batch = new ArrayList<>(2);
+            batch.add(Entry.delete(key));
+            if (!removed.isAlias()) {
+                unindexUrl(removed, batch);
+            }
+            tree.write(batch);
+            mappings.decrement();
+            if (removed.isAlias()) {
+                removeAlias(shortCode);
+            }
+        }
+        listeners.fireRemoved(removed);
+        return Optional.of(removed);
+    }
+
+    /**
+     * Adds the mapping's entries to the batch. The caller adds an alias to the
+     * trie once the batch is written, so a failed write leaves no phantom alias.
+     */
+    private void stage(ShortenedUrl shortenedUrl, List<Entry> batch) {
+        byte[] code = shortenedUrl.getShortCode().getBytes(StandardCharsets.UTF_8);
+        batch.add(Entry.put(prefixed(CODE, code), encode(shortenedUrl)));
+        if (!shortenedUrl.isAlias()) {
+            batch.add(Entry.put(urlKey(shortenedUrl.getOriginalUrl()), code));
+        }
+    }
+
+    /** Drops the URL's index entry if it still points at this mapping's code. */
+    private void unindexUrl(ShortenedUrl mapping, List<Entry> batch) {
+        byte[] key = urlKey(mapping.getOriginalUrl());
+        byte[] code = tree.get(key);
+        if (code != null && Arrays.equals(code, mapping.getShortCode().getBytes(StandardCharsets.UTF_8))) {
+            batch.add(Entry.delete(key));
+        }
+    }
+
+    private void addAlias(String shortCode) {
+        if (aliases.add(shortCode)) {
+            aliasBytes.add(MemoryEstimator.radixTrieKey(shortCode));
+        }
+    }
+
+    private void removeAlias(String shortCode) {
+        if (aliases.remove(shortCode)) {
+            aliasBytes.add(-MemoryEstimator.radixTrieKey(shortCode));
+        }
+    }
+
+    // -----------------------------------------------------------------------
+    // Reads
+    // -----------------------------------------------------------------------
+
+    @Override
+    public Optional<ShortenedUrl> findByShortCode(String shortCode) {
+        return Optional.ofNullable(read(tree.get(codeKey(shortCode))));
+    }
+
+    @Override
+    public boolean existsByShortCode(String shortCode) {
+        return tree.get(codeKey(shortCode)) != null;
+    }
+
+    @Override
+    public Optional<ShortenedUrl> findByOriginalUrl(String originalUrl) {
+        byte[] code = tree.get(urlKey(originalUrl));
+        if (code == null) {
+            return Optional.empty();
+        }
+        ShortenedUrl mapping = read(tree.get(prefixed(CODE, code)));
+        // The code may have been overwritten since the URL was indexed
+        if (mapping == null || mapping.isAlias() || !mapping.getOriginalUrl().equals(originalUrl)) {
+            return Optional.empty();
+        }
+        return Optional.of(mapping);
+    }
+
+    /**
+     * Copies every mapping, decoding it from the tables; O(n) in time and
+     * heap, so meant for backfills and admin scans rather than requests.
+     */
+    @Override
+    public Collection<ShortenedUrl> findAll() {
+        List<ShortenedUrl> all = new ArrayList<>();
+        forEach(all::add);
+        return all;
+    }
+
+    @Override
+    public long count() {
+        return mappings.sum();
+    }
+
+    @Override
+    public Map<String, Long> countByDomain() {
+        Map<String, Long> counts = new HashMap<>();
+        forEach(mapping -> counts.merge(mapping.getDomain(), 1L, Long::sum));
+        return counts;
+    }
+
+    private void forEach(Consumer<ShortenedUrl> action) {
+        Iterator<Entry> codes = tree.scan(new byte[] { CODE });
+        while (codes.hasNext()) {
+            action.accept(read(codes.next().value()));
+        }
+    }
+
+    @Override
+    public List<String> findAliasesByPrefix(String prefix, int limit) {
+        return aliases.keysWithPrefix(prefix, limit);
+    }
+
+    @Override
+    public int countAliasesByPrefix(String prefix) {
+        return aliases.countWithPrefix(prefix);
+    }
+
+    @Override
+    public void addListener(MappingListener listener) {
+        listeners.add(listener);
+    }
+
+    // -----------------------------------------------------------------------
+    // Encoding
+    // -----------------------------------------------------------------------
+
+    private static byte[] codeKey(String shortCode) {
+        return prefixed(CODE, shortCode.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] urlKey(String originalUrl) {
+        return prefixed(URL, originalUrl.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] prefixed(byte space, byte[] key) {
+        byte[] prefixed = new byte[key.length + 1];
+        prefixed[0] = space;
+        System.arraycopy(key, 0, prefixed, 1, key.length);
+        return prefixed;
+    }
+
+    private static byte[] encode(ShortenedUrl shortenedUrl) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            ShortenedUrlCodec.write(out, shortenedUrl);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static ShortenedUrl read(byte[] value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return ShortenedUrlCodec.read(new DataInputStream(new ByteArrayInputStream(value)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt mapping record", e);
+        }
+    }
+
+    // -----------------------------------------------------------------------
+    // Status
+    // -----------------------------------------------------------------------
+
+    public LsmTree.Stats stats() {
+        return tree.stats();
+    }
+
+    /** Waits until every write is in a table; for tests and benchmarks. */
+    public void flush() {
+        tree.flush();
+    }
+
+    LsmTree tree() {
+        return tree;
+    }
+
+    /**
+     * Heap only: the tables count their sparse indexes and Bloom filters, not the mapped files.
+     */
+    @Override
+    public List<StructureFootprint> memoryFootprint() {
+        return List.of(
+                new StructureFootprint("lsmMemtables", tree.memtableEntries(), tree.memtableBytes()),
+                new StructureFootprint("lsmTableIndexes", tree.tableCount(), tree.tableIndexBytes()),
+                new StructureFootprint("aliasTrie", aliases.countWithPrefix(""), aliasBytes.sum()));
+    }
+
+    /**
+     * Stops background compaction. Unflushed writes are replayed from the log on the next open.
+     */
+    @Override
+    public void close() {
+        tree.close();
+    }
+}
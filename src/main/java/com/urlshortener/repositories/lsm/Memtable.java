@@ -0,0 +1,75 @@
+package com.urlshortener.repositories.lsm;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sorted in-memory buffer of recent writes, backed by the write-ahead logs in {@link #wals()}.
+ *
+ * Writers are serialised by the tree, but reads and scans run concurrently
+ * with them, hence the skip list. Once full the memtable is frozen and
+ * flushed to a level-0 SSTable by the background thread.
+ */
+final class Memtable {
+
+    /** Stored for deletes; compared by identity. */
+    static final byte[] TOMBSTONE = new byte[0];
+
+    // Skip list node and index share, plus two array headers
+    private static final int ENTRY_OVERHEAD = 40 + 2 * 16;
+
+    private final ConcurrentSkipListMap<byte[], byte[]> entries = new ConcurrentSkipListMap<>(Arrays::compareUnsigned);
+    private final AtomicLong bytes = new AtomicLong();
+    private final List<Path> wals;
+
+    Memtable(List<Path> wals) {
+        this.wals = wals;
+    }
+
+    /**
+     * @return the value, {@link #TOMBSTONE} if the key was deleted, or null if the memtable does not know the key
+     */
+    byte[] get(byte[] key) {
+        return entries.get(key);
+    }
+
+    void apply(Entry entry) {
+        byte[] value = entry.isTombstone() ? TOMBSTONE : entry.value();
+        byte[] previous = entries.put(entry.key(), value);
+        bytes.addAndGet(value.length + (previous == null ? entry.key().length + ENTRY_OVERHEAD : -previous.length));
+    }
+
+    /** Entries from the key on, tombstones included, in key order. */
+    Iterator<Entry> iterator(byte[] from) {
+        Iterator<Map.Entry<byte[], byte[]>> it = entries.tailMap(from, true).entrySet().iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public Entry next() {
+                Map.Entry<byte[], byte[]> next = it.next();
+                return new Entry(next.getKey(), next.getValue() == TOMBSTONE ? null : next.getValue());
+            }
+        };
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    long bytes() {
+        return bytes.get();
+    }
+
+    List<Path> wals() {
+        return wals;
+    }
+}
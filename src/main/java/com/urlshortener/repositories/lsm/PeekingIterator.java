@@ -0,0 +1,49 @@
+package com.urlshortener.repositories.lsm;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator that can look at its next element without consuming it, as the
+ * merge and the table writer need to.
+ */
+abstract class PeekingIterator<T> implements Iterator<T> {
+
+    private T next;
+    private boolean done;
+
+    /** The next element, or null at the end. */
+    protected abstract T computeNext();
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !done) {
+            next = computeNext();
+            done = next == null;
+        }
+        return next != null;
+    }
+
+    T peek() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return next;
+    }
+
+    @Override
+    public T next() {
+        T result = peek();
+        next = null;
+        return result;
+    }
+
+    static <T> PeekingIterator<T> of(Iterator<T> iterator) {
+        return new PeekingIterator<>() {
+            @Override
+            protected T computeNext() {
+                return iterator.hasNext() ? iterator.next() : null;
+            }
+        };
+    }
+}
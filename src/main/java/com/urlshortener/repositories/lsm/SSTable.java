@@ -0,0 +1,312 @@
+package com.urlshortener.repositories.lsm;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import com.urlshortener.memory.MemoryEstimator;
+import com.urlshortener.util.Hashing;
+
+/**
+ * Immutable sorted table of entries on disk, read through a memory map.
+ *
+ * Layout: data blocks of about {@value #BLOCK_BYTES} bytes holding entries
+ * in key order (type byte, varint-prefixed key, varint-prefixed value for
+ * puts); then the sparse index, which is the first key and offset of every
+ * block plus the table's last key; then the Bloom filter; then a fixed
+ * footer with their offsets, the entry count and a magic number.
+ *
+ * Only the sparse index and the Bloom filter live on the heap, about 2 bytes
+ * per entry for short keys. A point read checks the filter, binary-searches
+ * the index for the one block that can hold the key, and scans that block in
+ * the map.
+ */
+final class SSTable {
+
+    static final String SUFFIX = ".sst";
+
+    private static final int BLOCK_BYTES = 4096;
+    private static final int FOOTER_BYTES = 8 + 8 + 8 + 4;
+    private static final int MAGIC = 0x4C534D31;     // "LSM1"
+    private static final byte PUT = 0;
+    private static final byte DELETE = 1;
+
+    private final long number;
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final byte[][] blockKeys;
+    private final int[] blockOffsets;
+    private final int dataEnd;
+    private final byte[] lastKey;
+    private final BloomFilter bloom;
+    private final long entryCount;
+
+    private SSTable(long number, Path file, MappedByteBuffer buffer, byte[][] blockKeys, int[] blockOffsets,
+                    int dataEnd, byte[] lastKey, BloomFilter bloom, long entryCount) {
+        this.number = number;
+        this.file = file;
+        this.buffer = buffer;
+        this.blockKeys = blockKeys;
+        this.blockOffsets = blockOffsets;
+        this.dataEnd = dataEnd;
+        this.lastKey = lastKey;
+        this.bloom = bloom;
+        this.entryCount = entryCount;
+    }
+
+    static Path path(Path directory, long number) {
+        return directory.resolve(String.format("%08d%s", number, SUFFIX));
+    }
+
+    /**
+     * Writes entries from the iterator, in key order, until it is exhausted or
+     * the table reaches about {@code targetBytes}; the rest stay in the iterator.
+     * The file is forced to the device before this returns.
+     *
+     * @return the table, or null if the iterator was empty
+     */
+    static SSTable write(Path directory, long number, PeekingIterator<Entry> entries, long targetBytes)
+            throws IOException {
+        if (!entries.hasNext()) {
+            return null;
+        }
+        Path file = path(directory, number);
+        byte[][] blockKeys = new byte[16][];
+        int[] blockOffsets = new int[16];
+        int blocks = 0;
+        long[] hashes = new long[1024];
+        long count = 0;
+        byte[] last = null;
+        int dataEnd;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+            int blockStart = -1;
+            while (entries.hasNext() && (out.size() < targetBytes || blockStart >= 0 && out.size() - blockStart < BLOCK_BYTES)) {
+                Entry entry = entries.next();
+                if (blockStart < 0 || out.size() - blockStart >= BLOCK_BYTES) {
+                    if (blocks == blockKeys.length) {
+                        blockKeys = Arrays.copyOf(blockKeys, blocks * 2);
+                        blockOffsets = Arrays.copyOf(blockOffsets, blocks * 2);
+                    }
+                    blockStart = out.size();
+                    blockKeys[blocks] = entry.key();
+                    blockOffsets[blocks++] = blockStart;
+                }
+                out.writeByte(entry.isTombstone() ? DELETE : PUT);
+                writeBytes(out, entry.key());
+                if (!entry.isTombstone()) {
+                    writeBytes(out, entry.value());
+                }
+                if (count == hashes.length) {
+                    hashes = Arrays.copyOf(hashes, hashes.length * 2);
+                }
+                hashes[(int) count++] = hash(entry.key());
+                last = entry.key();
+            }
+            dataEnd = out.size();
+
+            long indexOffset = out.size();
+            writeVarInt(out, blocks);
+            for (int i = 0; i < blocks; i++) {
+                writeBytes(out, blockKeys[i]);
+                out.writeInt(blockOffsets[i]);
+            }
+            writeBytes(out, last);
+
+            long bloomOffset = out.size();
+            BloomFilter bloom = BloomFilter.forKeys(count);
+            for (int i = 0; i < count; i++) {
+                bloom.add(hashes[i]);
+            }
+            bloom.write(out);
+
+            out.writeLong(indexOffset);
+            out.writeLong(bloomOffset);
+            out.writeLong(count);
+            out.writeInt(MAGIC);
+            out.flush();
+            channel.force(true);
+        }
+        return open(file, number);
+    }
+
+    /**
+     * Maps an existing table file.
+     */
+    static SSTable open(Path file, long number) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < FOOTER_BYTES || buffer.getInt(buffer.capacity() - 4) != MAGIC) {
+            throw new IOException("Not an SSTable: " + file);
+        }
+        int footer = buffer.capacity() - FOOTER_BYTES;
+        int indexOffset = (int) buffer.getLong(footer);
+        int bloomOffset = (int) buffer.getLong(footer + 8);
+        long entryCount = buffer.getLong(footer + 16);
+
+        ByteBuffer in = buffer.duplicate().position(indexOffset);
+        int blocks = WriteAheadLog.getVarInt(in);
+        byte[][] blockKeys = new byte[blocks][];
+        int[] blockOffsets = new int[blocks];
+        for (int i = 0; i < blocks; i++) {
+            blockKeys[i] = WriteAheadLog.getBytes(in);
+            blockOffsets[i] = in.getInt();
+        }
+        byte[] lastKey = WriteAheadLog.getBytes(in);
+        BloomFilter bloom = BloomFilter.read(buffer.duplicate().position(bloomOffset));
+        return new SSTable(number, file, buffer, blockKeys, blockOffsets, indexOffset, lastKey, bloom, entryCount);
+    }
+
+    /**
+     * @return the value, {@link Memtable#TOMBSTONE} if the key was deleted, or null if the table does not know the key
+     */
+    byte[] get(byte[] key) {
+        if (!bloom.mightContain(hash(key)) || Arrays.compareUnsigned(key, lastKey) > 0) {
+            return null;
+        }
+        int block = blockFor(key);
+        if (block < 0) {
+            return null;
+        }
+        ByteBuffer in = buffer.duplicate().position(blockOffsets[block]);
+        int end = block + 1 < blockOffsets.length ? blockOffsets[block + 1] : dataEnd;
+        try {
+            while (in.position() < end) {
+                byte type = in.get();
+                byte[] entryKey = WriteAheadLog.getBytes(in);
+                int order = Arrays.compareUnsigned(entryKey, key);
+                if (order > 0) {
+                    return null;
+                }
+                if (type == DELETE) {
+                    if (order == 0) {
+                        return Memtable.TOMBSTONE;
+                    }
+                    continue;
+                }
+                int length = WriteAheadLog.getVarInt(in);
+                if (order == 0) {
+                    byte[] value = new byte[length];
+                    in.get(value);
+                    return value;
+                }
+                in.position(in.position() + length);
+            }
+        } catch (EOFException e) {
+            throw new UncheckedIOException("Corrupt block in " + file, e);
+        }
+        return null;
+    }
+
+    /** Entries from the key on, tombstones included, in key order. */
+    PeekingIterator<Entry> iterator(byte[] from) {
+        int block = Math.max(0, blockFor(from));
+        ByteBuffer in = buffer.duplicate().position(blockOffsets.length > 0 ? blockOffsets[block] : dataEnd);
+        PeekingIterator<Entry> all = new PeekingIterator<>() {
+            @Override
+            protected Entry computeNext() {
+                if (in.position() >= dataEnd) {
+                    return null;
+                }
+                try {
+                    byte type = in.get();
+                    byte[] key = WriteAheadLog.getBytes(in);
+                    return type == DELETE ? Entry.delete(key) : Entry.put(key, WriteAheadLog.getBytes(in));
+                } catch (EOFException e) {
+                    throw new UncheckedIOException("Corrupt block in " + file, e);
+                }
+            }
+        };
+        while (all.hasNext() && Arrays.compareUnsigned(all.peek().key(), from) < 0) {
+            all.next();
+        }
+        return all;
+    }
+
+    /** Index of the last block whose first key is at most the key, or -1. */
+    private int blockFor(byte[] key) {
+        int low = 0;
+        int high = blockKeys.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (Arrays.compareUnsigned(blockKeys[mid], key) <= 0) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    boolean overlaps(byte[] from, byte[] to) {
+        return Arrays.compareUnsigned(lastKey, from) >= 0 && Arrays.compareUnsigned(firstKey(), to) <= 0;
+    }
+
+    byte[] firstKey() {
+        return blockKeys[0];
+    }
+
+    byte[] lastKey() {
+        return lastKey;
+    }
+
+    long number() {
+        return number;
+    }
+
+    long entryCount() {
+        return entryCount;
+    }
+
+    long fileBytes() {
+        return buffer.capacity();
+    }
+
+    long heapBytes() {
+        long bytes = 64 + bloom.heapBytes() + MemoryEstimator.referenceArray(blockKeys.length)
+                + MemoryEstimator.byteArray(4L * blockOffsets.length) + MemoryEstimator.byteArray(lastKey.length);
+        for (byte[] key : blockKeys) {
+            bytes += MemoryEstimator.byteArray(key.length);
+        }
+        return bytes;
+    }
+
+    /**
+     * Removes the file. Readers still holding the table keep working until the map is collected.
+     */
+    void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    static long hash(byte[] key) {
+        return Hashing.hash64(key, 0, key.length);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+}
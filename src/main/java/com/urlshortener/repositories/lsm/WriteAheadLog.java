@@ -0,0 +1,149 @@
+package com.urlshortener.repositories.lsm;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of the writes in the active memtable, replayed on open.
+ *
+ * Record: payload length (4 bytes), CRC32 of the payload (4 bytes), then a
+ * type byte, the varint-prefixed key and, for puts, the varint-prefixed
+ * value. Each record is written straight to the file, so it survives a
+ * process crash once write returns. It is not forced to the device: a power
+ * failure can lose any write the operating system had not yet written back,
+ * at most the contents of the memtables not yet flushed to tables. Replay
+ * stops at the first torn or corrupt record.
+ */
+final class WriteAheadLog implements AutoCloseable {
+
+    private static final byte PUT = 0;
+    private static final byte DELETE = 1;
+
+    private final Path file;
+    private final FileChannel channel;
+
+    WriteAheadLog(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    /**
+     * @return the bytes written
+     */
+    int append(Entry entry) throws IOException {
+        int payload = 1 + varIntSize(entry.key().length) + entry.key().length
+                + (entry.isTombstone() ? 0 : varIntSize(entry.value().length) + entry.value().length);
+        ByteBuffer record = ByteBuffer.allocate(8 + payload);
+        record.position(8);
+        record.put(entry.isTombstone() ? DELETE : PUT);
+        putBytes(record, entry.key());
+        if (!entry.isTombstone()) {
+            putBytes(record, entry.value());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 8, payload);
+        record.putInt(0, payload).putInt(4, (int) crc.getValue());
+        record.flip();
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+        return record.limit();
+    }
+
+    Path file() {
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Feeds every intact record of the log to the consumer, in write order.
+     *
+     * @return how many records were replayed
+     */
+    static int replay(Path file, Consumer<Entry> consumer) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file));
+        int records = 0;
+        while (in.remaining() >= 8) {
+            int payload = in.getInt();
+            int expected = in.getInt();
+            if (payload < 2 || payload > in.remaining()) {
+                break;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(in.array(), in.position(), payload);
+            if ((int) crc.getValue() != expected) {
+                break;
+            }
+            int end = in.position() + payload;
+            try {
+                byte type = in.get();
+                byte[] key = getBytes(in);
+                consumer.accept(type == DELETE ? Entry.delete(key) : Entry.put(key, getBytes(in)));
+            } catch (EOFException e) {
+                break;
+            }
+            in.position(end);
+            records++;
+        }
+        return records;
+    }
+
+    static void putBytes(ByteBuffer out, byte[] bytes) {
+        putVarInt(out, bytes.length);
+        out.put(bytes);
+    }
+
+    static void putVarInt(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    static byte[] getBytes(ByteBuffer in) throws EOFException {
+        int length = getVarInt(in);
+        if (length < 0 || length > in.remaining()) {
+            throw new EOFException("Truncated record");
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return bytes;
+    }
+
+    static int getVarInt(ByteBuffer in) throws EOFException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (!in.hasRemaining()) {
+                throw new EOFException("Truncated varint");
+            }
+            int b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new EOFException("Malformed varint");
+    }
+}
@@ -0,0 +1,103 @@
+package com.urlshortener.repositories.sharding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.urlshortener.util.Hashing;
+
+/**
+ * Immutable consistent-hash ring with virtual nodes.
+ *
+ * Every shard is placed on the ring {@code virtualNodes} times so that load
+ * evens out and adding a shard takes roughly 1/(N+1) of the keys from every
+ * existing shard instead of reshuffling everything. Lookups are a binary
+ * search over a sorted primitive array, with no boxing or tree traversal.
+ *
+ * @param <S> shard type
+ */
+public final class ConsistentHashRing<S> {
+
+    private final long[] points;      // sorted ring positions
+    private final int[] owners;       // owners[i] is the index into shards for points[i]
+    private final List<S> shards;
+    private final List<String> shardIds;
+    private final int virtualNodes;
+
+    private ConsistentHashRing(List<String> shardIds, List<S> shards, int virtualNodes) {
+        this.shardIds = Collections.unmodifiableList(new ArrayList<>(shardIds));
+        this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+        this.virtualNodes = virtualNodes;
+
+        int total = shards.size() * virtualNodes;
+        long[] positions = new long[total];
+        int[] positionOwners = new int[total];
+        int n = 0;
+        for (int shard = 0; shard < shards.size(); shard++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                positions[n] = Hashing.hash64(shardIds.get(shard) + "#" + v);
+                positionOwners[n] = shard;
+                n++;
+            }
+        }
+        Integer[] order = new Integer[total];
+        for (int i = 0; i < total; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(positions[a], positions[b]));
+        this.points = new long[total];
+        this.owners = new int[total];
+        for (int i = 0; i < total; i++) {
+            points[i] = positions[order[i]];
+            owners[i] = positionOwners[order[i]];
+        }
+    }
+
+    public static <S> ConsistentHashRing<S> of(List<String> shardIds, List<S> shards, int virtualNodes) {
+        if (shardIds.size() != shards.size() || shards.isEmpty()) {
+            throw new IllegalArgumentException("Need at least one shard and one id per shard");
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be positive");
+        }
+        return new ConsistentHashRing<>(shardIds, shards, virtualNodes);
+    }
+
+    /**
+     * Returns a new ring with one more shard; this ring is left unchanged.
+     */
+    public ConsistentHashRing<S> withShard(String shardId, S shard) {
+        if (shardIds.contains(shardId)) {
+            throw new IllegalArgumentException("Shard already on the ring: " + shardId);
+        }
+        List<String> ids = new ArrayList<>(shardIds);
+        List<S> all = new ArrayList<>(shards);
+        ids.add(shardId);
+        all.add(shard);
+        return new ConsistentHashRing<>(ids, all, virtualNodes);
+    }
+
+    /**
+     * Returns the shard that owns the key: the first ring point at or after the key's hash.
+     */
+    public S shardFor(String key) {
+        return shards.get(owners[pointIndex(Hashing.hash64(key))]);
+    }
+
+    public List<S> shards() {
+        return shards;
+    }
+
+    public List<String> shardIds() {
+        return shardIds;
+    }
+
+    private int pointIndex(long hash) {
+        int index = Arrays.binarySearch(points, hash);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index == points.length ? 0 : index;
+    }
+}
@@ -0,0 +1,381 @@
+package com.urlshortener.repositories.sharding;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.urlshortener.memory.StructureFootprint;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.MappingListener;
+import com.urlshortener.repositories.MappingListeners;
+import com.urlshortener.repositories.UrlRepository;
+
+/**
+ * Repository that partitions mappings across shards by short-code hash.
+ *
+ * Placement uses a {@link ConsistentHashRing}, so adding a shard only moves
+ * the keys the new shard takes over. Each shard is itself a
+ * {@link UrlRepository}: an in-process {@code InMemoryUrlRepository}, or any
+ * other implementation standing in for a remote node.
+ *
+ * Rebalancing is online. While keys migrate, the previous ring is kept next to
+ * the new one: writes go to the new owner, and reads check the previous owner
+ * and then the new one. A key is copied to its new owner before it is removed
+ * from the old one, so reads in that order always find it. Moving one key and
+ * deleting it hold the same per-key lock, so a delete that lands mid-migration
+ * is never undone by the copy.
+ *
+ * The reverse index (original URL) lives with the short code, so
+ * findByOriginalUrl probes every shard. Scans (countByDomain, alias prefix
+ * queries) fan out to all shards in parallel and merge the partial results.
+ *
+ * Listeners are notified at this level only; key migration between shards is
+ * internal and does not produce save or remove events.
+ */
+public class ShardedUrlRepository implements UrlRepository, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedUrlRepository.class);
+    private static final int KEY_LOCK_STRIPES = 64;
+
+    private volatile Topology topology;
+    private final ExecutorService fanOutPool;
+    private final ExecutorService rebalancePool;
+    private final Object rebalanceLock = new Object();
+    private final MappingListeners listeners = new MappingListeners();
+    private final Object[] keyLocks = new Object[KEY_LOCK_STRIPES];
+    private CompletableFuture<RebalanceResult> lastRebalance = CompletableFuture.completedFuture(null);
+
+    public ShardedUrlRepository(Map<String, ? extends UrlRepository> shards, int virtualNodes) {
+        this.topology = new Topology(
+                ConsistentHashRing.of(new ArrayList<>(shards.keySet()), new ArrayList<>(shards.values()), virtualNodes),
+                null);
+        this.fanOutPool = Executors.newCachedThreadPool(daemonThreads("shard-scan"));
+        this.rebalancePool = Executors.newSingleThreadExecutor(daemonThreads("shard-rebalance"));
+        for (int i = 0; i < keyLocks.length; i++) {
+            keyLocks[i] = new Object();
+        }
+    }
+
+    // -----------------------------------------------------------------------
+    // Point operations — routed to the owning shard
+    // -----------------------------------------------------------------------
+
+    @Override
+    public void save(ShortenedUrl shortenedUrl) {
+        Topology t = topology;
+        String code = shortenedUrl.getShortCode();
+        UrlRepository owner = t.current.shardFor(code);
+        owner.save(shortenedUrl);
+        UrlRepository previousOwner = t.previousOwner(code);
+        if (previousOwner != null && previousOwner != owner) {
+            previousOwner.deleteByShortCode(code); // drop the stale copy awaiting migration
+        }
+        listeners.fireSaved(shortenedUrl);
+    }
+
+    @Override
+    public boolean saveIfAbsent(ShortenedUrl shortenedUrl) {
+        Topology t = topology;
+        String code = shortenedUrl.getShortCode();
+        UrlRepository owner = t.current.shardFor(code);
+        UrlRepository previousOwner = t.previousOwner(code);
+        // A key only ever leaves the old owner after it reached the new one, so
+        // checking the old owner first cannot miss a key that is mid-migration.
+        if (previousOwner != null && previousOwner != owner && previousOwner.existsByShortCode(code)) {
+            return false;
+        }
+        if (!owner.saveIfAbsent(shortenedUrl)) {
+            return false;
+        }
+        listeners.fireSaved(shortenedUrl);
+        return true;
+    }
+
+    /**
+     * Probes the previous owner first, for the same reason as saveIfAbsent:
+     * asking the new owner first could miss a key that migrates between the two lookups.
+     */
+    @Override
+    public Optional<ShortenedUrl> findByShortCode(String shortCode) {
+        Topology t = topology;
+        UrlRepository owner = t.current.shardFor(shortCode);
+        UrlRepository previousOwner = t.previousOwner(shortCode);
+        if (previousOwner != null && previousOwner != owner) {
+            Optional<ShortenedUrl> found = previousOwner.findByShortCode(shortCode);
+            if (found.isPresent()) {
+                return found;
+            }
+        }
+        return owner.findByShortCode(shortCode);
+    }
+
+    @Override
+    public boolean existsByShortCode(String shortCode) {
+        Topology t = topology;
+        UrlRepository owner = t.current.shardFor(shortCode);
+        UrlRepository previousOwner = t.previousOwner(shortCode);
+        if (previousOwner != null && previousOwner != owner && previousOwner.existsByShortCode(shortCode)) {
+            return true;
+        }
+        return owner.existsByShortCode(shortCode);
+    }
+
+    /**
+     * Runs under the key's lock, and reads the topology inside it, so the
+     * migration cannot copy the key to its new owner between the two deletes.
+     */
+    @Override
+    public Optional<ShortenedUrl> deleteByShortCode(String shortCode) {
+        Optional<ShortenedUrl> removed;
+        synchronized (keyLock(shortCode)) {
+            Topology t = topology;
+            removed = t.current.shardFor(shortCode).deleteByShortCode(shortCode);
+            UrlRepository previousOwner = t.previousOwner(shortCode);
+            if (previousOwner != null) {
+                Optional<ShortenedUrl> stale = previousOwner.deleteByShortCode(shortCode);
+                if (removed.isEmpty()) {
+                    removed = stale;
+                }
+            }
+        }
+        removed.ifPresent(listeners::fireRemoved);
+        return removed;
+    }
+
+    @Override
+    public Optional<ShortenedUrl> findByOriginalUrl(String originalUrl) {
+        for (UrlRepository shard : topology.current.shards()) {
+            Optional<ShortenedUrl> found = shard.findByOriginalUrl(originalUrl);
+            if (found.isPresent()) {
+                return found;
+            }
+        }
+        return Optional.empty();
+    }
+
+    // -----------------------------------------------------------------------
+    // Scans — fanned out to every shard in parallel
+    // -----------------------------------------------------------------------
+
+    /**
+     * Returns a live, weakly consistent view over all shards. While a
+     * rebalance is running a migrating mapping may be seen twice.
+     */
+    @Override
+    public Collection<ShortenedUrl> findAll() {
+        List<UrlRepository> shards = topology.current.shards();
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<ShortenedUrl> iterator() {
+                return shards.stream().flatMap(shard -> shard.findAll().stream()).iterator();
+            }
+
+            @Override
+            public int size() {
+                return (int) shards.stream().mapToLong(UrlRepository::count).sum();
+            }
+        };
+    }
+
+    @Override
+    public long count() {
+        return topology.current.shards().stream().mapToLong(UrlRepository::count).sum();
+    }
+
+    @Override
+    public Map<String, Long> countByDomain() {
+        Map<String, Long> merged = new HashMap<>();
+        for (Map<String, Long> partial : fanOut(UrlRepository::countByDomain)) {
+            partial.forEach((domain, count) -> merged.merge(domain, count, Long::sum));
+        }
+        return merged;
+    }
+
+    @Override
+    public List<String> findAliasesByPrefix(String prefix, int limit) {
+        TreeSet<String> merged = new TreeSet<>();
+        for (List<String> partial : fanOut(shard -> shard.findAliasesByPrefix(prefix, limit))) {
+            merged.addAll(partial);
+        }
+        return merged.stream().limit(limit).toList();
+    }
+
+    @Override
+    public int countAliasesByPrefix(String prefix) {
+        return fanOut(shard -> shard.countAliasesByPrefix(prefix)).stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * Per-structure totals over all shards, summed by structure name.
+     */
+    @Override
+    public List<StructureFootprint> memoryFootprint() {
+        Map<String, StructureFootprint> merged = new LinkedHashMap<>();
+        for (UrlRepository shard : topology.current.shards()) {
+            for (StructureFootprint structure : shard.memoryFootprint()) {
+                merged.merge(structure.name(), structure, StructureFootprint::plus);
+            }
+        }
+        return List.copyOf(merged.values());
+    }
+
+    private <R> List<R> fanOut(Function<UrlRepository, R> query) {
+        List<CompletableFuture<R>> futures = new ArrayList<>();
+        for (UrlRepository shard : topology.current.shards()) {
+            futures.add(CompletableFuture.supplyAsync(() -> query.apply(shard), fanOutPool));
+        }
+        List<R> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<R> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    @Override
+    public void addListener(MappingListener listener) {
+        listeners.add(listener);
+    }
+
+    // -----------------------------------------------------------------------
+    // Topology changes
+    // -----------------------------------------------------------------------
+
+    /**
+     * Adds a shard to the ring and starts migrating the keys it now owns.
+     * Reads and writes keep working during the migration. If a previous
+     * rebalance is still running, this waits for it to finish first.
+     *
+     * @return a future that completes when the migration is done
+     */
+    public CompletableFuture<RebalanceResult> addShard(String shardId, UrlRepository shard) {
+        synchronized (rebalanceLock) {
+            return rebalanceOnto(shardId, shard);
+        }
+    }
+
+    /**
+     * {@link #addShard(String, UrlRepository)} under the first free id of the
+     * form "shard-N", chosen under the same lock, so concurrent calls never
+     * pick the same id. The id is in the result.
+     */
+    public CompletableFuture<RebalanceResult> addShard(UrlRepository shard) {
+        synchronized (rebalanceLock) {
+            List<String> taken = topology.current.shardIds();
+            int n = taken.size();
+            while (taken.contains("shard-" + n)) {
+                n++;
+            }
+            return rebalanceOnto("shard-" + n, shard);
+        }
+    }
+
+    // Called with rebalanceLock held
+    private CompletableFuture<RebalanceResult> rebalanceOnto(String shardId, UrlRepository shard) {
+        lastRebalance.join();
+        Topology before = topology;
+        ConsistentHashRing<UrlRepository> next = before.current.withShard(shardId, shard);
+        topology = new Topology(next, before.current);
+        lastRebalance = CompletableFuture.supplyAsync(() -> migrate(shardId, before.current, next), rebalancePool);
+        return lastRebalance;
+    }
+
+    private RebalanceResult migrate(String shardId,
+                                    ConsistentHashRing<UrlRepository> from,
+                                    ConsistentHashRing<UrlRepository> to) {
+        long start = System.nanoTime();
+        long moved = 0;
+        for (UrlRepository source : from.shards()) {
+            for (ShortenedUrl mapping : new ArrayList<>(source.findAll())) {
+                String code = mapping.getShortCode();
+                UrlRepository target = to.shardFor(code);
+                if (target == source) {
+                    continue;
+                }
+                synchronized (keyLock(code)) {
+                    // The snapshot may be stale: skip codes deleted or moved since it was taken.
+                    Optional<ShortenedUrl> current = source.findByShortCode(code);
+                    if (current.isEmpty()) {
+                        continue;
+                    }
+                    // If the copy fails, a newer write for this code already landed on the target.
+                    target.saveIfAbsent(current.get());
+                    source.deleteByShortCode(code);
+                }
+                moved++;
+            }
+        }
+        topology = new Topology(to, null);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Rebalanced onto shard '{}': moved {} mappings in {} ms", shardId, moved, millis);
+        return new RebalanceResult(shardId, moved, millis);
+    }
+
+    private Object keyLock(String code) {
+        return keyLocks[Math.floorMod(code.hashCode(), keyLocks.length)];
+    }
+
+    public boolean isRebalancing() {
+        return topology.previous != null;
+    }
+
+    /**
+     * Mapping count per shard id, in ring order.
+     */
+    public Map<String, Long> shardSizes() {
+        ConsistentHashRing<UrlRepository> ring = topology.current;
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        for (int i = 0; i < ring.shards().size(); i++) {
+            sizes.put(ring.shardIds().get(i), ring.shards().get(i).count());
+        }
+        return sizes;
+    }
+
+    @Override
+    public void close() {
+        fanOutPool.shutdownNow();
+        rebalancePool.shutdownNow();
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Outcome of one online rebalance.
+     */
+    public record RebalanceResult(String shardId, long movedMappings, long durationMillis) {}
+
+    private static final class Topology {
+
+        final ConsistentHashRing<UrlRepository> current;
+        final ConsistentHashRing<UrlRepository> previous;   // non-null only while migrating
+
+        Topology(ConsistentHashRing<UrlRepository> current, ConsistentHashRing<UrlRepository> previous) {
+            this.current = current;
+            this.previous = previous;
+        }
+
+        UrlRepository previousOwner(String code) {
+            return previous == null ? null : previous.shardFor(code);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.urlshortener.repositories.tiered;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+import com.urlshortener.memory.MemoryEstimator;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.ShortenedUrlCodec;
+import com.urlshortener.util.Hashing;
+
+/**
+ * Immutable file of cold mappings, read through a memory map.
+ *
+ * Records are written with {@link ShortenedUrlCodec}, ordered by a 32-bit
+ * hash of the short code. The heap keeps only two sorted long arrays: the
+ * code hash and file offset of each record, and the URL hash and ordinal of
+ * each generated (non-alias) record for idempotent shortening. That is 16
+ * bytes per mapping, against about 330 for a mapping held on the heap. Hash
+ * matches are confirmed against the record, so collisions cost a read, not
+ * a wrong answer.
+ *
+ * Records are never rewritten. Deleting, overwriting or promoting a mapping
+ * sets its bit in {@code dead}; the repository compacts segments that are
+ * mostly dead into new ones.
+ */
+final class ColdSegment {
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    // (codeHash << 32 | offset), sorted; the index of an entry is its ordinal
+    private final long[] codes;
+    // (urlHash << 32 | ordinal), sorted; generated codes only
+    private final long[] urls;
+    private final AtomicLongArray dead;
+    // ordinals read once while cold; a second read promotes
+    private final AtomicLongArray touched;
+    private final AtomicInteger live;
+
+    private ColdSegment(Path file, MappedByteBuffer buffer, long[] codes, long[] urls) {
+        this.file = file;
+        this.buffer = buffer;
+        this.codes = codes;
+        this.urls = urls;
+        this.dead = new AtomicLongArray((codes.length + 63) >>> 6);
+        this.touched = new AtomicLongArray((codes.length + 63) >>> 6);
+        this.live = new AtomicInteger(codes.length);
+    }
+
+    /**
+     * Writes the mappings to a new file and maps it.
+     */
+    static ColdSegment write(Path file, List<ShortenedUrl> mappings) throws IOException {
+        // Sort (key, list index) pairs rather than the mappings, so each code is hashed once
+        long[] order = new long[mappings.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = pack(key(mappings.get(i).getShortCode()), i);
+        }
+        Arrays.sort(order);
+        long[] codes = new long[order.length];
+        long[] urls = new long[order.length];
+        int urlCount = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            for (int i = 0; i < order.length; i++) {
+                ShortenedUrl mapping = mappings.get((int) order[i]);
+                codes[i] = pack(key(mapping.getShortCode()), out.size());
+                ShortenedUrlCodec.write(out, mapping);
+                if (!mapping.isAlias()) {
+                    urls[urlCount++] = pack(key(mapping.getOriginalUrl()), i);
+                }
+            }
+        }
+        urls = Arrays.copyOf(urls, urlCount);
+        Arrays.sort(urls);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new ColdSegment(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), codes, urls);
+        }
+    }
+
+    /**
+     * Ordinal of the live record for the short code, or -1.
+     */
+    int find(String shortCode) {
+        int key = key(shortCode);
+        for (int i = lowerBound(codes, key); i < codes.length && (int) (codes[i] >> 32) == key; i++) {
+            if (isLive(i) && shortCode.equals(readShortCode(offset(i)))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Ordinal of the live generated-code record for the URL, or -1.
+     */
+    int findByOriginalUrl(String originalUrl) {
+        int key = key(originalUrl);
+        for (int i = lowerBound(urls, key); i < urls.length && (int) (urls[i] >> 32) == key; i++) {
+            int ordinal = (int) urls[i];
+            if (isLive(ordinal) && originalUrl.equals(read(ordinal).getOriginalUrl())) {
+                return ordinal;
+            }
+        }
+        return -1;
+    }
+
+    ShortenedUrl read(int ordinal) {
+        ByteBuffer in = buffer.duplicate().position(offset(ordinal));
+        int flags = in.get() & 0xFF;
+        String shortCode = readString(in);
+        String originalUrl = readString(in);
+        String domain = readString(in);
+        Instant createdAt = Instant.ofEpochMilli(in.getLong());
+        return new ShortenedUrl(shortCode, originalUrl, domain, (flags & 1) != 0, createdAt);
+    }
+
+    boolean isLive(int ordinal) {
+        return (dead.get(ordinal >>> 6) & (1L << ordinal)) == 0;
+    }
+
+    /**
+     * Marks the record dead.
+     *
+     * @return true if it was live
+     */
+    boolean kill(int ordinal) {
+        if (setBit(dead, ordinal)) {
+            live.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records a read of the record.
+     *
+     * @return true if it had been read before, i.e. it is getting hot again
+     */
+    boolean touch(int ordinal) {
+        return !setBit(touched, ordinal);
+    }
+
+    /**
+     * Calls the action with the ordinal of every live record.
+     */
+    void forEachLive(IntConsumer action) {
+        for (int i = 0; i < codes.length; i++) {
+            if (isLive(i)) {
+                action.accept(i);
+            }
+        }
+    }
+
+    /**
+     * Copy of the dead bits, to find out later which records died in between.
+     */
+    long[] deadSnapshot() {
+        long[] snapshot = new long[dead.length()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = dead.get(i);
+        }
+        return snapshot;
+    }
+
+    int size() {
+        return codes.length;
+    }
+
+    int live() {
+        return live.get();
+    }
+
+    long fileBytes() {
+        return buffer.capacity();
+    }
+
+    long heapBytes() {
+        return 64 + MemoryEstimator.byteArray(8L * codes.length) + MemoryEstimator.byteArray(8L * urls.length)
+                + 2 * MemoryEstimator.byteArray(8L * dead.length());
+    }
+
+    Path file() {
+        return file;
+    }
+
+    /**
+     * Removes the file. Readers that still hold this segment keep working: the
+     * mapping stays valid until the buffer is garbage collected.
+     */
+    void delete() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int offset(int ordinal) {
+        return (int) codes[ordinal];
+    }
+
+    private String readShortCode(int offset) {
+        ByteBuffer in = buffer.duplicate().position(offset + 1);
+        return readString(in);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.get();
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                break;
+            }
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean setBit(AtomicLongArray bits, int ordinal) {
+        int word = ordinal >>> 6;
+        long mask = 1L << ordinal;
+        while (true) {
+            long current = bits.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+            if (bits.compareAndSet(word, current, current | mask)) {
+                return true;
+            }
+        }
+    }
+
+    static int key(String value) {
+        return (int) (Hashing.hash64(value) >>> 32);
+    }
+
+    private static long pack(int key, int value) {
+        return (long) key << 32 | (value & 0xFFFFFFFFL);
+    }
+
+    /** First index whose key is at least the given key. */
+    private static int lowerBound(long[] sorted, int key) {
+        long target = (long) key << 32;
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
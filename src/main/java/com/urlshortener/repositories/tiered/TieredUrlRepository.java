@@ -0,0 +1,672 @@
+package com.urlshortener.repositories.tiered;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.urlshortener.memory.MemoryEstimator;
+import com.urlshortener.memory.StructureFootprint;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.MappingListener;
+import com.urlshortener.repositories.MappingListeners;
+import com.urlshortener.repositories.UrlRepository;
+import com.urlshortener.repositories.index.ConcurrentRadixTrie;
+
+/**
+ * Repository that keeps recently used mappings on the heap and demotes the
+ * rest to memory-mapped files on local disk.
+ *
+ * The hot tier is a map of short code to mapping plus the time it was last
+ * read; findByShortCode refreshes that time at most once a second, so
+ * tracking recency is one clock read per redirect. A background pass demotes
+ * mappings idle for longer than {@code idle}, and the least recently used
+ * ones whenever the hot tier exceeds {@code maxHotEntries}. Demoted mappings
+ * are written to a new {@link ColdSegment}; segments that are mostly dead,
+ * or beyond {@code maxSegments}, are merged into it in the same pass.
+ *
+ * A cold mapping is read from the memory map; the second read while cold
+ * promotes it back to the hot tier. Every change to a code runs inside the
+ * hot map's compute for that code, so a save, delete and promotion of the
+ * same code never interleave. A code is copied to its new tier before it is
+ * removed from the old one, so readers always find it in one of them.
+ *
+ * The disk tier is overflow for the heap, not persistence: segment files are
+ * removed at startup and on close. Listeners see saves and removals only,
+ * not promotions or demotions.
+ */
+public class TieredUrlRepository implements UrlRepository, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(TieredUrlRepository.class);
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final long ACCESS_GRANULARITY_MILLIS = 1_000;
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+    // Hot: header, mapping ref, long lastAccess
+    private static final int HOT_BYTES = 24;
+
+    private final Path directory;
+    private final int maxHotEntries;
+    private final long idleMillis;
+    private final int maxSegments;
+    private final LongSupplier clock;
+
+    private final Map<String, Hot> hot = new ConcurrentHashMap<>();
+    private final Map<String, ShortenedUrl> hotByOriginalUrl = new ConcurrentHashMap<>();
+    private final ConcurrentRadixTrie aliases = new ConcurrentRadixTrie();
+    private final MappingListeners listeners = new MappingListeners();
+    private final LongAdder hotBytes = new LongAdder();
+    private final LongAdder aliasBytes = new LongAdder();
+
+    // Newest first. Kills hold the read lock; replacing segments holds the write lock
+    private volatile ColdSegment[] segments = new ColdSegment[0];
+    private final ReentrantReadWriteLock segmentLock = new ReentrantReadWriteLock();
+    private final AtomicInteger segmentSequence = new AtomicInteger();
+
+    private final ScheduledExecutorService demoter;
+    private final AtomicBoolean demotionQueued = new AtomicBoolean();
+
+    /**
+     * @param directory      where segment files go; existing segment files in it are deleted
+     * @param maxHotEntries  hot tier size above which least recently used mappings are demoted
+     * @param idle           mappings not read for this long are demoted
+     * @param demoteInterval how often the demotion pass runs
+     * @param maxSegments    segment count above which the smallest segments are merged
+     */
+    public TieredUrlRepository(Path directory, int maxHotEntries, Duration idle, Duration demoteInterval, int maxSegments) {
+        this(directory, maxHotEntries, idle, maxSegments, System::currentTimeMillis);
+        demoter.scheduleWithFixedDelay(this::demoteQuietly, demoteInterval.toMillis(), demoteInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Without a schedule: demotion runs when the hot tier overflows or {@link #demote()} is called.
+     */
+    TieredUrlRepository(Path directory, int maxHotEntries, Duration idle, int maxSegments, LongSupplier clock) {
+        if (maxHotEntries < 1 || maxSegments < 1) {
+            throw new IllegalArgumentException("maxHotEntries and maxSegments must be at least 1");
+        }
+        this.directory = directory;
+        this.maxHotEntries = maxHotEntries;
+        this.idleMillis = idle.toMillis();
+        this.maxSegments = maxSegments;
+        this.clock = clock;
+        this.demoter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tier-demoter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> stale = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+                for (Path file : stale) {
+                    Files.delete(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot prepare cold tier directory " + directory, e);
+        }
+    }
+
+    // -----------------------------------------------------------------------
+    // Writes
+    // -----------------------------------------------------------------------
+
+    @Override
+    public void save(ShortenedUrl shortenedUrl) {
+        String code = shortenedUrl.getShortCode();
+        Hot[] previous = new Hot[1];
+        hot.compute(code, (key, current) -> {
+            previous[0] = current;
+            return new Hot(shortenedUrl, clock.getAsLong());
+        });
+        hotBytes.add(HOT_BYTES + MemoryEstimator.shortenedUrl(shortenedUrl));
+        ShortenedUrl replaced;
+        if (previous[0] != null) {
+            replaced = previous[0].mapping;
+            hotBytes.add(-(HOT_BYTES + MemoryEstimator.shortenedUrl(replaced)));
+        } else {
+            // After the new mapping is visible, so readers never miss the code
+            replaced = killCold(code);
+        }
+        if (replaced != null) {
+            if (replaced.isAlias() && !shortenedUrl.isAlias()) {
+                removeAlias(code);
+            }
+            if (!replaced.isAlias()) {
+                hotByOriginalUrl.remove(replaced.getOriginalUrl(), replaced);
+            }
+        }
+        index(shortenedUrl);
+        listeners.fireSaved(shortenedUrl);
+        checkHotSize();
+    }
+
+    @Override
+    public boolean saveIfAbsent(ShortenedUrl shortenedUrl) {
+        boolean[] saved = new boolean[1];
+        hot.compute(shortenedUrl.getShortCode(), (key, current) -> {
+            if (current != null || findCold(key) != null) {
+                return current;
+            }
+            saved[0] = true;
+            return new Hot(shortenedUrl, clock.getAsLong());
+        });
+        if (!saved[0]) {
+            return false;
+        }
+        hotBytes.add(HOT_BYTES + MemoryEstimator.shortenedUrl(shortenedUrl));
+        index(shortenedUrl);
+        listeners.fireSaved(shortenedUrl);
+        checkHotSize();
+        return true;
+    }
+
+    @Override
+    public Optional<ShortenedUrl> deleteByShortCode(String shortCode) {
+        ShortenedUrl[] removed = new ShortenedUrl[1];
+        hot.compute(shortCode, (key, current) -> {
+            if (current != null) {
+                removed[0] = current.mapping;
+                hotBytes.add(-(HOT_BYTES + MemoryEstimator.shortenedUrl(current.mapping)));
+                // A demotion may be writing it to a new segment; this waits until that is installed
+                killCold(key);
+            } else {
+                // Inside the compute, so a concurrent promotion cannot bring the mapping back
+                removed[0] = killCold(key);
+            }
+            return null;
+        });
+        if (removed[0] == null) {
+            return Optional.empty();
+        }
+        if (removed[0].isAlias()) {
+            removeAlias(shortCode);
+        } else {
+            hotByOriginalUrl.remove(removed[0].getOriginalUrl(), removed[0]);
+        }
+        listeners.fireRemoved(removed[0]);
+        return Optional.of(removed[0]);
+    }
+
+    private void index(ShortenedUrl shortenedUrl) {
+        if (shortenedUrl.isAlias()) {
+            if (aliases.add(shortenedUrl.getShortCode())) {
+                aliasBytes.add(MemoryEstimator.radixTrieKey(shortenedUrl.getShortCode()));
+            }
+        } else {
+            hotByOriginalUrl.put(shortenedUrl.getOriginalUrl(), shortenedUrl);
+        }
+    }
+
+    private void removeAlias(String shortCode) {
+        if (aliases.remove(shortCode)) {
+            aliasBytes.add(-MemoryEstimator.radixTrieKey(shortCode));
+        }
+    }
+
+    // -----------------------------------------------------------------------
+    // Reads
+    // -----------------------------------------------------------------------
+
+    @Override
+    public Optional<ShortenedUrl> findByShortCode(String shortCode) {
+        Hot entry = hot.get(shortCode);
+        if (entry != null) {
+            entry.touch(clock.getAsLong());
+            return Optional.of(entry.mapping);
+        }
+        for (ColdSegment segment : segments) {
+            int ordinal = segment.find(shortCode);
+            if (ordinal >= 0) {
+                ShortenedUrl mapping = segment.read(ordinal);
+                if (segment.touch(ordinal)) {
+                    promote(mapping);
+                }
+                return Optional.of(mapping);
+            }
+        }
+        // Promoted or demoted while we looked in the other tier
+        entry = hot.get(shortCode);
+        return entry != null ? Optional.of(entry.mapping) : Optional.empty();
+    }
+
+    /**
+     * Promotes each cold code to the hot tier at once, rather than on its
+     * second read.
+     */
+    @Override
+    public int preload(Collection<String> shortCodes) {
+        int found = 0;
+        for (String shortCode : shortCodes) {
+            if (hot.containsKey(shortCode)) {
+                found++;
+                continue;
+            }
+            ShortenedUrl mapping = findCold(shortCode);
+            if (mapping != null) {
+                promote(mapping);
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public boolean existsByShortCode(String shortCode) {
+        // Hot again at the end in case it was promoted between the first two looks
+        return hot.containsKey(shortCode) || findCold(shortCode) != null || hot.containsKey(shortCode);
+    }
+
+    @Override
+    public Optional<ShortenedUrl> findByOriginalUrl(String originalUrl) {
+        ShortenedUrl mapping = hotByOriginalUrl.get(originalUrl);
+        if (mapping != null) {
+            return Optional.of(mapping);
+        }
+        for (ColdSegment segment : segments) {
+            int ordinal = segment.findByOriginalUrl(originalUrl);
+            if (ordinal >= 0) {
+                return Optional.of(segment.read(ordinal));
+            }
+        }
+        return Optional.ofNullable(hotByOriginalUrl.get(originalUrl));
+    }
+
+    /**
+     * Copies every mapping, reading the cold ones from disk; O(n) in time and
+     * heap, so meant for backfills and admin scans rather than requests.
+     */
+    @Override
+    public Collection<ShortenedUrl> findAll() {
+        List<ShortenedUrl> all = new ArrayList<>(hot.size());
+        for (Hot entry : hot.values()) {
+            all.add(entry.mapping);
+        }
+        forEachCold(all::add);
+        return all;
+    }
+
+    /**
+     * Hot entries plus live cold records; a mapping being demoted may be
+     * counted in both tiers until the pass installs its segment.
+     */
+    @Override
+    public long count() {
+        return hot.size() + coldCount();
+    }
+
+    @Override
+    public Map<String, Long> countByDomain() {
+        Map<String, Long> counts = new HashMap<>();
+        for (Hot entry : hot.values()) {
+            counts.merge(entry.mapping.getDomain(), 1L, Long::sum);
+        }
+        forEachCold(mapping -> counts.merge(mapping.getDomain(), 1L, Long::sum));
+        return counts;
+    }
+
+    private void forEachCold(Consumer<ShortenedUrl> action) {
+        for (ColdSegment segment : segments) {
+            segment.forEachLive(ordinal -> {
+                ShortenedUrl mapping = segment.read(ordinal);
+                // Skip the copy of a mapping that is being demoted and is still hot
+                if (!hot.containsKey(mapping.getShortCode())) {
+                    action.accept(mapping);
+                }
+            });
+        }
+    }
+
+    @Override
+    public List<String> findAliasesByPrefix(String prefix, int limit) {
+        return aliases.keysWithPrefix(prefix, limit);
+    }
+
+    @Override
+    public int countAliasesByPrefix(String prefix) {
+        return aliases.countWithPrefix(prefix);
+    }
+
+    @Override
+    public void addListener(MappingListener listener) {
+        listeners.add(listener);
+    }
+
+    // -----------------------------------------------------------------------
+    // Tiering
+    // -----------------------------------------------------------------------
+
+    private void promote(ShortenedUrl mapping) {
+        String code = mapping.getShortCode();
+        boolean[] promoted = new boolean[1];
+        hot.compute(code, (key, current) -> {
+            // Deleted or overwritten since we read it
+            if (current != null || findCold(key) == null) {
+                return current;
+            }
+            promoted[0] = true;
+            hotBytes.add(HOT_BYTES + MemoryEstimator.shortenedUrl(mapping));
+            if (!mapping.isAlias()) {
+                hotByOriginalUrl.putIfAbsent(mapping.getOriginalUrl(), mapping);
+            }
+            return new Hot(mapping, clock.getAsLong());
+        });
+        if (promoted[0]) {
+            // After the hot copy is visible, as in save
+            killCold(code);
+            checkHotSize();
+        }
+    }
+
+    private void checkHotSize() {
+        if (hot.size() > maxHotEntries + maxHotEntries / 8 && demotionQueued.compareAndSet(false, true)) {
+            demoter.execute(this::demoteQuietly);
+        }
+    }
+
+    private void demoteQuietly() {
+        try {
+            demote();
+        } catch (RuntimeException e) {
+            log.error("Demotion pass failed", e);
+        }
+    }
+
+    /**
+     * Runs a demotion pass: moves idle mappings, and the least recently used
+     * ones above {@code maxHotEntries}, to a new segment, merging sparse or
+     * surplus segments into it.
+     *
+     * @return how many mappings were demoted
+     */
+    public synchronized int demote() {
+        demotionQueued.set(false);
+        long idleBefore = clock.getAsLong() - idleMillis;
+        List<Map.Entry<String, Hot>> snapshot = new ArrayList<>(hot.entrySet());
+        long[] accessed = new long[snapshot.size()];
+        int idle = 0;
+        for (int i = 0; i < accessed.length; i++) {
+            accessed[i] = snapshot.get(i).getValue().lastAccess;
+            if (accessed[i] < idleBefore) {
+                idle++;
+            }
+        }
+        // Over the cap: also demote the least recently used, down to 7/8 of it so passes are not back to back
+        long cutoff = idleBefore;
+        int target = maxHotEntries - maxHotEntries / 8;
+        if (accessed.length - idle > maxHotEntries) {
+            long[] sorted = accessed.clone();
+            Arrays.sort(sorted);
+            cutoff = Math.max(cutoff, sorted[accessed.length - target - 1] + 1);
+        }
+        List<Demotion> demotions = new ArrayList<>();
+        List<ShortenedUrl> batch = new ArrayList<>();
+        for (int i = 0; i < accessed.length; i++) {
+            if (accessed[i] < cutoff) {
+                Map.Entry<String, Hot> entry = snapshot.get(i);
+                demotions.add(new Demotion(entry.getKey(), entry.getValue(), accessed[i]));
+                batch.add(entry.getValue().mapping);
+            }
+        }
+
+        ColdSegment[] current = segments;
+        List<ColdSegment> merged = segmentsToMerge(current);
+        List<long[]> deadAtCopy = new ArrayList<>();
+        for (ColdSegment segment : merged) {
+            long[] dead = segment.deadSnapshot();
+            deadAtCopy.add(dead);
+            segment.forEachLive(ordinal -> {
+                if ((dead[ordinal >>> 6] & (1L << ordinal)) == 0) {
+                    batch.add(segment.read(ordinal));
+                }
+            });
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<ColdSegment> written = writeSegments(batch);
+
+        segmentLock.writeLock().lock();
+        try {
+            List<ColdSegment> next = new ArrayList<>(written);
+            for (ColdSegment segment : segments) {
+                if (!merged.contains(segment)) {
+                    next.add(segment);
+                }
+            }
+            // Deleted while the new segments were written, before its delete could see them
+            for (Demotion demotion : demotions) {
+                if (!hot.containsKey(demotion.code)) {
+                    killIn(written, demotion.code);
+                }
+            }
+            segments = next.toArray(new ColdSegment[0]);
+            // Records killed in a merged segment after we copied them are killed in their new place
+            for (int m = 0; m < merged.size(); m++) {
+                ColdSegment segment = merged.get(m);
+                long[] dead = deadAtCopy.get(m);
+                for (int ordinal = 0; ordinal < segment.size(); ordinal++) {
+                    if (!segment.isLive(ordinal) && (dead[ordinal >>> 6] & (1L << ordinal)) == 0) {
+                        killIn(written, segment.read(ordinal).getShortCode());
+                    }
+                }
+            }
+        } finally {
+            segmentLock.writeLock().unlock();
+        }
+        for (ColdSegment segment : merged) {
+            segment.delete();
+        }
+
+        int demoted = 0;
+        for (Demotion demotion : demotions) {
+            boolean[] removed = new boolean[1];
+            hot.computeIfPresent(demotion.code, (key, entry) -> {
+                // Read again or replaced since the snapshot: it stays hot
+                if (entry != demotion.entry || entry.lastAccess != demotion.lastAccess) {
+                    return entry;
+                }
+                removed[0] = true;
+                return null;
+            });
+            if (removed[0]) {
+                ShortenedUrl mapping = demotion.entry.mapping;
+                hotBytes.add(-(HOT_BYTES + MemoryEstimator.shortenedUrl(mapping)));
+                if (!mapping.isAlias()) {
+                    hotByOriginalUrl.remove(mapping.getOriginalUrl(), mapping);
+                }
+                demoted++;
+            } else {
+                killCold(demotion.code);
+            }
+        }
+        log.info("Demoted {} of {} hot mappings; merged {} segments; {} segments hold {} cold mappings",
+                demoted, accessed.length, merged.size(), segments.length, coldCount());
+        return demoted;
+    }
+
+    /**
+     * Segments that are at least half dead, plus the smallest ones while there
+     * would be more than maxSegments after this pass adds one.
+     */
+    private List<ColdSegment> segmentsToMerge(ColdSegment[] current) {
+        List<ColdSegment> bySize = new ArrayList<>(Arrays.asList(current));
+        bySize.sort((a, b) -> Integer.compare(a.live(), b.live()));
+        List<ColdSegment> merged = new ArrayList<>();
+        long bytes = 0;
+        for (ColdSegment segment : bySize) {
+            boolean sparse = segment.live() * 2 <= segment.size();
+            boolean surplus = current.length - merged.size() + 1 > maxSegments;
+            if ((sparse || surplus) && bytes + segment.fileBytes() <= MAX_SEGMENT_BYTES) {
+                merged.add(segment);
+                bytes += segment.fileBytes();
+            }
+        }
+        return merged;
+    }
+
+    private List<ColdSegment> writeSegments(List<ShortenedUrl> batch) {
+        List<ColdSegment> written = new ArrayList<>();
+        try {
+            int from = 0;
+            long bytes = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                ShortenedUrl mapping = batch.get(i);
+                bytes += mapping.getShortCode().length() + mapping.getOriginalUrl().length()
+                        + mapping.getDomain().length() + 24L;
+                if (bytes > MAX_SEGMENT_BYTES / 2 || i == batch.size() - 1) {
+                    Path file = directory.resolve(String.format("segment-%06d%s", segmentSequence.incrementAndGet(),
+                            SEGMENT_SUFFIX));
+                    written.add(ColdSegment.write(file, batch.subList(from, i + 1)));
+                    from = i + 1;
+                    bytes = 0;
+                }
+            }
+        } catch (IOException e) {
+            written.forEach(ColdSegment::delete);
+            throw new UncheckedIOException("Cannot write cold segment in " + directory, e);
+        }
+        return written;
+    }
+
+    /** The live cold copy of the code, if any, without touching it. */
+    private ShortenedUrl findCold(String shortCode) {
+        for (ColdSegment segment : segments) {
+            int ordinal = segment.find(shortCode);
+            if (ordinal >= 0) {
+                return segment.read(ordinal);
+            }
+        }
+        return null;
+    }
+
+    /** Kills the live cold copy of the code, if any, and returns it. */
+    private ShortenedUrl killCold(String shortCode) {
+        segmentLock.readLock().lock();
+        try {
+            return killIn(Arrays.asList(segments), shortCode);
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    private static ShortenedUrl killIn(List<ColdSegment> segments, String shortCode) {
+        for (ColdSegment segment : segments) {
+            int ordinal = segment.find(shortCode);
+            if (ordinal >= 0 && segment.kill(ordinal)) {
+                return segment.read(ordinal);
+            }
+        }
+        return null;
+    }
+
+    // -----------------------------------------------------------------------
+    // Status
+    // -----------------------------------------------------------------------
+
+    public int hotCount() {
+        return hot.size();
+    }
+
+    public long coldCount() {
+        long count = 0;
+        for (ColdSegment segment : segments) {
+            count += segment.live();
+        }
+        return count;
+    }
+
+    public int segmentCount() {
+        return segments.length;
+    }
+
+    /** Size of the segment files, dead records included. */
+    public long diskBytes() {
+        long bytes = 0;
+        for (ColdSegment segment : segments) {
+            bytes += segment.fileBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Heap only: the cold tier counts its in-memory index, not the mapped files.
+     */
+    @Override
+    public List<StructureFootprint> memoryFootprint() {
+        int hotEntries = hot.size();
+        int reverse = hotByOriginalUrl.size();
+        long coldIndexBytes = 0;
+        for (ColdSegment segment : segments) {
+            coldIndexBytes += segment.heapBytes();
+        }
+        return List.of(
+                new StructureFootprint("hotMappings", hotEntries, hotBytes.sum()),
+                new StructureFootprint("byShortCode", hotEntries, MemoryEstimator.concurrentHashMap(hotEntries)),
+                new StructureFootprint("byOriginalUrl", reverse, MemoryEstimator.concurrentHashMap(reverse)),
+                new StructureFootprint("aliasTrie", aliases.countWithPrefix(""), aliasBytes.sum()),
+                new StructureFootprint("coldIndex", coldCount(), coldIndexBytes));
+    }
+
+    /**
+     * Stops the demotion thread and deletes the segment files.
+     */
+    @Override
+    public void close() {
+        demoter.shutdownNow();
+        segmentLock.writeLock().lock();
+        try {
+            for (ColdSegment segment : segments) {
+                segment.delete();
+            }
+            segments = new ColdSegment[0];
+        } finally {
+            segmentLock.writeLock().unlock();
+        }
+    }
+
+    /** A hot mapping and when it was last read. */
+    private static final class Hot {
+
+        final ShortenedUrl mapping;
+        volatile long lastAccess;
+
+        Hot(ShortenedUrl mapping, long now) {
+            this.mapping = mapping;
+            this.lastAccess = now;
+        }
+
+        void touch(long now) {
+            // Skip the write, and the cache line it dirties, when the stamp is recent enough
+            if (now - lastAccess >= ACCESS_GRANULARITY_MILLIS) {
+                lastAccess = now;
+            }
+        }
+    }
+
+    private record Demotion(String code, Hot entry, long lastAccess) {
+    }
+}
@@ -0,0 +1,99 @@
+package com.urlshortener.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Service;
+
+import com.urlshortener.config.SecondaryIndexesCondition;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.UrlRepository;
+import com.urlshortener.repositories.index.DomainIndex;
+import com.urlshortener.tenant.Tenant;
+import com.urlshortener.tenant.TenantContext;
+
+/**
+ * Lists the short links pointing at a domain, page by page, from the {@link DomainIndex}.
+ */
+@Service
+@Conditional(SecondaryIndexesCondition.class)
+public class DomainLinkService {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private final DomainIndex domainIndex;
+    private final UrlRepository urlRepository;
+    private final Tenant defaultTenant;
+
+    public DomainLinkService(
+            DomainIndex domainIndex,
+            UrlRepository urlRepository,
+            @Value("${app.base-url:http://localhost:8080}") String baseUrl) {
+        this.domainIndex = domainIndex;
+        this.urlRepository = urlRepository;
+        this.defaultTenant = Tenant.defaultTenant(baseUrl);
+    }
+
+    /**
+     * Returns the current tenant's links for the domain in short-code order,
+     * starting after the cursor.
+     *
+     * @param domain e.g. "youtube.com"; case and a leading "www." are ignored
+     * @param cursor the nextCursor of the previous page, or null for the first page
+     * @param limit  page size, 1 to {@value #MAX_PAGE_SIZE}
+     * @throws IllegalArgumentException if the limit is out of range
+     */
+    public LinkPage findLinks(String domain, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Tenant tenant = tenant();
+        String canonical = tenant.key(DomainIndex.normalize(domain));
+        if (!tenant.owns(canonical)) {
+            return new LinkPage(List.of(), null);           // another tenant's prefix; hosts have no '~'
+        }
+        List<ShortenedUrl> links = new ArrayList<>(limit);
+        String after = cursor != null ? tenant.key(cursor) : null;
+        // Fetch one extra to learn whether another page follows; repeat if stale entries were skipped
+        while (links.size() <= limit) {
+            List<String> codes = domainIndex.codes(canonical, after, limit + 1 - links.size());
+            if (codes.isEmpty()) {
+                break;
+            }
+            for (String code : codes) {
+                Optional<ShortenedUrl> mapping = urlRepository.findByShortCode(code);
+                if (mapping.isEmpty()) {
+                    continue;                               // removed concurrently; its listener cleans up
+                }
+                if (DomainIndex.normalize(mapping.get().getDomain()).equals(canonical)) {
+                    links.add(tenant.view(mapping.get()));
+                } else {
+                    domainIndex.remove(canonical, code);    // overwritten with another domain
+                }
+            }
+            after = codes.get(codes.size() - 1);
+        }
+        if (links.size() > limit) {
+            links = links.subList(0, limit);
+            return new LinkPage(links, links.get(limit - 1).getShortCode());
+        }
+        return new LinkPage(links, null);
+    }
+
+    public String shortUrl(ShortenedUrl mapping) {
+        return tenant().shortUrl(mapping.getShortCode());
+    }
+
+    private Tenant tenant() {
+        return TenantContext.current(defaultTenant);
+    }
+
+    /**
+     * One page of links; nextCursor is null on the last page.
+     */
+    public record LinkPage(List<ShortenedUrl> links, String nextCursor) {
+    }
+}
@@ -0,0 +1,190 @@
+package com.urlshortener.services;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Service;
+
+import com.urlshortener.config.SecondaryIndexesCondition;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.UrlRepository;
+import com.urlshortener.repositories.index.CreatedAtIndex;
+import com.urlshortener.repositories.index.CreatedAtIndex.Entry;
+import com.urlshortener.repositories.index.CreatedAtIndex.Partition;
+import com.urlshortener.tenant.TenantRegistry;
+
+/**
+ * Creation-time queries and age-based retention, backed by the {@link CreatedAtIndex}.
+ */
+@Service
+@Conditional(SecondaryIndexesCondition.class)
+public class LinkAuditService {
+
+    private static final Logger log = LoggerFactory.getLogger(LinkAuditService.class);
+
+    public static final int MAX_PAGE_SIZE = 1000;
+    private static final int DELETE_BATCH = 1000;
+
+    private final CreatedAtIndex createdAtIndex;
+    private final UrlRepository urlRepository;
+    private final TenantRegistry tenantRegistry;
+
+    public LinkAuditService(
+            CreatedAtIndex createdAtIndex,
+            UrlRepository urlRepository,
+            TenantRegistry tenantRegistry) {
+        this.createdAtIndex = createdAtIndex;
+        this.urlRepository = urlRepository;
+        this.tenantRegistry = tenantRegistry;
+    }
+
+    /**
+     * Returns the links created in [from, to), oldest first, starting after the cursor.
+     *
+     * @param cursor the nextCursor of the previous page, or null for the first page
+     * @param limit  page size, 1 to {@value #MAX_PAGE_SIZE}
+     * @throws IllegalArgumentException if the range is reversed, the limit out of range or the cursor malformed
+     */
+    public LinkPage findCreatedBetween(Instant from, Instant to, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        List<ShortenedUrl> links = new ArrayList<>(limit);
+        Entry after = cursor != null ? parseCursor(cursor) : null;
+        Entry last = null;
+        // Fetch one extra to learn whether another page follows; repeat if stale entries were skipped
+        while (links.size() <= limit) {
+            List<Entry> entries = createdAtIndex.range(from.toEpochMilli(), to.toEpochMilli(), after,
+                    limit + 1 - links.size());
+            if (entries.isEmpty()) {
+                break;
+            }
+            for (Entry entry : entries) {
+                Optional<ShortenedUrl> mapping = current(entry);
+                if (mapping.isPresent()) {
+                    links.add(mapping.get());
+                    if (links.size() == limit) {
+                        last = entry;
+                    }
+                }
+            }
+            after = entries.get(entries.size() - 1);
+        }
+        if (links.size() > limit) {
+            return new LinkPage(links.subList(0, limit), last.createdAtMillis() + "." + last.shortCode());
+        }
+        return new LinkPage(links, null);
+    }
+
+    /**
+     * Deletes every mapping created before the cutoff. Whole partitions older
+     * than the cutoff are detached from the index at once; only the partition
+     * the cutoff falls into is walked entry by entry.
+     */
+    public RetentionResult deleteCreatedBefore(Instant cutoff) {
+        long cutoffMillis = cutoff.toEpochMilli();
+        long deleted = 0;
+
+        List<Partition> detached = createdAtIndex.detachPartitionsBefore(cutoffMillis);
+        for (Partition partition : detached) {
+            for (Entry entry : partition.entries()) {
+                if (delete(entry.shortCode(), cutoffMillis)) {
+                    deleted++;
+                }
+            }
+        }
+
+        Entry after = null;
+        List<Entry> entries;
+        while (!(entries = createdAtIndex.range(Long.MIN_VALUE, cutoffMillis, after, DELETE_BATCH)).isEmpty()) {
+            for (Entry entry : entries) {
+                if (delete(entry.shortCode(), cutoffMillis)) {
+                    deleted++;
+                } else {
+                    createdAtIndex.remove(entry);
+                }
+            }
+            after = entries.get(entries.size() - 1);
+        }
+
+        log.info("Retention deleted {} mappings created before {} ({} partitions dropped)", deleted, cutoff, detached.size());
+        return new RetentionResult(cutoff, detached.size(), deleted);
+    }
+
+    /**
+     * The short URL of a mapping of any tenant, under that tenant's base URL.
+     */
+    public String shortUrl(ShortenedUrl mapping) {
+        return tenantRegistry.shortUrl(mapping.getShortCode());
+    }
+
+    /**
+     * The mapping the entry points at, if it still exists with that creation time.
+     * Entries left behind by an overwrite are dropped from the index.
+     */
+    private Optional<ShortenedUrl> current(Entry entry) {
+        Optional<ShortenedUrl> mapping = urlRepository.findByShortCode(entry.shortCode());
+        if (mapping.isEmpty()) {
+            return mapping;                             // removed concurrently; its listener cleans up
+        }
+        Instant createdAt = mapping.get().getCreatedAt();
+        if (createdAt == null || createdAt.toEpochMilli() != entry.createdAtMillis()) {
+            createdAtIndex.remove(entry);               // overwritten with a newer mapping
+            return Optional.empty();
+        }
+        return mapping;
+    }
+
+    /**
+     * Deletes the code if its mapping was created before the cutoff. A mapping
+     * overwritten between the check and the delete is put back.
+     */
+    private boolean delete(String shortCode, long cutoffMillis) {
+        Optional<ShortenedUrl> mapping = urlRepository.findByShortCode(shortCode);
+        if (mapping.isEmpty() || !createdBefore(mapping.get(), cutoffMillis)) {
+            return false;
+        }
+        Optional<ShortenedUrl> removed = urlRepository.deleteByShortCode(shortCode);
+        if (removed.isPresent() && !createdBefore(removed.get(), cutoffMillis)) {
+            urlRepository.saveIfAbsent(removed.get());
+            return false;
+        }
+        return removed.isPresent();
+    }
+
+    private static boolean createdBefore(ShortenedUrl mapping, long cutoffMillis) {
+        return mapping.getCreatedAt() != null && mapping.getCreatedAt().toEpochMilli() < cutoffMillis;
+    }
+
+    private static Entry parseCursor(String cursor) {
+        int dot = cursor.indexOf('.');
+        try {
+            if (dot > 0 && dot < cursor.length() - 1) {
+                return new Entry(Long.parseLong(cursor.substring(0, dot)), cursor.substring(dot + 1));
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        throw new IllegalArgumentException("Malformed cursor: " + cursor);
+    }
+
+    /**
+     * One page of links; nextCursor is null on the last page.
+     */
+    public record LinkPage(List<ShortenedUrl> links, String nextCursor) {
+    }
+
+    /**
+     * Outcome of a retention run.
+     */
+    public record RetentionResult(Instant cutoff, int partitionsDropped, long deleted) {
+    }
+}
@@ -0,0 +1,71 @@
+package com.urlshortener.services;
+
+import java.util.NoSuchElementException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.urlshortener.qr.QrCode;
+import com.urlshortener.qr.QrImageCache;
+import com.urlshortener.qr.QrRenderer;
+import com.urlshortener.repositories.UrlRepository;
+import com.urlshortener.tenant.Tenant;
+import com.urlshortener.tenant.TenantContext;
+import com.urlshortener.util.Hashing;
+
+/**
+ * QR code images of short links, for print.
+ *
+ * The code encodes the short URL, not the original one, so an image depends
+ * only on the tenant, short code, format and size and can be cached for as long as
+ * the link exists. Each request still checks that the code exists, so a
+ * deleted link stops serving its image at once.
+ */
+@Service
+public class QrCodeService {
+
+    public static final int MIN_SIZE = 64;
+    public static final int MAX_SIZE = 2048;
+
+    private final UrlRepository urlRepository;
+    private final QrImageCache cache;
+    private final Tenant defaultTenant;
+    private final QrCode.Ecc ecc;
+
+    public QrCodeService(
+            UrlRepository urlRepository,
+            QrImageCache cache,
+            @Value("${app.base-url:http://localhost:8080}") String baseUrl,
+            @Value("${app.qr.error-correction:M}") QrCode.Ecc ecc) {
+        this.urlRepository = urlRepository;
+        this.cache = cache;
+        this.defaultTenant = Tenant.defaultTenant(baseUrl);
+        this.ecc = ecc;
+    }
+
+    /**
+     * The QR image of the short link, from the cache when possible.
+     *
+     * @throws IllegalArgumentException if size is outside {@value #MIN_SIZE} to {@value #MAX_SIZE}
+     * @throws NoSuchElementException   if the short code does not exist
+     */
+    public QrImageCache.Image render(String shortCode, QrRenderer.Format format, int size) {
+        if (size < MIN_SIZE || size > MAX_SIZE) {
+            throw new IllegalArgumentException("size must be between " + MIN_SIZE + " and " + MAX_SIZE);
+        }
+        Tenant tenant = TenantContext.current(defaultTenant);
+        String key = tenant.key(shortCode);
+        if (!tenant.owns(key) || !urlRepository.existsByShortCode(key)) {
+            throw new NoSuchElementException("Short code not found: " + shortCode);
+        }
+        return cache.get(key + '/' + format + '/' + size, () -> {
+            QrCode code = QrCode.encode(tenant.shortUrl(shortCode), ecc);
+            byte[] bytes = QrRenderer.render(code, format, size);
+            return new QrImageCache.Image(bytes, '"' + Long.toHexString(Hashing.hash64(bytes, 0, bytes.length)) + '"');
+        });
+    }
+
+    public QrImageCache cache() {
+        return cache;
+    }
+}
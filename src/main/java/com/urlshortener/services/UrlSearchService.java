@@ -0,0 +1,92 @@
+package com.urlshortener.services;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Service;
+
+import com.urlshortener.config.SecondaryIndexesCondition;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.UrlRepository;
+import com.urlshortener.repositories.index.TrigramIndex;
+import com.urlshortener.tenant.TenantRegistry;
+
+/**
+ * Case-insensitive substring search over original URLs.
+ *
+ * The {@link TrigramIndex} narrows the mappings down to candidates; each
+ * candidate is then checked against the URL currently stored for its code,
+ * which removes trigram false positives as well as removed or overwritten mappings.
+ */
+@Service
+@Conditional(SecondaryIndexesCondition.class)
+public class UrlSearchService {
+
+    public static final int MAX_RESULTS = 1000;
+
+    private final TrigramIndex trigramIndex;
+    private final UrlRepository urlRepository;
+    private final TenantRegistry tenantRegistry;
+
+    public UrlSearchService(
+            TrigramIndex trigramIndex,
+            UrlRepository urlRepository,
+            TenantRegistry tenantRegistry) {
+        this.trigramIndex = trigramIndex;
+        this.urlRepository = urlRepository;
+        this.tenantRegistry = tenantRegistry;
+    }
+
+    /**
+     * Finds mappings whose original URL contains the fragment, oldest first.
+     *
+     * @param fragment at least three characters, e.g. "/wp-admin/kit/"
+     * @param limit    1 to {@value #MAX_RESULTS}
+     * @throws IllegalArgumentException if the fragment is too short or the limit out of range
+     */
+    public SearchResult search(String fragment, int limit) {
+        if (fragment == null || fragment.length() < TrigramIndex.MIN_QUERY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Search text must have at least " + TrigramIndex.MIN_QUERY_LENGTH + " characters");
+        }
+        if (limit < 1 || limit > MAX_RESULTS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_RESULTS);
+        }
+        String needle = fragment.toLowerCase(Locale.ROOT);
+        TrigramIndex.CandidateIterator candidates = trigramIndex.candidates(fragment);
+        List<ShortenedUrl> matches = new ArrayList<>(Math.min(limit, candidates.size()));
+        Set<String> seen = new HashSet<>();
+        int verified = 0;
+        while (candidates.hasNext() && matches.size() < limit) {
+            String code = candidates.next();
+            if (!seen.add(code)) {
+                continue;       // overwritten code read before its old document was dropped
+            }
+            verified++;
+            Optional<ShortenedUrl> mapping = urlRepository.findByShortCode(code);
+            if (mapping.isPresent() && mapping.get().getOriginalUrl().toLowerCase(Locale.ROOT).contains(needle)) {
+                matches.add(mapping.get());
+            }
+        }
+        return new SearchResult(matches, candidates.size(), verified, candidates.hasNext());
+    }
+
+    /**
+     * The short URL of a mapping of any tenant, under that tenant's base URL.
+     */
+    public String shortUrl(ShortenedUrl mapping) {
+        return tenantRegistry.shortUrl(mapping.getShortCode());
+    }
+
+    /**
+     * Matches found, how many index candidates there were and how many were
+     * checked; truncated when the limit stopped verification early.
+     */
+    public record SearchResult(List<ShortenedUrl> matches, int candidates, int verified, boolean truncated) {
+    }
+}
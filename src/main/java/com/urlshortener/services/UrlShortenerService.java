@@ -2,21 +2,42 @@ package com.urlshortener.services;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.urlshortener.exception.ShortCodeConflictException;
 import com.urlshortener.models.ShortenedUrl;
-import com.urlshortener.repositories.InMemoryUrlRepository;
+import com.urlshortener.profiling.RedirectEvent;
+import com.urlshortener.profiling.RepositoryLookupEvent;
+import com.urlshortener.profiling.ShortCodeGenerationEvent;
+import com.urlshortener.profiling.TopDomainsEvent;
+import com.urlshortener.repositories.UrlRepository;
+import com.urlshortener.repositories.index.RecentDomainCounts;
+import com.urlshortener.tenant.Tenant;
+import com.urlshortener.tenant.TenantContext;
+import com.urlshortener.tenant.TenantUsage;
+import com.urlshortener.warmup.HotCodeTracker;
 
 /**
  * Core business logic for shortening URLs, resolving short codes,
  * and computing domain-level metrics.
+ *
+ * Every operation acts for the tenant of the current request (see
+ * {@link TenantContext}): short codes, URLs and domains are turned into that
+ * tenant's stored keys on the way in and back on the way out.
  */
 @Service
 public class UrlShortenerService {
@@ -24,48 +45,189 @@ public class UrlShortenerService {
     private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
     private static final int SHORT_CODE_LENGTH = 7;
 
-    private final InMemoryUrlRepository urlRepository;
-    private final String baseUrl;
+    public static final int MAX_TOP_DOMAINS = 100;
+
+    // Vanity aliases: letters, digits, '-' and '_', 3 to 64 characters
+    private static final Pattern ALIAS_PATTERN = Pattern.compile("[a-zA-Z0-9_-]{3,64}");
+
+    // First path segments already owned by other routes; an alias with these would be unreachable
+    private static final Set<String> RESERVED_ALIASES = Set.of(
+            "shorten", "metrics", "admin", "health", "swagger-ui", "swagger-ui.html", "v3");
+
+    private final UrlRepository urlRepository;
+    private final Tenant defaultTenant;
     private final Random random;
 
+    // Concurrent identical calls share one computation
+    private final SingleFlight<String, String> shortenFlight = new SingleFlight<>();
+    private final SingleFlight<String, String> resolveFlight = new SingleFlight<>();
+    private volatile boolean coalesceResolves;
+    private RecentDomainCounts recentDomainCounts;
+    private TenantUsage tenantUsage;
+    private HotCodeTracker hotCodeTracker;
+
     public UrlShortenerService(
-            InMemoryUrlRepository urlRepository,
+            UrlRepository urlRepository,
             @Value("${app.base-url:http://localhost:8080}") String baseUrl) {
         this.urlRepository = urlRepository;
-        this.baseUrl = baseUrl;
+        this.defaultTenant = Tenant.defaultTenant(baseUrl);
         this.random = new Random();
     }
 
+    /**
+     * Also coalesce concurrent resolves of the same code. Worth it when lookups
+     * are remote; for the in-memory repository the bookkeeping costs more than the lookup.
+     */
+    @Value("${app.single-flight.resolve:false}")
+    public void setCoalesceResolves(boolean coalesceResolves) {
+        this.coalesceResolves = coalesceResolves;
+    }
+
+    /**
+     * Source of the windowed top-domains counts; without it only all-time counts are available.
+     */
+    @Autowired(required = false)
+    public void setRecentDomainCounts(RecentDomainCounts recentDomainCounts) {
+        this.recentDomainCounts = recentDomainCounts;
+    }
+
+    /**
+     * Link counts for tenant quotas; without it quotas are not enforced.
+     */
+    @Autowired(required = false)
+    public void setTenantUsage(TenantUsage tenantUsage) {
+        this.tenantUsage = tenantUsage;
+    }
+
+    /**
+     * Records resolved codes for the next run's warm-up; without it nothing is recorded.
+     */
+    @Autowired(required = false)
+    public void setHotCodeTracker(HotCodeTracker hotCodeTracker) {
+        this.hotCodeTracker = hotCodeTracker;
+    }
+
+    private Tenant tenant() {
+        return TenantContext.current(defaultTenant);
+    }
+
     /**
      * Shortens the given URL. If the URL has already been shortened before,
-     * returns the same short URL (idempotent).
+     * returns the same short URL (idempotent). Concurrent calls for the same
+     * URL are coalesced: one validates and creates the mapping, the rest share it.
      *
      * @param originalUrl the full URL to shorten
      * @return the complete shortened URL (e.g., http://localhost:8080/abc1234)
      */
     public String shorten(String originalUrl) {
+        if (originalUrl == null) {
+            throw new IllegalArgumentException("URL must not be blank");
+        }
+        Tenant tenant = tenant();
+        String urlKey = tenant.key(originalUrl);
+        return shortenFlight.execute(urlKey, () -> {
+            validateUrl(originalUrl);
+
+            RepositoryLookupEvent lookup = RepositoryLookupEvent.start();
+            Optional<ShortenedUrl> existing = urlRepository.findByOriginalUrl(urlKey);
+            lookup.finish("findByOriginalUrl", urlKey, existing.isPresent());
+
+            return existing
+                    .map(mapping -> tenant.shortUrl(tenant.value(mapping.getShortCode())))
+                    .orElseGet(() -> createAndSaveShortUrl(tenant, originalUrl));
+        });
+    }
+
+    /**
+     * Shortens the given URL under a caller-chosen vanity alias instead of a
+     * generated code. Repeating the same alias for the same URL is idempotent.
+     *
+     * @param originalUrl the full URL to shorten
+     * @param alias       the vanity alias, e.g. "spring-sale"
+     * @return the complete shortened URL (e.g., http://localhost:8080/spring-sale)
+     * @throws ShortCodeConflictException if the alias is already mapped to another URL
+     */
+    public String shorten(String originalUrl, String alias) {
         validateUrl(originalUrl);
+        validateAlias(alias);
 
-        return urlRepository.findByOriginalUrl(originalUrl)
-                .map(existing -> buildShortUrl(existing.getShortCode()))
-                .orElseGet(() -> createAndSaveShortUrl(originalUrl));
+        Tenant tenant = tenant();
+        String key = tenant.key(alias);
+        if (!urlRepository.existsByShortCode(key)) {
+            checkQuota(tenant);
+        }
+        ShortenedUrl shortenedUrl = new ShortenedUrl(
+                key, tenant.key(originalUrl), tenant.key(extractDomain(originalUrl)), true);
+        if (!urlRepository.saveIfAbsent(shortenedUrl)) {
+            boolean sameMapping = urlRepository.findByShortCode(key)
+                    .map(existing -> existing.getOriginalUrl().equals(shortenedUrl.getOriginalUrl()))
+                    .orElse(false);
+            if (!sameMapping) {
+                throw new ShortCodeConflictException("Alias is already in use: " + alias);
+            }
+        }
+        return tenant.shortUrl(alias);
     }
 
- 
-    private String createAndSaveShortUrl(String originalUrl) {
+    /**
+     * Returns whether the alias is well-formed and not yet taken by an alias or a generated code.
+     */
+    public boolean isAliasAvailable(String alias) {
+        Tenant tenant = tenant();
+        String key = isValidAlias(alias) ? tenant.key(alias) : null;
+        return key != null && tenant.owns(key) && !urlRepository.existsByShortCode(key);
+    }
+
+    /**
+     * Lists existing vanity aliases that start with the given prefix, in
+     * lexicographic order. This is an admin view of the stored keys, so the
+     * aliases of other tenants are listed with their tenant prefix.
+     */
+    public List<String> findAliasesByPrefix(String prefix, int limit) {
+        return urlRepository.findAliasesByPrefix(prefix, limit);
+    }
+
+    public int countAliasesByPrefix(String prefix) {
+        return urlRepository.countAliasesByPrefix(prefix);
+    }
+
+    private String createAndSaveShortUrl(Tenant tenant, String originalUrl) {
+        checkQuota(tenant);
+        ShortCodeGenerationEvent event = new ShortCodeGenerationEvent();
+        event.begin();
         String domain = extractDomain(originalUrl);
-        String shortCode = generateUniqueShortCode();
-        ShortenedUrl shortenedUrl = new ShortenedUrl(shortCode, originalUrl, domain);
-        urlRepository.save(shortenedUrl);
-        return buildShortUrl(shortCode);
+        String urlKey = tenant.key(originalUrl);
+        String domainKey = tenant.key(domain);
+        String code = generateUniqueShortCode(tenant, event);
+        while (!urlRepository.saveIfAbsent(new ShortenedUrl(tenant.key(code), urlKey, domainKey))) {
+            event.saveRetries++;                            // lost a race for the code; draw again
+            code = generateUniqueShortCode(tenant, event);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.domain = domain;
+            event.shortCode = code;
+            event.commit();
+        }
+        return tenant.shortUrl(code);
     }
 
-    private String generateUniqueShortCode() {
+    private void checkQuota(Tenant tenant) {
+        if (tenantUsage != null) {
+            tenantUsage.checkQuota(tenant);
+        }
+    }
+
+    private String generateUniqueShortCode(Tenant tenant, ShortCodeGenerationEvent event) {
         String code;
-        do {
+        while (true) {
             code = generateRandomCode();
-        } while (urlRepository.existsByShortCode(code));
-        return code;
+            event.candidates++;
+            if (!urlRepository.existsByShortCode(tenant.key(code))) {
+                return code;
+            }
+            event.collisions++;
+        }
     }
 
     private String generateRandomCode() {
@@ -76,10 +238,6 @@ public class UrlShortenerService {
         return sb.toString();
     }
 
-    private String buildShortUrl(String shortCode) {
-        return baseUrl + "/" + shortCode;
-    }
-
     private String extractDomain(String url) {
         try {
             URI uri = new URI(url);
@@ -93,6 +251,26 @@ public class UrlShortenerService {
         }
     }
 
+    private void validateAlias(String alias) {
+        if (!isValidAlias(alias)) {
+            throw new IllegalArgumentException(
+                    "Alias must be 3-64 characters of [a-zA-Z0-9_-] and not a reserved path: " + alias);
+        }
+    }
+
+    private boolean isValidAlias(String alias) {
+        return alias != null
+                && ALIAS_PATTERN.matcher(alias).matches()
+                && !isReservedPath(alias);
+    }
+
+    /**
+     * Whether a short code would be shadowed by another route, such as /metrics.
+     */
+    public static boolean isReservedPath(String shortCode) {
+        return RESERVED_ALIASES.contains(shortCode.toLowerCase());
+    }
+
     private void validateUrl(String url) {
         if (url == null || url.isBlank()) {
             throw new IllegalArgumentException("URL must not be blank");
@@ -116,20 +294,70 @@ public class UrlShortenerService {
      * @throws NoSuchElementException if the short code is not found
      */
     public String resolve(String shortCode) {
-        return urlRepository.findByShortCode(shortCode)
+        RedirectEvent event = new RedirectEvent();
+        event.begin();
+        boolean coalesced = coalesceResolves && shortCode != null;
+        Tenant tenant = tenant();
+        String originalUrl = null;
+        try {
+            String key = shortCode != null ? tenant.key(shortCode) : null;
+            if (key != null && !tenant.owns(key)) {
+                // e.g. /acme~aB3cD4e on another tenant's host: not a code of this tenant
+                throw new NoSuchElementException("Short code not found: " + shortCode);
+            }
+            originalUrl = coalesced
+                    ? resolveFlight.execute(key, () -> lookup(key, shortCode))
+                    : lookup(key, shortCode);
+            if (hotCodeTracker != null) {
+                hotCodeTracker.record(key);
+            }
+            originalUrl = tenant.value(originalUrl);
+            return originalUrl;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.shortCode = shortCode;
+                event.found = originalUrl != null;
+                event.coalesced = coalesced;
+                event.commit();
+            }
+        }
+    }
+
+    private String lookup(String key, String shortCode) {
+        RepositoryLookupEvent event = RepositoryLookupEvent.start();
+        Optional<ShortenedUrl> mapping = urlRepository.findByShortCode(key);
+        event.finish("findByShortCode", key, mapping.isPresent());
+        return mapping
                 .map(ShortenedUrl::getOriginalUrl)
                 .orElseThrow(() -> new NoSuchElementException("Short code not found: " + shortCode));
     }
 
+    public SingleFlight<String, String> shortenFlight() {
+        return shortenFlight;
+    }
+
+    public SingleFlight<String, String> resolveFlight() {
+        return resolveFlight;
+    }
+
+    public boolean isCoalescingResolves() {
+        return coalesceResolves;
+    }
+
     /**
      * Returns the top N domains by number of URLs shortened.
      *
-     * @param topN how many results to return
+     * @param topN how many results to return, 1 to {@value #MAX_TOP_DOMAINS}
      * @return ordered map of domain -> count, highest count first
+     * @throws IllegalArgumentException if topN is out of range
      */
     public LinkedHashMap<String, Long> getTopDomains(int topN) {
-        return urlRepository.findAll().stream()
-                .collect(Collectors.groupingBy(ShortenedUrl::getDomain, Collectors.counting()))
+        checkTopN(topN);
+        TopDomainsEvent event = new TopDomainsEvent();
+        event.begin();
+        Map<String, Long> counts = ownCounts(urlRepository.countByDomain());
+        LinkedHashMap<String, Long> top = counts
                 .entrySet().stream()
                 .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
                 .limit(topN)
@@ -139,6 +367,62 @@ public class UrlShortenerService {
                         (e1, e2) -> e1,
                         LinkedHashMap::new
                 ));
+        event.end();
+        if (event.shouldCommit()) {
+            event.topN = topN;
+            event.domains = counts.size();
+            event.commit();
+        }
+        return top;
+    }
+
+    /**
+     * Returns the top N domains by number of URLs shortened within the window
+     * ending now. Reads per-minute and per-hour counters, so the cost does not
+     * grow with the number of stored links.
+     *
+     * @param topN   how many results to return, 1 to {@value #MAX_TOP_DOMAINS}
+     * @param window 1 minute to 24 hours
+     * @return ordered map of domain -> count, highest count first
+     * @throws IllegalArgumentException if topN or the window is out of range, or windowed counts are disabled
+     */
+    public LinkedHashMap<String, Long> getTopDomains(int topN, Duration window) {
+        checkTopN(topN);
+        if (recentDomainCounts == null) {
+            throw new IllegalArgumentException("Windowed domain counts are disabled (app.indexes.enabled); use window=all");
+        }
+        TopDomainsEvent event = new TopDomainsEvent();
+        event.begin();
+        Map<String, Long> counts = ownCounts(recentDomainCounts.counts(window));
+        LinkedHashMap<String, Long> top = RecentDomainCounts.top(counts, topN);
+        event.end();
+        if (event.shouldCommit()) {
+            event.topN = topN;
+            event.windowMinutes = window.toMinutes();
+            event.domains = counts.size();
+            event.commit();
+        }
+        return top;
+    }
+
+    /**
+     * The current tenant's entries of per-domain counts, keyed by plain domain.
+     */
+    private Map<String, Long> ownCounts(Map<String, Long> counts) {
+        Tenant tenant = tenant();
+        Map<String, Long> own = new HashMap<>();
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            if (tenant.owns(entry.getKey())) {
+                own.put(tenant.value(entry.getKey()), entry.getValue());
+            }
+        }
+        return own;
+    }
+
+    private static void checkTopN(int topN) {
+        if (topN < 1 || topN > MAX_TOP_DOMAINS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_TOP_DOMAINS);
+        }
     }
 
 }
@@ -0,0 +1,99 @@
+package com.urlshortener.services;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.springframework.stereotype.Service;
+
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.MappingListener;
+import com.urlshortener.repositories.UrlRepository;
+import com.urlshortener.tenant.TenantContext;
+import com.urlshortener.visitors.HyperLogLog;
+import com.urlshortener.visitors.UniqueVisitorCounter;
+import com.urlshortener.visitors.UniqueVisitorCounter.DailyEstimate;
+
+/**
+ * Unique-visitor estimates per short link from the {@link UniqueVisitorCounter},
+ * and unions of serialized sketches so counts from several nodes can be combined.
+ */
+@Service
+public class VisitorStatsService {
+
+    public static final int MAX_UNION_SKETCHES = 1000;
+
+    private final UniqueVisitorCounter counter;
+    private final UrlRepository urlRepository;
+
+    public VisitorStatsService(UniqueVisitorCounter counter, UrlRepository urlRepository) {
+        this.counter = counter;
+        this.urlRepository = urlRepository;
+        urlRepository.addListener(new MappingListener() {
+            @Override
+            public void onSaved(ShortenedUrl shortenedUrl) {
+            }
+
+            @Override
+            public void onRemoved(ShortenedUrl shortenedUrl) {
+                counter.remove(shortenedUrl.getShortCode());
+            }
+        });
+    }
+
+    /**
+     * Unique visitors to the link over the last {@code days} UTC days, including today.
+     *
+     * @param includeSketch whether to return the merged sketch, Base64-encoded, for merging elsewhere
+     * @throws NoSuchElementException   if the short code does not exist
+     * @throws IllegalArgumentException if days is outside 1 to the retained days
+     */
+    public VisitorStats stats(String shortCode, int days, boolean includeSketch) {
+        if (days < 1 || days > counter.days()) {
+            throw new IllegalArgumentException("days must be between 1 and " + counter.days());
+        }
+        String key = TenantContext.key(shortCode);
+        if (!TenantContext.owns(key) || !urlRepository.existsByShortCode(key)) {
+            throw new NoSuchElementException("Short code not found: " + shortCode);
+        }
+        HyperLogLog sketch = counter.sketch(key, days).orElseGet(() -> new HyperLogLog(counter.precision()));
+        return new VisitorStats(shortCode, days, sketch.estimate(), counter.standardError(),
+                counter.daily(key, days),
+                includeSketch ? Base64.getEncoder().encodeToString(sketch.toBytes()) : null);
+    }
+
+    /**
+     * Merges Base64-encoded sketches, e.g. the same link's sketches from every
+     * node, or several links' sketches for their combined audience.
+     *
+     * @throws IllegalArgumentException if there are no sketches, too many, or one is invalid
+     *                                  or of a different precision
+     */
+    public UnionResult union(List<String> sketches) {
+        if (sketches == null || sketches.isEmpty() || sketches.size() > MAX_UNION_SKETCHES) {
+            throw new IllegalArgumentException("sketches must hold between 1 and " + MAX_UNION_SKETCHES + " entries");
+        }
+        HyperLogLog union = null;
+        for (String encoded : sketches) {
+            HyperLogLog sketch;
+            try {
+                sketch = HyperLogLog.fromBytes(Base64.getDecoder().decode(encoded));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Invalid sketch: " + e.getMessage());
+            }
+            if (union == null) {
+                union = new HyperLogLog(sketch.precision());
+            }
+            union.merge(sketch);
+        }
+        return new UnionResult(sketches.size(), union.estimate(), union.standardError(),
+                Base64.getEncoder().encodeToString(union.toBytes()));
+    }
+
+    public record VisitorStats(String shortCode, int days, long uniqueVisitors, double standardError,
+                               List<DailyEstimate> daily, String sketch) {
+    }
+
+    public record UnionResult(int merged, long uniqueVisitors, double standardError, String sketch) {
+    }
+}
@@ -0,0 +1,98 @@
+package com.urlshortener.tenant;
+
+import java.util.regex.Pattern;
+
+import com.urlshortener.models.ShortenedUrl;
+
+/**
+ * A brand served by this deployment, with its own base URL, short-code
+ * space and domain statistics.
+ *
+ * Tenants share the repository. A tenant's mappings are stored with the
+ * tenant id and {@value #SEPARATOR} in front of the short code, the original
+ * URL and the domain, e.g. {@code acme~aB3cD4e}. Each of these keys is a
+ * single string, so a redirect is still one lookup in the same map, and the
+ * reverse index, the domain counts and the alias trie are partitioned for
+ * free. Short codes, hosts and URL schemes cannot contain {@value #SEPARATOR},
+ * so no key of one tenant can equal a key of another. The default tenant has
+ * an empty id and unprefixed keys, so links created before tenants were
+ * configured keep working.
+ *
+ * @param id        lowercase letters, digits and '-', or empty for the default tenant
+ * @param baseUrl   prefix of the short URLs handed out to the tenant
+ * @param maxLinks  how many links the tenant may create, or 0 for no quota
+ */
+public record Tenant(String id, String baseUrl, long maxLinks) {
+
+    public static final char SEPARATOR = '~';
+
+    private static final Pattern ID_PATTERN = Pattern.compile("[a-z0-9-]{1,32}");
+
+    public Tenant {
+        if (!id.isEmpty() && !ID_PATTERN.matcher(id).matches()) {
+            throw new IllegalArgumentException("Tenant id must be 1-32 characters of [a-z0-9-]: " + id);
+        }
+        if (!id.isEmpty() && (baseUrl == null || baseUrl.isBlank())) {
+            throw new IllegalArgumentException("Tenant " + id + " needs a base URL");
+        }
+        if (maxLinks < 0) {
+            throw new IllegalArgumentException("maxLinks must not be negative");
+        }
+    }
+
+    public static Tenant defaultTenant(String baseUrl) {
+        return new Tenant("", baseUrl, 0);
+    }
+
+    public boolean isDefault() {
+        return id.isEmpty();
+    }
+
+    /**
+     * The stored form of a short code, URL or domain of this tenant.
+     */
+    public String key(String value) {
+        return isDefault() ? value : id + SEPARATOR + value;
+    }
+
+    /**
+     * Whether a stored short code or domain belongs to this tenant. URLs may
+     * contain the separator themselves, so this does not apply to them.
+     */
+    public boolean owns(String key) {
+        if (isDefault()) {
+            return key.indexOf(SEPARATOR) < 0;
+        }
+        return key.length() > id.length() && key.charAt(id.length()) == SEPARATOR && key.startsWith(id);
+    }
+
+    /**
+     * The value of a key of this tenant, as its clients see it.
+     */
+    public String value(String key) {
+        return isDefault() ? key : key.substring(id.length() + 1);
+    }
+
+    /**
+     * The tenant id of a stored short code or domain, empty for the default tenant.
+     */
+    public static String idOf(String key) {
+        int separator = key.indexOf(SEPARATOR);
+        return separator < 0 ? "" : key.substring(0, separator);
+    }
+
+    /**
+     * A stored mapping of this tenant as its clients see it.
+     */
+    public ShortenedUrl view(ShortenedUrl stored) {
+        if (isDefault()) {
+            return stored;
+        }
+        return new ShortenedUrl(value(stored.getShortCode()), value(stored.getOriginalUrl()),
+                value(stored.getDomain()), stored.isAlias(), stored.getCreatedAt());
+    }
+
+    public String shortUrl(String shortCode) {
+        return baseUrl + "/" + shortCode;
+    }
+}
@@ -0,0 +1,49 @@
+package com.urlshortener.tenant;
+
+/**
+ * The tenant of the request being handled on this thread, set by
+ * {@link TenantInterceptor}.
+ *
+ * Services read it instead of taking a tenant parameter, so callers outside
+ * a request (imports, replication, tests) act for the default tenant.
+ */
+public final class TenantContext {
+
+    private static final ThreadLocal<Tenant> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {}
+
+    /**
+     * The current tenant, or {@code defaultTenant} outside a tenant request.
+     */
+    public static Tenant current(Tenant defaultTenant) {
+        Tenant tenant = CURRENT.get();
+        return tenant != null ? tenant : defaultTenant;
+    }
+
+    /**
+     * The stored key of a short code or domain for the current tenant.
+     */
+    public static String key(String value) {
+        Tenant tenant = CURRENT.get();
+        return tenant != null ? tenant.key(value) : value;
+    }
+
+    /**
+     * Whether a stored short code or domain belongs to the current tenant. A
+     * value sent with another tenant's prefix turns into a key of that tenant,
+     * which the current one must not see.
+     */
+    public static boolean owns(String key) {
+        Tenant tenant = CURRENT.get();
+        return tenant != null ? tenant.owns(key) : key.indexOf(Tenant.SEPARATOR) < 0;
+    }
+
+    public static void set(Tenant tenant) {
+        CURRENT.set(tenant);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
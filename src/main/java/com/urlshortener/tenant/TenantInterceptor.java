@@ -0,0 +1,44 @@
+package com.urlshortener.tenant;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import com.urlshortener.ratelimit.RateLimitInterceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Binds each request to its tenant for the services it calls.
+ *
+ * Registered before the other interceptors, so their afterCompletion
+ * callbacks still see the tenant, and cleared last. Asynchronous requests
+ * are bound again when they are dispatched back to complete.
+ */
+public class TenantInterceptor implements AsyncHandlerInterceptor {
+
+    private final TenantRegistry registry;
+
+    public TenantInterceptor(TenantRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        TenantContext.set(registry.resolve(
+                request.getHeader(HttpHeaders.HOST), request.getHeader(RateLimitInterceptor.API_KEY_HEADER)));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        TenantContext.clear();
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // The request thread goes back to the pool without an afterCompletion
+        TenantContext.clear();
+    }
+}
@@ -0,0 +1,111 @@
+package com.urlshortener.tenant;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The configured tenants, and which one a request belongs to.
+ *
+ * A request with an X-API-Key of a tenant belongs to that tenant, otherwise
+ * its Host header decides. Requests matching neither, including API keys
+ * that are only used for rate limiting, belong to the default tenant.
+ */
+public class TenantRegistry {
+
+    private final Tenant defaultTenant;
+    private final Map<String, Tenant> byId = new HashMap<>();
+    private final Map<String, Tenant> byHost = new HashMap<>();
+    private final Map<String, Tenant> byApiKey = new HashMap<>();
+
+    public TenantRegistry(Tenant defaultTenant) {
+        this.defaultTenant = defaultTenant;
+    }
+
+    /**
+     * Adds a tenant served under the given hosts and API keys.
+     *
+     * @throws IllegalArgumentException if the id, a host or an API key is already taken
+     */
+    public void register(Tenant tenant, Collection<String> hosts, Collection<String> apiKeys) {
+        if (tenant.isDefault() || byId.putIfAbsent(tenant.id(), tenant) != null) {
+            throw new IllegalArgumentException("Duplicate tenant id: '" + tenant.id() + "'");
+        }
+        for (String host : hosts) {
+            if (byHost.putIfAbsent(host.toLowerCase(Locale.ROOT), tenant) != null) {
+                throw new IllegalArgumentException("Host " + host + " is assigned to two tenants");
+            }
+        }
+        for (String apiKey : apiKeys) {
+            if (byApiKey.putIfAbsent(apiKey, tenant) != null) {
+                throw new IllegalArgumentException("An API key of tenant " + tenant.id() + " is already in use");
+            }
+        }
+    }
+
+    /**
+     * @param host   the Host header, with or without a port
+     * @param apiKey the X-API-Key header
+     */
+    public Tenant resolve(String host, String apiKey) {
+        if (apiKey != null) {
+            Tenant tenant = byApiKey.get(apiKey);
+            if (tenant != null) {
+                return tenant;
+            }
+        }
+        if (host != null && !byHost.isEmpty()) {
+            Tenant tenant = byHost.get(hostName(host));
+            if (tenant != null) {
+                return tenant;
+            }
+        }
+        return defaultTenant;
+    }
+
+    /**
+     * Whether {@code apiKey} is one of a tenant's configured API keys.
+     */
+    public boolean isApiKey(String apiKey) {
+        return byApiKey.containsKey(apiKey);
+    }
+
+    static String hostName(String host) {
+        int end = host.startsWith("[") ? host.indexOf(']') + 1 : host.indexOf(':');
+        return (end > 0 ? host.substring(0, end) : host).toLowerCase(Locale.ROOT);
+    }
+
+    public Tenant defaultTenant() {
+        return defaultTenant;
+    }
+
+    public Optional<Tenant> find(String id) {
+        return id.isEmpty() ? Optional.of(defaultTenant) : Optional.ofNullable(byId.get(id));
+    }
+
+    /**
+     * The short URL of a stored short code, under the base URL of the tenant
+     * that owns it. Codes of a tenant no longer configured keep their prefix.
+     */
+    public String shortUrl(String key) {
+        Tenant owner = find(Tenant.idOf(key)).orElse(defaultTenant);
+        return owner.shortUrl(owner.value(key));
+    }
+
+    /**
+     * The configured tenants, without the default one.
+     */
+    public List<Tenant> tenants() {
+        List<Tenant> tenants = new ArrayList<>(byId.values());
+        tenants.sort((a, b) -> a.id().compareTo(b.id()));
+        return tenants;
+    }
+
+    public boolean isEmpty() {
+        return byId.isEmpty();
+    }
+}
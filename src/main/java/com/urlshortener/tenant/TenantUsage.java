@@ -0,0 +1,68 @@
+package com.urlshortener.tenant;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import com.urlshortener.exception.TenantQuotaExceededException;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.MappingListener;
+import com.urlshortener.repositories.UrlRepository;
+
+/**
+ * Links stored per tenant, and enforcement of the tenants' quotas.
+ *
+ * Existing links are counted once at startup, and only if some tenant has a
+ * quota; after that a repository listener keeps the counts. A save that
+ * overwrites a mapping counts as a new link, which only replication does.
+ * The quota is checked before each new link, so concurrent requests can
+ * overshoot it by at most one link each.
+ */
+@Component
+public class TenantUsage implements MappingListener {
+
+    private final Map<String, LongAdder> links = new ConcurrentHashMap<>();
+    private final boolean tracking;
+
+    public TenantUsage(TenantRegistry registry, UrlRepository repository) {
+        this.tracking = registry.tenants().stream().anyMatch(tenant -> tenant.maxLinks() > 0);
+        if (tracking) {
+            for (ShortenedUrl mapping : repository.findAll()) {
+                onSaved(mapping);
+            }
+            repository.addListener(this);
+        }
+    }
+
+    @Override
+    public void onSaved(ShortenedUrl shortenedUrl) {
+        links.computeIfAbsent(Tenant.idOf(shortenedUrl.getShortCode()), id -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void onRemoved(ShortenedUrl shortenedUrl) {
+        links.computeIfAbsent(Tenant.idOf(shortenedUrl.getShortCode()), id -> new LongAdder()).decrement();
+    }
+
+    /**
+     * @throws TenantQuotaExceededException if the tenant has no room for another link
+     */
+    public void checkQuota(Tenant tenant) {
+        if (tenant.maxLinks() > 0 && links(tenant) >= tenant.maxLinks()) {
+            throw new TenantQuotaExceededException("Link quota of " + tenant.maxLinks() + " reached");
+        }
+    }
+
+    /**
+     * Links stored for the tenant, or -1 if no tenant has a quota and links are not counted.
+     */
+    public long links(Tenant tenant) {
+        if (!tracking) {
+            return -1;
+        }
+        LongAdder count = links.get(tenant.id());
+        return count == null ? 0 : count.sum();
+    }
+}
@@ -0,0 +1,46 @@
+package com.urlshortener.util;
+
+/**
+ * Fast, well-distributed 64-bit hashing for strings.
+ *
+ * {@link String#hashCode()} is only 32 bits and clusters badly for short keys
+ * such as 7-character codes, which matters for ring placement and sketches.
+ * This is FNV-1a over the UTF-16 code units followed by the MurmurHash3
+ * 64-bit finalizer to spread every input bit across the output.
+ */
+public final class Hashing {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private Hashing() {}
+
+    public static long hash64(CharSequence value) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= FNV_PRIME;
+        }
+        return mix64(h);
+    }
+
+    /** The same construction over bytes, e.g. keys that are already encoded. */
+    public static long hash64(byte[] value, int offset, int length) {
+        long h = FNV_OFFSET;
+        for (int i = offset; i < offset + length; i++) {
+            h ^= value[i] & 0xFF;
+            h *= FNV_PRIME;
+        }
+        return mix64(h);
+    }
+
+    /** MurmurHash3 fmix64 finalizer. */
+    public static long mix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
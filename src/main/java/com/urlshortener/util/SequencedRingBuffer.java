@@ -0,0 +1,113 @@
+package com.urlshortener.util;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, multi-producer, multi-reader log of the most recent entries, each
+ * tagged with a monotonically increasing sequence number starting at 1.
+ *
+ * Appends claim a sequence with one atomic increment and publish into the
+ * slot {@code sequence % capacity}; nothing blocks. Readers keep their own
+ * cursor and read forward from any retained sequence. Once a reader falls more
+ * than {@code capacity} entries behind, its next entries have been
+ * overwritten and {@link #read} reports that with {@link #GAP}.
+ *
+ * @param <T> entry type
+ */
+public class SequencedRingBuffer<T> {
+
+    /** Returned by {@link #read} when the requested sequence was already overwritten. */
+    public static final int GAP = -1;
+
+    private final AtomicReferenceArray<Slot<T>> slots;
+    private final int mask;
+    private final AtomicLong lastClaimed = new AtomicLong();
+
+    /**
+     * @param capacity number of retained entries; rounded up to a power of two
+     */
+    public SequencedRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Appends the entry and returns its sequence number.
+     */
+    public long append(T value) {
+        long sequence = lastClaimed.incrementAndGet();
+        int index = (int) (sequence & mask);
+        Slot<T> slot = new Slot<>(sequence, value);
+        while (true) {
+            Slot<T> current = slots.get(index);
+            // A producer that lapped us may already have written a newer entry here.
+            if (current != null && current.sequence > sequence) {
+                return sequence;
+            }
+            if (slots.compareAndSet(index, current, slot)) {
+                return sequence;
+            }
+        }
+    }
+
+    /**
+     * Highest sequence handed out so far (0 when empty). It may not be
+     * readable yet if its producer has not finished publishing.
+     */
+    public long head() {
+        return lastClaimed.get();
+    }
+
+    /**
+     * Oldest sequence that can still be read.
+     */
+    public long oldest() {
+        return Math.max(1, head() - mask);
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Copies up to {@code max} consecutive entries starting at {@code fromSequence}.
+     * Stops early at the first entry that is not yet published.
+     *
+     * @return the number of entries added to {@code out}, or {@link #GAP}
+     *         if {@code fromSequence} has already been overwritten
+     */
+    public int read(long fromSequence, int max, List<? super T> out) {
+        if (fromSequence < oldest()) {
+            return GAP;
+        }
+        int count = 0;
+        long sequence = fromSequence;
+        long last = head();
+        while (count < max && sequence <= last) {
+            Slot<T> slot = slots.get((int) (sequence & mask));
+            if (slot == null || slot.sequence < sequence) {
+                break;          // claimed but not yet published
+            }
+            if (slot.sequence > sequence) {
+                return count == 0 ? GAP : count;   // lapped while reading
+            }
+            out.add(slot.value);
+            count++;
+            sequence++;
+        }
+        return count;
+    }
+
+    private static final class Slot<T> {
+        final long sequence;
+        final T value;
+
+        Slot(long sequence, T value) {
+            this.sequence = sequence;
+            this.value = value;
+        }
+    }
+}
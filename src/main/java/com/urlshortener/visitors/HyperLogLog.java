@@ -0,0 +1,368 @@
+package com.urlshortener.visitors;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.urlshortener.memory.MemoryEstimator;
+
+/**
+ * HyperLogLog cardinality sketch over 64-bit hashes with 2^precision registers.
+ *
+ * A new sketch is sparse: a sorted int array holding only the registers that
+ * are set, packed as (index << 6 | value), so a link seen by a handful of
+ * visitors costs a few dozen bytes. Once the sparse array would outgrow the
+ * dense form it is converted to one byte per register, four to an int in an
+ * AtomicIntegerArray. Dense updates are lock-free: a register only ever
+ * grows, so a CAS retry is needed only when it actually changes, which
+ * becomes rare as the sketch fills. Sparse updates synchronize on the sketch.
+ *
+ * Sketches of the same precision merge by taking the maximum of each
+ * register, which gives the sketch of the union; {@link #toBytes()} lets them
+ * travel between nodes. Estimates use Ertl's improved estimator ("New
+ * cardinality estimation algorithms for HyperLogLog sketches", 2017), which
+ * is unbiased from zero upwards without empirical bias tables.
+ */
+public final class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 16;
+
+    private static final byte FORMAT_SPARSE = 0;
+    private static final byte FORMAT_DENSE = 1;
+    private static final int OBJECT_BYTES = 32;
+
+    private final int precision;
+    private final int registers;
+
+    // Sorted (index << 6 | value) entries; guarded by this, null once dense
+    private int[] sparse = new int[2];
+    private int sparseSize;
+    private volatile AtomicIntegerArray dense;
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION);
+        }
+        this.precision = precision;
+        this.registers = 1 << precision;
+    }
+
+    public int precision() {
+        return precision;
+    }
+
+    /**
+     * Relative standard error of an estimate at this precision, 1.04 / sqrt(2^precision).
+     */
+    public double standardError() {
+        return 1.04 / Math.sqrt(registers);
+    }
+
+    /**
+     * Heap size of the sketch once every register is set, in dense form.
+     */
+    public static long denseBytes(int precision) {
+        return OBJECT_BYTES + 16 + MemoryEstimator.byteArray(1L << precision);
+    }
+
+    /**
+     * Adds a hashed element. The hash must be well mixed over all 64 bits.
+     *
+     * @return how many bytes the sketch grew by
+     */
+    public long add(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // Position of the first 1-bit in the remaining bits; the sentinel caps it at 65 - precision
+        int value = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        return offer(index, value);
+    }
+
+    private long offer(int index, int value) {
+        AtomicIntegerArray d = dense;
+        if (d != null) {
+            offerDense(d, index, value);
+            return 0;
+        }
+        synchronized (this) {
+            d = dense;
+            if (d != null) {
+                offerDense(d, index, value);
+                return 0;
+            }
+            return offerSparse(index, value);
+        }
+    }
+
+    private static void offerDense(AtomicIntegerArray d, int index, int value) {
+        int slot = index >>> 2;
+        int shift = (index & 3) << 3;
+        while (true) {
+            int word = d.get(slot);
+            if (((word >>> shift) & 0xFF) >= value) {
+                return;
+            }
+            if (d.compareAndSet(slot, word, (word & ~(0xFF << shift)) | (value << shift))) {
+                return;
+            }
+        }
+    }
+
+    private long offerSparse(int index, int value) {
+        int position = find(index);
+        if (position >= 0) {
+            if ((sparse[position] & 0x3F) < value) {
+                sparse[position] = (index << 6) | value;
+            }
+            return 0;
+        }
+        position = -position - 1;
+        long before = sparseBytes();
+        if (sparseSize + 1 > registers / 4) {
+            // As large as the dense form would be: switch over
+            AtomicIntegerArray d = new AtomicIntegerArray(registers / 4);
+            for (int i = 0; i < sparseSize; i++) {
+                offerDense(d, sparse[i] >>> 6, sparse[i] & 0x3F);
+            }
+            offerDense(d, index, value);
+            dense = d;
+            sparse = null;
+            sparseSize = 0;
+            return denseBytes(precision) - before;
+        }
+        if (sparseSize == sparse.length) {
+            sparse = Arrays.copyOf(sparse, Math.min(registers / 4, sparse.length + (sparse.length >> 1) + 1));
+        }
+        System.arraycopy(sparse, position, sparse, position + 1, sparseSize - position);
+        sparse[position] = (index << 6) | value;
+        sparseSize++;
+        return sparseBytes() - before;
+    }
+
+    /** Binary search for the register in the sparse array, as in Arrays.binarySearch. */
+    private int find(int index) {
+        int low = 0;
+        int high = sparseSize - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int at = sparse[mid] >>> 6;
+            if (at < index) {
+                low = mid + 1;
+            } else if (at > index) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private long sparseBytes() {
+        return OBJECT_BYTES + MemoryEstimator.byteArray(4L * sparse.length);
+    }
+
+    public boolean isSparse() {
+        return dense == null;
+    }
+
+    /**
+     * Current heap size of the sketch.
+     */
+    public long retainedBytes() {
+        if (dense != null) {
+            return denseBytes(precision);
+        }
+        synchronized (this) {
+            return dense != null ? denseBytes(precision) : sparseBytes();
+        }
+    }
+
+    /**
+     * Folds another sketch of the same precision into this one; afterwards
+     * this sketch estimates the size of the union.
+     *
+     * @return how many bytes this sketch grew by
+     * @throws IllegalArgumentException if the precisions differ
+     */
+    public long merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge sketches of precision " + precision + " and " + other.precision);
+        }
+        byte[] values = other.registerValues();
+        long grown = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != 0) {
+                grown += offer(i, values[i]);
+            }
+        }
+        return grown;
+    }
+
+    /**
+     * Estimated number of distinct hashes added.
+     */
+    public long estimate() {
+        int q = 64 - precision;
+        int[] histogram = new int[q + 2];
+        for (byte value : registerValues()) {
+            histogram[value]++;
+        }
+        double m = registers;
+        double z = m * tau(1 - histogram[q + 1] / m);
+        for (int k = q; k >= 1; k--) {
+            z = 0.5 * (z + histogram[k]);
+        }
+        z += m * sigma(histogram[0] / m);
+        return Math.round(m * m / (2 * Math.log(2)) / z);
+    }
+
+    private static double sigma(double x) {
+        if (x == 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double y = 1;
+        double z = x;
+        double previous;
+        do {
+            x *= x;
+            previous = z;
+            z += x * y;
+            y += y;
+        } while (z != previous);
+        return z;
+    }
+
+    private static double tau(double x) {
+        if (x == 0 || x == 1) {
+            return 0;
+        }
+        double y = 1;
+        double z = 1 - x;
+        double previous;
+        do {
+            x = Math.sqrt(x);
+            previous = z;
+            y *= 0.5;
+            z -= (1 - x) * (1 - x) * y;
+        } while (z != previous);
+        return z / 3;
+    }
+
+    /** Snapshot of every register, one byte each. */
+    private byte[] registerValues() {
+        byte[] values = new byte[registers];
+        AtomicIntegerArray d = dense;
+        if (d == null) {
+            synchronized (this) {
+                d = dense;
+                if (d == null) {
+                    for (int i = 0; i < sparseSize; i++) {
+                        values[sparse[i] >>> 6] = (byte) (sparse[i] & 0x3F);
+                    }
+                    return values;
+                }
+            }
+        }
+        for (int slot = 0; slot < d.length(); slot++) {
+            int word = d.get(slot);
+            for (int j = 0; j < 4; j++) {
+                values[(slot << 2) | j] = (byte) (word >>> (j << 3));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Serializes the sketch: precision, a format byte, then either a varint
+     * count and three bytes per set register (sparse) or one byte per register (dense).
+     */
+    public byte[] toBytes() {
+        byte[] values = registerValues();
+        int set = 0;
+        for (byte value : values) {
+            if (value != 0) {
+                set++;
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(precision);
+        if (3L * set < registers) {
+            out.write(FORMAT_SPARSE);
+            for (int n = set; ; n >>>= 7) {
+                if ((n & ~0x7F) == 0) {
+                    out.write(n);
+                    break;
+                }
+                out.write((n & 0x7F) | 0x80);
+            }
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != 0) {
+                    int entry = (i << 6) | values[i];
+                    out.write(entry >>> 16);
+                    out.write(entry >>> 8);
+                    out.write(entry);
+                }
+            }
+        } else {
+            out.write(FORMAT_DENSE);
+            out.write(values, 0, values.length);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads a sketch written by {@link #toBytes()}.
+     *
+     * @throws IllegalArgumentException if the bytes are not a valid sketch
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes.length < 2) {
+            throw new IllegalArgumentException("Sketch is truncated");
+        }
+        HyperLogLog sketch = new HyperLogLog(bytes[0]);
+        int maxValue = 65 - sketch.precision;
+        int pos = 2;
+        if (bytes[1] == FORMAT_DENSE) {
+            if (bytes.length != 2 + sketch.registers) {
+                throw new IllegalArgumentException("Dense sketch has the wrong length");
+            }
+            for (int i = 0; i < sketch.registers; i++) {
+                int value = bytes[pos++];
+                if (value < 0 || value > maxValue) {
+                    throw new IllegalArgumentException("Register value out of range");
+                }
+                if (value != 0) {
+                    sketch.offer(i, value);
+                }
+            }
+            return sketch;
+        }
+        if (bytes[1] != FORMAT_SPARSE) {
+            throw new IllegalArgumentException("Unknown sketch format " + bytes[1]);
+        }
+        int count = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (pos >= bytes.length || shift > 28) {
+                throw new IllegalArgumentException("Sketch is truncated");
+            }
+            int b = bytes[pos++];
+            count |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                break;
+            }
+        }
+        if (count > sketch.registers || bytes.length != pos + 3L * count) {
+            throw new IllegalArgumentException("Sparse sketch has the wrong length");
+        }
+        for (int i = 0; i < count; i++) {
+            int entry = (bytes[pos++] & 0xFF) << 16 | (bytes[pos++] & 0xFF) << 8 | (bytes[pos++] & 0xFF);
+            int index = entry >>> 6;
+            int value = entry & 0x3F;
+            if (index >= sketch.registers || value < 1 || value > maxValue) {
+                throw new IllegalArgumentException("Register out of range");
+            }
+            sketch.offer(index, value);
+        }
+        return sketch;
+    }
+}
@@ -0,0 +1,252 @@
+package com.urlshortener.visitors;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import com.urlshortener.memory.MemoryAccountable;
+import com.urlshortener.memory.MemoryEstimator;
+import com.urlshortener.memory.StructureFootprint;
+
+/**
+ * Approximate unique visitors per short code: one {@link HyperLogLog} per
+ * code and UTC day, for the last {@code days} days.
+ *
+ * Each code has a small ring of day slots; the first visit of a new day
+ * swaps the expired slot for a fresh sketch with a CAS, as in the rolling
+ * domain counters. Longer windows are answered by merging the day sketches.
+ * Codes whose newest sketch has expired are dropped by a sweep that the first
+ * visit of each day hands to the common pool.
+ *
+ * Memory per code is bounded by {@link #maxBytesPerLink()}: every day dense.
+ * Most codes see few visitors and stay sparse at a few dozen bytes a day.
+ */
+public class UniqueVisitorCounter implements MemoryAccountable {
+
+    private static final long DAY_MILLIS = 86_400_000L;
+    // Map node and key share of the code string are the mapping's; the link and its ring are ours
+    private static final int LINK_BYTES = 32 + 16;
+    private static final int DAY_BYTES = 24;
+
+    private final int precision;
+    private final int days;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, Link> links = new ConcurrentHashMap<>();
+    private final LongAdder bytes = new LongAdder();
+    private final AtomicLong lastSweepDay = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * @param precision HyperLogLog precision; 12 gives 4,096 registers and about 1.6% error
+     * @param days      how many days of sketches each code keeps
+     */
+    public UniqueVisitorCounter(int precision, int days) {
+        this(precision, days, System::currentTimeMillis);
+    }
+
+    UniqueVisitorCounter(int precision, int days, LongSupplier clock) {
+        if (precision < HyperLogLog.MIN_PRECISION || precision > HyperLogLog.MAX_PRECISION) {
+            throw new IllegalArgumentException("precision must be between "
+                    + HyperLogLog.MIN_PRECISION + " and " + HyperLogLog.MAX_PRECISION);
+        }
+        if (days < 1) {
+            throw new IllegalArgumentException("days must be at least 1");
+        }
+        this.precision = precision;
+        this.days = days;
+        this.clock = clock;
+    }
+
+    /**
+     * Records one visit to the code by the visitor with the given hashed identifier.
+     */
+    public void record(String shortCode, long visitorHash) {
+        long today = today();
+        if (lastSweepDay.get() != today && lastSweepDay.getAndSet(today) != today) {
+            ForkJoinPool.commonPool().execute(this::sweep);
+        }
+        Link link = links.get(shortCode);
+        if (link == null) {
+            link = links.computeIfAbsent(shortCode, code -> {
+                bytes.add(LINK_BYTES + MemoryEstimator.referenceArray(days));
+                return new Link(days);
+            });
+        }
+        bytes.add(link.day(today, precision, bytes).add(visitorHash));
+    }
+
+    /**
+     * Merged sketch of the last {@code window} days including today, or empty
+     * if the code has had no visits in that time.
+     *
+     * @throws IllegalArgumentException if the window is not between 1 and the retained days
+     */
+    public Optional<HyperLogLog> sketch(String shortCode, int window) {
+        checkWindow(window);
+        Link link = links.get(shortCode);
+        if (link == null) {
+            return Optional.empty();
+        }
+        long today = today();
+        HyperLogLog merged = null;
+        for (long day = today - window + 1; day <= today; day++) {
+            HyperLogLog sketch = link.sketchFor(day);
+            if (sketch != null) {
+                if (merged == null) {
+                    merged = new HyperLogLog(precision);
+                }
+                merged.merge(sketch);
+            }
+        }
+        return Optional.ofNullable(merged);
+    }
+
+    /**
+     * Estimated unique visitors for each of the last {@code window} days, oldest first.
+     */
+    public List<DailyEstimate> daily(String shortCode, int window) {
+        checkWindow(window);
+        Link link = links.get(shortCode);
+        long today = today();
+        List<DailyEstimate> result = new ArrayList<>(window);
+        for (long day = today - window + 1; day <= today; day++) {
+            HyperLogLog sketch = link != null ? link.sketchFor(day) : null;
+            result.add(new DailyEstimate(LocalDate.ofEpochDay(day), sketch != null ? sketch.estimate() : 0));
+        }
+        return result;
+    }
+
+    /**
+     * Forgets a code, e.g. after its mapping was deleted.
+     */
+    public void remove(String shortCode) {
+        Link link = links.remove(shortCode);
+        if (link != null) {
+            bytes.add(-link.retainedBytes());
+        }
+    }
+
+    /**
+     * Drops codes without a sketch for the retained days.
+     *
+     * @return how many codes were dropped
+     */
+    public int sweep() {
+        long oldest = today() - days + 1;
+        int dropped = 0;
+        for (var entry : links.entrySet()) {
+            if (entry.getValue().newestDay() < oldest && links.remove(entry.getKey(), entry.getValue())) {
+                bytes.add(-entry.getValue().retainedBytes());
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    public int precision() {
+        return precision;
+    }
+
+    public int days() {
+        return days;
+    }
+
+    public double standardError() {
+        return 1.04 / Math.sqrt(1 << precision);
+    }
+
+    /**
+     * Upper bound on the heap one code can take: every day's sketch dense.
+     */
+    public long maxBytesPerLink() {
+        return LINK_BYTES + MemoryEstimator.referenceArray(days) + days * (DAY_BYTES + HyperLogLog.denseBytes(precision));
+    }
+
+    @Override
+    public List<StructureFootprint> memoryFootprint() {
+        int count = links.size();
+        return List.of(new StructureFootprint("visitorSketches", count,
+                bytes.sum() + MemoryEstimator.concurrentHashMap(count)));
+    }
+
+    private long today() {
+        return Math.floorDiv(clock.getAsLong(), DAY_MILLIS);
+    }
+
+    private void checkWindow(int window) {
+        if (window < 1 || window > days) {
+            throw new IllegalArgumentException("days must be between 1 and " + days);
+        }
+    }
+
+    /**
+     * Estimated unique visitors on one UTC day.
+     */
+    public record DailyEstimate(LocalDate date, long uniqueVisitors) {
+    }
+
+    /** One day's sketch. */
+    private record Day(long day, HyperLogLog sketch) {
+    }
+
+    /**
+     * Ring of day sketches for one code; slot i holds the latest day d with d mod size == i.
+     */
+    private static final class Link {
+
+        final AtomicReferenceArray<Day> slots;
+
+        Link(int days) {
+            this.slots = new AtomicReferenceArray<>(days);
+        }
+
+        HyperLogLog day(long day, int precision, LongAdder bytes) {
+            int slot = (int) Math.floorMod(day, (long) slots.length());
+            Day current = slots.get(slot);
+            while (current == null || current.day() < day) {
+                Day fresh = new Day(day, new HyperLogLog(precision));
+                if (slots.compareAndSet(slot, current, fresh)) {
+                    bytes.add(DAY_BYTES + fresh.sketch().retainedBytes()
+                            - (current != null ? DAY_BYTES + current.sketch().retainedBytes() : 0));
+                    return fresh.sketch();
+                }
+                current = slots.get(slot);
+            }
+            // A clock step backwards can find a later day in the slot; count the visit there
+            return current.sketch();
+        }
+
+        HyperLogLog sketchFor(long day) {
+            Day d = slots.get((int) Math.floorMod(day, (long) slots.length()));
+            return d != null && d.day() == day ? d.sketch() : null;
+        }
+
+        long newestDay() {
+            long newest = Long.MIN_VALUE;
+            for (int i = 0; i < slots.length(); i++) {
+                Day d = slots.get(i);
+                if (d != null) {
+                    newest = Math.max(newest, d.day());
+                }
+            }
+            return newest;
+        }
+
+        long retainedBytes() {
+            long total = LINK_BYTES + MemoryEstimator.referenceArray(slots.length());
+            for (int i = 0; i < slots.length(); i++) {
+                Day d = slots.get(i);
+                if (d != null) {
+                    total += DAY_BYTES + d.sketch().retainedBytes();
+                }
+            }
+            return total;
+        }
+    }
+}
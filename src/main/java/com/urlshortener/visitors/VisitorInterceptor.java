@@ -0,0 +1,60 @@
+package com.urlshortener.visitors;
+
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.urlshortener.tenant.TenantContext;
+import com.urlshortener.util.Hashing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts a visitor for every successful redirect.
+ *
+ * The visitor is identified by the X-Visitor-Id header when an edge proxy
+ * sets one, otherwise by remote address and User-Agent. Only a 64-bit hash
+ * of it reaches the sketches, and they keep a few bits of that, so no
+ * identifier is stored.
+ */
+public class VisitorInterceptor implements HandlerInterceptor {
+
+    public static final String VISITOR_ID_HEADER = "X-Visitor-Id";
+
+    private final UniqueVisitorCounter counter;
+
+    public VisitorInterceptor(UniqueVisitorCounter counter) {
+        this.counter = counter;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (ex != null || response.getStatus() != HttpStatus.FOUND.value()) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String shortCode = variables != null ? variables.get("shortCode") : null;
+        if (shortCode != null) {
+            counter.record(TenantContext.key(shortCode), Hashing.hash64(visitorId(request)));
+        }
+    }
+
+    static String visitorId(HttpServletRequest request) {
+        return visitorId(request.getHeader(VISITOR_ID_HEADER), request.getRemoteAddr(), request.getHeader("User-Agent"));
+    }
+
+    /**
+     * The visitor identity hashed into the sketches, from the X-Visitor-Id
+     * header if set, otherwise from the remote address and User-Agent.
+     */
+    public static String visitorId(String visitorIdHeader, String remoteAddr, String userAgent) {
+        if (visitorIdHeader != null && !visitorIdHeader.isBlank()) {
+            return "id:" + visitorIdHeader;
+        }
+        return "ip:" + remoteAddr + '|' + (userAgent != null ? userAgent : "");
+    }
+}
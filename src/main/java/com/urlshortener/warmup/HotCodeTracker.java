@@ -0,0 +1,169 @@
+package com.urlshortener.warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.urlshortener.repositories.index.RecentDomainCounts;
+
+/**
+ * Remembers the most redirected short codes, so the next run can preload
+ * them before it takes traffic.
+ *
+ * One resolve in {@value #SAMPLE_RATE} is counted; the rest cost one random
+ * number. When more than twice {@code capacity} codes are counted, a trim
+ * keeps the {@code capacity} highest and halves their counts, so codes that
+ * were hot long ago fade out. The hottest codes are written to {@code file},
+ * one stored key per line, every {@code saveInterval} seconds and on close.
+ */
+public class HotCodeTracker implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(HotCodeTracker.class);
+
+    static final int SAMPLE_RATE = 16;
+
+    private final Path file;
+    private final int capacity;
+    private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+    private final ScheduledExecutorService saver;
+
+    /**
+     * @param saveIntervalSeconds seconds between saves; 0 saves on close only
+     */
+    public HotCodeTracker(Path file, int capacity, long saveIntervalSeconds) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1, was " + capacity);
+        }
+        this.file = file;
+        this.capacity = capacity;
+        if (saveIntervalSeconds > 0) {
+            this.saver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "hot-code-saver");
+                thread.setDaemon(true);
+                return thread;
+            });
+            saver.scheduleWithFixedDelay(this::saveQuietly, saveIntervalSeconds, saveIntervalSeconds, TimeUnit.SECONDS);
+        } else {
+            this.saver = null;
+        }
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * Counts a redirect of the stored key, one time in {@value #SAMPLE_RATE}.
+     */
+    public void record(String key) {
+        if (ThreadLocalRandom.current().nextInt(SAMPLE_RATE) == 0) {
+            count(key);
+        }
+    }
+
+    void count(String key) {
+        counts.computeIfAbsent(key, k -> new LongAdder()).increment();
+        if (counts.size() > 2 * capacity && trimming.compareAndSet(false, true)) {
+            try {
+                trim();
+            } finally {
+                trimming.set(false);
+            }
+        }
+    }
+
+    private void trim() {
+        Map<String, Long> keep = RecentDomainCounts.top(snapshot(), capacity);
+        counts.keySet().retainAll(keep.keySet());
+        for (LongAdder count : counts.values()) {
+            // Concurrent increments between the two calls are kept
+            count.add(-(count.sum() / 2));
+        }
+    }
+
+    private Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new HashMap<>(counts.size() * 2);
+        counts.forEach((key, count) -> snapshot.put(key, count.sum()));
+        return snapshot;
+    }
+
+    /**
+     * The {@code limit} most counted keys, hottest first.
+     */
+    public List<String> top(int limit) {
+        return new ArrayList<>(RecentDomainCounts.top(snapshot(), Math.min(limit, capacity)).keySet());
+    }
+
+    /**
+     * Writes the hottest keys to the file, replacing it in one rename. Does
+     * nothing before the first counted redirect, so a run that served none
+     * keeps the previous run's list.
+     */
+    public void save() throws IOException {
+        List<String> top = top(capacity);
+        if (top.isEmpty()) {
+            return;
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, top, StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void saveQuietly() {
+        try {
+            save();
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Could not save hot short codes to {}", file, e);
+        }
+    }
+
+    /**
+     * Reads up to {@code limit} keys saved by {@link #save}, hottest first;
+     * empty if the file does not exist.
+     */
+    public static List<String> load(Path file, int limit) throws IOException {
+        List<String> keys = new ArrayList<>();
+        try (var lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            lines.map(String::strip)
+                    .filter(line -> !line.isEmpty())
+                    .limit(limit)
+                    .forEach(keys::add);
+        } catch (NoSuchFileException e) {
+            return List.of();
+        }
+        return keys;
+    }
+
+    @Override
+    public void close() {
+        if (saver != null) {
+            saver.shutdownNow();
+        }
+        saveQuietly();
+    }
+}
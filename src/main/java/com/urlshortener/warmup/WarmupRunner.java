@@ -0,0 +1,233 @@
+package com.urlshortener.warmup;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.urlshortener.controllers.UrlShortenerController;
+import com.urlshortener.controllers.Request.ShortenRequest;
+import com.urlshortener.controllers.Response.ShortenResponse;
+import com.urlshortener.json.ShortenJsonCodec;
+import com.urlshortener.repositories.InMemoryUrlRepository;
+import com.urlshortener.repositories.UrlRepository;
+import com.urlshortener.services.UrlShortenerService;
+
+/**
+ * Warms the application up after startup, before it reports ready.
+ *
+ * First it runs {@code iterations} synthetic shorten and redirect calls
+ * through a private controller, service and in-memory repository: the same
+ * code as real requests, from JSON decoding through URL validation to the
+ * Location URI, so the JIT compiles it before the first real request. None of
+ * it touches the real repository, its listeners or the metrics. Then it sends
+ * {@code httpRequests} requests to its own port, for Tomcat and Spring MVC:
+ * GET /health/live, which goes through the same connector, dispatch and JSON
+ * writing as the API, but not through the concurrency limiter, whose latency
+ * estimates would otherwise learn from cold requests, nor any counter. Not
+ * /health/ready: Tomcat closes the connection after each 503. Last it preloads the hottest
+ * short codes saved by the previous run's {@link HotCodeTracker} into the
+ * real repository, see {@link UrlRepository#preload}.
+ *
+ * Spring Boot only moves the readiness state to ACCEPTING_TRAFFIC after every
+ * ApplicationRunner has returned, so GET /health/ready reports ready once this
+ * one is done. It runs after the bulk import, whose codes it may preload.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private static final String SCRATCH_BASE_URL = "http://warmup.invalid";
+    private static final int LOOPBACK_TIMEOUT_MILLIS = 10_000;
+
+    private final UrlRepository repository;
+    private final Environment environment;
+    private final boolean enabled;
+    private final int iterations;
+    private final int httpRequests;
+    private final int preloadLimit;
+    private HotCodeTracker hotCodeTracker;
+
+    private volatile long durationMillis = -1;
+    private volatile int preloaded;
+
+    public WarmupRunner(
+            UrlRepository repository,
+            Environment environment,
+            @Value("${app.warmup.enabled:true}") boolean enabled,
+            @Value("${app.warmup.iterations:20000}") int iterations,
+            @Value("${app.warmup.http-requests:3000}") int httpRequests,
+            @Value("${app.warmup.hot-codes:10000}") int preloadLimit) {
+        this.repository = repository;
+        this.environment = environment;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.httpRequests = httpRequests;
+        this.preloadLimit = preloadLimit;
+    }
+
+    /**
+     * Source of the previous run's hot codes; without it nothing is preloaded.
+     */
+    @Autowired(required = false)
+    public void setHotCodeTracker(HotCodeTracker hotCodeTracker) {
+        this.hotCodeTracker = hotCodeTracker;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        runSyntheticTraffic(iterations);
+        // Not set when there is no web server, as in mock-environment tests
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (port != null && httpRequests > 0) {
+            try {
+                runLoopbackTraffic(port, httpRequests);
+            } catch (IOException e) {
+                log.warn("Loopback warm-up requests to port {} failed", port, e);
+            }
+        }
+        if (hotCodeTracker != null) {
+            try {
+                List<String> keys = HotCodeTracker.load(hotCodeTracker.file(), preloadLimit);
+                preloaded = repository.preload(keys);
+            } catch (IOException e) {
+                log.warn("Could not read hot short codes from {}", hotCodeTracker.file(), e);
+            }
+        }
+        durationMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Warm-up done in {} ms: {} synthetic calls, {} loopback requests, {} hot short codes preloaded",
+                durationMillis, iterations, port != null ? httpRequests : 0, preloaded);
+    }
+
+    /**
+     * Shortens {@code iterations} distinct URLs over a handful of domains and
+     * redirects each new code once, on throwaway instances.
+     */
+    static void runSyntheticTraffic(int iterations) {
+        UrlShortenerController controller = new UrlShortenerController(
+                new UrlShortenerService(new InMemoryUrlRepository(), SCRATCH_BASE_URL));
+        for (int i = 0; i < iterations; i++) {
+            byte[] body = ("{\"url\":\"https://www.site" + (i & 63) + ".example/articles/" + i + "?ref=warmup\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            ShortenRequest request = ShortenJsonCodec.readRequest(body, body.length);
+            ShortenResponse response = controller.shortenUrl(request).getBody();
+            ShortenJsonCodec.writeResponse(response);
+            controller.redirect(response.getShortUrl().substring(SCRATCH_BASE_URL.length() + 1));
+        }
+    }
+
+    /**
+     * Sends {@code requests} liveness probes one at a time over keep-alive
+     * connections, opening a new one when the server closes the last (after
+     * server.tomcat.max-keep-alive-requests). A raw socket rather than an HTTP
+     * client, so the JIT spends the warm-up on the server's code rather than the client's.
+     */
+    static void runLoopbackTraffic(int port, int requests) throws IOException {
+        byte[] probe = "GET /health/live HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+        int sent = 0;
+        while (sent < requests) {
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                socket.setTcpNoDelay(true);
+                socket.setSoTimeout(LOOPBACK_TIMEOUT_MILLIS);
+                OutputStream out = socket.getOutputStream();
+                InputStream in = new BufferedInputStream(socket.getInputStream());
+                boolean open = true;
+                while (open && sent < requests) {
+                    out.write(probe);
+                    out.flush();
+                    open = skipResponse(in);
+                    sent++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads past one response, with a Content-Length or chunked body.
+     *
+     * @return false if the server closes the connection after it
+     */
+    private static boolean skipResponse(InputStream in) throws IOException {
+        long length = 0;
+        boolean chunked = false;
+        boolean open = true;
+        StringBuilder line = new StringBuilder(64);
+        readLine(in, line);
+        for (readLine(in, line); !line.isEmpty(); readLine(in, line)) {
+            String header = line.toString().toLowerCase(Locale.ROOT);
+            if (header.startsWith("content-length:")) {
+                length = Long.parseLong(header.substring("content-length:".length()).trim());
+            } else if (header.startsWith("transfer-encoding:") && header.contains("chunked")) {
+                chunked = true;
+            } else if (header.startsWith("connection:") && header.contains("close")) {
+                open = false;
+            }
+        }
+        if (!chunked) {
+            in.skipNBytes(length);
+            return open;
+        }
+        // Chunk sizes are hex, each chunk ends in CRLF; the last is 0 then a blank line
+        for (long size = chunkSize(in, line); size > 0; size = chunkSize(in, line)) {
+            in.skipNBytes(size + 2);
+        }
+        readLine(in, line);
+        return open;
+    }
+
+    private static long chunkSize(InputStream in, StringBuilder line) throws IOException {
+        readLine(in, line);
+        int extension = line.indexOf(";");
+        return Long.parseLong((extension < 0 ? line : line.substring(0, extension)).toString().trim(), 16);
+    }
+
+    private static void readLine(InputStream in, StringBuilder line) throws IOException {
+        line.setLength(0);
+        for (int b = in.read(); b != '\n'; b = in.read()) {
+            if (b < 0) {
+                throw new EOFException("Connection closed mid-response");
+            }
+            if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * How long the warm-up took, or -1 until it has finished.
+     */
+    public long durationMillis() {
+        return durationMillis;
+    }
+
+    public int preloaded() {
+        return preloaded;
+    }
+}
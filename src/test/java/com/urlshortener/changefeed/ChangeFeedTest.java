@@ -0,0 +1,249 @@
+package com.urlshortener.changefeed;
+
+import com.urlshortener.exception.SequenceExpiredException;
+import com.urlshortener.exception.ServiceOverloadedException;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.InMemoryUrlRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedTest {
+
+    private static final Duration LINGER = Duration.ofMillis(20);
+
+    // ----------------------------------------------------
+    // 1️⃣ Saves And Removals Are Read In Sequence
+    // ----------------------------------------------------
+    @Test
+    void shouldReadChangesAfterSequence() {
+
+        InMemoryUrlRepository repository = new InMemoryUrlRepository();
+        try (ChangeFeed feed = new ChangeFeed(repository, 1024, LINGER, 2, 10, Duration.ZERO)) {
+            save(repository, 0, 3);
+            repository.deleteByShortCode("c1");
+
+            ChangeFeed.Batch first = feed.read(0, 10);
+            assertEquals(List.of("c0", "c1"), codes(first));
+            assertEquals(2, first.lastSequence());
+            assertEquals(4, first.head());
+
+            ChangeFeed.Batch second = feed.read(first.lastSequence(), 10);
+            assertEquals(List.of("c2", "c1"), codes(second));
+            assertEquals(ChangeEvent.Type.REMOVED, second.events().get(1).type());
+
+            assertTrue(feed.read(4, 10).events().isEmpty());
+            assertEquals(List.of("c2"), codes(feed.read(2, 1)));
+        }
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ A Long Poll Waits For The Next Change Or Its Deadline
+    // ----------------------------------------------------
+    @Test
+    void shouldAnswerLongPollOnChangeOrTimeout() throws Exception {
+
+        InMemoryUrlRepository repository = new InMemoryUrlRepository();
+        try (ChangeFeed feed = new ChangeFeed(repository, 1024, LINGER, 100, 10, Duration.ZERO)) {
+            CompletableFuture<ChangeFeed.Batch> waiting = new CompletableFuture<>();
+            feed.poll(feed.head(), 100, Duration.ofSeconds(30), sink(waiting));
+            assertFalse(waiting.isDone());
+
+            save(repository, 0, 1);
+            ChangeFeed.Batch batch = waiting.get(5, TimeUnit.SECONDS);
+            assertEquals(List.of("c0"), codes(batch));
+            assertEquals(0, feed.subscribers());
+
+            CompletableFuture<ChangeFeed.Batch> idle = new CompletableFuture<>();
+            feed.poll(feed.head(), 100, Duration.ofMillis(100), sink(idle));
+            ChangeFeed.Batch empty = idle.get(5, TimeUnit.SECONDS);
+            assertTrue(empty.events().isEmpty());
+            assertEquals(1, empty.lastSequence());
+        }
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ Overwritten Or Unknown Sequences Have Expired
+    // ----------------------------------------------------
+    @Test
+    void shouldRejectExpiredSequences() {
+
+        InMemoryUrlRepository repository = new InMemoryUrlRepository();
+        try (ChangeFeed feed = new ChangeFeed(repository, 16, LINGER, 100, 1, Duration.ZERO)) {
+            save(repository, 0, 40);
+
+            SequenceExpiredException overwritten = assertThrows(SequenceExpiredException.class, () -> feed.read(0, 10));
+            assertEquals(feed.oldest(), overwritten.getOldestSequence());
+            assertEquals(List.of("c39"), codes(feed.read(39, 10)));
+            assertThrows(SequenceExpiredException.class, () -> feed.read(41, 10));
+
+            feed.stream(feed.head(), 10, sink(new CompletableFuture<>()));
+            assertThrows(ServiceOverloadedException.class,
+                    () -> feed.stream(feed.head(), 10, sink(new CompletableFuture<>())));
+        }
+    }
+
+    // ----------------------------------------------------
+    // 4️⃣ Slow Streams Get Everything In Order, In Batches
+    // ----------------------------------------------------
+    @Test
+    void shouldBatchChangesToSlowStreamsUnderLoad() throws Exception {
+
+        int changes = 10_000;
+        InMemoryUrlRepository repository = new InMemoryUrlRepository();
+        try (ChangeFeed feed = new ChangeFeed(repository, 4096, Duration.ofMillis(50), 1000, 10, Duration.ZERO)) {
+            List<Consumer> consumers = new ArrayList<>();
+            for (long delayMillis : new long[] { 0, 5, 20, 40 }) {
+                Consumer consumer = new Consumer(changes, delayMillis);
+                feed.stream(0, 1000, consumer);
+                consumers.add(consumer);
+            }
+            // Sleeps through the first batch while the ring laps it
+            Consumer stuck = new Consumer(changes, 3_000);
+            feed.stream(0, 1000, stuck);
+
+            // About 5,000 changes a second, in bursts of 50
+            long start = System.nanoTime();
+            for (int i = 0; i < changes; i += 50) {
+                save(repository, i, 50);
+                long due = start + TimeUnit.MILLISECONDS.toNanos(i / 5);
+                LockSupport.parkNanos(due - System.nanoTime());
+            }
+
+            for (Consumer consumer : consumers) {
+                assertTrue(consumer.done.await(10, TimeUnit.SECONDS),
+                        "consumer with delay " + consumer.delayMillis + " got " + consumer.received);
+                assertTrue(consumer.errors.isEmpty(), consumer.errors.toString());
+                assertEquals(changes, consumer.received.get());
+                assertEquals(changes, consumer.last);
+                // Far fewer batches than changes: the linger gathers them
+                assertTrue(consumer.batches.get() < changes / 10,
+                        "delay " + consumer.delayMillis + ": " + consumer.batches + " batches");
+            }
+            assertTrue(stuck.expired.await(10, TimeUnit.SECONDS));
+            assertTrue(stuck.errors.isEmpty(), stuck.errors.toString());
+            assertEquals(consumers.size(), feed.subscribers());
+        }
+    }
+
+    // ----------------------------------------------------
+    // 5️⃣ Cursors From Before A Restart Have Expired
+    // ----------------------------------------------------
+    @Test
+    void shouldRejectCursorsFromAnEarlierRun() {
+
+        InMemoryUrlRepository before = new InMemoryUrlRepository();
+        String cursor;
+        try (ChangeFeed feed = new ChangeFeed(before, 64, LINGER, 100, 1, Duration.ZERO)) {
+            save(before, 0, 5);
+            cursor = feed.cursor(feed.head());
+            assertEquals(5, feed.sequenceOf(cursor));
+        }
+
+        // The restarted node has passed sequence 5 again, with other changes
+        InMemoryUrlRepository after = new InMemoryUrlRepository();
+        try (ChangeFeed feed = new ChangeFeed(after, 64, LINGER, 100, 1, Duration.ZERO)) {
+            save(after, 100, 20);
+
+            assertNotEquals(cursor, feed.cursor(5));
+            SequenceExpiredException expired = assertThrows(SequenceExpiredException.class,
+                    () -> feed.sequenceOf(cursor));
+            assertEquals(feed.oldest(), expired.getOldestSequence());
+            assertThrows(SequenceExpiredException.class, () -> feed.sequenceOf("5"));
+            assertThrows(IllegalArgumentException.class, () -> feed.sequenceOf(feed.epoch() + ":x"));
+
+            assertEquals(0, feed.sequenceOf("0"));
+            assertEquals(List.of("c115", "c116"), codes(feed.read(feed.sequenceOf(feed.cursor(15)), 2)));
+        }
+    }
+
+    // ----------------------------------------------------
+    // Helpers
+    // ----------------------------------------------------
+
+    private static void save(InMemoryUrlRepository repository, int from, int count) {
+        for (int i = from; i < from + count; i++) {
+            repository.save(new ShortenedUrl("c" + i, "https://site" + (i % 7) + ".com/" + i, "site" + (i % 7) + ".com"));
+        }
+    }
+
+    private static List<String> codes(ChangeFeed.Batch batch) {
+        return batch.events().stream().map(event -> event.mapping().getShortCode()).toList();
+    }
+
+    private static ChangeFeed.Sink sink(CompletableFuture<ChangeFeed.Batch> future) {
+        return new ChangeFeed.Sink() {
+            @Override
+            public void send(ChangeFeed.Batch batch) {
+                future.complete(batch);
+            }
+
+            @Override
+            public void expired(long oldestSequence) {
+                future.completeExceptionally(new SequenceExpiredException("expired", oldestSequence));
+            }
+        };
+    }
+
+    /**
+     * Checks every batch continues where the last ended, with the codes saved
+     * in that order, and sleeps {@code delayMillis} per batch.
+     */
+    private static class Consumer implements ChangeFeed.Sink {
+
+        final int expected;
+        final long delayMillis;
+        final AtomicLong received = new AtomicLong();
+        final AtomicLong batches = new AtomicLong();
+        final ConcurrentLinkedQueue<String> errors = new ConcurrentLinkedQueue<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        final CountDownLatch expired = new CountDownLatch(1);
+        long last;
+
+        Consumer(int expected, long delayMillis) {
+            this.expected = expected;
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public void send(ChangeFeed.Batch batch) {
+            if (batch.after() != last) {
+                errors.add("batch after " + batch.after() + " follows " + last);
+            }
+            for (int i = 0; i < batch.events().size(); i++) {
+                String code = batch.events().get(i).mapping().getShortCode();
+                if (!code.equals("c" + (batch.after() + i))) {
+                    errors.add("sequence " + (batch.after() + i + 1) + " is " + code);
+                }
+            }
+            last = batch.lastSequence();
+            batches.incrementAndGet();
+            if (received.addAndGet(batch.events().size()) == expected) {
+                done.countDown();
+            }
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void expired(long oldestSequence) {
+            if (oldestSequence <= last + 1) {
+                errors.add("expired at " + last + " with oldest " + oldestSequence);
+            }
+            expired.countDown();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.urlshortener.config;
+
+import com.urlshortener.controllers.Request.ShortenRequest;
+import com.urlshortener.controllers.UrlShortenerController;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeHintsConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    // ----------------------------------------------------
+    // 1️⃣ Controllers And DTOs Are Reflectively Accessible
+    // ----------------------------------------------------
+    @Test
+    void shouldRegisterControllersAndDtos() throws Exception {
+
+        new NativeHintsConfig.ApiHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(UrlShortenerController.class.getMethod("shortenUrl", ShortenRequest.class))
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(ShortenRequest.class.getMethod("setAlias", String.class))
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onField(ShortenRequest.class.getDeclaredField("url"))
+                .test(hints));
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ No Controller Or DTO Is Missing From The Lists
+    // ----------------------------------------------------
+    @Test
+    void shouldListEveryControllerAndDto() {
+
+        Set<String> registered = Arrays.stream(NativeHintsConfig.CONTROLLERS)
+                .map(Class::getSimpleName).collect(Collectors.toSet());
+        Arrays.stream(NativeHintsConfig.DTOS).map(Class::getSimpleName).forEach(registered::add);
+
+        for (String dir : new String[] { "controllers", "controllers/Request", "controllers/Response" }) {
+            File[] sources = new File("src/main/java/com/urlshortener/" + dir).listFiles((d, name) -> name.endsWith(".java"));
+            assertNotNull(sources);
+            for (File source : sources) {
+                String type = source.getName().replace(".java", "");
+                assertTrue(registered.contains(type), type + " is missing from NativeHintsConfig");
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.urlshortener.controllers;
+
+import com.urlshortener.exception.GlobalExceptionHandler;
+import com.urlshortener.qr.QrImageCache;
+import com.urlshortener.qr.QrRenderer;
+import com.urlshortener.services.QrCodeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.NoSuchElementException;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(QrCodeController.class)
+@Import(GlobalExceptionHandler.class)
+@DisplayName("QrCodeController")
+class QrCodeControllerTest {
+
+    private static final byte[] PNG = { (byte) 0x89, 'P', 'N', 'G' };
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private QrCodeService qrCodeService;
+
+    @Test
+    @DisplayName("returns the image with its content type, ETag and cache headers")
+    void returnsImage() throws Exception {
+        when(qrCodeService.render("aB3cD4e", QrRenderer.Format.PNG, 256))
+                .thenReturn(new QrImageCache.Image(PNG, "\"5f3a\""));
+
+        mockMvc.perform(get("/aB3cD4e/qr"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/png"))
+                .andExpect(content().bytes(PNG))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5f3a\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=86400, public"));
+    }
+
+    @Test
+    @DisplayName("returns 304 when If-None-Match has the current ETag")
+    void returnsNotModified() throws Exception {
+        when(qrCodeService.render("aB3cD4e", QrRenderer.Format.SVG, 512))
+                .thenReturn(new QrImageCache.Image(PNG, "\"5f3a\""));
+
+        mockMvc.perform(get("/aB3cD4e/qr").param("format", "svg").param("size", "512")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"5f3a\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    @DisplayName("returns 400 for an unknown format and 404 for an unknown code")
+    void returnsErrors() throws Exception {
+        when(qrCodeService.render(eq("missing"), any(), anyInt()))
+                .thenThrow(new NoSuchElementException("Short code not found: missing"));
+
+        mockMvc.perform(get("/aB3cD4e/qr").param("format", "gif"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unsupported image format 'gif'; expected png or svg"));
+        mockMvc.perform(get("/missing/qr"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -1,8 +1,11 @@
 package com.urlshortener.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.urlshortener.config.JsonCodecConfig;
+import com.urlshortener.config.RateLimitConfig;
 import com.urlshortener.controllers.Request.ShortenRequest;
 import com.urlshortener.exception.GlobalExceptionHandler;
+import com.urlshortener.exception.ShortCodeConflictException;
 import com.urlshortener.services.UrlShortenerService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -12,8 +15,10 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Duration;
 import java.util.LinkedHashMap;
 import java.util.NoSuchElementException;
 
@@ -30,7 +35,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * fast, isolated, and focused purely on HTTP request/response behaviour.
  */
 @WebMvcTest(UrlShortenerController.class)
-@Import(GlobalExceptionHandler.class)
+@Import({ GlobalExceptionHandler.class, RateLimitConfig.class, JsonCodecConfig.class })
+@TestPropertySource(properties = "app.rate-limit.permits-per-second=0.01")
 @DisplayName("UrlShortenerController")
 class UrlShortenerControllerTest {
 
@@ -152,6 +158,8 @@ class UrlShortenerControllerTest {
                             .contentType(MediaType.APPLICATION_JSON)
                             .content("this is not json"))
                     .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value(
+                            "Request body is missing or malformed. Expected JSON: {\"url\": \"https://example.com\"}"))
                     .andExpect(jsonPath("$.status").value(400))
                     .andExpect(jsonPath("$.timestamp").exists());
 
@@ -159,6 +167,86 @@ class UrlShortenerControllerTest {
         }
 
 
+        @Test
+        @DisplayName("binds bodies with extra fields through the Jackson fallback")
+        void returns201WhenBodyHasExtraFields() throws Exception {
+            String originalUrl = "https://udemy.com/course/java";
+            when(urlShortenerService.shorten(originalUrl)).thenReturn("http://localhost:8080/aB3cD4e");
+
+            mockMvc.perform(post("/shorten")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"source\": \"newsletter\", \"url\": \"" + originalUrl + "\"}"))
+                    .andExpect(status().isCreated())
+                    .andExpect(content().json("{\"originalUrl\":\"" + originalUrl
+                            + "\",\"shortUrl\":\"http://localhost:8080/aB3cD4e\"}", true));
+
+            verify(urlShortenerService, times(1)).shorten(originalUrl);
+        }
+
+        @Test
+        @DisplayName("uses the alias as the short code when one is given")
+        void returns201WithAlias() throws Exception {
+            String originalUrl = "https://shop.example.com/sale";
+            when(urlShortenerService.shorten(originalUrl, "spring-sale"))
+                    .thenReturn("http://localhost:8080/spring-sale");
+
+            mockMvc.perform(post("/shorten")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new ShortenRequest(originalUrl, "spring-sale"))))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.shortUrl").value("http://localhost:8080/spring-sale"));
+
+            verify(urlShortenerService, times(1)).shorten(originalUrl, "spring-sale");
+            verifyNoMoreInteractions(urlShortenerService);
+        }
+
+        @Test
+        @DisplayName("returns 409 when the alias is already taken")
+        void returns409WhenAliasTaken() throws Exception {
+            when(urlShortenerService.shorten(anyString(), eq("spring-sale")))
+                    .thenThrow(new ShortCodeConflictException("Alias is already in use: spring-sale"));
+
+            mockMvc.perform(post("/shorten")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"url\": \"https://shop.example.com\", \"alias\": \"spring-sale\"}"))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.status").value(409))
+                    .andExpect(jsonPath("$.error").value("Conflict"))
+                    .andExpect(jsonPath("$.message").value("Alias is already in use: spring-sale"));
+        }
+
+        @Test
+        @DisplayName("returns 429 with Retry-After once a client exhausts its rate limit")
+        void returns429WhenRateLimited() throws Exception {
+            when(urlShortenerService.shorten(anyString()))
+                    .thenReturn("http://localhost:8080/aB3cD4e");
+
+            // Burst is 50 requests per client and refill is slowed down for this class;
+            // this network is used by no other test.
+            for (int i = 0; i < 50; i++) {
+                mockMvc.perform(post("/shorten")
+                                .with(request -> {
+                                    request.setRemoteAddr("198.51.100.7");
+                                    return request;
+                                })
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"url\": \"https://udemy.com/course/java\"}"))
+                        .andExpect(status().isCreated());
+            }
+
+            mockMvc.perform(post("/shorten")
+                            .with(request -> {
+                                request.setRemoteAddr("198.51.100.7");
+                                return request;
+                            })
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"url\": \"https://udemy.com/course/java\"}"))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().exists("Retry-After"))
+                    .andExpect(jsonPath("$.status").value(429))
+                    .andExpect(jsonPath("$.error").value("Too Many Requests"));
+        }
+
         @Test
         @DisplayName("returns 500 when service throws unexpected exception")
         void returns500OnUnexpectedException() throws Exception {
@@ -276,8 +364,8 @@ class UrlShortenerControllerTest {
         }
 
         @Test
-        @DisplayName("always passes 3 as the top-N limit to service")
-        void alwaysPassesThreeAsTopNLimit() throws Exception {
+        @DisplayName("passes 3 as the top-N limit when no limit is given")
+        void defaultsTopNLimitToThree() throws Exception {
             when(urlShortenerService.getTopDomains(3)).thenReturn(new LinkedHashMap<>());
 
             mockMvc.perform(get("/metrics/top-domains"));
@@ -286,6 +374,31 @@ class UrlShortenerControllerTest {
             verifyNoMoreInteractions(urlShortenerService);
         }
 
+        @Test
+        @DisplayName("passes limit and window through to the windowed counts")
+        void passesLimitAndWindowToService() throws Exception {
+            LinkedHashMap<String, Long> topDomains = new LinkedHashMap<>();
+            topDomains.put("youtube.com", 12L);
+            when(urlShortenerService.getTopDomains(10, Duration.ofMinutes(15))).thenReturn(topDomains);
+
+            mockMvc.perform(get("/metrics/top-domains").param("limit", "10").param("window", "15m"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.['youtube.com']").value(12));
+
+            verify(urlShortenerService, times(1)).getTopDomains(10, Duration.ofMinutes(15));
+            verifyNoMoreInteractions(urlShortenerService);
+        }
+
+        @Test
+        @DisplayName("returns 400 for an unparseable window")
+        void returns400ForInvalidWindow() throws Exception {
+            mockMvc.perform(get("/metrics/top-domains").param("window", "yesterday"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Invalid window 'yesterday'; use e.g. 15m, 1h or 24h"));
+
+            verifyNoInteractions(urlShortenerService);
+        }
+
         @Test
         @DisplayName("returns 500 when service throws unexpected exception")
         void returns500OnUnexpectedException() throws Exception {
@@ -0,0 +1,54 @@
+package com.urlshortener.importer;
+
+import com.urlshortener.repositories.InMemoryUrlRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Import throughput, in records and megabytes per second, of a generated
+ * CSV file into the in-memory repository with one thread and with one per
+ * processor.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=BulkImportBenchmark -DargLine=-Xmx4g
+ * (-Dbenchmark.entries=1000000 for a smaller heap)
+ */
+@Tag("benchmark")
+class BulkImportBenchmark {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void importThroughput() throws Exception {
+        int entries = Integer.getInteger("benchmark.entries", 2_000_000);
+        Path file = directory.resolve("links.csv");
+        Random random = new Random(1);
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write("shortCode,originalUrl,createdAt,alias\n");
+            for (int i = 0; i < entries; i++) {
+                out.write(Integer.toString(i, 36) + "x,https://www.example" + random.nextInt(10_000)
+                        + ".com/articles/" + Long.toHexString(random.nextLong()) + "?utm_source=mail,"
+                        + (1_500_000_000_000L + i) + ",false\n");
+            }
+        }
+        System.out.printf("entries=%,d  file %,d MB%n", entries, Files.size(file) >> 20);
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threads : processors == 1 ? new int[] { 1 } : new int[] { 1, processors }) {
+            // The first run warms up the parsers; the second, into a fresh repository, is measured
+            ImportReport report = null;
+            for (int round = 0; round < 2; round++) {
+                report = new BulkImporter(new InMemoryUrlRepository(), threads).importFile(file, BulkImporter.Format.CSV);
+            }
+            System.out.printf("  %2d threads: %,9.0f records/s  %6.1f MB/s  (%,d imported, %,d invalid)%n",
+                    threads, report.recordsPerSecond(), report.megabytesPerSecond(), report.imported(),
+                    report.invalid());
+        }
+    }
+}
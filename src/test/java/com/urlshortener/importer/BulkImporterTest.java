@@ -0,0 +1,133 @@
+package com.urlshortener.importer;
+
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.InMemoryUrlRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkImporterTest {
+
+    @TempDir
+    Path directory;
+
+    private final InMemoryUrlRepository repository = new InMemoryUrlRepository();
+
+    // ----------------------------------------------------
+    // 1️⃣ CSV Rows Keep Their Codes, Dates And Flags
+    // ----------------------------------------------------
+    @Test
+    void shouldImportCsvWithQuotingAndHeader() throws Exception {
+
+        Path file = write("links.csv", """
+                shortCode,originalUrl,createdAt,alias
+                abc123,https://www.example.com/a,2019-05-01T12:00:00Z,false
+                "spring-sale","https://shop.com/sale?a=1,2&b=%22x%22",1556712000000,true\r
+                def456,https://example.com/b
+
+                """);
+
+        ImportReport report = importer(4).importFile(file, BulkImporter.Format.of(file));
+
+        assertEquals(3, report.records());
+        assertEquals(3, report.imported());
+        assertEquals(0, report.invalid() + report.conflicts() + report.duplicates(), report.problems().toString());
+        ShortenedUrl first = repository.findByShortCode("abc123").orElseThrow();
+        assertEquals("example.com", first.getDomain());
+        assertEquals(Instant.parse("2019-05-01T12:00:00Z"), first.getCreatedAt());
+        ShortenedUrl alias = repository.findByShortCode("spring-sale").orElseThrow();
+        assertEquals("https://shop.com/sale?a=1,2&b=%22x%22", alias.getOriginalUrl());
+        assertTrue(alias.isAlias());
+        assertEquals(Instant.ofEpochMilli(1556712000000L), alias.getCreatedAt());
+        assertEquals(List.of("spring-sale"), repository.findAliasesByPrefix("spring", 10));
+        assertEquals("def456", repository.findByOriginalUrl("https://example.com/b").orElseThrow().getShortCode());
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Invalid Lines And Taken Codes Are Reported
+    // ----------------------------------------------------
+    @Test
+    void shouldReportInvalidLinesAndConflicts() throws Exception {
+
+        repository.save(new ShortenedUrl("taken1", "https://other.com/x", "other.com"));
+        repository.save(new ShortenedUrl("same01", "https://example.com/same", "example.com"));
+        Path file = write("links.ndjson", """
+                {"shortCode":"ok0001","originalUrl":"https://example.com/1"}
+                {"shortCode":"taken1","originalUrl":"https://example.com/2"}
+                {"shortCode":"same01","originalUrl":"https://example.com/same"}
+                {"shortCode":"bad code","originalUrl":"https://example.com/3"}
+                {"shortCode":"admin","originalUrl":"https://example.com/4"}
+                {"shortCode":"nohost","originalUrl":"not a url"}
+                {"shortCode":"baddate","originalUrl":"https://example.com/5","createdAt":"yesterday"}
+                {"shortCode":"truncated",
+                """);
+
+        ImportReport report = importer(2).importFile(file, BulkImporter.Format.NDJSON);
+
+        assertEquals(8, report.records());
+        assertEquals(1, report.imported());
+        assertEquals(1, report.duplicates());
+        assertEquals(1, report.conflicts());
+        assertEquals(5, report.invalid());
+        assertEquals(6, report.problems().size());
+        assertTrue(report.problems().stream().anyMatch(p -> p.contains("taken1 is taken by https://other.com/x")),
+                report.problems().toString());
+        assertEquals("https://other.com/x", repository.findByShortCode("taken1").orElseThrow().getOriginalUrl());
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ Tiny Chunks Still See Every Line Exactly Once
+    // ----------------------------------------------------
+    @Test
+    void shouldImportEachLineOnceWhateverTheChunking() throws Exception {
+
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 5_000; i++) {
+            csv.append("code").append(i).append(",https://example.com/").append("x".repeat(i % 40)).append(i).append('\n');
+        }
+        Path file = write("many.csv", csv.toString());
+
+        for (int chunkBytes : new int[] { 7, 100, 4096 }) {
+            InMemoryUrlRepository target = new InMemoryUrlRepository();
+            ImportReport report = new BulkImporter(target, 3, chunkBytes, Duration.ofMinutes(1))
+                    .importFile(file, BulkImporter.Format.CSV);
+
+            assertEquals(5_000, report.records(), "chunk " + chunkBytes);
+            assertEquals(5_000, report.imported(), "chunk " + chunkBytes);
+            assertEquals(5_000, target.findAll().size());
+            assertTrue(target.existsByShortCode("code4999"));
+        }
+    }
+
+    // ----------------------------------------------------
+    // 4️⃣ A Second Run Finds Only Duplicates
+    // ----------------------------------------------------
+    @Test
+    void shouldBeSafeToRunAgain() throws Exception {
+
+        Path file = write("links.csv", "a00001,https://example.com/1\na00002,https://example.com/2\n");
+        importer(2).importFile(file, BulkImporter.Format.CSV);
+
+        ImportReport again = importer(2).importFile(file, BulkImporter.Format.CSV);
+
+        assertEquals(0, again.imported());
+        assertEquals(2, again.duplicates());
+        assertEquals(0, again.conflicts());
+        assertThrows(IllegalArgumentException.class, () -> BulkImporter.Format.of(Path.of("links.txt")));
+    }
+
+    private BulkImporter importer(int chunkBytes) {
+        return new BulkImporter(repository, 2, chunkBytes, Duration.ofMinutes(1));
+    }
+
+    private Path write(String name, String content) throws Exception {
+        return Files.writeString(directory.resolve(name), content);
+    }
+}
@@ -0,0 +1,84 @@
+package com.urlshortener.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.urlshortener.controllers.Request.ShortenRequest;
+import com.urlshortener.controllers.Response.ShortenResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compares Jackson databinding with the hand-written codec for one POST /shorten
+ * round trip (read the request body, write the response body): first the bare
+ * codecs, then through HttpMessageConverter with mock HTTP messages, as Spring
+ * MVC calls them.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=ShortenJsonCodecBenchmark
+ */
+@Tag("benchmark")
+class ShortenJsonCodecBenchmark {
+
+    private static final int ITERATIONS = 2_000_000;
+    private static final byte[] REQUEST =
+            "{\"url\": \"https://www.youtube.com/watch?v=dQw4w9WgXcQ&list=PL1234567890\"}".getBytes(StandardCharsets.UTF_8);
+    private static final ShortenResponse RESPONSE = new ShortenResponse(
+            "https://www.youtube.com/watch?v=dQw4w9WgXcQ&list=PL1234567890", "http://localhost:8080/aB3cD4e");
+
+    private static volatile Object sink;
+
+    @Test
+    void codecVersusJackson() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        HttpMessageConverter<Object> jackson = new MappingJackson2HttpMessageConverter(objectMapper);
+        HttpMessageConverter<Object> codec = new ShortenJsonHttpMessageConverter(objectMapper);
+
+        for (int round = 0; round < 3; round++) {      // first rounds are warm-up
+            boolean print = round == 2;
+            measure("ObjectMapper", print, () -> {
+                sink = objectMapper.readValue(REQUEST, ShortenRequest.class);
+                sink = objectMapper.writeValueAsBytes(RESPONSE);
+            });
+            measure("codec", print, () -> {
+                sink = ShortenJsonCodec.readRequest(REQUEST, REQUEST.length);
+                sink = ShortenJsonCodec.writeResponse(RESPONSE);
+            });
+            measure("Jackson converter", print, () -> roundTrip(jackson));
+            measure("codec converter", print, () -> roundTrip(codec));
+        }
+    }
+
+    private static void roundTrip(HttpMessageConverter<Object> converter) throws Exception {
+        MockHttpInputMessage input = new MockHttpInputMessage(REQUEST);
+        input.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        sink = converter.read(ShortenRequest.class, input);
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(RESPONSE, MediaType.APPLICATION_JSON, output);
+        sink = output;
+    }
+
+    private void measure(String name, boolean print, Operation operation) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            operation.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        if (print) {
+            System.out.printf("%-18s %6.0f ns/op  %6d B/op%n", name, (double) elapsed / ITERATIONS, allocated / ITERATIONS);
+        }
+    }
+
+    private interface Operation {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,99 @@
+package com.urlshortener.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.urlshortener.controllers.Request.ShortenRequest;
+import com.urlshortener.controllers.Response.ShortenResponse;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShortenJsonCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // ----------------------------------------------------
+    // 1️⃣ Reads The Expected Shape
+    // ----------------------------------------------------
+    @Test
+    void shouldReadUrlAndAlias() {
+
+        ShortenRequest simple = read("{\"url\": \"https://www.youtube.com/watch?v=dQw4w9WgXcQ\"}");
+        assertEquals("https://www.youtube.com/watch?v=dQw4w9WgXcQ", simple.getUrl());
+        assertNull(simple.getAlias());
+
+        ShortenRequest withAlias = read(" {\n\t\"alias\" : \"spring-sale\" ,\"url\":\"https://shop.com/sale\" } ");
+        assertEquals("https://shop.com/sale", withAlias.getUrl());
+        assertEquals("spring-sale", withAlias.getAlias());
+
+        ShortenRequest nulls = read("{\"url\": null, \"alias\": null}");
+        assertNull(nulls.getUrl());
+
+        assertNull(read("{}").getUrl());
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Decodes Escapes And UTF-8 Like Jackson
+    // ----------------------------------------------------
+    @Test
+    void shouldDecodeEscapesAndUnicode() throws Exception {
+
+        String[] bodies = {
+                "{\"url\": \"https://example.com/caf\u00e9/\u65e5\u672c?q=\ud83d\ude00\"}",
+                "{\"url\": \"https:\\/\\/example.com\\/a\\\"b\\\\c\\td\"}",
+                "{\"url\": \"https://example.com/\\u00e9\\ud83d\\ude00\\u0041\"}",
+        };
+        for (String body : bodies) {
+            assertEquals(objectMapper.readValue(body, ShortenRequest.class).getUrl(), read(body).getUrl(), body);
+        }
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ Unknown Shapes Are Left To Jackson
+    // ----------------------------------------------------
+    @Test
+    void shouldReturnNullForUnknownShapes() {
+
+        String[] bodies = {
+                "this is not json",
+                "",
+                "[\"https://example.com\"]",
+                "{\"url\": \"https://example.com\", \"source\": \"newsletter\"}",
+                "{\"url\": 42}",
+                "{\"url\": {\"href\": \"https://example.com\"}}",
+                "{\"url\": \"https://example.com\"",
+                "{\"url\": \"https://example.com\"} trailing",
+                "{\"url\": \"line\nbreak\"}",
+                "{\"url\": \"bad \\x escape\"}",
+                "{\"u\\u0072l\": \"https://example.com\"}",
+        };
+        for (String body : bodies) {
+            assertNull(read(body), body);
+        }
+    }
+
+    // ----------------------------------------------------
+    // 4️⃣ Writes Exactly What Jackson Writes
+    // ----------------------------------------------------
+    @Test
+    void shouldWriteSameBytesAsJackson() throws Exception {
+
+        String[][] cases = {
+                { "https://www.youtube.com/watch?v=dQw4w9WgXcQ", "http://localhost:8080/aB3cD4e" },
+                { "https://example.com/caf\u00e9/\u65e5\u672c?q=\ud83d\ude00", "http://localhost:8080/x" },
+                { "https://example.com/\"quoted\"\\back\tslash\n\u0001\u001f\u007f", "http://localhost:8080/y" },
+                { null, null },
+        };
+        for (String[] c : cases) {
+            ShortenResponse response = new ShortenResponse(c[0], c[1]);
+            assertEquals(objectMapper.writeValueAsString(response),
+                    new String(ShortenJsonCodec.writeResponse(response), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static ShortenRequest read(String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        return ShortenJsonCodec.readRequest(bytes, bytes.length);
+    }
+}
@@ -0,0 +1,89 @@
+package com.urlshortener.profiling;
+
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cost of the custom JFR events on the hottest path, a short-code lookup:
+ * the bare map lookup, the same lookup wrapped in a RepositoryLookupEvent with
+ * no recording (the normal state), with a recording whose threshold filters
+ * every event out, and with a recording that writes every event.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=JfrEventOverheadBenchmark
+ */
+@Tag("benchmark")
+class JfrEventOverheadBenchmark {
+
+    private static final int ITERATIONS = 20_000_000;
+    private static final int KEYS = 1_024;
+
+    private static volatile Object sink;
+
+    private final Map<String, String> map = new ConcurrentHashMap<>();
+    private final String[] keys = new String[KEYS];
+
+    @Test
+    void disabledEventsAreNearlyFree() throws Exception {
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "code" + i;
+            map.put(keys[i], "https://example.com/" + i);
+        }
+
+        for (int round = 0; round < 3; round++) {      // first rounds are warm-up
+            boolean print = round == 2;
+            measure("plain lookup", print, this::plain);
+            measure("events disabled", print, this::instrumented);
+        }
+
+        try (Recording recording = new Recording()) {
+            recording.enable(RepositoryLookupEvent.class).withThreshold(Duration.ofMillis(1));
+            recording.start();
+            measure("threshold 1 ms", false, this::instrumented);
+            measure("threshold 1 ms", true, this::instrumented);
+        }
+        try (Recording recording = new Recording()) {
+            recording.enable(RepositoryLookupEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+            measure("every event", false, this::instrumented);
+            measure("every event", true, this::instrumented);
+        }
+    }
+
+    private void plain(int i) {
+        String key = keys[i & (KEYS - 1)];
+        sink = Optional.ofNullable(map.get(key));
+    }
+
+    private void instrumented(int i) {
+        String key = keys[i & (KEYS - 1)];
+        RepositoryLookupEvent event = RepositoryLookupEvent.start();
+        Optional<String> value = Optional.ofNullable(map.get(key));
+        event.finish("findByShortCode", key, value.isPresent());
+        sink = value;
+    }
+
+    private void measure(String name, boolean print, Operation operation) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            operation.run(i);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        if (print) {
+            System.out.printf("%-16s %6.1f ns/op  %4d B/op%n", name, (double) elapsed / ITERATIONS, allocated / ITERATIONS);
+        }
+    }
+
+    private interface Operation {
+        void run(int i);
+    }
+}
@@ -0,0 +1,109 @@
+package com.urlshortener.profiling;
+
+import com.urlshortener.exception.RecordingInProgressException;
+import com.urlshortener.repositories.InMemoryUrlRepository;
+import com.urlshortener.services.UrlShortenerService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfilingServiceTest {
+
+    private static final long MB = 1024 * 1024;
+
+    private final ProfilingService profilingService = new ProfilingService(60, 16);
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (!"NONE".equals(profilingService.status().state())) {
+            Files.deleteIfExists(profilingService.stop());
+        }
+    }
+
+    // ----------------------------------------------------
+    // 1️⃣ Recording Captures The Application Events
+    // ----------------------------------------------------
+    @Test
+    void shouldRecordApplicationEvents() throws Exception {
+
+        UrlShortenerService service = new UrlShortenerService(new InMemoryUrlRepository(), "http://localhost:8080");
+
+        ProfilingService.Status status = profilingService.start(Duration.ofSeconds(30), 8 * MB, Duration.ZERO);
+        assertEquals("RUNNING", status.state());
+
+        String shortUrl = service.shorten("https://www.example.com/page");
+        String shortCode = shortUrl.substring(shortUrl.lastIndexOf('/') + 1);
+        service.resolve(shortCode);
+        assertThrows(NoSuchElementException.class, () -> service.resolve("missing"));
+        service.getTopDomains(10);
+
+        Path file = profilingService.stop();
+        try {
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+            RecordedEvent generation = single(events, "com.urlshortener.ShortCodeGeneration");
+            assertEquals(shortCode, generation.getString("shortCode"));
+            assertEquals("example.com", generation.getString("domain"));
+            assertEquals(1, generation.getInt("candidates"));
+            assertEquals(0, generation.getInt("collisions"));
+
+            List<RecordedEvent> redirects = named(events, "com.urlshortener.Redirect");
+            assertEquals(2, redirects.size());
+            assertTrue(redirects.stream().anyMatch(e -> e.getBoolean("found") && shortCode.equals(e.getString("shortCode"))));
+            assertTrue(redirects.stream().anyMatch(e -> !e.getBoolean("found") && "missing".equals(e.getString("shortCode"))));
+
+            // findByOriginalUrl during shorten, findByShortCode for both resolves
+            assertEquals(3, named(events, "com.urlshortener.RepositoryLookup").size());
+            assertEquals(1, single(events, "com.urlshortener.TopDomains").getInt("domains"));
+        } finally {
+            Files.delete(file);
+        }
+        assertEquals("NONE", profilingService.status().state());
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Only One Recording At A Time
+    // ----------------------------------------------------
+    @Test
+    void shouldRejectSecondRecordingWhileRunning() {
+
+        profilingService.start(Duration.ofSeconds(30), MB, Duration.ZERO);
+
+        assertThrows(RecordingInProgressException.class,
+                () -> profilingService.start(Duration.ofSeconds(30), MB, Duration.ZERO));
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ Bounds Are Enforced
+    // ----------------------------------------------------
+    @Test
+    void shouldRejectOutOfBoundsRequests() {
+
+        assertThrows(IllegalArgumentException.class,
+                () -> profilingService.start(Duration.ofSeconds(61), MB, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class,
+                () -> profilingService.start(Duration.ZERO, MB, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class,
+                () -> profilingService.start(Duration.ofSeconds(10), 17 * MB, Duration.ZERO));
+        assertThrows(NoSuchElementException.class, profilingService::stop);
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = named(events, name);
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+}
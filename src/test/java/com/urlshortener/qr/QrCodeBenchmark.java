@@ -0,0 +1,58 @@
+package com.urlshortener.qr;
+
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.InMemoryUrlRepository;
+import com.urlshortener.services.QrCodeService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+/**
+ * Measures QR image throughput with the image cache on and off, for PNG and
+ * SVG, when requests concentrate on a set of popular links.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=QrCodeBenchmark
+ */
+@Tag("benchmark")
+class QrCodeBenchmark {
+
+    private static final int LINKS = 1_000;
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 50_000);
+
+    @Test
+    void cachedVersusUncached() {
+        InMemoryUrlRepository repository = new InMemoryUrlRepository();
+        for (int i = 0; i < LINKS; i++) {
+            repository.save(new ShortenedUrl("code" + i, "https://site" + i + ".com/page", "site" + i + ".com"));
+        }
+        // warm-up
+        run(repository, 0, QrRenderer.Format.PNG, REQUESTS / 10, false);
+        run(repository, 32L << 20, QrRenderer.Format.PNG, REQUESTS / 10, false);
+
+        for (QrRenderer.Format format : QrRenderer.Format.values()) {
+            run(repository, 0, format, REQUESTS / 10, true);
+            run(repository, 32L << 20, format, REQUESTS, true);
+        }
+    }
+
+    private void run(InMemoryUrlRepository repository, long cacheBytes, QrRenderer.Format format,
+                     int requests, boolean print) {
+        QrImageCache cache = new QrImageCache(cacheBytes);
+        QrCodeService service = new QrCodeService(repository, cache, "https://sho.rt", QrCode.Ecc.M);
+        SplittableRandom random = new SplittableRandom(42);
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            // Skewed towards low indexes, like the traffic of printed links
+            int link = (int) (LINKS * Math.pow(random.nextDouble(), 3));
+            bytes += service.render("code" + link, format, 256).bytes().length;
+        }
+        long elapsed = System.nanoTime() - start;
+        if (print) {
+            System.out.printf("%-3s cache=%-5s %,9.0f images/s  %6.1f us/image  avg %,d bytes  hits=%d misses=%d%n",
+                    format, cache.isEnabled() ? "on" : "off", requests / (elapsed / 1e9),
+                    elapsed / 1e3 / requests, bytes / requests, cache.hits(), cache.misses());
+        }
+    }
+}
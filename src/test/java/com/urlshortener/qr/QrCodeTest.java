@@ -0,0 +1,280 @@
+package com.urlshortener.qr;
+
+import com.urlshortener.qr.QrCode.Ecc;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QrCodeTest {
+
+    // ----------------------------------------------------
+    // 1️⃣ Reed-Solomon, Format And Version Words Match The Standard
+    // ----------------------------------------------------
+    @Test
+    void shouldMatchPublishedVectors() {
+
+        // "HELLO WORLD" at 1-M, as worked through in the standard's annex and most tutorials
+        byte[] data = bytes(32, 91, 11, 120, 209, 114, 220, 77, 67, 64, 236, 17, 236, 17, 236, 17);
+        assertArrayEquals(bytes(196, 35, 39, 119, 235, 215, 231, 226, 93, 23),
+                QrCode.ReedSolomon.remainder(data, QrCode.ReedSolomon.divisor(10)));
+
+        assertEquals(0b111011111000100, QrCode.formatBits(Ecc.L, 0));
+        assertEquals(0b101010000010010, QrCode.formatBits(Ecc.M, 0));
+        assertEquals(0b011010101011111, QrCode.formatBits(Ecc.Q, 0));
+        assertEquals(0b001011010001001, QrCode.formatBits(Ecc.H, 0));
+        assertEquals(0b110011000101111, QrCode.formatBits(Ecc.L, 4));
+        assertEquals(0b000111110010010100, QrCode.versionBits(7));
+        assertEquals(0b101000110001101001, QrCode.versionBits(40));
+
+        assertArrayEquals(new int[] { 6, 18 }, QrCode.alignmentPositions(2));
+        assertArrayEquals(new int[] { 6, 22, 38 }, QrCode.alignmentPositions(7));
+        assertArrayEquals(new int[] { 6, 34, 60, 86, 112, 138 }, QrCode.alignmentPositions(32));
+        assertArrayEquals(new int[] { 6, 30, 58, 86, 114, 142, 170 }, QrCode.alignmentPositions(40));
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Smallest Version That Fits, Up To Byte-Mode Capacity
+    // ----------------------------------------------------
+    @Test
+    void shouldPickTheSmallestVersion() {
+
+        assertEquals(1, QrCode.encode("a".repeat(17), Ecc.L).version());
+        assertEquals(2, QrCode.encode("a".repeat(18), Ecc.L).version());
+        assertEquals(1, QrCode.encode("a".repeat(14), Ecc.M).version());
+        assertEquals(1, QrCode.encode("a".repeat(7), Ecc.H).version());
+        assertEquals(40, QrCode.encode("a".repeat(2953), Ecc.L).version());
+        assertEquals(40, QrCode.encode("a".repeat(1273), Ecc.H).version());
+        assertThrows(IllegalArgumentException.class, () -> QrCode.encode("a".repeat(2954), Ecc.L));
+        assertThrows(IllegalArgumentException.class, () -> QrCode.encode("a".repeat(1274), Ecc.H));
+
+        QrCode shortLink = QrCode.encode("https://sho.rt/aB3cD4e", Ecc.M);
+        assertEquals(2, shortLink.version());
+        assertEquals(25, shortLink.size());
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ Every Version And Level Decodes Back To The Text
+    // ----------------------------------------------------
+    @Test
+    void shouldDecodeBackToTheText() {
+
+        Random random = new Random(7);
+        for (Ecc ecc : Ecc.values()) {
+            for (int length : new int[] { 0, 1, 20, 60, 150, 400, 1000, 1270 }) {
+                StringBuilder text = new StringBuilder("https://sho.rt/");
+                while (text.length() < length) {
+                    text.append((char) ('!' + random.nextInt(94)));
+                }
+                if (length > 200 && ecc == Ecc.L) {
+                    // Some multi-byte UTF-8 as well
+                    text.append("é€");
+                }
+                QrCode code = QrCode.encode(text.toString(), ecc);
+                assertEquals(text.toString(), QrDecoder.decode(code), ecc + " v" + code.version());
+            }
+        }
+    }
+
+    // ----------------------------------------------------
+    // 4️⃣ PNG And SVG Draw The Modules With A Quiet Zone
+    // ----------------------------------------------------
+    @Test
+    void shouldRenderPngAndSvg() throws Exception {
+
+        QrCode code = QrCode.encode("https://sho.rt/aB3cD4e", Ecc.M);
+        int modules = code.size() + 2 * QrRenderer.QUIET_ZONE;
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(QrRenderer.render(code, QrRenderer.Format.PNG, 256)));
+        int scale = 256 / modules;
+        assertEquals(modules * scale, image.getWidth());
+        assertEquals(modules * scale, image.getHeight());
+        for (int y = -QrRenderer.QUIET_ZONE; y < code.size() + QrRenderer.QUIET_ZONE; y++) {
+            for (int x = -QrRenderer.QUIET_ZONE; x < code.size() + QrRenderer.QUIET_ZONE; x++) {
+                int px = (x + QrRenderer.QUIET_ZONE) * scale + scale / 2;
+                int py = (y + QrRenderer.QUIET_ZONE) * scale + scale / 2;
+                boolean black = (image.getRGB(px, py) & 0xFFFFFF) == 0;
+                assertEquals(code.isDark(x, y), black, "module " + x + "," + y);
+            }
+        }
+        // Smaller than the symbol: one pixel per module
+        assertEquals(modules, ImageIO.read(new ByteArrayInputStream(
+                QrRenderer.render(code, QrRenderer.Format.PNG, 10))).getWidth());
+
+        String svg = new String(QrRenderer.render(code, QrRenderer.Format.SVG, 300), StandardCharsets.US_ASCII);
+        assertTrue(svg.startsWith("<svg xmlns=\"http://www.w3.org/2000/svg\""), svg);
+        assertTrue(svg.contains("viewBox=\"0 0 " + modules + " " + modules + "\" width=\"300\" height=\"300\""));
+        // The top-left finder's first row: seven dark modules from the quiet zone's edge
+        assertTrue(svg.contains("M4 4h7v1h-7z"), svg);
+        assertEquals(QrRenderer.Format.SVG, QrRenderer.Format.of("SVG"));
+        assertThrows(IllegalArgumentException.class, () -> QrRenderer.Format.of("gif"));
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+
+    /**
+     * Reads a symbol back the way a scanner would once it has sampled the
+     * grid: format bits, unmasking, codeword order, de-interleaving, a
+     * Reed-Solomon check of every block, and the byte-mode segment.
+     */
+    static final class QrDecoder {
+
+        static String decode(QrCode code) {
+            int size = code.size();
+            int version = (size - 17) / 4;
+
+            int format = 0;
+            int copy = 0;
+            for (int i = 0; i <= 5; i++) {
+                format |= bit(code, 8, i) << i;
+            }
+            format |= bit(code, 8, 7) << 6 | bit(code, 8, 8) << 7 | bit(code, 7, 8) << 8;
+            for (int i = 9; i < 15; i++) {
+                format |= bit(code, 14 - i, 8) << i;
+            }
+            for (int i = 0; i < 8; i++) {
+                copy |= bit(code, size - 1 - i, 8) << i;
+            }
+            for (int i = 8; i < 15; i++) {
+                copy |= bit(code, 8, size - 15 + i) << i;
+            }
+            assertEquals(format, copy, "format copies differ");
+            assertEquals(QrCode.formatBits(code.ecc(), code.mask()), format);
+            assertEquals(1, bit(code, 8, size - 8), "dark module");
+            if (version >= 7) {
+                int bits = QrCode.versionBits(version);
+                for (int i = 0; i < 18; i++) {
+                    assertEquals(bits >>> i & 1, bit(code, size - 11 + i % 3, i / 3));
+                    assertEquals(bits >>> i & 1, bit(code, i / 3, size - 11 + i % 3));
+                }
+            }
+
+            boolean[][] function = functionModules(version, size);
+            int raw = QrCode.rawDataModules(version) / 8;
+            byte[] codewords = new byte[raw];
+            int i = 0;
+            for (int right = size - 1; right >= 1; right -= 2) {
+                if (right == 6) {
+                    right = 5;
+                }
+                for (int vertical = 0; vertical < size; vertical++) {
+                    for (int j = 0; j < 2; j++) {
+                        int x = right - j;
+                        int y = ((right + 1) & 2) == 0 ? size - 1 - vertical : vertical;
+                        if (!function[y][x] && i < raw * 8) {
+                            if (code.isDark(x, y) ^ masked(code.mask(), x, y)) {
+                                codewords[i >>> 3] |= (byte) (0x80 >>> (i & 7));
+                            }
+                            i++;
+                        }
+                    }
+                }
+            }
+
+            int blocks = QrCode.eccBlocks(version, code.ecc());
+            int eccLength = QrCode.eccCodewordsPerBlock(version, code.ecc());
+            int shortBlocks = blocks - raw % blocks;
+            int shortDataLength = raw / blocks - eccLength;
+            byte[][] blockData = new byte[blocks][];
+            byte[][] blockEcc = new byte[blocks][eccLength];
+            for (int b = 0; b < blocks; b++) {
+                blockData[b] = new byte[shortDataLength + (b < shortBlocks ? 0 : 1)];
+            }
+            int position = 0;
+            for (int k = 0; k <= shortDataLength; k++) {
+                for (int b = 0; b < blocks; b++) {
+                    if (k < blockData[b].length) {
+                        blockData[b][k] = codewords[position++];
+                    }
+                }
+            }
+            for (int k = 0; k < eccLength; k++) {
+                for (int b = 0; b < blocks; b++) {
+                    blockEcc[b][k] = codewords[position++];
+                }
+            }
+            ByteArrayOutputStream data = new ByteArrayOutputStream();
+            for (int b = 0; b < blocks; b++) {
+                assertArrayEquals(blockEcc[b],
+                        QrCode.ReedSolomon.remainder(blockData[b], QrCode.ReedSolomon.divisor(eccLength)),
+                        "error correction of block " + b);
+                data.writeBytes(blockData[b]);
+            }
+
+            byte[] bytes = data.toByteArray();
+            int[] cursor = { 0 };
+            assertEquals(0b0100, read(bytes, cursor, 4), "byte mode");
+            int length = read(bytes, cursor, version <= 9 ? 8 : 16);
+            byte[] text = new byte[length];
+            for (int k = 0; k < length; k++) {
+                text[k] = (byte) read(bytes, cursor, 8);
+            }
+            return new String(text, StandardCharsets.UTF_8);
+        }
+
+        private static boolean[][] functionModules(int version, int size) {
+            boolean[][] function = new boolean[size][size];
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    // Finders with separators and format areas, and the timing patterns
+                    function[y][x] = x <= 8 && y <= 8 || x >= size - 8 && y <= 8 || x <= 8 && y >= size - 8
+                            || x == 6 || y == 6
+                            || version >= 7 && (x >= size - 11 && x < size - 8 && y < 6
+                            || y >= size - 11 && y < size - 8 && x < 6);
+                }
+            }
+            int[] alignments = QrCode.alignmentPositions(version);
+            for (int cy : alignments) {
+                for (int cx : alignments) {
+                    // Not where they would overlap a finder
+                    if (cx == 6 && cy == 6 || cx == 6 && cy == size - 7 || cx == size - 7 && cy == 6) {
+                        continue;
+                    }
+                    for (int dy = -2; dy <= 2; dy++) {
+                        for (int dx = -2; dx <= 2; dx++) {
+                            function[cy + dy][cx + dx] = true;
+                        }
+                    }
+                }
+            }
+            return function;
+        }
+
+        private static boolean masked(int mask, int x, int y) {
+            return switch (mask) {
+                case 0 -> (x + y) % 2 == 0;
+                case 1 -> y % 2 == 0;
+                case 2 -> x % 3 == 0;
+                case 3 -> (x + y) % 3 == 0;
+                case 4 -> (x / 3 + y / 2) % 2 == 0;
+                case 5 -> x * y % 2 + x * y % 3 == 0;
+                case 6 -> (x * y % 2 + x * y % 3) % 2 == 0;
+                default -> ((x + y) % 2 + x * y % 3) % 2 == 0;
+            };
+        }
+
+        private static int read(byte[] bytes, int[] cursor, int bits) {
+            int value = 0;
+            for (int k = 0; k < bits; k++, cursor[0]++) {
+                value = value << 1 | (bytes[cursor[0] >>> 3] >>> (7 - (cursor[0] & 7)) & 1);
+            }
+            return value;
+        }
+
+        private static int bit(QrCode code, int x, int y) {
+            return code.isDark(x, y) ? 1 : 0;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.urlshortener.qr;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QrImageCacheTest {
+
+    private final AtomicInteger renders = new AtomicInteger();
+
+    // ----------------------------------------------------
+    // 1️⃣ Hits Return The Cached Array Without Rendering
+    // ----------------------------------------------------
+    @Test
+    void shouldServeHitsFromTheCache() {
+
+        QrImageCache cache = new QrImageCache(1 << 20);
+
+        QrImageCache.Image first = cache.get("a/PNG/256", () -> render(1_000));
+        QrImageCache.Image second = cache.get("a/PNG/256", () -> render(1_000));
+
+        assertSame(first, second);
+        assertEquals(1, renders.get());
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+        assertEquals(1, cache.size());
+        assertTrue(cache.bytes() > 1_000);
+        assertEquals(cache.bytes(), cache.memoryFootprint().get(0).bytes());
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Stays Within Budget, Recently Hit Entries Survive
+    // ----------------------------------------------------
+    @Test
+    void shouldEvictUnreferencedEntriesFirst() {
+
+        // Room for about three 10 KB images
+        QrImageCache cache = new QrImageCache(32 * 1024);
+        cache.get("hot", () -> render(10_000));
+        cache.get("cold1", () -> render(10_000));
+        cache.get("cold2", () -> render(10_000));
+        cache.get("hot", () -> render(10_000));
+
+        for (int i = 0; i < 10; i++) {
+            cache.get("batch" + i, () -> render(10_000));
+            cache.get("hot", () -> render(10_000));
+            assertTrue(cache.bytes() <= 32 * 1024, "bytes " + cache.bytes());
+        }
+
+        int before = renders.get();
+        cache.get("hot", () -> render(10_000));
+        assertEquals(before, renders.get(), "hot image was evicted");
+        cache.get("cold1", () -> render(10_000));
+        assertEquals(before + 1, renders.get());
+        assertTrue(cache.size() <= 3);
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ Zero Budget Disables Caching
+    // ----------------------------------------------------
+    @Test
+    void shouldRenderEveryTimeWhenDisabled() {
+
+        QrImageCache cache = new QrImageCache(0);
+
+        cache.get("a", () -> render(100));
+        cache.get("a", () -> render(100));
+
+        assertFalse(cache.isEnabled());
+        assertEquals(2, renders.get());
+        assertEquals(0, cache.size());
+        // An image bigger than the whole budget is not cached either
+        QrImageCache tiny = new QrImageCache(1_000);
+        tiny.get("big", () -> render(5_000));
+        assertEquals(0, tiny.size());
+        assertThrows(IllegalArgumentException.class, () -> new QrImageCache(-1));
+    }
+
+    private QrImageCache.Image render(int bytes) {
+        renders.incrementAndGet();
+        return new QrImageCache.Image(new byte[bytes], "\"" + renders.get() + "\"");
+    }
+}
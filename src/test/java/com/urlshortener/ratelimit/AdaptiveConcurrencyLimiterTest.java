@@ -0,0 +1,175 @@
+package com.urlshortener.ratelimit;
+
+import com.urlshortener.exception.ServiceOverloadedException;
+import com.urlshortener.ratelimit.AdaptiveConcurrencyLimiter.Priority;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = 100_000;
+    private static final int WINDOW = 20;
+
+    // ----------------------------------------------------
+    // 1️⃣ Lower Priorities Get A Smaller Share Of The Limit
+    // ----------------------------------------------------
+    @Test
+    void shouldShedLowerPrioritiesFirst() {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 2.0, 0.9, 1_000);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(Priority.LOW));
+        }
+        assertFalse(limiter.tryAcquire(Priority.LOW));
+        assertTrue(limiter.tryAcquire(Priority.NORMAL));
+        assertTrue(limiter.tryAcquire(Priority.NORMAL));
+        assertFalse(limiter.tryAcquire(Priority.NORMAL));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire(Priority.CRITICAL));
+        }
+        assertFalse(limiter.tryAcquire(Priority.CRITICAL));
+
+        assertEquals(10, limiter.inFlight());
+        assertEquals(5, limiter.admitted(Priority.LOW));
+        assertEquals(1, limiter.shed(Priority.LOW));
+        assertEquals(1, limiter.shed(Priority.NORMAL));
+        assertEquals(1, limiter.shed(Priority.CRITICAL));
+
+        limiter.release(Priority.CRITICAL, FAST);
+        assertTrue(limiter.tryAcquire(Priority.CRITICAL));
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Slow Windows Shrink The Limit, Busy Fast Ones Grow It
+    // ----------------------------------------------------
+    @Test
+    void shouldFollowLatency() {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 22, 2.0, 0.5, WINDOW);
+
+        // Fast but using under half the limit: nothing learnt about a higher limit
+        runWindow(limiter, 5, FAST);
+        assertEquals(20, limiter.limit());
+
+        // Fast and busy: one more per window, up to the maximum
+        runWindow(limiter, 10, FAST);
+        assertEquals(21, limiter.limit());
+        runWindow(limiter, 11, FAST);
+        runWindow(limiter, 11, FAST);
+        assertEquals(22, limiter.limit());
+
+        // Ten times the no-load latency: halve, down to the minimum
+        runWindow(limiter, 4, 10 * FAST);
+        assertEquals(11, limiter.limit());
+        runWindow(limiter, 4, 10 * FAST);
+        runWindow(limiter, 4, 10 * FAST);
+        assertEquals(4, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ Each Priority Has Its Own No-Load Latency
+    // ----------------------------------------------------
+    @Test
+    void shouldJudgeEachPriorityAgainstItsOwnBaseline() {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 2.0, 0.5, WINDOW);
+
+        // Metrics calls take 1000 times longer than redirects, always; that is not congestion
+        for (int i = 0; i < 5; i++) {
+            runWindow(limiter, Priority.CRITICAL, 4, FAST);
+            runWindow(limiter, Priority.LOW, 4, 1_000 * FAST);
+        }
+        assertEquals(10, limiter.limit());
+
+        // Even at the minimum limit, a low priority keeps one slot
+        AdaptiveConcurrencyLimiter minimal = new AdaptiveConcurrencyLimiter(1, 1, 1, 2.0, 0.5, 20);
+        assertTrue(minimal.tryAcquire(Priority.LOW));
+        assertFalse(minimal.tryAcquire(Priority.CRITICAL));
+    }
+
+    // ----------------------------------------------------
+    // 4️⃣ Interceptor Rejects With 503 And Releases On Completion
+    // ----------------------------------------------------
+    @Test
+    void interceptorShouldRejectWhenFullAndReleaseAfterCompletion() throws Exception {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 2, 2.0, 0.5, 100);
+        ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(limiter, Priority.LOW);
+        MockHttpServletRequest first = new MockHttpServletRequest("GET", "/metrics/top-domains");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(first, response, new Object()));
+        ServiceOverloadedException rejected = assertThrows(ServiceOverloadedException.class,
+                () -> interceptor.preHandle(new MockHttpServletRequest(), response, new Object()));
+        assertEquals(1, rejected.getRetryAfterSeconds());
+
+        interceptor.afterCompletion(first, response, new Object(), null);
+        assertEquals(0, limiter.inFlight());
+        // A second completion of the same request must not free a slot it does not hold
+        interceptor.afterCompletion(first, response, new Object(), null);
+        assertEquals(0, limiter.inFlight());
+    }
+
+    // ----------------------------------------------------
+    // 5️⃣ Concurrent Releases Lose No Samples
+    // ----------------------------------------------------
+    @Test
+    void shouldCountEverySampleOfConcurrentReleases() throws Exception {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 1, 1_000, 2.0, 0.5, WINDOW);
+        // Held throughout, so every window is busy enough to grow the limit by one
+        for (int i = 0; i < 80; i++) {
+            assertTrue(limiter.tryAcquire(Priority.CRITICAL));
+        }
+
+        int threads = 4;
+        int perThread = 10 * WINDOW;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    assertTrue(limiter.tryAcquire(Priority.CRITICAL));
+                    limiter.release(Priority.CRITICAL, FAST);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        // 40 windows, each closed exactly once
+        assertEquals(140, limiter.limit());
+        assertEquals(80, limiter.inFlight());
+    }
+
+    private static void runWindow(AdaptiveConcurrencyLimiter limiter, int concurrency, long latencyNanos) {
+        runWindow(limiter, Priority.CRITICAL, concurrency, latencyNanos);
+    }
+
+    /** Runs one window of requests, in rounds of {@code concurrency} at a time. */
+    private static void runWindow(AdaptiveConcurrencyLimiter limiter, Priority priority, int concurrency,
+                                  long latencyNanos) {
+        for (int remaining = WINDOW; remaining > 0; remaining -= concurrency) {
+            int round = Math.min(concurrency, remaining);
+            for (int i = 0; i < round; i++) {
+                assertTrue(limiter.tryAcquire(priority));
+            }
+            for (int i = 0; i < round; i++) {
+                limiter.release(priority, latencyNanos);
+            }
+        }
+    }
+}
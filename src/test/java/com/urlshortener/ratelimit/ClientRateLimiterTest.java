@@ -0,0 +1,134 @@
+package com.urlshortener.ratelimit;
+
+import com.urlshortener.tenant.Tenant;
+import com.urlshortener.tenant.TenantRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong now = new AtomicLong(1_000 * SECOND);
+
+    // ----------------------------------------------------
+    // 1️⃣ Burst, Then Refill At The Configured Rate
+    // ----------------------------------------------------
+    @Test
+    void shouldAllowBurstThenRefill() {
+
+        ClientRateLimiter limiter = new ClientRateLimiter(10, 5, 100, 60 * SECOND, now::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("client"));
+        }
+        long wait = limiter.tryAcquire("client");
+        assertTrue(wait > 0 && wait <= SECOND / 10, "wait " + wait);
+
+        now.addAndGet(SECOND / 10);
+        assertEquals(0, limiter.tryAcquire("client"));
+        assertTrue(limiter.tryAcquire("client") > 0);
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Clients Are Limited Independently
+    // ----------------------------------------------------
+    @Test
+    void shouldIsolateClients() {
+
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 1, 100, 60 * SECOND, now::get);
+
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a") > 0);
+        assertEquals(0, limiter.tryAcquire("b"));
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ Idle Buckets Are Evicted, Map Stays Bounded
+    // ----------------------------------------------------
+    @Test
+    void shouldEvictIdleClientsAndStayBounded() {
+
+        ClientRateLimiter limiter = new ClientRateLimiter(10, 5, 3, 60 * SECOND, now::get);
+
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+        limiter.tryAcquire("c");
+        assertEquals(3, limiter.trackedClients());
+
+        // Map is full and nobody is idle yet: the newcomer shares the overflow bucket.
+        limiter.tryAcquire("d");
+        assertEquals(4, limiter.trackedClients());      // a, b, c + overflow
+
+        now.addAndGet(120 * SECOND);
+        limiter.tryAcquire("e");
+        assertEquals(1, limiter.trackedClients());
+    }
+
+    // ----------------------------------------------------
+    // 4️⃣ No Permits Are Lost Or Double-Granted Under Contention
+    // ----------------------------------------------------
+    @Test
+    void shouldGrantExactlyTheBurstUnderContention() throws Exception {
+
+        ClientRateLimiter limiter = new ClientRateLimiter(0.001, 1_000, 100, 60 * SECOND, now::get);
+        AtomicInteger granted = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    if (limiter.tryAcquire("hot") == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        assertEquals(1_000, granted.get());
+    }
+
+    // ----------------------------------------------------
+    // 5️⃣ Client Keys: Tenant API Key, Else Network Prefix
+    // ----------------------------------------------------
+    @Test
+    void shouldDeriveClientKeys() {
+
+        TenantRegistry tenants = new TenantRegistry(Tenant.defaultTenant("http://localhost:8080"));
+        tenants.register(new Tenant("acme", "https://acme.example", 0), List.of(), List.of("abc"));
+
+        MockHttpServletRequest withKey = new MockHttpServletRequest();
+        withKey.addHeader(RateLimitInterceptor.API_KEY_HEADER, "abc");
+        withKey.setRemoteAddr("10.0.0.7");
+        assertEquals("key:abc", RateLimitInterceptor.clientKey(withKey, tenants));
+
+        // Made-up keys would each get a fresh bucket
+        MockHttpServletRequest unknownKey = new MockHttpServletRequest();
+        unknownKey.addHeader(RateLimitInterceptor.API_KEY_HEADER, "made-up-1");
+        unknownKey.setRemoteAddr("10.0.0.7");
+        assertEquals("ip:10.0.0", RateLimitInterceptor.clientKey(unknownKey, tenants));
+
+        MockHttpServletRequest ipv4 = new MockHttpServletRequest();
+        ipv4.setRemoteAddr("203.0.113.77");
+        assertEquals("ip:203.0.113", RateLimitInterceptor.clientKey(ipv4, tenants));
+
+        assertEquals("2001:db8:85a3:8d3",
+                RateLimitInterceptor.networkPrefix("2001:db8:85a3:8d3:1319:8a2e:370:7348"));
+    }
+}
@@ -0,0 +1,163 @@
+package com.urlshortener.ratelimit;
+
+import com.urlshortener.UrlShortenerApplication;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.UrlRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test over HTTP: redirect latency on its own, then with clients
+ * flooding GET /metrics/top-domains and POST /shorten, once without the
+ * concurrency limit and once with it.
+ *
+ * Without the limit every request gets a servlet thread and the scans and
+ * shortens compete with redirects for the CPU. With it, most metrics and
+ * shorten calls are shed with 503 and the redirect p99 should stay close to
+ * the unloaded one. Shed clients pause 50 ms before trying again; clients
+ * that retry at once spend the CPU on 503s instead, when the load generator
+ * runs on the same machine.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=LoadSheddingBenchmark -DargLine=-Xmx4g
+ * (-Dbenchmark.entries=100000 for a smaller heap)
+ */
+@Tag("benchmark")
+class LoadSheddingBenchmark {
+
+    private static final int REDIRECT_CLIENTS = 4;
+    private static final int METRICS_CLIENTS = 16;
+    private static final int SHORTEN_CLIENTS = 8;
+    private static final long PHASE_MILLIS = 10_000;
+    private static final long BACKOFF_MILLIS = 50;
+
+    @Test
+    void redirectLatencyUnderOverload() throws Exception {
+        int entries = Integer.getInteger("benchmark.entries", 300_000);
+        System.out.printf("entries=%,d  redirect clients=%d  metrics clients=%d  shorten clients=%d%n",
+                entries, REDIRECT_CLIENTS, METRICS_CLIENTS, SHORTEN_CLIENTS);
+        for (boolean limited : new boolean[] { false, true }) {
+            ConfigurableApplicationContext app = new SpringApplicationBuilder(UrlShortenerApplication.class)
+                    .run("--server.port=0", "--app.rate-limit.enabled=false", "--app.visitors.enabled=false",
+                            "--app.concurrency-limit.enabled=" + limited,
+                            "--logging.level.root=WARN");
+            try {
+                UrlRepository repository = app.getBean(UrlRepository.class);
+                for (int i = 0; i < entries; i++) {
+                    repository.save(new ShortenedUrl("code" + i, "https://site" + (i % 5_000) + ".com/page/" + i,
+                            "site" + (i % 5_000) + ".com"));
+                }
+                String base = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+                run(base, entries, false, "warm-up");
+                run(base, entries, false, (limited ? "limited" : "unlimited") + ", redirects only");
+                run(base, entries, true, (limited ? "limited" : "unlimited") + ", overloaded");
+                if (limited) {
+                    AdaptiveConcurrencyLimiter limiter = app.getBean(AdaptiveConcurrencyLimiter.class);
+                    System.out.printf("  final limit %d%n", limiter.limit());
+                }
+            } finally {
+                app.close();
+            }
+        }
+    }
+
+    private static void run(String base, int entries, boolean overload, String label) throws Exception {
+        HttpClient http = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER).build();
+        AtomicBoolean stop = new AtomicBoolean();
+        ConcurrentLinkedQueue<long[]> latencies = new ConcurrentLinkedQueue<>();
+        LongAdder metricsOk = new LongAdder();
+        LongAdder metricsShed = new LongAdder();
+        LongAdder shortenOk = new LongAdder();
+        LongAdder shortenShed = new LongAdder();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int c = 0; c < REDIRECT_CLIENTS; c++) {
+            int seed = c;
+            threads.add(new Thread(() -> {
+                long[] samples = new long[1 << 20];
+                int count = 0;
+                int i = seed * 7919;
+                while (!stop.get() && count < samples.length) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/code" + (i++ % entries))).build();
+                    long start = System.nanoTime();
+                    send(http, request);
+                    samples[count++] = System.nanoTime() - start;
+                }
+                latencies.add(Arrays.copyOf(samples, count));
+            }));
+        }
+        if (overload) {
+            for (int c = 0; c < METRICS_CLIENTS; c++) {
+                threads.add(new Thread(() -> {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/metrics/top-domains")).build();
+                    while (!stop.get()) {
+                        count(send(http, request), 200, metricsOk, metricsShed);
+                    }
+                }));
+            }
+            for (int c = 0; c < SHORTEN_CLIENTS; c++) {
+                int client = c;
+                threads.add(new Thread(() -> {
+                    for (int i = 0; !stop.get(); i++) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/shorten"))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(
+                                        "{\"url\": \"https://load.com/" + client + "/" + i + "\"}"))
+                                .build();
+                        count(send(http, request), 201, shortenOk, shortenShed);
+                    }
+                }));
+            }
+        }
+        threads.forEach(Thread::start);
+        Thread.sleep(PHASE_MILLIS);
+        stop.set(true);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("  %-30s redirects %,7d (%,6.0f/s)  p50 %,7d us  p99 %,7d us",
+                label, all.length, all.length * 1000.0 / PHASE_MILLIS,
+                all[all.length / 2] / 1_000, all[(int) (all.length * 0.99)] / 1_000);
+        if (overload) {
+            System.out.printf("   metrics %,d ok / %,d shed   shorten %,d ok / %,d shed",
+                    metricsOk.sum(), metricsShed.sum(), shortenOk.sum(), shortenShed.sum());
+        }
+        System.out.println();
+    }
+
+    /** Counts the response; after a 503, waits briefly, as Retry-After asks, though far less than a second. */
+    private static void count(int status, int expected, LongAdder ok, LongAdder shed) {
+        if (status == expected) {
+            ok.increment();
+            return;
+        }
+        shed.increment();
+        try {
+            Thread.sleep(BACKOFF_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int send(HttpClient http, HttpRequest request) {
+        try {
+            return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.urlshortener.ratelimit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the per-request cost of the rate limiter at high request rates.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=RateLimiterBenchmark
+ */
+@Tag("benchmark")
+class RateLimiterBenchmark {
+
+    private static final int OPS_PER_THREAD = 5_000_000;
+
+    @Test
+    void rateLimiterOverhead() throws Exception {
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        // warm-up
+        run(threads, 1_000);
+
+        System.out.printf("threads=%d%n", threads);
+        run(threads, 1);           // every thread hammers one hot client (CAS contention)
+        run(threads, 10_000);      // many clients, all known
+        run(threads, 1_000_000);    // churn through keys: exercises insert, sweep and overflow
+    }
+
+    private void run(int threads, int clients) throws Exception {
+        ClientRateLimiter limiter = new ClientRateLimiter(1e9, 1_000, 100_000, 60, TimeUnit.SECONDS);
+        String[] keys = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            keys[i] = "ip:10." + (i >> 16) + "." + ((i >> 8) & 0xFF) + "." + (i & 0xFF);
+        }
+        LongAdder rejected = new LongAdder();
+        CountDownLatch done = new CountDownLatch(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int offset = t * 7919;
+            new Thread(() -> {
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    if (limiter.tryAcquire(keys[(i + offset) % clients]) > 0) {
+                        rejected.increment();
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        long ops = (long) threads * OPS_PER_THREAD;
+        System.out.printf("clients=%,9d  %,.0f ops/s  %.1f ns/op (per thread)  rejected=%d  tracked=%d%n",
+                clients, ops / (elapsed / 1e9), (double) elapsed * threads / ops, rejected.sum(),
+                limiter.trackedClients());
+    }
+}
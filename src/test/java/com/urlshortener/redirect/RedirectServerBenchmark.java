@@ -0,0 +1,132 @@
+package com.urlshortener.redirect;
+
+import com.urlshortener.UrlShortenerApplication;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.UrlRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Redirect throughput and latency over HTTP, through Spring MVC on the main
+ * port and through the NIO redirect listener, in the same application.
+ *
+ * Clients hold keep-alive connections and send one request at a time over
+ * raw sockets, so the client side costs the same for both servers. Tomcat's
+ * limit of 100 requests per connection is lifted for the same reason.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=RedirectServerBenchmark -DargLine=-Xmx4g
+ * (-Dbenchmark.entries=100000 for a smaller heap)
+ */
+@Tag("benchmark")
+class RedirectServerBenchmark {
+
+    private static final int[] CLIENTS = { 1, 16 };
+    private static final long PHASE_MILLIS = 10_000;
+
+    @Test
+    void springVersusRedirectListener() throws Exception {
+        int entries = Integer.getInteger("benchmark.entries", 300_000);
+        ConfigurableApplicationContext app = new SpringApplicationBuilder(UrlShortenerApplication.class)
+                .run("--server.port=0", "--server.tomcat.max-keep-alive-requests=-1",
+                        "--app.redirect-server.enabled=true", "--app.redirect-server.port=0",
+                        "--app.rate-limit.enabled=false", "--app.concurrency-limit.enabled=false",
+                        "--logging.level.root=WARN");
+        try {
+            UrlRepository repository = app.getBean(UrlRepository.class);
+            for (int i = 0; i < entries; i++) {
+                repository.save(new ShortenedUrl("code" + i, "https://site" + (i % 5_000) + ".com/page/" + i,
+                        "site" + (i % 5_000) + ".com"));
+            }
+            int springPort = Integer.parseInt(app.getEnvironment().getProperty("local.server.port"));
+            int nioPort = app.getBean(RedirectServer.class).getPort();
+            System.out.printf("entries=%,d  cpus=%d%n", entries, Runtime.getRuntime().availableProcessors());
+            run("warm-up spring", springPort, entries, 4);
+            run("warm-up nio", nioPort, entries, 4);
+            for (int clients : CLIENTS) {
+                run("spring", springPort, entries, clients);
+                run("nio", nioPort, entries, clients);
+            }
+        } finally {
+            app.close();
+        }
+    }
+
+    private static void run(String label, int port, int entries, int clients) throws Exception {
+        AtomicBoolean stop = new AtomicBoolean();
+        ConcurrentLinkedQueue<long[]> latencies = new ConcurrentLinkedQueue<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            int seed = c;
+            threads.add(new Thread(() -> {
+                long[] samples = new long[1 << 22];
+                int count = 0;
+                try (Socket socket = new Socket("localhost", port)) {
+                    socket.setTcpNoDelay(true);
+                    OutputStream out = socket.getOutputStream();
+                    InputStream in = new BufferedInputStream(socket.getInputStream());
+                    int i = seed * 7919;
+                    while (!stop.get() && count < samples.length) {
+                        byte[] request = ("GET /code" + (i++ % entries) + " HTTP/1.1\r\nHost: localhost\r\n\r\n")
+                                .getBytes(StandardCharsets.US_ASCII);
+                        long start = System.nanoTime();
+                        out.write(request);
+                        out.flush();
+                        readResponse(in);
+                        samples[count++] = System.nanoTime() - start;
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+                latencies.add(Arrays.copyOf(samples, count));
+            }));
+        }
+        threads.forEach(Thread::start);
+        Thread.sleep(PHASE_MILLIS);
+        stop.set(true);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("  %-15s clients=%2d  %,8.0f redirects/s  p50 %,6d us  p99 %,6d us  p99.9 %,6d us%n",
+                label, clients, all.length * 1000.0 / PHASE_MILLIS, all[all.length / 2] / 1_000,
+                all[(int) (all.length * 0.99)] / 1_000, all[(int) (all.length * 0.999)] / 1_000);
+    }
+
+    /**
+     * Reads one response head and its Content-Length body, and checks it is a 302.
+     */
+    private static void readResponse(InputStream in) throws IOException {
+        StringBuilder head = new StringBuilder(256);
+        while (head.length() < 4 || head.lastIndexOf("\r\n\r\n") != head.length() - 4) {
+            int b = in.read();
+            if (b < 0) {
+                throw new IOException("Connection closed");
+            }
+            head.append((char) b);
+        }
+        if (!head.toString().startsWith("HTTP/1.1 302")) {
+            throw new IOException("Unexpected response: " + head);
+        }
+        String lower = head.toString().toLowerCase();
+        int index = lower.indexOf("content-length:");
+        if (index >= 0) {
+            int end = lower.indexOf('\r', index);
+            long length = Long.parseLong(lower.substring(index + 15, end).trim());
+            in.skipNBytes(length);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.urlshortener.redirect;
+
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.InMemoryUrlRepository;
+import com.urlshortener.services.UrlShortenerService;
+import com.urlshortener.tenant.Tenant;
+import com.urlshortener.tenant.TenantRegistry;
+import com.urlshortener.visitors.UniqueVisitorCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedirectServerTest {
+
+    private InMemoryUrlRepository repository;
+    private UniqueVisitorCounter visitors;
+    private RedirectServer server;
+
+    @BeforeEach
+    void setup() throws IOException {
+        repository = new InMemoryUrlRepository();
+        repository.save(new ShortenedUrl("aB3cD4e", "https://www.youtube.com/watch?v=dQw4w9WgXcQ", "youtube.com"));
+        repository.save(new ShortenedUrl("acme~aB3cD4e", "acme~https://acme.com/launch", "acme~acme.com"));
+        TenantRegistry tenants = new TenantRegistry(Tenant.defaultTenant("http://localhost:8080"));
+        tenants.register(new Tenant("acme", "https://go.acme.com", 0), List.of("go.acme.com"), List.of());
+        visitors = new UniqueVisitorCounter(12, 7);
+        server = new RedirectServer(new UrlShortenerService(repository, "http://localhost:8080"),
+                tenants, visitors, 0, 1);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+    }
+
+    // ----------------------------------------------------
+    // 1️⃣ Known Codes Redirect, Unknown Ones 404
+    // ----------------------------------------------------
+    @Test
+    void shouldRedirectKnownCodesAndRejectOthers() throws Exception {
+
+        assertEquals("HTTP/1.1 302 Found\r\nContent-Length: 0\r\n"
+                        + "Location: https://www.youtube.com/watch?v=dQw4w9WgXcQ\r\nConnection: close\r\n\r\n",
+                exchange("GET /aB3cD4e?utm_source=qr HTTP/1.1\r\nHost: sho.rt\r\nConnection: close\r\n\r\n"));
+
+        String notFound = exchange("GET /missing HTTP/1.0\r\n\r\n");
+        assertTrue(notFound.startsWith("HTTP/1.1 404 Not Found\r\n"), notFound);
+        assertTrue(notFound.endsWith("\"message\":\"Short code not found\"}"), notFound);
+        assertTrue(exchange("GET /a/b HTTP/1.0\r\n\r\n").startsWith("HTTP/1.1 404 "));
+        assertTrue(exchange("HEAD /missing HTTP/1.0\r\n\r\n").endsWith("\r\n\r\n"));
+        assertTrue(exchange("POST /aB3cD4e HTTP/1.1\r\nContent-Length: 2\r\n\r\n{}")
+                .startsWith("HTTP/1.1 405 Method Not Allowed\r\nAllow: GET, HEAD\r\n"));
+        assertTrue(exchange("nonsense\r\n\r\n").startsWith("HTTP/1.1 400 "));
+        assertTrue(exchange("GET /" + "x".repeat(RedirectServer.MAX_REQUEST_BYTES) + " HTTP/1.1\r\n\r\n")
+                .startsWith("HTTP/1.1 431 "));
+        assertEquals(1, server.redirects());
+        assertEquals(3, server.notFound());
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Keep-Alive Serves Pipelined And Split Requests In Order
+    // ----------------------------------------------------
+    @Test
+    void shouldServePipelinedRequestsOnOneConnection() throws Exception {
+
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            OutputStream out = socket.getOutputStream();
+            out.write(ascii("GET /aB3cD4e HTTP/1.1\r\nHost: sho.rt\r\n\r\n"
+                    + "GET /nope HTTP/1.1\r\nHost: sho.rt\r\n\r\nGET /aB3c"));
+            out.flush();
+            Thread.sleep(50);
+            out.write(ascii("D4e HTTP/1.1\r\nHost: go.acme.com:8081\r\n\r\n"));
+            out.write(ascii("HEAD /aB3cD4e HTTP/1.1\r\nhost: sho.rt\r\nConnection: close\r\n\r\n"));
+            out.flush();
+
+            String responses = new String(socket.getInputStream().readAllBytes(), StandardCharsets.US_ASCII);
+            String[] parts = responses.split("HTTP/1.1 ");
+            assertEquals(5, parts.length, responses);
+            assertTrue(parts[1].contains("Location: https://www.youtube.com/watch?v=dQw4w9WgXcQ\r\n"));
+            assertTrue(parts[2].startsWith("404 "));
+            assertTrue(parts[3].contains("Location: https://acme.com/launch\r\n"));
+            assertTrue(parts[4].startsWith("302 ") && parts[4].endsWith("Connection: close\r\n\r\n"));
+        }
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ Visitors Are Counted Per Tenant Key
+    // ----------------------------------------------------
+    @Test
+    void shouldCountVisitorsLikeTheSpringPath() throws Exception {
+
+        exchange("GET /aB3cD4e HTTP/1.1\r\nX-Visitor-Id: v1\r\nConnection: close\r\n\r\n");
+        exchange("GET /aB3cD4e HTTP/1.1\r\nX-Visitor-Id: v2\r\nConnection: close\r\n\r\n");
+        exchange("GET /aB3cD4e HTTP/1.1\r\nHost: go.acme.com\r\nX-Visitor-Id: v1\r\nConnection: close\r\n\r\n");
+        exchange("GET /missing HTTP/1.1\r\nX-Visitor-Id: v3\r\nConnection: close\r\n\r\n");
+
+        assertEquals(2, visitors.sketch("aB3cD4e", 1).orElseThrow().estimate());
+        assertEquals(1, visitors.sketch("acme~aB3cD4e", 1).orElseThrow().estimate());
+        assertTrue(visitors.sketch("missing", 1).isEmpty());
+    }
+
+    // ----------------------------------------------------
+    // 4️⃣ Non-ASCII Locations Are Percent-Encoded
+    // ----------------------------------------------------
+    @Test
+    void shouldEncodeNonAsciiLocation() {
+
+        assertEquals("https://example.com/caf%C3%A9?q=%C3%BC", RedirectServer.location("https://example.com/café?q=ü"));
+        assertEquals("https://example.com/a?b=c", RedirectServer.location("https://example.com/a?b=c"));
+        byte[] target = ascii("/spring-sale_2?x=/y");
+        assertEquals("spring-sale_2", RedirectServer.shortCode(target, 0, target.length));
+        byte[] encoded = ascii("/a%20b");
+        assertNull(RedirectServer.shortCode(encoded, 0, encoded.length));
+    }
+
+    private String exchange(String request) throws IOException {
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            socket.getOutputStream().write(ascii(request));
+            socket.getOutputStream().flush();
+            InputStream in = socket.getInputStream();
+            ByteArrayOutputStream response = new ByteArrayOutputStream();
+            in.transferTo(response);
+            return response.toString(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,253 @@
+package com.urlshortener.replication;
+
+import com.urlshortener.UrlShortenerApplication;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.InMemoryUrlRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.BindException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs a leader and several followers on localhost, each with its own repository.
+ */
+class ReplicationTest {
+
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (AutoCloseable resource : resources) {
+            resource.close();
+        }
+    }
+
+    // ----------------------------------------------------
+    // 1️⃣ Saves Reach Every Follower
+    // ----------------------------------------------------
+    @Test
+    void shouldReplicateSavesToAllFollowers() throws Exception {
+
+        InMemoryUrlRepository leaderRepo = new InMemoryUrlRepository();
+        ReplicationLeader leader = track(new ReplicationLeader(leaderRepo, 0, 1 << 16, 64, 1_024));
+
+        InMemoryUrlRepository followerRepo1 = new InMemoryUrlRepository();
+        InMemoryUrlRepository followerRepo2 = new InMemoryUrlRepository();
+        ReplicationFollower follower1 = track(new ReplicationFollower(followerRepo1, "localhost", leader.getPort()));
+        ReplicationFollower follower2 = track(new ReplicationFollower(followerRepo2, "localhost", leader.getPort()));
+
+        for (int i = 0; i < 5_000; i++) {
+            leaderRepo.save(new ShortenedUrl("code" + i, "https://example.com/" + i, "example.com"));
+        }
+
+        long head = leader.headSequence();
+        assertTrue(follower1.awaitSequence(head, 10, TimeUnit.SECONDS));
+        assertTrue(follower2.awaitSequence(head, 10, TimeUnit.SECONDS));
+
+        assertEquals(5_000, followerRepo1.findAll().size());
+        assertEquals(5_000, followerRepo2.findAll().size());
+        assertEquals("https://example.com/4999",
+                followerRepo2.findByShortCode("code4999").get().getOriginalUrl());
+        assertEquals(0, follower1.lagEvents());
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Removals, Aliases And createdAt Are Preserved
+    // ----------------------------------------------------
+    @Test
+    void shouldReplicateRemovalsAndMappingDetails() throws Exception {
+
+        InMemoryUrlRepository leaderRepo = new InMemoryUrlRepository();
+        ReplicationLeader leader = track(new ReplicationLeader(leaderRepo, 0, 1_024, 64, 1_024));
+        InMemoryUrlRepository followerRepo = new InMemoryUrlRepository();
+        ReplicationFollower follower = track(new ReplicationFollower(followerRepo, "localhost", leader.getPort()));
+
+        ShortenedUrl alias = new ShortenedUrl("spring-sale", "https://shop.com/sale", "shop.com", true);
+        leaderRepo.save(alias);
+        leaderRepo.save(new ShortenedUrl("gone123", "https://example.com", "example.com"));
+        leaderRepo.deleteByShortCode("gone123");
+
+        assertTrue(follower.awaitSequence(leader.headSequence(), 10, TimeUnit.SECONDS));
+
+        ShortenedUrl replicated = followerRepo.findByShortCode("spring-sale").get();
+        assertTrue(replicated.isAlias());
+        assertEquals(alias.getCreatedAt().toEpochMilli(), replicated.getCreatedAt().toEpochMilli());
+        assertEquals(List.of("spring-sale"), followerRepo.findAliasesByPrefix("spring", 10));
+        assertFalse(followerRepo.existsByShortCode("gone123"));
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ Late Follower Catches Up From A Snapshot
+    // ----------------------------------------------------
+    @Test
+    void shouldSnapshotForFollowerThatMissedTheLog() throws Exception {
+
+        InMemoryUrlRepository leaderRepo = new InMemoryUrlRepository();
+        // Log retains far fewer events than were written before the follower joined.
+        ReplicationLeader leader = track(new ReplicationLeader(leaderRepo, 0, 128, 64, 1_024));
+        for (int i = 0; i < 2_000; i++) {
+            leaderRepo.save(new ShortenedUrl("code" + i, "https://example.com/" + i, "example.com"));
+        }
+
+        InMemoryUrlRepository followerRepo = new InMemoryUrlRepository();
+        ReplicationFollower follower = track(new ReplicationFollower(followerRepo, "localhost", leader.getPort()));
+        assertTrue(follower.awaitSequence(leader.headSequence(), 10, TimeUnit.SECONDS));
+
+        leaderRepo.save(new ShortenedUrl("after1", "https://example.com/after", "example.com"));
+        assertTrue(follower.awaitSequence(leader.headSequence(), 10, TimeUnit.SECONDS));
+
+        assertEquals(2_001, followerRepo.findAll().size());
+    }
+
+    // ----------------------------------------------------
+    // 4️⃣ A Restarted Leader Resyncs Followers Ahead Of It
+    // ----------------------------------------------------
+    @Test
+    void shouldResyncFollowerAheadOfRestartedLeader() throws Exception {
+
+        InMemoryUrlRepository leaderRepo = new InMemoryUrlRepository();
+        ReplicationLeader leader = new ReplicationLeader(leaderRepo, 0, 1_024, 64, 1_024);
+        int port = leader.getPort();
+        InMemoryUrlRepository followerRepo = new InMemoryUrlRepository();
+        ReplicationFollower follower = track(new ReplicationFollower(followerRepo, "localhost", port));
+        for (int i = 0; i < 100; i++) {
+            leaderRepo.save(new ShortenedUrl("code" + i, "https://example.com/" + i, "example.com"));
+        }
+        assertTrue(follower.awaitSequence(100, 10, TimeUnit.SECONDS));
+        leader.close();
+
+        // Restarted with durable storage that missed the last deletes; its log starts again at 1
+        InMemoryUrlRepository restartedRepo = new InMemoryUrlRepository();
+        for (int i = 0; i < 50; i++) {
+            restartedRepo.save(new ShortenedUrl("code" + i, "https://example.com/" + i, "example.com"));
+        }
+        ReplicationLeader restarted = null;
+        // The old listener's port is released once its accept thread notices the close
+        for (int attempt = 0; restarted == null; attempt++) {
+            try {
+                restarted = track(new ReplicationLeader(restartedRepo, port, 1_024, 64, 1_024));
+            } catch (BindException e) {
+                if (attempt == 100) {
+                    throw e;
+                }
+                Thread.sleep(50);
+            }
+        }
+        restartedRepo.save(new ShortenedUrl("fresh", "https://example.com/fresh", "example.com"));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while ((follower.appliedSequence() != restarted.headSequence() || followerRepo.findAll().size() != 51)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(restarted.headSequence(), follower.appliedSequence());
+        assertEquals(51, followerRepo.findAll().size());
+        assertTrue(followerRepo.findByShortCode("fresh").isPresent());
+        assertTrue(followerRepo.findByShortCode("code99").isEmpty());
+    }
+
+    // ----------------------------------------------------
+    // 5️⃣ A Restarted Leader Resyncs Followers Behind Its New Head
+    // ----------------------------------------------------
+    @Test
+    void shouldResyncFollowerWhenRestartedLeaderPassedItsSequence() throws Exception {
+
+        InMemoryUrlRepository leaderRepo = new InMemoryUrlRepository();
+        ReplicationLeader leader = new ReplicationLeader(leaderRepo, 0, 1_024, 64, 1_024);
+        int port = leader.getPort();
+        InMemoryUrlRepository followerRepo = new InMemoryUrlRepository();
+        ReplicationFollower follower = track(new ReplicationFollower(followerRepo, "localhost", port));
+        for (int i = 0; i < 5; i++) {
+            leaderRepo.save(new ShortenedUrl("old" + i, "https://example.com/old/" + i, "example.com"));
+        }
+        assertTrue(follower.awaitSequence(5, 10, TimeUnit.SECONDS));
+        leader.close();
+
+        // Restarted empty; its new log is past sequence 5 before the follower reconnects
+        InMemoryUrlRepository restartedRepo = new InMemoryUrlRepository();
+        ReplicationLeader restarted = null;
+        for (int attempt = 0; restarted == null; attempt++) {
+            try {
+                restarted = track(new ReplicationLeader(restartedRepo, port, 1_024, 64, 1_024));
+            } catch (BindException e) {
+                if (attempt == 100) {
+                    throw e;
+                }
+                Thread.sleep(50);
+            }
+        }
+        for (int i = 0; i < 20; i++) {
+            restartedRepo.save(new ShortenedUrl("new" + i, "https://example.com/new/" + i, "example.com"));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while ((follower.appliedSequence() != restarted.headSequence() || followerRepo.findAll().size() != 20)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(20, followerRepo.findAll().size());
+        assertTrue(followerRepo.findByShortCode("new0").isPresent());
+        assertTrue(followerRepo.findByShortCode("old0").isEmpty());
+    }
+
+    // ----------------------------------------------------
+    // 6️⃣ Two Application Instances On Localhost
+    // ----------------------------------------------------
+    @Test
+    void shouldRedirectOnFollowerInstanceForCodeCreatedOnLeader() throws Exception {
+
+        ConfigurableApplicationContext leaderApp = track(new SpringApplicationBuilder(UrlShortenerApplication.class)
+                .run("--server.port=0", "--app.replication.role=leader", "--app.replication.port=0"));
+        int replicationPort = leaderApp.getBean(ReplicationLeader.class).getPort();
+
+        ConfigurableApplicationContext followerApp = track(new SpringApplicationBuilder(UrlShortenerApplication.class)
+                .run("--server.port=0", "--app.replication.role=follower",
+                        "--app.replication.leader-port=" + replicationPort));
+
+        HttpClient http = HttpClient.newHttpClient();
+        HttpResponse<String> created = http.send(HttpRequest.newBuilder(URI.create(baseUrl(leaderApp) + "/shorten"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"url\": \"https://udemy.com/course/java\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, created.statusCode());
+        String shortCode = created.body().replaceAll(".*/([A-Za-z0-9]{7})\".*", "$1");
+
+        ReplicationLeader leader = leaderApp.getBean(ReplicationLeader.class);
+        ReplicationFollower follower = followerApp.getBean(ReplicationFollower.class);
+        assertTrue(follower.awaitSequence(leader.headSequence(), 10, TimeUnit.SECONDS));
+
+        HttpResponse<Void> redirect = http.send(
+                HttpRequest.newBuilder(URI.create(baseUrl(followerApp) + "/" + shortCode)).GET().build(),
+                HttpResponse.BodyHandlers.discarding());
+        assertEquals(302, redirect.statusCode());
+        assertEquals("https://udemy.com/course/java", redirect.headers().firstValue("Location").orElseThrow());
+
+        HttpResponse<String> status = http.send(
+                HttpRequest.newBuilder(URI.create(baseUrl(followerApp) + "/admin/replication")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertTrue(status.body().contains("\"role\":\"follower\""));
+        assertTrue(status.body().contains("\"lagEvents\":0"));
+    }
+
+    private static String baseUrl(ConfigurableApplicationContext app) {
+        return "http://localhost:" + ((ServletWebServerApplicationContext) app).getWebServer().getPort();
+    }
+
+    private <T extends AutoCloseable> T track(T resource) {
+        resources.add(0, resource);    // close in reverse order of creation
+        return resource;
+    }
+}
@@ -0,0 +1,63 @@
+package com.urlshortener.replication;
+
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.InMemoryUrlRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures replication stream throughput from one leader to two followers on localhost.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=ReplicationThroughputBenchmark
+ */
+@Tag("benchmark")
+class ReplicationThroughputBenchmark {
+
+    private static final int EVENTS = 1_000_000;
+
+    @Test
+    void replicationThroughput() throws Exception {
+        for (int batchSize : new int[] { 1, 64, 512 }) {
+            run(batchSize);
+        }
+    }
+
+    private void run(int batchSize) throws Exception {
+        InMemoryUrlRepository leaderRepo = new InMemoryUrlRepository();
+        try (ReplicationLeader leader = new ReplicationLeader(leaderRepo, 0, 1 << 21, batchSize, 1 << 16);
+             ReplicationFollower f1 = new ReplicationFollower(new InMemoryUrlRepository(), "localhost", leader.getPort());
+             ReplicationFollower f2 = new ReplicationFollower(new InMemoryUrlRepository(), "localhost", leader.getPort())) {
+
+            // Let both followers finish their (empty) initial snapshot.
+            while (!f1.isConnected() || !f2.isConnected()) {
+                Thread.sleep(5);
+            }
+            Thread.sleep(100);
+
+            List<ShortenedUrl> mappings = new ArrayList<>(EVENTS);
+            for (int i = 0; i < EVENTS; i++) {
+                mappings.add(new ShortenedUrl("c" + i,
+                        "https://www.example.com/articles/" + i + "?utm_source=newsletter", "example.com"));
+            }
+
+            long start = System.nanoTime();
+            for (ShortenedUrl mapping : mappings) {
+                leaderRepo.save(mapping);
+            }
+            long written = System.nanoTime();
+            assertTrue(f1.awaitSequence(EVENTS, 60, TimeUnit.SECONDS));
+            assertTrue(f2.awaitSequence(EVENTS, 60, TimeUnit.SECONDS));
+            long replicated = System.nanoTime();
+
+            double seconds = (replicated - start) / 1e9;
+            System.out.printf("batch=%4d  leader writes %.0f ms, both followers caught up after %.0f ms: %,.0f events/s per follower%n",
+                    batchSize, (written - start) / 1e6, seconds * 1e3, EVENTS / seconds);
+        }
+    }
+}
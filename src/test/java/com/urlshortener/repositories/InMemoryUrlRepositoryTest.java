@@ -1,11 +1,17 @@
 package com.urlshortener.repositories;
 
+import com.urlshortener.memory.MemoryEstimator;
+import com.urlshortener.memory.StructureFootprint;
 import com.urlshortener.models.ShortenedUrl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -128,4 +134,114 @@ class InMemoryUrlRepositoryTest {
                 result.get().getOriginalUrl());
     }
 
+    // ----------------------------------------------------
+    // 6️⃣ Save If Absent
+    // ----------------------------------------------------
+    @Test
+    void shouldNotOverwriteWhenSavingIfAbsent() {
+
+        ShortenedUrl generated =
+                new ShortenedUrl("summer1",
+                        "https://youtube.com",
+                        "youtube.com");
+
+        ShortenedUrl alias =
+                new ShortenedUrl("summer1",
+                        "https://udemy.com",
+                        "udemy.com",
+                        true);
+
+        assertTrue(repository.saveIfAbsent(generated));
+        assertFalse(repository.saveIfAbsent(alias));
+
+        assertEquals("https://youtube.com",
+                repository.findByShortCode("summer1").get().getOriginalUrl());
+        assertEquals(0, repository.countAliasesByPrefix("summer"));
+    }
+
+    // ----------------------------------------------------
+    // 7️⃣ Aliases By Prefix
+    // ----------------------------------------------------
+    @Test
+    void shouldListAliasesByPrefixWithoutIndexingThemByUrl() {
+
+        repository.saveIfAbsent(new ShortenedUrl("spring-sale",
+                "https://shop.com/a", "shop.com", true));
+        repository.saveIfAbsent(new ShortenedUrl("spring-launch",
+                "https://shop.com/b", "shop.com", true));
+        repository.saveIfAbsent(new ShortenedUrl("summer",
+                "https://shop.com/c", "shop.com", true));
+
+        assertEquals(List.of("spring-launch", "spring-sale"),
+                repository.findAliasesByPrefix("spring", 10));
+        assertEquals(3, repository.countAliasesByPrefix("s"));
+        assertTrue(repository.findByOriginalUrl("https://shop.com/a").isEmpty());
+    }
+
+    // ----------------------------------------------------
+    // 8️⃣ Delete By Short Code
+    // ----------------------------------------------------
+    @Test
+    void shouldDeleteFromBothIndexes() {
+
+        repository.save(new ShortenedUrl("abc1234",
+                "https://youtube.com", "youtube.com"));
+
+        assertTrue(repository.deleteByShortCode("abc1234").isPresent());
+        assertTrue(repository.deleteByShortCode("abc1234").isEmpty());
+
+        assertFalse(repository.existsByShortCode("abc1234"));
+        assertTrue(repository.findByOriginalUrl("https://youtube.com").isEmpty());
+    }
+
+    // ----------------------------------------------------
+    // 9️⃣ Count By Domain
+    // ----------------------------------------------------
+    @Test
+    void shouldCountMappingsPerDomain() {
+
+        repository.save(new ShortenedUrl("a1", "https://youtube.com/a", "youtube.com"));
+        repository.save(new ShortenedUrl("a2", "https://youtube.com/b", "youtube.com"));
+        repository.save(new ShortenedUrl("a3", "https://udemy.com/a", "udemy.com"));
+
+        assertEquals(Map.of("youtube.com", 2L, "udemy.com", 1L),
+                repository.countByDomain());
+    }
+
+    // ----------------------------------------------------
+    // 🔟 Memory Footprint Follows Saves And Deletes
+    // ----------------------------------------------------
+    @Test
+    void shouldTrackMemoryFootprintIncrementally() {
+
+        assertEquals(0, totalBytes());
+
+        ShortenedUrl url = new ShortenedUrl("abc1234", "https://youtube.com", "youtube.com");
+        repository.save(url);
+        repository.save(new ShortenedUrl("spring-sale", "https://shop.com/sale", "shop.com", true));
+
+        Map<String, StructureFootprint> byName = repository.memoryFootprint().stream()
+                .collect(Collectors.toMap(StructureFootprint::name, Function.identity()));
+        assertEquals(2, byName.get("mappings").entries());
+        assertEquals(MemoryEstimator.shortenedUrl(url)
+                        + MemoryEstimator.shortenedUrl(repository.findByShortCode("spring-sale").get()),
+                byName.get("mappings").bytes());
+        assertEquals(1, byName.get("byOriginalUrl").entries());
+        assertEquals(1, byName.get("aliasTrie").entries());
+        assertEquals(MemoryEstimator.radixTrieKey("spring-sale"), byName.get("aliasTrie").bytes());
+
+        // overwriting replaces the old estimate rather than adding to it
+        long before = totalBytes();
+        repository.save(new ShortenedUrl("abc1234", "https://youtube.com", "youtube.com"));
+        assertEquals(before, totalBytes());
+
+        repository.deleteByShortCode("abc1234");
+        repository.deleteByShortCode("spring-sale");
+        assertEquals(0, totalBytes());
+    }
+
+    private long totalBytes() {
+        return repository.memoryFootprint().stream().mapToLong(StructureFootprint::bytes).sum();
+    }
+
 }
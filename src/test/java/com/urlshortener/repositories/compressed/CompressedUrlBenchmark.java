@@ -0,0 +1,118 @@
+package com.urlshortener.repositories.compressed;
+
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.InMemoryUrlRepository;
+import com.urlshortener.repositories.UrlRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compression ratio, heap per mapping and resolve latency of the compressed
+ * repository against the in-memory one, on a {@link UrlCorpus} of video,
+ * shop, news, code, blog and document links averaging about 80 bytes.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=CompressedUrlBenchmark -DargLine=-Xmx4g
+ * (-Dbenchmark.entries=1000000 for a smaller heap)
+ */
+@Tag("benchmark")
+class CompressedUrlBenchmark {
+
+    private static final int LOOKUPS = 2_000_000;
+
+    private static volatile Object sink;
+
+    @Test
+    void compressionAndResolveCost() {
+        int entries = Integer.getInteger("benchmark.entries", 2_000_000);
+        List<String> urls = UrlCorpus.generate(entries, 2);
+        UrlDictionary dictionary = UrlDictionary.train(UrlCorpus.generate(5_000, 1));
+
+        long original = 0;
+        long encoded = 0;
+        byte[][] encodings = new byte[100_000][];
+        for (int i = 0; i < entries; i++) {
+            byte[] bytes = dictionary.encode(urls.get(i), 0);
+            original += urls.get(i).getBytes(StandardCharsets.UTF_8).length;
+            encoded += bytes.length;
+            if (i < encodings.length) {
+                encodings[i] = bytes;
+            }
+        }
+        System.out.printf("entries=%,d  URL bytes %,d -> %,d  ratio %.2f  (%.1f -> %.1f bytes per URL)%n",
+                entries, original, encoded, (double) original / encoded, (double) original / entries,
+                (double) encoded / entries);
+
+        // Decode alone, warmed up first
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            for (int r = 0; r < 20; r++) {
+                for (byte[] bytes : encodings) {
+                    sink = dictionary.decode(bytes, 0);
+                }
+            }
+            if (round == 1) {
+                System.out.printf("  decode: %.0f ns per URL%n", (System.nanoTime() - start) / (20.0 * encodings.length));
+            }
+        }
+
+        long heapBefore = usedHeapAfterGc();
+        InMemoryUrlRepository plain = new InMemoryUrlRepository();
+        fill(plain, urls);
+        long plainHeap = usedHeapAfterGc() - heapBefore;
+        long[] plainLatency = lookups(plain, entries);
+        plain = null;
+
+        heapBefore = usedHeapAfterGc();
+        CompressedUrlRepository compressed = new CompressedUrlRepository(dictionary);
+        fill(compressed, urls);
+        long compressedHeap = usedHeapAfterGc() - heapBefore;
+        long[] compressedLatency = lookups(compressed, entries);
+
+        System.out.printf("  in-memory:  %,4d bytes per mapping   findByShortCode p50 %,5d ns  p99 %,5d ns%n",
+                plainHeap / entries, plainLatency[0], plainLatency[1]);
+        System.out.printf("  compressed: %,4d bytes per mapping   findByShortCode p50 %,5d ns  p99 %,5d ns%n",
+                compressedHeap / entries, compressedLatency[0], compressedLatency[1]);
+        sink = compressed;
+    }
+
+    private static void fill(UrlRepository repository, List<String> urls) {
+        for (int i = 0; i < urls.size(); i++) {
+            // A fresh copy, so neither repository shares the corpus strings
+            String url = new String(urls.get(i).getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+            repository.save(new ShortenedUrl(code(i), url, UrlCorpus.domain(url)));
+        }
+    }
+
+    /** p50 and p99 of findByShortCode in nanoseconds, after a warm-up pass. */
+    private static long[] lookups(UrlRepository repository, int entries) {
+        long[] nanos = new long[LOOKUPS];
+        for (int round = 0; round < 2; round++) {
+            Random random = new Random(42);
+            for (int i = 0; i < LOOKUPS; i++) {
+                String code = code(random.nextInt(entries));
+                long start = System.nanoTime();
+                sink = repository.findByShortCode(code).orElseThrow().getOriginalUrl();
+                nanos[i] = System.nanoTime() - start;
+            }
+        }
+        Arrays.sort(nanos);
+        return new long[] { nanos[LOOKUPS / 2], nanos[LOOKUPS * 99 / 100] };
+    }
+
+    private static String code(int i) {
+        return "c" + Integer.toString(i, 36);
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
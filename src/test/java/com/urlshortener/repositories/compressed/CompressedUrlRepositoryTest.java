@@ -0,0 +1,150 @@
+package com.urlshortener.repositories.compressed;
+
+import com.urlshortener.memory.StructureFootprint;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.InMemoryUrlRepository;
+import com.urlshortener.repositories.UrlRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedUrlRepositoryTest {
+
+    // ----------------------------------------------------
+    // 1️⃣ Mappings Read Back Exactly As Saved
+    // ----------------------------------------------------
+    @Test
+    void shouldBehaveLikeTheInMemoryRepository() {
+
+        CompressedUrlRepository repository = new CompressedUrlRepository(UrlDictionary.train(UrlCorpus.generate(1_000, 1)));
+        Instant createdAt = Instant.parse("2024-03-01T10:15:30.123Z");
+        repository.save(new ShortenedUrl("abc1234", "https://www.youtube.com/watch?v=dQw4w9WgXcQ", "youtube.com", false, createdAt));
+        repository.save(new ShortenedUrl("promo", "https://shop.com/sale", "shop.com", true));
+        repository.save(new ShortenedUrl("xyz9876", "https://shop.com/cart", "shop.com"));
+
+        ShortenedUrl found = repository.findByShortCode("abc1234").orElseThrow();
+        assertEquals("https://www.youtube.com/watch?v=dQw4w9WgXcQ", found.getOriginalUrl());
+        assertEquals("youtube.com", found.getDomain());
+        assertEquals(createdAt, found.getCreatedAt());
+        assertFalse(found.isAlias());
+        assertEquals("xyz9876", repository.findByOriginalUrl("https://shop.com/cart").orElseThrow().getShortCode());
+        assertTrue(repository.findByOriginalUrl("https://shop.com/sale").isEmpty());     // aliases are not idempotent
+        assertFalse(repository.saveIfAbsent(new ShortenedUrl("promo", "https://other.com", "other.com")));
+        assertEquals(Map.of("youtube.com", 1L, "shop.com", 2L), repository.countByDomain());
+        assertEquals(List.of("promo"), repository.findAliasesByPrefix("pr", 10));
+
+        // Overwrite with another URL, then delete
+        repository.save(new ShortenedUrl("xyz9876", "https://shop.com/checkout", "shop.com"));
+        assertTrue(repository.findByOriginalUrl("https://shop.com/cart").isEmpty());
+        assertEquals("https://shop.com/checkout", repository.deleteByShortCode("xyz9876").orElseThrow().getOriginalUrl());
+        assertTrue(repository.findByOriginalUrl("https://shop.com/checkout").isEmpty());
+        assertEquals(2, repository.findAll().size());
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ URLs Saved Before Training Are Re-Encoded
+    // ----------------------------------------------------
+    @Test
+    void shouldTrainOnFirstUrlsAndReencodeThem() throws InterruptedException {
+
+        CompressedUrlRepository repository = new CompressedUrlRepository(2_000);
+        List<String> urls = UrlCorpus.generate(3_000, 1);
+        for (int i = 0; i < 1_999; i++) {
+            save(repository, i, urls.get(i));
+        }
+        assertFalse(repository.isTrained());
+        assertTrue(repository.compressionRatio() < 1);
+
+        save(repository, 1_999, urls.get(1_999));
+        for (int wait = 0; wait < 500 && repository.compressionRatio() < 2; wait++) {
+            Thread.sleep(10);
+        }
+        for (int i = 2_000; i < 3_000; i++) {
+            save(repository, i, urls.get(i));
+        }
+
+        assertTrue(repository.isTrained());
+        assertTrue(repository.compressionRatio() > 2, "ratio " + repository.compressionRatio());
+        for (int i = 0; i < 3_000; i++) {
+            assertEquals(urls.get(i), repository.findByShortCode("code" + i).orElseThrow().getOriginalUrl());
+            assertEquals("code" + i, repository.findByOriginalUrl(urls.get(i)).orElseThrow().getShortCode());
+        }
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ Far Less Heap Than Plain Strings
+    // ----------------------------------------------------
+    @Test
+    void shouldUseLessMemoryThanInMemoryRepository() {
+
+        CompressedUrlRepository compressed = new CompressedUrlRepository(UrlDictionary.train(UrlCorpus.generate(5_000, 1)));
+        InMemoryUrlRepository plain = new InMemoryUrlRepository();
+        List<String> urls = UrlCorpus.generate(20_000, 2);
+        for (int i = 0; i < urls.size(); i++) {
+            save(compressed, i, urls.get(i));
+            save(plain, i, urls.get(i));
+        }
+
+        long compressedBytes = heap(compressed);
+        long plainBytes = heap(plain);
+        assertTrue(compressedBytes < plainBytes * 2 / 3, compressedBytes + " vs " + plainBytes);
+    }
+
+    // ----------------------------------------------------
+    // 4️⃣ Saves Racing The Training Are Re-Encoded Too
+    // ----------------------------------------------------
+    @Test
+    void shouldReencodeUrlsSavedWhileTraining() throws Exception {
+
+        List<String> urls = UrlCorpus.generate(20_000, 3);
+        for (int round = 0; round < 2; round++) {
+            // Never trains by itself; the test trains it while the writers run
+            CompressedUrlRepository repository = new CompressedUrlRepository(Integer.MAX_VALUE);
+            for (int i = 0; i < 2_000; i++) {
+                save(repository, i, urls.get(i));
+            }
+            int writers = 4;
+            CountDownLatch started = new CountDownLatch(writers);
+            ExecutorService pool = Executors.newFixedThreadPool(writers);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int first = 2_000 + w * 4_500;
+                futures.add(pool.submit(() -> {
+                    started.countDown();
+                    for (int i = first; i < first + 4_500; i++) {
+                        save(repository, i, urls.get(i));
+                    }
+                }));
+            }
+            started.await();
+            repository.train(urls.subList(0, 2_000));
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            pool.shutdown();
+
+            assertEquals(0, repository.rawCount(), "round " + round);
+            for (int i = 0; i < urls.size(); i++) {
+                assertEquals(urls.get(i), repository.findByShortCode("code" + i).orElseThrow().getOriginalUrl());
+                assertEquals("code" + i, repository.findByOriginalUrl(urls.get(i)).orElseThrow().getShortCode());
+            }
+        }
+    }
+
+    private static void save(UrlRepository repository, int i, String url) {
+        repository.save(new ShortenedUrl("code" + i, url, UrlCorpus.domain(url)));
+    }
+
+    private static long heap(UrlRepository repository) {
+        return repository.memoryFootprint().stream().mapToLong(StructureFootprint::bytes).sum();
+    }
+}
@@ -0,0 +1,70 @@
+package com.urlshortener.repositories.compressed;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic but realistically shaped original URLs: video links, shop
+ * product pages, news articles with campaign parameters, code hosting paths,
+ * blog posts and shared documents, with random ids where real ones are random.
+ */
+final class UrlCorpus {
+
+    private static final String[] WORDS = {
+            "spring", "sale", "guide", "best", "new", "how", "to", "java", "performance", "review", "home",
+            "kitchen", "travel", "tips", "2024", "update", "release", "notes", "market", "city", "climate",
+            "report", "budget", "election", "recipe", "easy", "weekend", "summer", "deals", "phone", "laptop" };
+    private static final String[] CAMPAIGNS = { "spring_launch", "weekly_digest", "black_friday", "onboarding" };
+    private static final String ID_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+
+    private UrlCorpus() {
+    }
+
+    static List<String> generate(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> urls = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            urls.add(switch (random.nextInt(6)) {
+                case 0 -> "https://www.youtube.com/watch?v=" + id(random, 11);
+                case 1 -> "https://www.amazon.com/" + slug(random) + "/dp/B0" + id(random, 8).toUpperCase()
+                        + "?ref=sr_1_" + random.nextInt(50) + "&tag=shortener-20";
+                case 2 -> "https://www.nytimes.com/2024/" + two(1 + random.nextInt(12)) + "/" + two(1 + random.nextInt(28))
+                        + "/" + WORDS[random.nextInt(WORDS.length)] + "/" + slug(random)
+                        + ".html?utm_source=newsletter&utm_medium=email&utm_campaign="
+                        + CAMPAIGNS[random.nextInt(CAMPAIGNS.length)];
+                case 3 -> "https://github.com/" + WORDS[random.nextInt(WORDS.length)] + random.nextInt(1000) + "/"
+                        + slug(random) + "/blob/main/src/" + WORDS[random.nextInt(WORDS.length)] + ".java";
+                case 4 -> "https://medium.com/@" + WORDS[random.nextInt(WORDS.length)] + random.nextInt(100) + "/"
+                        + slug(random) + "-" + Long.toHexString(random.nextLong()).substring(0, 12);
+                default -> "https://docs.google.com/document/d/" + id(random, 44) + "/edit?usp=sharing";
+            });
+        }
+        return urls;
+    }
+
+    static String domain(String url) {
+        String host = url.substring(url.indexOf("//") + 2, url.indexOf('/', url.indexOf("//") + 2));
+        return host.startsWith("www.") ? host.substring(4) : host;
+    }
+
+    private static String slug(Random random) {
+        StringBuilder slug = new StringBuilder(WORDS[random.nextInt(WORDS.length)]);
+        for (int words = 2 + random.nextInt(5); words > 0; words--) {
+            slug.append('-').append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return slug.toString();
+    }
+
+    private static String id(Random random, int length) {
+        StringBuilder id = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            id.append(ID_CHARS.charAt(random.nextInt(ID_CHARS.length())));
+        }
+        return id.toString();
+    }
+
+    private static String two(int value) {
+        return value < 10 ? "0" + value : Integer.toString(value);
+    }
+}
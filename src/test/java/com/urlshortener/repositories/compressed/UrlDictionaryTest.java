@@ -0,0 +1,60 @@
+package com.urlshortener.repositories.compressed;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UrlDictionaryTest {
+
+    // ----------------------------------------------------
+    // 1️⃣ Every String Decodes To Itself
+    // ----------------------------------------------------
+    @Test
+    void shouldRoundTripAnyString() {
+
+        UrlDictionary dictionary = UrlDictionary.train(UrlCorpus.generate(2_000, 1));
+        List<String> texts = List.of("", "h", "https://www.youtube.com/watch?v=dQw4w9WgXcQ",
+                "https://例え.jp/パス?q=ü&x=%F0%9F%98%80", "ftp://unseen.example/\u0000ÿ", "😀😀😀");
+        for (String text : texts) {
+            assertEquals(text, dictionary.decode(dictionary.encode(text, 0), 0));
+        }
+        for (String url : UrlCorpus.generate(1_000, 2)) {
+            byte[] encoded = dictionary.encode(url, 3);
+            assertEquals(url, dictionary.decode(encoded, 3));
+        }
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Unseen URLs Of The Same Shape Shrink
+    // ----------------------------------------------------
+    @Test
+    void shouldCompressUrlsLikeTheSample() {
+
+        UrlDictionary dictionary = UrlDictionary.train(UrlCorpus.generate(5_000, 1));
+        long original = 0;
+        long encoded = 0;
+        for (String url : UrlCorpus.generate(10_000, 2)) {
+            original += url.getBytes(StandardCharsets.UTF_8).length;
+            encoded += dictionary.encode(url, 0).length;
+        }
+
+        assertEquals(UrlDictionary.MAX_SYMBOLS, dictionary.symbolCount());
+        assertTrue(original > 2 * encoded, "ratio " + (double) original / encoded);
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ An Empty Sample Escapes Every Byte
+    // ----------------------------------------------------
+    @Test
+    void shouldEscapeEverythingWithoutSymbols() {
+
+        UrlDictionary empty = UrlDictionary.train(List.of());
+
+        assertEquals(0, empty.symbolCount());
+        assertEquals(10, empty.encode("https", 0).length);
+        assertEquals("https", empty.decode(empty.encode("https", 0), 0));
+    }
+}
@@ -0,0 +1,105 @@
+package com.urlshortener.repositories.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentRadixTrieTest {
+
+    private ConcurrentRadixTrie trie;
+
+    @BeforeEach
+    void setup() {
+        trie = new ConcurrentRadixTrie();
+    }
+
+    // ----------------------------------------------------
+    // 1️⃣ Add, Contains and Duplicate Add
+    // ----------------------------------------------------
+    @Test
+    void shouldAddAndFindKeys() {
+
+        assertTrue(trie.add("spring-sale"));
+        assertTrue(trie.add("spring"));
+        assertFalse(trie.add("spring-sale"));
+
+        assertTrue(trie.contains("spring"));
+        assertTrue(trie.contains("spring-sale"));
+        assertFalse(trie.contains("spr"));
+        assertFalse(trie.contains("spring-sales"));
+        assertEquals(2, trie.size());
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Prefix Count and Listing (prefix ending mid-edge)
+    // ----------------------------------------------------
+    @Test
+    void shouldCountAndListByPrefix() {
+
+        trie.add("spring-sale");
+        trie.add("spring-launch");
+        trie.add("summer");
+        trie.add("autumn");
+
+        assertEquals(2, trie.countWithPrefix("spr"));
+        assertEquals(3, trie.countWithPrefix("s"));
+        assertEquals(4, trie.countWithPrefix(""));
+        assertEquals(0, trie.countWithPrefix("winter"));
+
+        assertEquals(List.of("spring-launch", "spring-sale"), trie.keysWithPrefix("spr", 10));
+        assertEquals(List.of("autumn"), trie.keysWithPrefix("", 1));
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ Remove Merges Edges Back Together
+    // ----------------------------------------------------
+    @Test
+    void shouldRemoveKeys() {
+
+        trie.add("spring-sale");
+        trie.add("spring-launch");
+
+        assertTrue(trie.remove("spring-sale"));
+        assertFalse(trie.remove("spring-sale"));
+        assertFalse(trie.remove("spring"));
+
+        assertFalse(trie.contains("spring-sale"));
+        assertTrue(trie.contains("spring-launch"));
+        assertEquals(1, trie.countWithPrefix("spring"));
+        assertEquals(List.of("spring-launch"), trie.keysWithPrefix("spring-", 10));
+    }
+
+    // ----------------------------------------------------
+    // 4️⃣ Concurrent Writers Never Lose Keys
+    // ----------------------------------------------------
+    @Test
+    void shouldKeepAllKeysUnderConcurrentAdds() throws Exception {
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    trie.add("alias-" + thread + "-" + i);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(8_000, trie.size());
+        assertEquals(1_000, trie.countWithPrefix("alias-3-"));
+    }
+}
@@ -0,0 +1,129 @@
+package com.urlshortener.repositories.index;
+
+import com.urlshortener.memory.StructureFootprint;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.InMemoryUrlRepository;
+import com.urlshortener.repositories.index.CreatedAtIndex.Entry;
+import com.urlshortener.services.LinkAuditService;
+import com.urlshortener.services.LinkAuditService.RetentionResult;
+import com.urlshortener.tenant.Tenant;
+import com.urlshortener.tenant.TenantRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Heap cost of the creation-time index against what it saves: listing the
+ * links created in one hour by scanning findAll() versus a range scan of the
+ * index, and dropping the oldest month from the index as whole partitions
+ * versus removing its entries one by one from a single partition.
+ *
+ * Creation times are spread uniformly over 90 days; partitions are one hour.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=CreatedAtIndexBenchmark -DargLine=-Xmx4g
+ * (-Dbenchmark.entries=1000000 for a smaller heap)
+ */
+@Tag("benchmark")
+class CreatedAtIndexBenchmark {
+
+    private static final Instant T0 = Instant.parse("2024-01-01T00:00:00Z");
+    private static final long SPAN_MILLIS = Duration.ofDays(90).toMillis();
+    private static final int PAGE = 100;
+
+    private static volatile Object sink;
+
+    @Test
+    void indexVersusScan() {
+        int entries = Integer.getInteger("benchmark.entries", 5_000_000);
+        Random random = new Random(42);
+
+        InMemoryUrlRepository repository = new InMemoryUrlRepository();
+        for (int i = 0; i < entries; i++) {
+            Instant createdAt = T0.plusMillis((long) (random.nextDouble() * SPAN_MILLIS));
+            repository.save(new ShortenedUrl(Integer.toString(i, 36), "https://example.com/" + i, "example.com", false, createdAt));
+        }
+
+        long heapBefore = usedHeapAfterGc();
+        long start = System.nanoTime();
+        CreatedAtIndex index = new CreatedAtIndex(repository, Duration.ofHours(1));
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+        long heapAfter = usedHeapAfterGc();
+
+        long repositoryBytes = repository.memoryFootprint().stream().mapToLong(StructureFootprint::bytes).sum();
+        long indexBytes = index.memoryFootprint().get(0).bytes();
+        System.out.printf("entries=%,d  repository ~%,d MB  index: measured %,d MB, estimated %,d MB (%.1f%% of repository), "
+                        + "%,d partitions, built in %,d ms%n",
+                entries, repositoryBytes >> 20, (heapAfter - heapBefore) >> 20, indexBytes >> 20,
+                100.0 * indexBytes / repositoryBytes, index.partitionCount(), buildMillis);
+
+        // Links created in one hour in the middle of the span
+        Instant from = T0.plus(Duration.ofDays(45));
+        Instant to = from.plus(Duration.ofHours(1));
+        start = System.nanoTime();
+        List<ShortenedUrl> scanned = repository.findAll().stream()
+                .filter(m -> !m.getCreatedAt().isBefore(from) && m.getCreatedAt().isBefore(to))
+                .sorted(Comparator.comparing(ShortenedUrl::getCreatedAt))
+                .limit(PAGE)
+                .toList();
+        long scanNanos = System.nanoTime() - start;
+        sink = scanned;
+
+        int reps = 1_000;
+        start = System.nanoTime();
+        for (int r = 0; r < reps; r++) {
+            for (Entry entry : index.range(from.toEpochMilli(), to.toEpochMilli(), null, PAGE)) {
+                sink = repository.findByShortCode(entry.shortCode());
+            }
+        }
+        long pageNanos = (System.nanoTime() - start) / reps;
+
+        start = System.nanoTime();
+        List<Entry> hour = index.range(from.toEpochMilli(), to.toEpochMilli(), null, Integer.MAX_VALUE);
+        long hourNanos = System.nanoTime() - start;
+        System.out.printf("one hour (%,d links): scan %,8.1f ms  index page of %d %,7.1f us  index whole hour %,7.2f ms%n",
+                hour.size(), scanNanos / 1e6, PAGE, pageNanos / 1e3, hourNanos / 1e6);
+
+        // Dropping the oldest 30 days from the index alone
+        long cutoff = T0.plus(Duration.ofDays(30)).toEpochMilli();
+        CreatedAtIndex flat = new CreatedAtIndex(repository, Duration.ofDays(365));   // one partition
+        start = System.nanoTime();
+        long removedOneByOne = 0;
+        List<Entry> batch;
+        while (!(batch = flat.range(Long.MIN_VALUE, cutoff, null, 10_000)).isEmpty()) {
+            for (Entry entry : batch) {
+                flat.remove(entry);
+                removedOneByOne++;
+            }
+        }
+        long oneByOneNanos = System.nanoTime() - start;
+        flat = null;
+
+        start = System.nanoTime();
+        int dropped = index.detachPartitionsBefore(cutoff).size();
+        long detachNanos = System.nanoTime() - start;
+        System.out.printf("drop 30 days (%,d entries) from the index: one by one %,8.1f ms  %d partitions detached %,7.3f ms%n",
+                removedOneByOne, oneByOneNanos / 1e6, dropped, detachNanos / 1e6);
+
+        // Full retention run through the service, repository deletes included
+        CreatedAtIndex fresh = new CreatedAtIndex(repository, Duration.ofHours(1));
+        LinkAuditService service = new LinkAuditService(fresh, repository, new TenantRegistry(Tenant.defaultTenant("http://localhost:8080")));
+        start = System.nanoTime();
+        RetentionResult result = service.deleteCreatedBefore(Instant.ofEpochMilli(cutoff).plus(Duration.ofMinutes(30)));
+        long retentionNanos = System.nanoTime() - start;
+        System.out.printf("retention run: %,d mappings deleted, %d partitions dropped, %,.1f ms (%.2f us per mapping)%n",
+                result.deleted(), result.partitionsDropped(), retentionNanos / 1e6, retentionNanos / 1e3 / result.deleted());
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,119 @@
+package com.urlshortener.repositories.index;
+
+import com.urlshortener.memory.StructureFootprint;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.InMemoryUrlRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Heap cost of the domain index against the query cost it saves: listing a
+ * domain's links by scanning findAll() versus paging through the index.
+ *
+ * Domains follow a Zipf-like popularity over 100,000 names, so the first one
+ * holds roughly 8% of all links and the 1000th a few hundred.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=DomainIndexBenchmark -DargLine=-Xmx4g
+ * (-Dbenchmark.entries=1000000 for a smaller heap)
+ */
+@Tag("benchmark")
+class DomainIndexBenchmark {
+
+    private static final int DOMAINS = 100_000;
+    private static final int PAGE = 50;
+
+    private static volatile Object sink;
+
+    @Test
+    void indexVersusScan() {
+        int entries = Integer.getInteger("benchmark.entries", 10_000_000);
+        String[] domains = new String[DOMAINS];
+        for (int i = 0; i < DOMAINS; i++) {
+            domains[i] = "d" + i + ".com";
+        }
+        double[] cdf = zipfCdf(DOMAINS);
+        Random random = new Random(42);
+        Instant now = Instant.now();
+
+        InMemoryUrlRepository repository = new InMemoryUrlRepository();
+        for (int i = 0; i < entries; i++) {
+            String domain = domains[pick(cdf, random.nextDouble())];
+            repository.save(new ShortenedUrl(Integer.toString(i, 36), "https://" + domain + "/" + i, domain, false, now));
+        }
+
+        long heapBefore = usedHeapAfterGc();
+        long start = System.nanoTime();
+        DomainIndex index = new DomainIndex(repository);
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+        long heapAfter = usedHeapAfterGc();
+
+        long repositoryBytes = repository.memoryFootprint().stream().mapToLong(StructureFootprint::bytes).sum();
+        long indexBytes = index.memoryFootprint().get(0).bytes();
+        System.out.printf("entries=%,d  repository ~%,d MB  index: measured %,d MB, estimated %,d MB (%.1f%% of repository), built in %,d ms%n",
+                entries, repositoryBytes >> 20, (heapAfter - heapBefore) >> 20, indexBytes >> 20,
+                100.0 * indexBytes / repositoryBytes, buildMillis);
+
+        for (int rank : new int[] { 0, 999, 49_999 }) {
+            String domain = domains[rank];
+            long matching = index.codes(domain, null, Integer.MAX_VALUE).size();
+
+            // Scan: the only option without an index; a sorted first page needs the whole pass
+            start = System.nanoTime();
+            List<ShortenedUrl> scanned = repository.findAll().stream()
+                    .filter(m -> m.getDomain().equals(domain))
+                    .sorted(Comparator.comparing(ShortenedUrl::getShortCode))
+                    .limit(PAGE)
+                    .toList();
+            long scanNanos = System.nanoTime() - start;
+            sink = scanned;
+
+            start = System.nanoTime();
+            int reps = 1_000;
+            for (int r = 0; r < reps; r++) {
+                List<String> codes = index.codes(domain, null, PAGE);
+                for (String code : codes) {
+                    sink = repository.findByShortCode(code);
+                }
+            }
+            long pageNanos = (System.nanoTime() - start) / reps;
+
+            start = System.nanoTime();
+            sink = index.codes(domain, null, Integer.MAX_VALUE);
+            long allNanos = System.nanoTime() - start;
+
+            System.out.printf("domain rank %,6d (%,7d links): scan %,8.1f ms  index page of %d %,7.1f us  index all %,8.1f ms%n",
+                    rank + 1, matching, scanNanos / 1e6, PAGE, pageNanos / 1e3, allNanos / 1e6);
+        }
+    }
+
+    private static double[] zipfCdf(int n) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / (i + 1);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    private static int pick(double[] cdf, double u) {
+        int i = java.util.Arrays.binarySearch(cdf, u);
+        return Math.min(cdf.length - 1, i >= 0 ? i : -i - 1);
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,82 @@
+package com.urlshortener.repositories.index;
+
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.InMemoryUrlRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Windowed top-domains from the rolling buckets against the all-time
+ * countByDomain() scan, plus what counting adds to each save.
+ *
+ * The repository holds older links plus one day of recent ones, about one
+ * per second, spread over 10,000 domains.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=RecentDomainCountsBenchmark -DargLine=-Xmx4g
+ * (-Dbenchmark.entries=1000000 for a smaller heap)
+ */
+@Tag("benchmark")
+class RecentDomainCountsBenchmark {
+
+    private static final int DOMAINS = 10_000;
+    private static final int RECENT = 86_400;
+
+    private static volatile Object sink;
+
+    @Test
+    void windowVersusScan() {
+        int entries = Integer.getInteger("benchmark.entries", 5_000_000);
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+        Instant old = Instant.ofEpochMilli(now).minus(Duration.ofDays(30));
+
+        InMemoryUrlRepository repository = new InMemoryUrlRepository();
+        for (int i = 0; i < entries - RECENT; i++) {
+            String domain = "d" + random.nextInt(DOMAINS) + ".com";
+            repository.save(new ShortenedUrl(Integer.toString(i, 36), "https://" + domain + "/" + i, domain, false, old));
+        }
+        RecentDomainCounts counts = new RecentDomainCounts(repository);
+
+        // One day of recent saves, counted through the listener
+        ShortenedUrl[] recent = new ShortenedUrl[RECENT];
+        for (int i = 0; i < RECENT; i++) {
+            String domain = "d" + random.nextInt(DOMAINS) + ".com";
+            recent[i] = new ShortenedUrl("r" + i, "https://" + domain + "/r" + i, domain, false,
+                    Instant.ofEpochMilli(now - (long) i * 1000));
+        }
+        for (ShortenedUrl mapping : recent) {
+            repository.save(mapping);
+        }
+        // A second, timed pass once compiled; it doubles the counts, which does not change the read cost
+        long start = System.nanoTime();
+        for (ShortenedUrl mapping : recent) {
+            counts.onSaved(mapping);
+        }
+        long countNanos = (System.nanoTime() - start) / RECENT;
+        System.out.printf("entries=%,d  counting adds %.2f us per save, buckets hold %,d domain counts%n",
+                entries, countNanos / 1e3, counts.memoryFootprint().get(0).entries());
+
+        start = System.nanoTime();
+        Map<String, Long> all = repository.countByDomain();
+        sink = RecentDomainCounts.top(all, 10);
+        long scanNanos = System.nanoTime() - start;
+        System.out.printf("all-time countByDomain scan: %,8.1f ms%n", scanNanos / 1e6);
+
+        for (String window : new String[] { "15m", "1h", "24h" }) {
+            Duration duration = RecentDomainCounts.parseWindow(window);
+            int reps = 200;
+            start = System.nanoTime();
+            for (int r = 0; r < reps; r++) {
+                sink = RecentDomainCounts.top(counts.counts(duration), 10);
+            }
+            long windowNanos = (System.nanoTime() - start) / reps;
+            System.out.printf("window %-4s (%,6d domains): %,8.3f ms%n",
+                    window, counts.counts(duration).size(), windowNanos / 1e6);
+        }
+    }
+}
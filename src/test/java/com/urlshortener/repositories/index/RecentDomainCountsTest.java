@@ -0,0 +1,134 @@
+package com.urlshortener.repositories.index;
+
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.InMemoryUrlRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecentDomainCountsTest {
+
+    // 10:30 on a whole hour boundary plus half an hour, so windows straddle hours
+    private static final Instant NOW = Instant.parse("2024-03-01T10:30:00Z");
+
+    private final AtomicLong clock = new AtomicLong(NOW.toEpochMilli());
+    private InMemoryUrlRepository repository;
+    private RecentDomainCounts counts;
+    private int sequence;
+
+    @BeforeEach
+    void setup() {
+        repository = new InMemoryUrlRepository();
+        save("old.com", NOW.minus(Duration.ofHours(30)));    // outside every window
+        save("backfill.com", NOW.minus(Duration.ofMinutes(5)));
+        counts = new RecentDomainCounts(repository, clock::get);
+    }
+
+    // ----------------------------------------------------
+    // 1️⃣ Windows Count Only Links Created Inside Them
+    // ----------------------------------------------------
+    @Test
+    void shouldCountLinksCreatedWithinWindow() {
+
+        save("a.com", NOW.minusSeconds(30));                        // this minute
+        save("a.com", NOW.minus(Duration.ofMinutes(14)));
+        save("b.com", NOW.minus(Duration.ofMinutes(20)));
+        save("b.com", NOW.minus(Duration.ofMinutes(50)));           // previous hour
+        save("c.com", NOW.minus(Duration.ofMinutes(95)));           // two hours back, partial
+        save("c.com", NOW.minus(Duration.ofHours(23).plusMinutes(59)));
+        save("c.com", NOW.minus(Duration.ofHours(24).plusMinutes(1)));   // just outside a day
+
+        assertEquals(Map.of("a.com", 2L, "backfill.com", 1L), counts.counts(Duration.ofMinutes(15)));
+        assertEquals(Map.of("a.com", 2L, "b.com", 2L, "backfill.com", 1L), counts.counts(Duration.ofHours(1)));
+        assertEquals(Map.of("a.com", 2L, "b.com", 2L, "c.com", 1L, "backfill.com", 1L), counts.counts(Duration.ofMinutes(100)));
+        assertEquals(Map.of("a.com", 2L, "b.com", 2L, "c.com", 2L, "backfill.com", 1L), counts.counts(Duration.ofDays(1)));
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Buckets Roll Over As Time Passes
+    // ----------------------------------------------------
+    @Test
+    void shouldForgetCountsOutsideWindowAsClockAdvances() {
+
+        save("a.com", NOW);
+        clock.addAndGet(Duration.ofMinutes(16).toMillis());
+        assertTrue(counts.counts(Duration.ofMinutes(15)).isEmpty());
+        assertEquals(1L, counts.counts(Duration.ofHours(1)).get("a.com"));
+
+        // a full day later the same slots are reused for new minutes and hours
+        clock.set(NOW.plus(Duration.ofDays(1)).toEpochMilli());
+        save("z.com", NOW.plus(Duration.ofDays(1)));
+        assertEquals(Map.of("z.com", 1L), counts.counts(Duration.ofDays(1)));
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ Top N Is Ordered By Count, Then Domain
+    // ----------------------------------------------------
+    @Test
+    void shouldRankTopDomains() {
+
+        LinkedHashMap<String, Long> top = RecentDomainCounts.top(
+                Map.of("a.com", 3L, "b.com", 7L, "c.com", 3L, "d.com", 1L), 3);
+
+        assertEquals(List.of("b.com", "a.com", "c.com"), new ArrayList<>(top.keySet()));
+        assertEquals(List.of(7L, 3L, 3L), new ArrayList<>(top.values()));
+        assertTrue(RecentDomainCounts.top(Map.of(), 3).isEmpty());
+    }
+
+    // ----------------------------------------------------
+    // 4️⃣ Windows Are Parsed And Bounded
+    // ----------------------------------------------------
+    @Test
+    void shouldParseAndValidateWindows() {
+
+        assertEquals(Duration.ofMinutes(15), RecentDomainCounts.parseWindow("15m"));
+        assertEquals(Duration.ofHours(1), RecentDomainCounts.parseWindow("1H"));
+        assertEquals(Duration.ofDays(1), RecentDomainCounts.parseWindow("1d"));
+        assertEquals(Duration.ofMinutes(30), RecentDomainCounts.parseWindow("PT30M"));
+        assertThrows(IllegalArgumentException.class, () -> RecentDomainCounts.parseWindow("soon"));
+        assertThrows(IllegalArgumentException.class, () -> RecentDomainCounts.parseWindow("h"));
+
+        assertThrows(IllegalArgumentException.class, () -> counts.counts(Duration.ofSeconds(30)));
+        assertThrows(IllegalArgumentException.class, () -> counts.counts(Duration.ofHours(25)));
+    }
+
+    // ----------------------------------------------------
+    // 5️⃣ Concurrent Saves Are All Counted
+    // ----------------------------------------------------
+    @Test
+    void shouldCountConcurrentSaves() throws InterruptedException {
+
+        int threads = 4;
+        int perThread = 5_000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers.add(new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    counts.onSaved(new ShortenedUrl("t" + id + "-" + i, "https://hot.com/" + i, "hot.com", false,
+                            NOW.minusSeconds(i % 600)));
+                }
+            }));
+        }
+        workers.forEach(Thread::start);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals((long) threads * perThread, counts.counts(Duration.ofMinutes(15)).get("hot.com"));
+    }
+
+    private void save(String domain, Instant createdAt) {
+        String code = "c" + sequence++;
+        repository.save(new ShortenedUrl(code, "https://" + domain + "/" + code, domain, false, createdAt));
+    }
+}
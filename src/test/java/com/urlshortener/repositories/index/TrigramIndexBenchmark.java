@@ -0,0 +1,123 @@
+package com.urlshortener.repositories.index;
+
+import com.urlshortener.memory.StructureFootprint;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.InMemoryUrlRepository;
+import com.urlshortener.services.UrlSearchService;
+import com.urlshortener.services.UrlSearchService.SearchResult;
+import com.urlshortener.tenant.Tenant;
+import com.urlshortener.tenant.TenantRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Substring search over original URLs: a linear scan of findAll() with
+ * String.contains against the trigram index with candidate verification,
+ * plus the index's heap cost and the per-save cost on and off the save path.
+ *
+ * URLs are built from random words under 20,000 domains; one in 100,000
+ * carries a planted "phishing kit" path.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=TrigramIndexBenchmark -DargLine=-Xmx4g
+ * (-Dbenchmark.entries=1000000 for a smaller heap)
+ */
+@Tag("benchmark")
+class TrigramIndexBenchmark {
+
+    private static final String[] WORDS = {
+            "news", "article", "product", "category", "blog", "post", "watch", "video", "item", "search",
+            "login", "account", "profile", "docs", "guide", "help", "static", "images", "download", "page",
+            "sale", "offer", "event", "archive", "tag", "user", "story", "review", "compare", "detail" };
+    private static final String KIT_PATH = "/wp-includes/js/kit/verify-account/";
+
+    private static volatile Object sink;
+
+    @Test
+    void indexVersusScan() throws InterruptedException {
+        int entries = Integer.getInteger("benchmark.entries", 10_000_000);
+        Random random = new Random(7);
+        Instant now = Instant.now();
+        String[] domains = new String[20_000];
+        for (int i = 0; i < domains.length; i++) {
+            domains[i] = "site" + i + ".example";
+        }
+
+        InMemoryUrlRepository repository = new InMemoryUrlRepository();
+        for (int i = 0; i < entries; i++) {
+            String domain = domains[random.nextInt(domains.length)];
+            String path = i % 100_000 == 42
+                    ? KIT_PATH + "index.php"
+                    : "/" + WORDS[random.nextInt(WORDS.length)] + "/" + WORDS[random.nextInt(WORDS.length)]
+                        + "/" + Integer.toString(random.nextInt(1 << 30), 36) + "?ref=" + random.nextInt(1000);
+            repository.save(new ShortenedUrl(Integer.toString(i, 36), "https://" + domain + path, domain, false, now));
+        }
+
+        long heapBefore = usedHeapAfterGc();
+        long start = System.nanoTime();
+        TrigramIndex index = new TrigramIndex(repository);
+        long buildNanos = System.nanoTime() - start;
+        long heapAfter = usedHeapAfterGc();
+        UrlSearchService search = new UrlSearchService(index, repository, new TenantRegistry(Tenant.defaultTenant("http://localhost:8080")));
+
+        long repositoryBytes = repository.memoryFootprint().stream().mapToLong(StructureFootprint::bytes).sum();
+        long indexBytes = index.memoryFootprint().get(0).bytes();
+        System.out.printf("entries=%,d  repository ~%,d MB  index: measured %,d MB, estimated %,d MB (%.0f B/mapping), "
+                        + "built in %,d ms%n",
+                entries, repositoryBytes >> 20, (heapAfter - heapBefore) >> 20, indexBytes >> 20,
+                (double) indexBytes / entries, buildNanos / 1_000_000);
+
+        // Steady-state cost: what a save pays (queueing) and what the indexer thread spends per mapping
+        int extra = 200_000;
+        ShortenedUrl[] more = new ShortenedUrl[extra];
+        for (int i = 0; i < extra; i++) {
+            String domain = domains[random.nextInt(domains.length)];
+            more[i] = new ShortenedUrl("x" + i, "https://" + domain + "/" + WORDS[random.nextInt(WORDS.length)]
+                    + "/" + Integer.toString(random.nextInt(1 << 30), 36), domain, false, now);
+        }
+        start = System.nanoTime();
+        for (ShortenedUrl mapping : more) {
+            index.onSaved(mapping);
+        }
+        long queuedNanos = System.nanoTime() - start;
+        index.awaitIndexed(Duration.ofMinutes(5));
+        long drainedNanos = System.nanoTime() - start;
+        System.out.printf("a save pays %.2f us to queue; the indexer spends %.2f us per mapping%n",
+                queuedNanos / 1e3 / extra, drainedNanos / 1e3 / extra);
+
+        for (String query : new String[] { KIT_PATH, "verify-account", "/login/account/", "site123.example/", "?ref=999" }) {
+            String needle = query.toLowerCase(Locale.ROOT);
+            start = System.nanoTime();
+            long scanned = repository.findAll().stream()
+                    .filter(m -> m.getOriginalUrl().toLowerCase(Locale.ROOT).contains(needle))
+                    .limit(UrlSearchService.MAX_RESULTS)
+                    .count();
+            long scanNanos = System.nanoTime() - start;
+
+            SearchResult result = null;
+            int reps = 20;
+            start = System.nanoTime();
+            for (int r = 0; r < reps; r++) {
+                result = search.search(query, UrlSearchService.MAX_RESULTS);
+            }
+            long indexNanos = (System.nanoTime() - start) / reps;
+            sink = result;
+
+            System.out.printf("%-38s matches %5d/%5d  candidates %,9d  scan %,9.1f ms  index %,8.2f ms%n",
+                    '"' + query + '"', result.matches().size(), scanned, result.candidates(),
+                    scanNanos / 1e6, indexNanos / 1e6);
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,161 @@
+package com.urlshortener.repositories.index;
+
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.InMemoryUrlRepository;
+import com.urlshortener.services.UrlSearchService;
+import com.urlshortener.services.UrlSearchService.SearchResult;
+import com.urlshortener.tenant.Tenant;
+import com.urlshortener.tenant.TenantRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private InMemoryUrlRepository repository;
+    private TrigramIndex index;
+    private UrlSearchService searchService;
+
+    @BeforeEach
+    void setup() {
+        repository = new InMemoryUrlRepository();
+        repository.save(new ShortenedUrl("old0001", "https://shop.example/wp-includes/kit/login.php", "shop.example"));
+        index = new TrigramIndex(repository);
+        searchService = new UrlSearchService(index, repository, new TenantRegistry(Tenant.defaultTenant("http://localhost:8080")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.close();
+    }
+
+    // ----------------------------------------------------
+    // 1️⃣ Posting Lists Round-Trip Large And Small Gaps
+    // ----------------------------------------------------
+    @Test
+    void shouldEncodeAndIntersectPostingLists() {
+
+        TrigramIndex.PostingList list = new TrigramIndex.PostingList();
+        int[] ids = { 0, 1, 127, 128, 16_511, 2_000_000, Integer.MAX_VALUE - 1 };
+        for (int id : ids) {
+            list.append(id);
+        }
+
+        assertArrayEquals(ids, list.decode());
+
+        int[] candidates = { 1, 2, 128, 5_000, Integer.MAX_VALUE - 1 };
+        int kept = list.retainAll(candidates, candidates.length);
+        assertEquals(3, kept);
+        assertArrayEquals(new int[] { 1, 128, Integer.MAX_VALUE - 1 }, java.util.Arrays.copyOf(candidates, kept));
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Search Finds Substrings Case-Insensitively
+    // ----------------------------------------------------
+    @Test
+    void shouldFindMappingsContainingFragment() throws InterruptedException {
+
+        repository.save(new ShortenedUrl("new0001", "https://blog.example/WP-Includes/Kit/index.html", "blog.example"));
+        repository.save(new ShortenedUrl("new0002", "https://news.example/article?id=7", "news.example"));
+
+        SearchResult result = search("/wp-includes/kit/", 10);
+
+        assertEquals(List.of("old0001", "new0001"), codes(result));
+        assertFalse(result.truncated());
+        assertEquals(List.of("new0002"), codes(search("?id=7", 10)));
+        assertTrue(codes(search("not-there", 10)).isEmpty());
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ Candidates Are Verified Against The Stored URL
+    // ----------------------------------------------------
+    @Test
+    void shouldDropFalsePositivesAndStaleEntries() throws InterruptedException {
+
+        // has every trigram of "abcd" ("abc", "bcd") but not the substring
+        repository.save(new ShortenedUrl("fp00001", "https://x.example/abc/bcd", "x.example"));
+        repository.save(new ShortenedUrl("del0001", "https://x.example/abcd/1", "x.example"));
+        repository.save(new ShortenedUrl("ovr0001", "https://x.example/abcd/2", "x.example"));
+        repository.deleteByShortCode("del0001");
+        repository.save(new ShortenedUrl("ovr0001", "https://y.example/abcd/3", "y.example"));
+
+        SearchResult result = search("abcd", 10);
+
+        assertEquals(List.of("ovr0001"), codes(result));
+        assertEquals("https://y.example/abcd/3", result.matches().get(0).getOriginalUrl());
+        // the deleted and the overwritten documents were pruned; only the false positive is left to verify
+        assertEquals(2, result.candidates());
+    }
+
+    // ----------------------------------------------------
+    // 4️⃣ Limit And Query Length Are Enforced
+    // ----------------------------------------------------
+    @Test
+    void shouldTruncateAtLimitAndRejectShortQueries() throws InterruptedException {
+
+        for (int i = 0; i < 20; i++) {
+            repository.save(new ShortenedUrl("c" + i, "https://x.example/campaign/" + i, "x.example"));
+        }
+
+        SearchResult result = search("campaign", 5);
+        assertEquals(5, result.matches().size());
+        assertTrue(result.truncated());
+
+        assertThrows(IllegalArgumentException.class, () -> searchService.search("ab", 10));
+        assertThrows(IllegalArgumentException.class, () -> searchService.search("abc", 0));
+    }
+
+    // ----------------------------------------------------
+    // 5️⃣ Removals And Overwrites Prune Postings
+    // ----------------------------------------------------
+    @Test
+    void shouldPrunePostingsOfRemovedAndOverwrittenMappings() throws InterruptedException {
+
+        for (int i = 0; i < 1_000; i++) {
+            repository.save(new ShortenedUrl("c" + i, "https://x.example/campaign/" + i, "x.example"));
+        }
+        assertTrue(index.awaitIndexed(Duration.ofSeconds(5)));
+        long before = index.memoryFootprint().get(0).bytes();
+
+        for (int i = 0; i < 600; i++) {
+            repository.deleteByShortCode("c" + i);
+        }
+        for (int i = 600; i < 700; i++) {
+            repository.save(new ShortenedUrl("c" + i, "https://y.example/offer/" + i, "y.example"));
+        }
+        assertTrue(index.awaitIndexed(Duration.ofSeconds(5)));
+
+        // dead ids are skipped at once, and their postings are gone after the compaction the deletes triggered
+        assertEquals(300, live(index.candidates("campaign")));
+        assertEquals(100, live(index.candidates("/offer/")));
+        assertEquals(List.of("c650"), codes(search("/offer/650", 10)));
+        assertEquals(401, index.memoryFootprint().get(0).entries());
+        assertTrue(index.memoryFootprint().get(0).bytes() < before);
+    }
+
+    private SearchResult search(String fragment, int limit) throws InterruptedException {
+        assertTrue(index.awaitIndexed(Duration.ofSeconds(5)));
+        return searchService.search(fragment, limit);
+    }
+
+    private static int live(TrigramIndex.CandidateIterator candidates) {
+        int live = 0;
+        while (candidates.hasNext()) {
+            candidates.next();
+            live++;
+        }
+        return live;
+    }
+
+    private static List<String> codes(SearchResult result) {
+        List<String> codes = new ArrayList<>();
+        result.matches().forEach(m -> codes.add(m.getShortCode()));
+        return codes;
+    }
+}
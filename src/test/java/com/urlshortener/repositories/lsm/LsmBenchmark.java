@@ -0,0 +1,109 @@
+package com.urlshortener.repositories.lsm;
+
+import com.urlshortener.models.ShortenedUrl;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Write amplification and point-read latency of the LSM repository.
+ *
+ * Loads the mappings in random code order, the worst case for a sorted
+ * store since every table overlaps every other, then waits for compaction to
+ * settle and times findByShortCode hits and misses and findByOriginalUrl
+ * hits. The tables are read through the page cache; on this machine the
+ * whole dataset stays cached.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=LsmBenchmark -DargLine=-Xmx4g
+ * (-Dbenchmark.entries=1000000 for a smaller heap)
+ */
+@Tag("benchmark")
+class LsmBenchmark {
+
+    private static final int LOOKUPS = 1_000_000;
+
+    @TempDir
+    Path directory;
+
+    private static volatile Object sink;
+
+    @Test
+    void writeAmplificationAndReadLatency() {
+        int entries = Integer.getInteger("benchmark.entries", 4_000_000);
+        int[] order = shuffled(entries);
+        try (LsmUrlRepository repository = new LsmUrlRepository(directory, LsmTree.Options.defaults())) {
+            long start = System.nanoTime();
+            for (int i : order) {
+                String domain = "d" + (i % 10_000) + ".com";
+                repository.save(new ShortenedUrl(code(i), url(i), domain, false, Instant.ofEpochMilli(i * 1000L)));
+            }
+            long loadNanos = System.nanoTime() - start;
+            repository.flush();
+            repository.tree().awaitIdle(true);
+            long settleNanos = System.nanoTime() - start - loadNanos;
+
+            LsmTree.Stats stats = repository.stats();
+            System.out.printf("entries=%,d  load %,d ms (%,.0f writes/s), compaction settled after another %,d ms%n",
+                    entries, loadNanos / 1_000_000, entries * 1e9 / loadNanos, settleNanos / 1_000_000);
+            System.out.printf("  user %,d MB  wal %,d MB  flushed %,d MB  compaction read %,d MB / written %,d MB in %d runs%n",
+                    stats.userBytes() >> 20, stats.walBytes() >> 20, stats.flushBytes() >> 20,
+                    stats.compactionReadBytes() >> 20, stats.compactionWriteBytes() >> 20, stats.compactions());
+            System.out.printf("  write amplification %.2f (tables) + %.2f (log)%n",
+                    stats.writeAmplification(), (double) stats.walBytes() / stats.userBytes());
+            System.out.printf("  tables per level %s, MB per level %s, heap %,d KB%n",
+                    Arrays.toString(stats.tablesPerLevel()),
+                    Arrays.toString(Arrays.stream(stats.bytesPerLevel()).map(bytes -> bytes >> 20).toArray()),
+                    (repository.tree().tableIndexBytes() + repository.tree().memtableBytes()) >> 10);
+
+            Random random = new Random(42);
+            report("findByShortCode hit ", lookups(i -> repository.findByShortCode(code(random.nextInt(entries)))));
+            report("findByShortCode miss", lookups(i -> repository.findByShortCode("x" + random.nextInt(entries))));
+            report("findByOriginalUrl   ", lookups(i -> repository.findByOriginalUrl(url(random.nextInt(entries)))));
+        }
+    }
+
+    /** p50 and p99 in nanoseconds. */
+    private static long[] lookups(IntFunction<Object> lookup) {
+        long[] nanos = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            long start = System.nanoTime();
+            sink = lookup.apply(i);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return new long[] { nanos[LOOKUPS / 2], nanos[LOOKUPS * 99 / 100] };
+    }
+
+    private static void report(String name, long[] latency) {
+        System.out.printf("  %s p50 %,6.2f us  p99 %,6.2f us%n", name, latency[0] / 1e3, latency[1] / 1e3);
+    }
+
+    private static int[] shuffled(int entries) {
+        int[] order = new int[entries];
+        for (int i = 0; i < entries; i++) {
+            order[i] = i;
+        }
+        Random random = new Random(7);
+        for (int i = entries - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+
+    private static String code(int i) {
+        return "c" + Integer.toString(i, 36);
+    }
+
+    private static String url(int i) {
+        return "https://d" + (i % 10_000) + ".com/articles/" + i + "?utm_source=newsletter";
+    }
+}
@@ -0,0 +1,220 @@
+package com.urlshortener.repositories.lsm;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LsmTreeTest {
+
+    // Tiny sizes, so a few thousand keys go through several flushes and compactions
+    private static final LsmTree.Options SMALL = new LsmTree.Options(4 << 10, 8 << 10, 32 << 10, 2);
+
+    @TempDir
+    Path directory;
+
+    private LsmTree tree;
+
+    @AfterEach
+    void tearDown() {
+        if (tree != null) {
+            tree.close();
+        }
+    }
+
+    // ----------------------------------------------------
+    // 1️⃣ Reads See The Newest Write Across Every Level
+    // ----------------------------------------------------
+    @Test
+    void shouldReadNewestValueAfterFlushesAndCompactions() {
+
+        tree = new LsmTree(directory, SMALL);
+        Map<String, String> expected = writeRandom(tree, 5_000);
+        tree.flush();
+        tree.awaitIdle(true);
+
+        LsmTree.Stats stats = tree.stats();
+        assertTrue(stats.compactions() > 0, "no compaction ran");
+        assertTrue(stats.tablesPerLevel()[1] + stats.tablesPerLevel()[2] > 0, "nothing below level 0");
+        assertTrue(stats.writeAmplification() >= 1, "write amplification " + stats.writeAmplification());
+        assertMatches(expected);
+        assertNull(tree.get(bytes("missing")));
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Scans Merge Every Source In Key Order
+    // ----------------------------------------------------
+    @Test
+    void shouldScanLiveKeysInOrder() {
+
+        tree = new LsmTree(directory, SMALL);
+        Map<String, String> expected = writeRandom(tree, 3_000);
+        tree.flush();
+        // Some of the newest writes stay in the memtable
+        tree.put(bytes("key00001"), bytes("fresh"));
+        tree.delete(bytes("key00002"));
+        expected.put("key00001", "fresh");
+        expected.remove("key00002");
+
+        List<String> keys = new ArrayList<>();
+        Iterator<Entry> scan = tree.scan(bytes("key"));
+        while (scan.hasNext()) {
+            Entry entry = scan.next();
+            keys.add(string(entry.key()));
+            assertEquals(expected.get(string(entry.key())), string(entry.value()));
+        }
+        assertEquals(new ArrayList<>(expected.keySet()), keys);
+
+        List<String> prefixed = new ArrayList<>();
+        tree.scan(bytes("key0001")).forEachRemaining(entry -> prefixed.add(string(entry.key())));
+        assertEquals(expected.keySet().stream().filter(key -> key.startsWith("key0001")).toList(), prefixed);
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ Reopening Recovers Tables And Logged Writes
+    // ----------------------------------------------------
+    @Test
+    void shouldRecoverAfterReopen() {
+
+        tree = new LsmTree(directory, SMALL);
+        Map<String, String> expected = writeRandom(tree, 2_000);
+        tree.flush();
+        tree.put(bytes("unflushed"), bytes("in the log"));
+        tree.delete(bytes("key00003"));
+        expected.put("unflushed", "in the log");
+        expected.remove("key00003");
+        tree.close();
+
+        tree = new LsmTree(directory, SMALL);
+        assertMatches(expected);
+        assertEquals("in the log", string(tree.get(bytes("unflushed"))));
+    }
+
+    // ----------------------------------------------------
+    // 4️⃣ A Torn Log Tail Loses Only The Torn Write
+    // ----------------------------------------------------
+    @Test
+    void shouldIgnoreCorruptLogTail() throws Exception {
+
+        tree = new LsmTree(directory, new LsmTree.Options(1 << 20, 1 << 20, 4 << 20, 4));
+        tree.put(bytes("a"), bytes("1"));
+        tree.put(bytes("b"), bytes("2"));
+        tree.close();
+        try (var files = Files.list(directory)) {
+            Path wal = files.filter(file -> file.toString().endsWith(".wal")).findFirst().orElseThrow();
+            Files.write(wal, new byte[] { 0, 0, 0, 9, 1, 2, 3 }, StandardOpenOption.APPEND);
+        }
+
+        tree = new LsmTree(directory, new LsmTree.Options(1 << 20, 1 << 20, 4 << 20, 4));
+        assertEquals("1", string(tree.get(bytes("a"))));
+        assertEquals("2", string(tree.get(bytes("b"))));
+        tree.put(bytes("c"), bytes("3"));
+        assertEquals("3", string(tree.get(bytes("c"))));
+    }
+
+    // ----------------------------------------------------
+    // 5️⃣ Deletes Leave No Data Once Compacted
+    // ----------------------------------------------------
+    @Test
+    void shouldDropDeletedKeysDuringCompaction() {
+
+        // Level 1 large enough to hold everything, so nothing deeper needs the tombstones
+        LsmTree.Options options = new LsmTree.Options(4 << 10, 8 << 10, 1 << 20, 2);
+        tree = new LsmTree(directory, options);
+        for (int i = 0; i < 2_000; i++) {
+            tree.put(bytes(key(i)), bytes("value-" + i));
+        }
+        tree.flush();
+        tree.awaitIdle(true);
+        long full = totalBytes(tree.stats());
+        for (int i = 0; i < 2_000; i++) {
+            tree.delete(bytes(key(i)));
+        }
+        // More level-0 tables than the trigger, so everything is merged down again
+        for (int round = 0; round < options.level0Tables(); round++) {
+            tree.put(bytes("filler" + round), bytes("x"));
+            tree.flush();
+        }
+        tree.awaitIdle(true);
+
+        assertFalse(tree.scan(bytes("key")).hasNext());
+        assertTrue(totalBytes(tree.stats()) < full / 4, totalBytes(tree.stats()) + " bytes vs " + full);
+    }
+
+    // ----------------------------------------------------
+    // 6️⃣ Bloom Filters Rarely Admit Absent Keys
+    // ----------------------------------------------------
+    @Test
+    void shouldKeepBloomFalsePositivesNearOnePercent() {
+
+        BloomFilter bloom = BloomFilter.forKeys(100_000);
+        for (int i = 0; i < 100_000; i++) {
+            bloom.add(SSTable.hash(bytes(key(i))));
+        }
+        int falsePositives = 0;
+        for (int i = 100_000; i < 200_000; i++) {
+            assertTrue(bloom.mightContain(SSTable.hash(bytes(key(i - 100_000)))));
+            if (bloom.mightContain(SSTable.hash(bytes(key(i))))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 1_500, falsePositives + " false positives in 100,000");
+    }
+
+    /** Puts, overwrites and deletes random keys; returns what the tree should hold. */
+    private static Map<String, String> writeRandom(LsmTree tree, int operations) {
+        Random random = new Random(7);
+        Map<String, String> expected = new TreeMap<>();
+        for (int i = 0; i < operations; i++) {
+            String key = key(random.nextInt(operations / 2));
+            if (random.nextInt(5) == 0) {
+                tree.delete(bytes(key));
+                expected.remove(key);
+            } else {
+                String value = "value-" + i;
+                tree.put(bytes(key), bytes(value));
+                expected.put(key, value);
+            }
+        }
+        return expected;
+    }
+
+    private void assertMatches(Map<String, String> expected) {
+        for (int i = 0; i < 5_000; i++) {
+            String key = key(i);
+            assertEquals(expected.get(key), string(tree.get(bytes(key))), key);
+        }
+    }
+
+    private static long totalBytes(LsmTree.Stats stats) {
+        long bytes = 0;
+        for (long level : stats.bytesPerLevel()) {
+            bytes += level;
+        }
+        return bytes;
+    }
+
+    private static String key(int i) {
+        return String.format("key%05d", i);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] value) {
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,137 @@
+package com.urlshortener.repositories.lsm;
+
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.MappingListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LsmUrlRepositoryTest {
+
+    private static final LsmTree.Options SMALL = new LsmTree.Options(16 << 10, 32 << 10, 128 << 10, 2);
+
+    @TempDir
+    Path directory;
+
+    private LsmUrlRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    // ----------------------------------------------------
+    // 1️⃣ Lookups In Both Directions
+    // ----------------------------------------------------
+    @Test
+    void shouldFindMappingsByCodeAndUrl() {
+
+        repository = new LsmUrlRepository(directory, SMALL);
+        saveMany(0, 3_000);
+        repository.save(new ShortenedUrl("promo", "https://shop.com/sale", "shop.com", true));
+        repository.flush();
+
+        assertEquals("https://example.com/42", repository.findByShortCode("code42").orElseThrow().getOriginalUrl());
+        assertEquals("code7", repository.findByOriginalUrl("https://example.com/7").orElseThrow().getShortCode());
+        assertTrue(repository.existsByShortCode("code2999"));
+        assertTrue(repository.findByShortCode("missing").isEmpty());
+        assertTrue(repository.findByOriginalUrl("https://shop.com/sale").isEmpty());     // aliases are not idempotent
+        assertFalse(repository.saveIfAbsent(new ShortenedUrl("code1", "https://other.com", "other.com")));
+        assertEquals(3_001, repository.findAll().size());
+        assertEquals(3_001, repository.count());
+        assertEquals(Map.of("example.com", 3_000L, "shop.com", 1L), repository.countByDomain());
+        assertEquals(List.of("promo"), repository.findAliasesByPrefix("pro", 10));
+        assertTrue(repository.stats().flushBytes() > 0);
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Overwrites And Deletes Update The URL Index
+    // ----------------------------------------------------
+    @Test
+    void shouldKeepUrlIndexInStepWithWrites() {
+
+        repository = new LsmUrlRepository(directory, SMALL);
+        List<String> events = new ArrayList<>();
+        repository.addListener(new MappingListener() {
+            @Override
+            public void onSaved(ShortenedUrl shortenedUrl) {
+                events.add("saved " + shortenedUrl.getShortCode());
+            }
+
+            @Override
+            public void onRemoved(ShortenedUrl shortenedUrl) {
+                events.add("removed " + shortenedUrl.getShortCode());
+            }
+        });
+        saveMany(0, 10);
+        repository.flush();
+
+        repository.save(new ShortenedUrl("code2", "https://changed.com/2", "changed.com"));
+        assertEquals("https://example.com/3", repository.deleteByShortCode("code3").orElseThrow().getOriginalUrl());
+        assertTrue(repository.deleteByShortCode("code3").isEmpty());
+        repository.save(new ShortenedUrl("code4", "https://example.com/4", "example.com", true));
+
+        assertEquals("code2", repository.findByOriginalUrl("https://changed.com/2").orElseThrow().getShortCode());
+        assertTrue(repository.findByOriginalUrl("https://example.com/2").isEmpty());
+        assertTrue(repository.findByOriginalUrl("https://example.com/3").isEmpty());
+        assertTrue(repository.findByOriginalUrl("https://example.com/4").isEmpty());
+        assertTrue(repository.findByShortCode("code3").isEmpty());
+        assertEquals(List.of("code4"), repository.findAliasesByPrefix("code", 10));
+        assertEquals(9, repository.findAll().size());
+        assertEquals(9, repository.count());
+        assertEquals(List.of("saved code0", "saved code1", "saved code2", "saved code3", "saved code4",
+                "saved code5", "saved code6", "saved code7", "saved code8", "saved code9",
+                "saved code2", "removed code3", "saved code4"), events);
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ Mappings And Aliases Survive A Restart
+    // ----------------------------------------------------
+    @Test
+    void shouldPersistAcrossReopen() {
+
+        repository = new LsmUrlRepository(directory, SMALL);
+        saveMany(0, 2_000);
+        repository.flush();
+        repository.save(new ShortenedUrl("launch", "https://blog.com/launch", "blog.com", true));
+        repository.deleteByShortCode("code5");
+        repository.close();
+
+        repository = new LsmUrlRepository(directory, SMALL);
+        assertEquals("https://example.com/1999", repository.findByShortCode("code1999").orElseThrow().getOriginalUrl());
+        assertEquals("code10", repository.findByOriginalUrl("https://example.com/10").orElseThrow().getShortCode());
+        assertTrue(repository.findByShortCode("code5").isEmpty());
+        assertEquals(List.of("launch"), repository.findAliasesByPrefix("la", 10));
+        assertEquals(2_000, repository.findAll().size());
+        assertEquals(2_000, repository.count());
+    }
+
+    // ----------------------------------------------------
+    // 4️⃣ A Failed Write Leaves No Alias Behind
+    // ----------------------------------------------------
+    @Test
+    void shouldNotListAliasWhoseWriteFailed() {
+
+        repository = new LsmUrlRepository(directory, SMALL);
+        repository.save(new ShortenedUrl("launch", "https://blog.com/launch", "blog.com", true));
+        repository.close();
+
+        assertThrows(IllegalStateException.class, () ->
+                repository.saveIfAbsent(new ShortenedUrl("lately", "https://blog.com/late", "blog.com", true)));
+        assertThrows(IllegalStateException.class, () -> repository.deleteByShortCode("launch"));
+        assertEquals(List.of("launch"), repository.findAliasesByPrefix("la", 10));
+    }
+
+    private void saveMany(int from, int to) {
+        for (int i = from; i < to; i++) {
+            repository.save(new ShortenedUrl("code" + i, "https://example.com/" + i, "example.com"));
+        }
+    }
+}
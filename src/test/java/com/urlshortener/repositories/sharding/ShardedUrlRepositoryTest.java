@@ -0,0 +1,208 @@
+package com.urlshortener.repositories.sharding;
+
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.InMemoryUrlRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedUrlRepositoryTest {
+
+    private static final int VIRTUAL_NODES = 128;
+
+    private Map<String, InMemoryUrlRepository> shards;
+    private ShardedUrlRepository repository;
+
+    @BeforeEach
+    void setup() {
+        // Each shard stands in for a separate node.
+        shards = new LinkedHashMap<>();
+        for (int i = 0; i < 4; i++) {
+            shards.put("shard-" + i, new InMemoryUrlRepository());
+        }
+        repository = new ShardedUrlRepository(shards, VIRTUAL_NODES);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    // ----------------------------------------------------
+    // 1️⃣ Mappings Are Spread Across Shards
+    // ----------------------------------------------------
+    @Test
+    void shouldPartitionByShortCode() {
+
+        saveMany(0, 10_000);
+
+        for (InMemoryUrlRepository shard : shards.values()) {
+            int size = shard.findAll().size();
+            assertTrue(size > 1_500 && size < 3_500, "unbalanced shard size: " + size);
+        }
+        assertEquals(10_000, repository.findAll().size());
+        assertEquals("https://example.com/42",
+                repository.findByShortCode("code42").get().getOriginalUrl());
+        assertEquals("code42",
+                repository.findByOriginalUrl("https://example.com/42").get().getShortCode());
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Save If Absent Is Routed To The Owner
+    // ----------------------------------------------------
+    @Test
+    void shouldRejectDuplicateCodes() {
+
+        assertTrue(repository.saveIfAbsent(url("dup1234", "https://a.com")));
+        assertFalse(repository.saveIfAbsent(url("dup1234", "https://b.com")));
+        assertEquals("https://a.com", repository.findByShortCode("dup1234").get().getOriginalUrl());
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ Fan-Out Scans Merge Shard Results
+    // ----------------------------------------------------
+    @Test
+    void shouldMergeDomainCountsAndAliasesAcrossShards() {
+
+        for (int i = 0; i < 300; i++) {
+            String domain = i % 3 == 0 ? "youtube.com" : "udemy.com";
+            repository.save(new ShortenedUrl("c" + i, "https://" + domain + "/" + i, domain));
+        }
+        repository.save(new ShortenedUrl("promo-a", "https://shop.com/a", "shop.com", true));
+        repository.save(new ShortenedUrl("promo-b", "https://shop.com/b", "shop.com", true));
+        repository.save(new ShortenedUrl("promo-c", "https://shop.com/c", "shop.com", true));
+
+        Map<String, Long> counts = repository.countByDomain();
+        assertEquals(100L, counts.get("youtube.com"));
+        assertEquals(200L, counts.get("udemy.com"));
+        assertEquals(3L, counts.get("shop.com"));
+
+        assertEquals(3, repository.countAliasesByPrefix("promo"));
+        assertEquals(List.of("promo-a", "promo-b"), repository.findAliasesByPrefix("promo", 2));
+    }
+
+    // ----------------------------------------------------
+    // 4️⃣ Adding A Shard Moves Only Its Share Of Keys
+    // ----------------------------------------------------
+    @Test
+    void shouldRebalanceOntoNewShard() throws Exception {
+
+        saveMany(0, 20_000);
+
+        InMemoryUrlRepository newShard = new InMemoryUrlRepository();
+        ShardedUrlRepository.RebalanceResult result =
+                repository.addShard("shard-4", newShard).get(10, TimeUnit.SECONDS);
+
+        // Roughly 1/5 of the keys should move, all of them onto the new shard.
+        assertTrue(result.movedMappings() > 2_500 && result.movedMappings() < 5_500,
+                "moved " + result.movedMappings());
+        assertEquals(result.movedMappings(), newShard.findAll().size());
+        assertFalse(repository.isRebalancing());
+        assertEquals(20_000, repository.findAll().size());
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(repository.existsByShortCode("code" + i), "lost code" + i);
+        }
+    }
+
+    // ----------------------------------------------------
+    // 5️⃣ Reads And Writes Keep Working During Rebalancing
+    // ----------------------------------------------------
+    @Test
+    void shouldServeReadsAndWritesWhileRebalancing() throws Exception {
+
+        saveMany(0, 50_000);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger misses = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            int i = 0;
+            while (running.get()) {
+                if (repository.findByShortCode("code" + (i++ % 50_000)).isEmpty()) {
+                    misses.incrementAndGet();
+                }
+            }
+        });
+        reader.start();
+
+        var rebalance = repository.addShard("shard-4", new InMemoryUrlRepository());
+        saveMany(50_000, 55_000);
+        rebalance.get(10, TimeUnit.SECONDS);
+
+        running.set(false);
+        reader.join();
+
+        assertEquals(0, misses.get());
+        assertEquals(55_000, repository.findAll().size());
+        assertFalse(repository.saveIfAbsent(url("code1", "https://other.com")));
+    }
+
+    // ----------------------------------------------------
+    // 6️⃣ Deletes During Rebalancing Stay Deleted
+    // ----------------------------------------------------
+    @Test
+    void shouldNotReviveCodesDeletedWhileRebalancing() throws Exception {
+
+        saveMany(0, 50_000);
+
+        var rebalance = repository.addShard("shard-4", new InMemoryUrlRepository());
+        for (int i = 0; i < 50_000; i++) {
+            repository.deleteByShortCode("code" + i);
+        }
+        rebalance.get(10, TimeUnit.SECONDS);
+
+        assertEquals(0, repository.findAll().size());
+        for (int i = 0; i < 50_000; i++) {
+            assertFalse(repository.existsByShortCode("code" + i), "revived code" + i);
+        }
+    }
+
+    // ----------------------------------------------------
+    // 7️⃣ Concurrent Additions Get Distinct Shard Ids
+    // ----------------------------------------------------
+    @Test
+    void shouldAllocateDistinctIdsToConcurrentAdditions() throws Exception {
+
+        saveMany(0, 10_000);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        List<Future<ShardedUrlRepository.RebalanceResult>> additions = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            additions.add(pool.submit(() -> repository.addShard(new InMemoryUrlRepository()).get(10, TimeUnit.SECONDS)));
+        }
+        Set<String> ids = new HashSet<>();
+        for (Future<ShardedUrlRepository.RebalanceResult> addition : additions) {
+            ids.add(addition.get(20, TimeUnit.SECONDS).shardId());
+        }
+        pool.shutdown();
+
+        assertEquals(Set.of("shard-4", "shard-5"), ids);
+        assertEquals(List.of("shard-0", "shard-1", "shard-2", "shard-3", "shard-4", "shard-5"),
+                List.copyOf(repository.shardSizes().keySet()));
+        assertEquals(10_000, repository.count());
+    }
+
+    private void saveMany(int from, int to) {
+        for (int i = from; i < to; i++) {
+            repository.saveIfAbsent(url("code" + i, "https://example.com/" + i));
+        }
+    }
+
+    private static ShortenedUrl url(String code, String originalUrl) {
+        return new ShortenedUrl(code, originalUrl, "example.com");
+    }
+}
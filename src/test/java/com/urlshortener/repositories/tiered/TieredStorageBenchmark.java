@@ -0,0 +1,113 @@
+package com.urlshortener.repositories.tiered;
+
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.InMemoryUrlRepository;
+import com.urlshortener.repositories.UrlRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Heap and lookup latency of the tiered repository against the in-memory one
+ * as the dataset grows, with the hot tier capped at 200,000 mappings.
+ *
+ * Lookups are skewed the way redirects are: 90% go to the 100,000 newest
+ * links, 10% to any link. The segment files are read through the page cache,
+ * so with the dataset larger than RAM the cold lookups would also pay disk
+ * reads; on this machine they stay cached.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=TieredStorageBenchmark -DargLine=-Xmx4g
+ * (-Dbenchmark.entries=1000000 for a smaller heap)
+ */
+@Tag("benchmark")
+class TieredStorageBenchmark {
+
+    private static final int HOT_ENTRIES = 200_000;
+    private static final int RECENT = 100_000;
+    private static final int LOOKUPS = 1_000_000;
+
+    @TempDir
+    Path directory;
+
+    private static volatile Object sink;
+
+    @Test
+    void heapAndLatencyAsDatasetGrows() {
+        int maxEntries = Integer.getInteger("benchmark.entries", 4_000_000);
+        for (int entries = maxEntries / 4; entries <= maxEntries; entries *= 2) {
+            long heapBefore = usedHeapAfterGc();
+            InMemoryUrlRepository memory = new InMemoryUrlRepository();
+            fill(memory, entries, null);
+            long memoryHeap = usedHeapAfterGc() - heapBefore;
+            long[] memoryLatency = lookups(memory, entries);
+            memory = null;
+
+            heapBefore = usedHeapAfterGc();
+            AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+            try (TieredUrlRepository tiered = new TieredUrlRepository(directory, HOT_ENTRIES, Duration.ofDays(3), 8,
+                    clock::get)) {
+                fill(tiered, entries, clock);
+                tiered.demote();
+                long tieredHeap = usedHeapAfterGc() - heapBefore;
+                // One pass to let the recent links come back hot, then measure
+                lookups(tiered, entries);
+                tiered.demote();
+                long[] tieredLatency = lookups(tiered, entries);
+
+                System.out.printf("entries=%,d%n", entries);
+                System.out.printf("  in-memory: heap %,6d MB   lookup p50 %,6.2f us  p99 %,6.2f us%n",
+                        memoryHeap >> 20, memoryLatency[0] / 1e3, memoryLatency[1] / 1e3);
+                System.out.printf("  tiered:    heap %,6d MB   lookup p50 %,6.2f us  p99 %,6.2f us   (hot %,d, cold %,d, %d segments, %,d MB on disk)%n",
+                        tieredHeap >> 20, tieredLatency[0] / 1e3, tieredLatency[1] / 1e3,
+                        tiered.hotCount(), tiered.coldCount(), tiered.segmentCount(), tiered.diskBytes() >> 20);
+            }
+        }
+    }
+
+    /** Saves the links oldest first, a second apart; the clock, if any, follows them. */
+    private static void fill(UrlRepository repository, int entries, AtomicLong clock) {
+        long start = System.currentTimeMillis() - entries * 1000L;
+        for (int i = 0; i < entries; i++) {
+            if (clock != null) {
+                clock.set(start + i * 1000L);
+            }
+            String domain = "d" + (i % 10_000) + ".com";
+            repository.save(new ShortenedUrl(code(i), "https://" + domain + "/articles/" + i + "?utm_source=newsletter",
+                    domain, false, Instant.ofEpochMilli(start + i * 1000L)));
+        }
+    }
+
+    /** p50 and p99 of findByShortCode in nanoseconds. */
+    private static long[] lookups(UrlRepository repository, int entries) {
+        Random random = new Random(42);
+        long[] nanos = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            int id = random.nextInt(10) < 9 ? entries - 1 - random.nextInt(RECENT) : random.nextInt(entries);
+            String code = code(id);
+            long start = System.nanoTime();
+            sink = repository.findByShortCode(code);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return new long[] { nanos[LOOKUPS / 2], nanos[LOOKUPS * 99 / 100] };
+    }
+
+    private static String code(int i) {
+        return "c" + Integer.toString(i, 36);
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,306 @@
+package com.urlshortener.repositories.tiered;
+
+import com.urlshortener.memory.StructureFootprint;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.MappingListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TieredUrlRepositoryTest {
+
+    private static final Duration IDLE = Duration.ofHours(1);
+
+    @TempDir
+    Path directory;
+
+    private final AtomicLong clock = new AtomicLong(Instant.parse("2024-03-01T00:00:00Z").toEpochMilli());
+    private TieredUrlRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    // ----------------------------------------------------
+    // 1️⃣ Idle Mappings Move To Disk And Are Still Found
+    // ----------------------------------------------------
+    @Test
+    void shouldServeDemotedMappingsFromDisk() throws Exception {
+
+        repository = create(1_000_000, 8);
+        saveMany(0, 1_000);
+        repository.save(new ShortenedUrl("promo", "https://shop.com/sale", "shop.com", true));
+        long hotHeap = heap();
+
+        clock.addAndGet(IDLE.toMillis() + 1);
+        assertEquals(1_001, repository.demote());
+
+        assertEquals(0, repository.hotCount());
+        assertEquals(1_001, repository.coldCount());
+        assertTrue(heap() < hotHeap / 10, "heap " + heap() + " vs " + hotHeap + " when hot");
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+
+        assertEquals("https://example.com/42", repository.findByShortCode("code42").orElseThrow().getOriginalUrl());
+        assertEquals("code7", repository.findByOriginalUrl("https://example.com/7").orElseThrow().getShortCode());
+        assertTrue(repository.existsByShortCode("code999"));
+        assertTrue(repository.findByShortCode("missing").isEmpty());
+        assertTrue(repository.findByOriginalUrl("https://shop.com/sale").isEmpty());     // aliases are not idempotent
+        assertEquals(1_001, repository.findAll().size());
+        assertEquals(1_001, repository.count());
+        assertEquals(Map.of("example.com", 1_000L, "shop.com", 1L), repository.countByDomain());
+        assertEquals(List.of("promo"), repository.findAliasesByPrefix("pro", 10));
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ A Cold Mapping Read Twice Is Promoted
+    // ----------------------------------------------------
+    @Test
+    void shouldPromoteMappingsThatGetHotAgain() {
+
+        repository = create(1_000_000, 8);
+        saveMany(0, 100);
+        clock.addAndGet(IDLE.toMillis() + 1);
+        repository.demote();
+
+        repository.findByShortCode("code5");
+        assertEquals(0, repository.hotCount());
+        assertEquals("https://example.com/5", repository.findByShortCode("code5").orElseThrow().getOriginalUrl());
+        assertEquals(1, repository.hotCount());
+        assertEquals(99, repository.coldCount());
+        assertEquals(100, repository.findAll().size());
+
+        // Recently read, so it survives the next idle pass while the others stay cold
+        clock.addAndGet(IDLE.toMillis() / 2);
+        repository.findByShortCode("code5");
+        repository.demote();
+        assertEquals(1, repository.hotCount());
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ Overflow Demotes The Least Recently Used
+    // ----------------------------------------------------
+    @Test
+    void shouldCapHotTierByRecency() {
+
+        repository = create(800, 8);
+        for (int i = 0; i < 1_000; i++) {
+            clock.incrementAndGet();
+            save(i);
+        }
+        // Read the oldest 100 again much later, so they count as recent
+        clock.addAndGet(10_000);
+        for (int i = 0; i < 100; i++) {
+            repository.findByShortCode("code" + i);
+        }
+        repository.demote();
+
+        assertTrue(repository.hotCount() <= 800, "hot " + repository.hotCount());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(repository.findByShortCode("code" + i).isPresent());
+        }
+        assertEquals(1_000, repository.hotCount() + repository.coldCount());
+        assertEquals(1_000, repository.findAll().size());
+    }
+
+    // ----------------------------------------------------
+    // 4️⃣ Writes To Cold Codes Replace The Disk Copy
+    // ----------------------------------------------------
+    @Test
+    void shouldApplyWritesToColdMappings() {
+
+        repository = create(1_000_000, 8);
+        List<String> events = new ArrayList<>();
+        repository.addListener(new MappingListener() {
+            @Override
+            public void onSaved(ShortenedUrl shortenedUrl) {
+                events.add("saved " + shortenedUrl.getShortCode());
+            }
+
+            @Override
+            public void onRemoved(ShortenedUrl shortenedUrl) {
+                events.add("removed " + shortenedUrl.getShortCode());
+            }
+        });
+        saveMany(0, 10);
+        clock.addAndGet(IDLE.toMillis() + 1);
+        repository.demote();
+        events.clear();
+
+        assertFalse(repository.saveIfAbsent(new ShortenedUrl("code1", "https://other.com", "other.com")));
+        repository.save(new ShortenedUrl("code2", "https://changed.com/2", "changed.com"));
+        assertEquals("https://example.com/3", repository.deleteByShortCode("code3").orElseThrow().getOriginalUrl());
+        assertTrue(repository.deleteByShortCode("code3").isEmpty());
+
+        assertEquals("https://changed.com/2", repository.findByShortCode("code2").orElseThrow().getOriginalUrl());
+        assertTrue(repository.findByOriginalUrl("https://example.com/2").isEmpty());
+        assertTrue(repository.findByShortCode("code3").isEmpty());
+        assertEquals(9, repository.findAll().size());
+        assertEquals(9, repository.count());
+        assertEquals(List.of("saved code2", "removed code3"), events);
+    }
+
+    // ----------------------------------------------------
+    // 5️⃣ Dead And Surplus Segments Are Merged
+    // ----------------------------------------------------
+    @Test
+    void shouldMergeSegments() throws Exception {
+
+        repository = create(1_000_000, 3);
+        for (int batch = 0; batch < 3; batch++) {
+            demoteBatch(batch * 100, batch * 100 + 100);
+        }
+        assertEquals(3, repository.segmentCount());
+        assertEquals(300, repository.coldCount());
+
+        // Most of the newest segment deleted: the next pass rewrites what is left
+        for (int i = 200; i < 260; i++) {
+            repository.deleteByShortCode("code" + i);
+        }
+        long before = repository.diskBytes();
+        demoteBatch(300, 310);
+
+        assertEquals(250, repository.coldCount());
+        assertEquals(3, repository.segmentCount());
+        assertTrue(repository.diskBytes() < before, repository.diskBytes() + " >= " + before);
+        assertEquals("https://example.com/295", repository.findByShortCode("code295").orElseThrow().getOriginalUrl());
+        assertTrue(repository.findByShortCode("code250").isEmpty());
+
+        // A fourth segment would exceed the limit, so the smallest is merged into the new one
+        demoteBatch(310, 400);
+        assertEquals(3, repository.segmentCount());
+        assertEquals(340, repository.coldCount());
+        try (var files = Files.list(directory)) {
+            assertEquals(3, files.count());
+        }
+    }
+
+    // ----------------------------------------------------
+    // 6️⃣ Readers Never Miss A Code While It Changes Tier
+    // ----------------------------------------------------
+    @Test
+    void shouldFindEveryCodeDuringDemotion() throws InterruptedException {
+
+        repository = create(1_000_000, 4);
+        saveMany(0, 2_000);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger misses = new AtomicInteger();
+        List<Thread> readers = new ArrayList<>();
+        for (int t = 0; t < 3; t++) {
+            int id = t;
+            readers.add(new Thread(() -> {
+                for (int i = id; running.get(); i = (i + 7) % 2_000) {
+                    if (repository.findByShortCode("code" + i).isEmpty()) {
+                        misses.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        readers.forEach(Thread::start);
+        for (int round = 0; round < 20; round++) {
+            clock.addAndGet(IDLE.toMillis() + 1);
+            repository.demote();
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertEquals(0, misses.get());
+        assertEquals(2_000, repository.findAll().stream().map(ShortenedUrl::getShortCode).collect(Collectors.toSet()).size());
+    }
+
+    // ----------------------------------------------------
+    // 7️⃣ Preloaded Codes Are Promoted At Once
+    // ----------------------------------------------------
+    @Test
+    void shouldPromotePreloadedCodes() {
+
+        repository = create(1_000_000, 8);
+        saveMany(0, 100);
+        clock.addAndGet(IDLE.toMillis() + 1);
+        repository.demote();
+        save(100);
+
+        assertEquals(3, repository.preload(List.of("code3", "code4", "code100", "missing")));
+
+        assertEquals(3, repository.hotCount());
+        assertEquals(98, repository.coldCount());
+        assertEquals("https://example.com/3", repository.findByShortCode("code3").orElseThrow().getOriginalUrl());
+        assertEquals(101, repository.findAll().size());
+    }
+
+    // ----------------------------------------------------
+    // 8️⃣ Codes Deleted While Being Demoted Stay Deleted
+    // ----------------------------------------------------
+    @Test
+    void shouldNotRevivePendingDemotionsOnDelete() throws InterruptedException {
+
+        repository = create(1_000_000, 8);
+        saveMany(0, 20_000);
+        clock.addAndGet(IDLE.toMillis() + 1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        // Reads deleted codes; one found twice in a new segment would be promoted back to hot
+        Thread reader = new Thread(() -> {
+            for (int i = 0; running.get(); i = (i + 2) % 20_000) {
+                repository.findByShortCode("code" + i);
+            }
+        });
+        Thread demoter = new Thread(repository::demote);
+        reader.start();
+        demoter.start();
+        for (int i = 0; i < 20_000; i += 2) {
+            assertTrue(repository.deleteByShortCode("code" + i).isPresent());
+        }
+        demoter.join();
+        running.set(false);
+        reader.join();
+
+        for (int i = 0; i < 20_000; i++) {
+            assertEquals(i % 2 == 1, repository.findByShortCode("code" + i).isPresent(), "code" + i);
+        }
+        assertEquals(10_000, repository.findAll().size());
+        assertEquals(10_000, repository.hotCount() + repository.coldCount());
+    }
+
+    private TieredUrlRepository create(int maxHotEntries, int maxSegments) {
+        return new TieredUrlRepository(directory, maxHotEntries, IDLE, maxSegments, clock::get);
+    }
+
+    private long heap() {
+        return repository.memoryFootprint().stream().mapToLong(StructureFootprint::bytes).sum();
+    }
+
+    private void demoteBatch(int from, int to) {
+        saveMany(from, to);
+        clock.addAndGet(IDLE.toMillis() + 1);
+        repository.demote();
+    }
+
+    private void saveMany(int from, int to) {
+        for (int i = from; i < to; i++) {
+            save(i);
+        }
+    }
+
+    private void save(int i) {
+        repository.save(new ShortenedUrl("code" + i, "https://example.com/" + i, "example.com", false,
+                Instant.ofEpochMilli(clock.get())));
+    }
+}
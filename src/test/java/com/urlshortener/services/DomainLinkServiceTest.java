@@ -0,0 +1,109 @@
+package com.urlshortener.services;
+
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.InMemoryUrlRepository;
+import com.urlshortener.repositories.index.DomainIndex;
+import com.urlshortener.services.DomainLinkService.LinkPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DomainLinkServiceTest {
+
+    private InMemoryUrlRepository repository;
+    private DomainIndex domainIndex;
+    private DomainLinkService service;
+
+    @BeforeEach
+    void setup() {
+        repository = new InMemoryUrlRepository();
+        repository.save(new ShortenedUrl("existing", "https://youtube.com/old", "youtube.com"));
+        domainIndex = new DomainIndex(repository);
+        service = new DomainLinkService(domainIndex, repository, "http://localhost:8080");
+    }
+
+    // ----------------------------------------------------
+    // 1️⃣ Cursor Pagination Visits Every Link Once
+    // ----------------------------------------------------
+    @Test
+    void shouldPageThroughAllLinksOfDomain() {
+
+        for (int i = 0; i < 25; i++) {
+            repository.save(new ShortenedUrl(String.format("yt%03d", i), "https://youtube.com/" + i, "youtube.com"));
+            repository.save(new ShortenedUrl(String.format("ud%03d", i), "https://udemy.com/" + i, "udemy.com"));
+        }
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            LinkPage page = service.findLinks("youtube.com", cursor, 10);
+            page.links().forEach(link -> seen.add(link.getShortCode()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(26, seen.size());               // 25 new plus the one indexed at startup
+        assertEquals("existing", seen.get(0));
+        assertEquals("yt024", seen.get(25));
+        assertEquals(seen.stream().sorted().toList(), seen);
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Domain Matching Ignores Case And www.
+    // ----------------------------------------------------
+    @Test
+    void shouldNormalizeDomain() {
+
+        repository.save(new ShortenedUrl("abc1234", "https://www.YouTube.com/x", "YouTube.com"));
+
+        LinkPage page = service.findLinks("WWW.youtube.COM", null, 10);
+
+        assertEquals(List.of("abc1234", "existing"),
+                page.links().stream().map(ShortenedUrl::getShortCode).toList());
+        assertNull(page.nextCursor());
+
+        // A tenant's prefix stays as it is; the host after it is normalized
+        repository.save(new ShortenedUrl("acme~t1", "acme~https://www.youtube.com/y", "acme~WWW.YouTube.com"));
+        assertEquals("acme~youtube.com", DomainIndex.normalize("acme~WWW.YouTube.com"));
+        assertEquals(List.of("acme~t1"), domainIndex.codes("acme~www.youtube.com", null, 10));
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ Removed And Overwritten Links Disappear
+    // ----------------------------------------------------
+    @Test
+    void shouldDropRemovedAndOverwrittenLinks() {
+
+        repository.save(new ShortenedUrl("a1", "https://youtube.com/a", "youtube.com"));
+        repository.save(new ShortenedUrl("a2", "https://youtube.com/b", "youtube.com"));
+
+        repository.deleteByShortCode("a1");
+        repository.save(new ShortenedUrl("a2", "https://udemy.com/b", "udemy.com"));   // same code, new domain
+
+        assertEquals(List.of("existing"),
+                service.findLinks("youtube.com", null, 10).links().stream().map(ShortenedUrl::getShortCode).toList());
+        assertEquals(List.of("a2"),
+                service.findLinks("udemy.com", null, 10).links().stream().map(ShortenedUrl::getShortCode).toList());
+
+        // the stale youtube.com entry for a2 was pruned by the read
+        assertEquals(List.of("existing"), domainIndex.codes("youtube.com", null, 10));
+    }
+
+    // ----------------------------------------------------
+    // 4️⃣ Page Size Is Bounded
+    // ----------------------------------------------------
+    @Test
+    void shouldRejectInvalidLimit() {
+
+        assertThrows(IllegalArgumentException.class, () -> service.findLinks("youtube.com", null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.findLinks("youtube.com", null, DomainLinkService.MAX_PAGE_SIZE + 1));
+        assertTrue(service.findLinks("unknown.org", null, 10).links().isEmpty());
+    }
+}
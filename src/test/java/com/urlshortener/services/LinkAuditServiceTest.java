@@ -0,0 +1,132 @@
+package com.urlshortener.services;
+
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.repositories.InMemoryUrlRepository;
+import com.urlshortener.repositories.index.CreatedAtIndex;
+import com.urlshortener.services.LinkAuditService.LinkPage;
+import com.urlshortener.services.LinkAuditService.RetentionResult;
+import com.urlshortener.tenant.Tenant;
+import com.urlshortener.tenant.TenantRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LinkAuditServiceTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-01T00:00:00Z");
+
+    private InMemoryUrlRepository repository;
+    private CreatedAtIndex createdAtIndex;
+    private LinkAuditService service;
+
+    @BeforeEach
+    void setup() {
+        repository = new InMemoryUrlRepository();
+        repository.save(mapping("existing", T0.minusSeconds(60)));
+        createdAtIndex = new CreatedAtIndex(repository, Duration.ofHours(1));
+        service = new LinkAuditService(createdAtIndex, repository, new TenantRegistry(Tenant.defaultTenant("http://localhost:8080")));
+    }
+
+    // ----------------------------------------------------
+    // 1️⃣ Range Pages Are In Creation Order Across Partitions
+    // ----------------------------------------------------
+    @Test
+    void shouldPageThroughLinksCreatedInRange() {
+
+        // one link every 10 minutes for 5 hours, saved newest first
+        for (int i = 29; i >= 0; i--) {
+            repository.save(mapping(String.format("m%03d", i), T0.plus(Duration.ofMinutes(10L * i))));
+        }
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            LinkPage page = service.findCreatedBetween(T0.plusSeconds(1800), T0.plusSeconds(4 * 3600), cursor, 4);
+            page.links().forEach(link -> seen.add(link.getShortCode()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        // 00:30 inclusive to 04:00 exclusive
+        List<String> expected = new ArrayList<>();
+        for (int i = 3; i < 24; i++) {
+            expected.add(String.format("m%03d", i));
+        }
+        assertEquals(expected, seen);
+        assertEquals(6, createdAtIndex.partitionCount());
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Overwritten And Removed Links Are Not Listed
+    // ----------------------------------------------------
+    @Test
+    void shouldSkipStaleEntries() {
+
+        repository.save(mapping("moved", T0.plusSeconds(10)));
+        repository.save(mapping("gone", T0.plusSeconds(20)));
+        repository.save(mapping("stays", T0.plusSeconds(30)));
+        repository.save(mapping("moved", T0.plusSeconds(7200)));    // overwritten, now two hours later
+        repository.deleteByShortCode("gone");
+
+        LinkPage firstHour = service.findCreatedBetween(T0, T0.plusSeconds(3600), null, 10);
+        assertEquals(List.of("stays"), codes(firstHour));
+        assertNull(firstHour.nextCursor());
+
+        assertEquals(List.of("moved"), codes(service.findCreatedBetween(T0.plusSeconds(3600), T0.plusSeconds(10_800), null, 10)));
+        // the stale entry for "moved" was pruned while reading
+        assertEquals(3, createdAtIndex.memoryFootprint().get(0).entries());
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ Retention Drops Old Partitions And Trims The Boundary One
+    // ----------------------------------------------------
+    @Test
+    void shouldDeleteLinksCreatedBeforeCutoff() {
+
+        for (int i = 0; i < 30; i++) {
+            repository.save(mapping(String.format("m%03d", i), T0.plus(Duration.ofMinutes(10L * i))));
+        }
+
+        // 02:30: partitions before 00:00 and the 00:00 and 01:00 ones are dropped whole,
+        // m012..m014 (02:00-02:20) are deleted one by one
+        RetentionResult result = service.deleteCreatedBefore(T0.plusSeconds(9000));
+
+        assertEquals(3, result.partitionsDropped());
+        assertEquals(16, result.deleted());
+        assertFalse(repository.existsByShortCode("existing"));
+        assertFalse(repository.existsByShortCode("m014"));
+        assertTrue(repository.existsByShortCode("m015"));
+        assertEquals(15, repository.findAll().size());
+        assertEquals(15, createdAtIndex.memoryFootprint().get(0).entries());
+        assertTrue(codes(service.findCreatedBetween(Instant.EPOCH, T0.plusSeconds(9000), null, 100)).isEmpty());
+    }
+
+    // ----------------------------------------------------
+    // 4️⃣ Bad Ranges, Limits And Cursors Are Rejected
+    // ----------------------------------------------------
+    @Test
+    void shouldRejectInvalidArguments() {
+
+        assertThrows(IllegalArgumentException.class, () -> service.findCreatedBetween(T0, T0.minusSeconds(1), null, 10));
+        assertThrows(IllegalArgumentException.class, () -> service.findCreatedBetween(T0, T0, null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.findCreatedBetween(T0, T0, null, LinkAuditService.MAX_PAGE_SIZE + 1));
+        assertThrows(IllegalArgumentException.class, () -> service.findCreatedBetween(T0, T0, "not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> service.findCreatedBetween(T0, T0, "abc.x", 10));
+    }
+
+    private static ShortenedUrl mapping(String code, Instant createdAt) {
+        return new ShortenedUrl(code, "https://example.com/" + code, "example.com", false, createdAt);
+    }
+
+    private static List<String> codes(LinkPage page) {
+        List<String> codes = new ArrayList<>();
+        page.links().forEach(link -> codes.add(link.getShortCode()));
+        return codes;
+    }
+}
@@ -0,0 +1,142 @@
+package com.urlshortener.services;
+
+import com.urlshortener.repositories.InMemoryUrlRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private static final int THREADS = 64;
+
+    // ----------------------------------------------------
+    // 1️⃣ Concurrent Callers Share One Computation
+    // ----------------------------------------------------
+    @Test
+    void shouldRunComputationOnceForConcurrentCallers() throws Exception {
+
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        AtomicInteger runs = new AtomicInteger();
+
+        List<String> results = runConcurrently(() -> flight.execute("key", () -> {
+            runs.incrementAndGet();
+            // hold the flight open until every other caller has joined it
+            while (flight.coalesced() < THREADS - 1) {
+                Thread.onSpinWait();
+            }
+            return "value";
+        }));
+
+        assertEquals(1, runs.get());
+        assertEquals(1, flight.executions());
+        assertEquals(THREADS - 1, flight.coalesced());
+        assertTrue(results.stream().allMatch("value"::equals));
+        assertEquals(0, flight.inFlight());
+
+        // nothing is cached: the next call computes again
+        assertEquals("again", flight.execute("key", () -> "again"));
+        assertEquals(2, flight.executions());
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Waiters Receive The Leader's Exception
+    // ----------------------------------------------------
+    @Test
+    void shouldPropagateExceptionToAllCallers() throws Exception {
+
+        SingleFlight<String, String> flight = new SingleFlight<>();
+
+        List<Future<String>> futures = submitConcurrently(() -> flight.execute("bad", () -> {
+            while (flight.coalesced() < THREADS - 1) {
+                Thread.onSpinWait();
+            }
+            throw new IllegalArgumentException("Malformed URL: bad");
+        }));
+
+        for (Future<String> future : futures) {
+            ExecutionException ex = assertThrows(ExecutionException.class, future::get);
+            assertInstanceOf(IllegalArgumentException.class, ex.getCause());
+            assertEquals("Malformed URL: bad", ex.getCause().getMessage());
+        }
+        assertEquals(1, flight.executions());
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ A Shorten Storm For One URL Creates One Mapping
+    // ----------------------------------------------------
+    @Test
+    void shouldCreateOneMappingUnderShortenStorm() throws Exception {
+
+        InMemoryUrlRepository repository = new InMemoryUrlRepository();
+        UrlShortenerService service = new UrlShortenerService(repository, "http://localhost:8080");
+
+        List<String> results = new ArrayList<>();
+        for (int round = 0; round < 20; round++) {
+            String url = "https://newsletter.example.com/issue/" + round;
+            results.addAll(runConcurrently(() -> service.shorten(url)));
+        }
+
+        assertEquals(20, repository.findAll().size());
+        Set<String> distinct = new HashSet<>(results);
+        assertEquals(20, distinct.size());
+        assertEquals(20L * THREADS,
+                service.shortenFlight().executions() + service.shortenFlight().coalesced());
+        assertTrue(service.shortenFlight().executions() <= 20L * THREADS);
+    }
+
+    // ----------------------------------------------------
+    // 4️⃣ Resolve Coalescing Is Opt-In
+    // ----------------------------------------------------
+    @Test
+    void shouldCoalesceResolvesOnlyWhenEnabled() throws Exception {
+
+        InMemoryUrlRepository repository = new InMemoryUrlRepository();
+        UrlShortenerService plain = new UrlShortenerService(repository, "http://localhost:8080");
+        UrlShortenerService coalescing = new UrlShortenerService(repository, "http://localhost:8080");
+        coalescing.setCoalesceResolves(true);
+        String shortUrl = plain.shorten("https://udemy.com/course/java");
+        String code = shortUrl.substring(shortUrl.lastIndexOf('/') + 1);
+
+        runConcurrently(() -> plain.resolve(code));
+        runConcurrently(() -> coalescing.resolve(code));
+
+        assertEquals(0, plain.resolveFlight().executions());
+        assertEquals(THREADS,
+                coalescing.resolveFlight().executions() + coalescing.resolveFlight().coalesced());
+    }
+
+    private static List<String> runConcurrently(Callable<String> call) throws Exception {
+        List<String> results = new ArrayList<>();
+        for (Future<String> future : submitConcurrently(call)) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    private static List<Future<String>> submitConcurrently(Callable<String> call) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return call.call();
+            }));
+        }
+        start.countDown();
+        pool.shutdown();
+        return futures;
+    }
+}
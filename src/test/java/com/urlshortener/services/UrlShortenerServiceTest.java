@@ -1,5 +1,6 @@
 package com.urlshortener.services;
 
+import com.urlshortener.exception.ShortCodeConflictException;
 import com.urlshortener.models.ShortenedUrl;
 import com.urlshortener.repositories.InMemoryUrlRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -43,11 +44,14 @@ class UrlShortenerServiceTest {
         when(urlRepository.existsByShortCode(anyString()))
                 .thenReturn(false);
 
+        when(urlRepository.saveIfAbsent(any(ShortenedUrl.class)))
+                .thenReturn(true);
+
         String result = urlShortenerService
                 .shorten("https://www.youtube.com/watch?v=test");
 
         assertTrue(result.startsWith(BASE_URL + "/"));
-        verify(urlRepository, times(1)).save(any(ShortenedUrl.class));
+        verify(urlRepository, times(1)).saveIfAbsent(any(ShortenedUrl.class));
     }
 
     // ----------------------------------------------------
@@ -69,6 +73,7 @@ class UrlShortenerServiceTest {
 
         assertEquals(BASE_URL + "/abc1234", result);
         verify(urlRepository, never()).save(any());
+        verify(urlRepository, never()).saveIfAbsent(any());
     }
 
     // ----------------------------------------------------
@@ -132,13 +137,10 @@ class UrlShortenerServiceTest {
     @Test
     void shouldReturnTopDomains() {
 
-        List<ShortenedUrl> urls = List.of(
-                new ShortenedUrl("a1", "https://youtube.com/a", "youtube.com"),
-                new ShortenedUrl("a2", "https://youtube.com/b", "youtube.com"),
-                new ShortenedUrl("a3", "https://udemy.com/a", "udemy.com")
-        );
-
-        when(urlRepository.findAll()).thenReturn(urls);
+        when(urlRepository.countByDomain()).thenReturn(Map.of(
+                "youtube.com", 2L,
+                "udemy.com", 1L
+        ));
 
         LinkedHashMap<String, Long> result =
                 urlShortenerService.getTopDomains(2);
@@ -153,17 +155,100 @@ class UrlShortenerServiceTest {
     @Test
     void shouldLimitTopDomains() {
 
-        List<ShortenedUrl> urls = List.of(
-                new ShortenedUrl("a1", "https://youtube.com/a", "youtube.com"),
-                new ShortenedUrl("a2", "https://udemy.com/a", "udemy.com"),
-                new ShortenedUrl("a3", "https://wikipedia.org/a", "wikipedia.org")
-        );
-
-        when(urlRepository.findAll()).thenReturn(urls);
+        when(urlRepository.countByDomain()).thenReturn(Map.of(
+                "youtube.com", 1L,
+                "udemy.com", 1L,
+                "wikipedia.org", 1L
+        ));
 
         LinkedHashMap<String, Long> result =
                 urlShortenerService.getTopDomains(2);
 
         assertEquals(2, result.size());
     }
+
+    // ----------------------------------------------------
+    // 9️⃣ Shorten - Generated Code Lost A Race
+    // ----------------------------------------------------
+    @Test
+    void shouldRetryWhenGeneratedCodeIsClaimedConcurrently() {
+
+        when(urlRepository.findByOriginalUrl(anyString()))
+                .thenReturn(Optional.empty());
+
+        when(urlRepository.saveIfAbsent(any(ShortenedUrl.class)))
+                .thenReturn(false)
+                .thenReturn(true);
+
+        urlShortenerService.shorten("https://youtube.com");
+
+        verify(urlRepository, times(2)).saveIfAbsent(any(ShortenedUrl.class));
+    }
+
+    // ----------------------------------------------------
+    // 🔟 Shorten With Alias - New Alias
+    // ----------------------------------------------------
+    @Test
+    void shouldShortenWithAlias() {
+
+        when(urlRepository.saveIfAbsent(any(ShortenedUrl.class)))
+                .thenReturn(true);
+
+        String result = urlShortenerService
+                .shorten("https://shop.example.com/sale", "spring-sale");
+
+        assertEquals(BASE_URL + "/spring-sale", result);
+        verify(urlRepository).saveIfAbsent(argThat(ShortenedUrl::isAlias));
+    }
+
+    // ----------------------------------------------------
+    // 1️⃣1️⃣ Shorten With Alias - Same Mapping Again
+    // ----------------------------------------------------
+    @Test
+    void shouldBeIdempotentForSameAliasAndUrl() {
+
+        when(urlRepository.saveIfAbsent(any(ShortenedUrl.class)))
+                .thenReturn(false);
+
+        when(urlRepository.findByShortCode("spring-sale"))
+                .thenReturn(Optional.of(new ShortenedUrl("spring-sale",
+                        "https://shop.example.com/sale", "shop.example.com", true)));
+
+        String result = urlShortenerService
+                .shorten("https://shop.example.com/sale", "spring-sale");
+
+        assertEquals(BASE_URL + "/spring-sale", result);
+    }
+
+    // ----------------------------------------------------
+    // 1️⃣2️⃣ Shorten With Alias - Taken By Another URL
+    // ----------------------------------------------------
+    @Test
+    void shouldRejectAliasTakenByAnotherUrl() {
+
+        when(urlRepository.saveIfAbsent(any(ShortenedUrl.class)))
+                .thenReturn(false);
+
+        when(urlRepository.findByShortCode("spring-sale"))
+                .thenReturn(Optional.of(new ShortenedUrl("spring-sale",
+                        "https://other.example.com", "other.example.com", true)));
+
+        assertThrows(ShortCodeConflictException.class,
+                () -> urlShortenerService.shorten("https://shop.example.com/sale", "spring-sale"));
+    }
+
+    // ----------------------------------------------------
+    // 1️⃣3️⃣ Shorten With Alias - Invalid Or Reserved
+    // ----------------------------------------------------
+    @Test
+    void shouldRejectInvalidOrReservedAlias() {
+
+        assertThrows(IllegalArgumentException.class,
+                () -> urlShortenerService.shorten("https://youtube.com", "a b"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> urlShortenerService.shorten("https://youtube.com", "metrics"));
+
+        verify(urlRepository, never()).saveIfAbsent(any());
+    }
 }
@@ -0,0 +1,177 @@
+package com.urlshortener.tenant;
+
+import com.urlshortener.exception.TenantQuotaExceededException;
+import com.urlshortener.models.ShortenedUrl;
+import com.urlshortener.qr.QrCode;
+import com.urlshortener.qr.QrImageCache;
+import com.urlshortener.qr.QrRenderer;
+import com.urlshortener.repositories.InMemoryUrlRepository;
+import com.urlshortener.repositories.index.DomainIndex;
+import com.urlshortener.services.DomainLinkService;
+import com.urlshortener.services.QrCodeService;
+import com.urlshortener.services.UrlShortenerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TenantTest {
+
+    private final Tenant acme = new Tenant("acme", "https://go.acme.com", 0);
+    private final Tenant globex = new Tenant("globex", "https://glbx.io", 2);
+
+    private InMemoryUrlRepository repository;
+    private TenantRegistry registry;
+    private UrlShortenerService service;
+
+    @BeforeEach
+    void setup() {
+        repository = new InMemoryUrlRepository();
+        registry = new TenantRegistry(Tenant.defaultTenant("http://localhost:8080"));
+        registry.register(acme, List.of("go.acme.com"), List.of("acme-key"));
+        registry.register(globex, List.of("glbx.io"), List.of());
+        service = new UrlShortenerService(repository, "http://localhost:8080");
+        service.setTenantUsage(new TenantUsage(registry, repository));
+    }
+
+    @AfterEach
+    void clearTenant() {
+        TenantContext.clear();
+    }
+
+    // ----------------------------------------------------
+    // 1️⃣ Requests Resolve By API Key, Then Host
+    // ----------------------------------------------------
+    @Test
+    void shouldResolveTenantFromApiKeyOrHost() throws Exception {
+
+        assertSame(acme, registry.resolve("glbx.io", "acme-key"));
+        assertSame(globex, registry.resolve("GLBX.io:8443", "rate-limit-only-key"));
+        assertSame(registry.defaultTenant(), registry.resolve("[::1]:8080", null));
+        assertEquals(List.of(acme, globex), registry.tenants());
+        assertThrows(IllegalArgumentException.class,
+                () -> registry.register(new Tenant("initech", "https://ini.tech", 0), List.of("go.acme.com"), List.of()));
+        assertThrows(IllegalArgumentException.class, () -> new Tenant("Bad~Id", "https://x.io", 0));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/aB3cD4e");
+        request.addHeader("Host", "go.acme.com");
+        TenantInterceptor interceptor = new TenantInterceptor(registry);
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+        assertEquals("acme~aB3cD4e", TenantContext.key("aB3cD4e"));
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), null, null);
+        assertEquals("aB3cD4e", TenantContext.key("aB3cD4e"));
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Codes, URLs And Domain Counts Are Isolated
+    // ----------------------------------------------------
+    @Test
+    void shouldIsolateTenantsInSharedRepository() {
+
+        String plain = service.shorten("https://www.youtube.com/watch?v=1");
+        TenantContext.set(acme);
+        String acmeUrl = service.shorten("https://www.youtube.com/watch?v=1");
+        assertEquals(acmeUrl, service.shorten("https://www.youtube.com/watch?v=1"));
+        service.shorten("https://udemy.com/course", "spring-sale");
+        service.shorten("https://udemy.com/other");
+
+        assertTrue(acmeUrl.startsWith("https://go.acme.com/"));
+        assertNotEquals(plain.substring(plain.lastIndexOf('/')), acmeUrl.substring(acmeUrl.lastIndexOf('/')));
+        assertEquals("https://udemy.com/course", service.resolve("spring-sale"));
+        assertEquals(List.of("udemy.com", "youtube.com"), List.copyOf(service.getTopDomains(10).keySet()));
+        assertFalse(service.isAliasAvailable("spring-sale"));
+
+        // Not visible to the default tenant, and free to claim there
+        TenantContext.clear();
+        assertThrows(NoSuchElementException.class, () -> service.resolve("spring-sale"));
+        assertEquals(List.of("youtube.com"), List.copyOf(service.getTopDomains(10).keySet()));
+        assertTrue(service.isAliasAvailable("spring-sale"));
+        assertEquals("http://localhost:8080/spring-sale", service.shorten("https://other.com", "spring-sale"));
+        assertEquals("https://other.com", service.resolve("spring-sale"));
+
+        // Each key is one entry of the shared map
+        assertTrue(repository.existsByShortCode("acme~spring-sale"));
+        assertEquals(5, repository.findAll().size());
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ Domain Listings Show The Tenant's Own Links
+    // ----------------------------------------------------
+    @Test
+    void shouldListOnlyTheTenantsLinksForDomain() {
+
+        DomainLinkService links = new DomainLinkService(new DomainIndex(repository), repository, "http://localhost:8080");
+        service.shorten("https://youtube.com/a");
+        TenantContext.set(acme);
+        service.shorten("https://youtube.com/b", "promo-b");
+        service.shorten("https://youtube.com/c", "promo-c");
+
+        DomainLinkService.LinkPage first = links.findLinks("youtube.com", null, 1);
+        assertEquals("promo-b", first.links().get(0).getShortCode());
+        assertEquals("https://youtube.com/b", first.links().get(0).getOriginalUrl());
+        assertEquals("https://go.acme.com/promo-b", links.shortUrl(first.links().get(0)));
+        DomainLinkService.LinkPage second = links.findLinks("youtube.com", first.nextCursor(), 1);
+        assertEquals("promo-c", second.links().get(0).getShortCode());
+        assertNull(second.nextCursor());
+    }
+
+    // ----------------------------------------------------
+    // 4️⃣ Quotas Limit New Links Only
+    // ----------------------------------------------------
+    @Test
+    void shouldEnforceLinkQuotaPerTenant() {
+
+        repository.save(new ShortenedUrl("globex~old", "globex~https://a.com/old", "globex~a.com"));
+        TenantUsage usage = new TenantUsage(registry, repository);
+        service.setTenantUsage(usage);
+        TenantContext.set(globex);
+
+        String first = service.shorten("https://a.com/1");
+        assertEquals(2, usage.links(globex));
+        assertThrows(TenantQuotaExceededException.class, () -> service.shorten("https://a.com/2"));
+        assertThrows(TenantQuotaExceededException.class, () -> service.shorten("https://a.com/2", "alias-2"));
+        assertEquals(first, service.shorten("https://a.com/1"));       // existing links still resolve idempotently
+
+        repository.deleteByShortCode("globex~old");
+        assertEquals(1, usage.links(globex));
+        service.shorten("https://a.com/2");
+
+        TenantContext.set(acme);
+        service.shorten("https://a.com/3");                         // other tenants are unaffected
+        assertEquals(1, usage.links(acme));
+    }
+
+    // ----------------------------------------------------
+    // 5️⃣ Another Tenant's Prefixed Code Is Not Found
+    // ----------------------------------------------------
+    @Test
+    void shouldNotResolveAnotherTenantsPrefixedCode() {
+
+        TenantContext.set(acme);
+        service.shorten("https://secret.acme.com/launch", "launch");
+        service.shorten("https://youtube.com/acme");
+
+        // Default host asking for acme's stored key
+        TenantContext.clear();
+        assertThrows(NoSuchElementException.class, () -> service.resolve("acme~launch"));
+        assertFalse(service.isAliasAvailable("acme~launch"));
+        QrCodeService qr = new QrCodeService(repository, new QrImageCache(1 << 20), "http://localhost:8080", QrCode.Ecc.M);
+        assertThrows(NoSuchElementException.class, () -> qr.render("acme~launch", QrRenderer.Format.SVG, 256));
+        DomainLinkService links = new DomainLinkService(new DomainIndex(repository), repository, "http://localhost:8080");
+        assertEquals(List.of(), links.findLinks("acme~youtube.com", null, 10).links());
+
+        // Another tenant's host
+        TenantContext.set(globex);
+        assertThrows(NoSuchElementException.class, () -> service.resolve("acme~launch"));
+
+        // Admin output builds each link under its own tenant's base URL
+        assertEquals("https://go.acme.com/launch", registry.shortUrl("acme~launch"));
+        assertEquals("http://localhost:8080/aB3cD4e", registry.shortUrl("aB3cD4e"));
+    }
+}
@@ -0,0 +1,155 @@
+package com.urlshortener.visitors;
+
+import com.urlshortener.util.Hashing;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    // ----------------------------------------------------
+    // 1️⃣ Estimates Stay Within Three Standard Errors
+    // ----------------------------------------------------
+    @Test
+    void shouldEstimateCardinalityAccurately() {
+
+        for (int cardinality : new int[] { 1, 10, 100, 1_000, 10_000, 100_000, 1_000_000 }) {
+            HyperLogLog sketch = new HyperLogLog(12);
+            for (int i = 0; i < cardinality; i++) {
+                sketch.add(Hashing.hash64("visitor-" + i));
+                sketch.add(Hashing.hash64("visitor-" + i));     // repeats do not count
+            }
+            double error = Math.abs(sketch.estimate() - cardinality) / (double) cardinality;
+            assertTrue(error <= 3 * sketch.standardError(),
+                    "cardinality " + cardinality + " estimated as " + sketch.estimate());
+        }
+        assertEquals(0, new HyperLogLog(12).estimate());
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Small Sketches Stay Sparse, Then Turn Dense
+    // ----------------------------------------------------
+    @Test
+    void shouldPromoteSparseToDenseWithoutChangingEstimate() {
+
+        HyperLogLog sketch = new HyperLogLog(12);
+        long bytes = 0;
+        for (int i = 0; i < 50; i++) {
+            bytes += sketch.add(Hashing.hash64("v" + i));
+        }
+        assertTrue(sketch.isSparse());
+        assertTrue(sketch.retainedBytes() < 500, "sparse sketch takes " + sketch.retainedBytes());
+
+        HyperLogLog reference = new HyperLogLog(12);
+        for (int i = 0; i < 5_000; i++) {
+            if (i >= 50) {
+                bytes += sketch.add(Hashing.hash64("v" + i));
+            }
+            reference.add(Hashing.hash64("v" + i));
+        }
+        assertFalse(sketch.isSparse());
+        assertEquals(HyperLogLog.denseBytes(12), sketch.retainedBytes());
+        assertEquals(sketch.retainedBytes(), bytes + new HyperLogLog(12).retainedBytes());
+        assertEquals(reference.estimate(), sketch.estimate());
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ Merging Gives The Sketch Of The Union
+    // ----------------------------------------------------
+    @Test
+    void shouldMergeIntoUnion() {
+
+        HyperLogLog a = new HyperLogLog(12);
+        HyperLogLog b = new HyperLogLog(12);
+        HyperLogLog both = new HyperLogLog(12);
+        for (int i = 0; i < 30_000; i++) {
+            long hash = Hashing.hash64("u" + i);
+            if (i < 20_000) {
+                a.add(hash);
+            }
+            if (i >= 10_000) {
+                b.add(hash);
+            }
+            both.add(hash);
+        }
+        a.merge(b);
+        assertEquals(both.estimate(), a.estimate());
+        assertArrayEquals(both.toBytes(), a.toBytes());
+
+        assertThrows(IllegalArgumentException.class, () -> a.merge(new HyperLogLog(10)));
+    }
+
+    // ----------------------------------------------------
+    // 4️⃣ Sketches Round-Trip Through Bytes
+    // ----------------------------------------------------
+    @Test
+    void shouldSerializeSparseAndDenseSketches() {
+
+        for (int cardinality : new int[] { 0, 20, 50_000 }) {
+            HyperLogLog sketch = new HyperLogLog(14);
+            for (int i = 0; i < cardinality; i++) {
+                sketch.add(Hashing.hash64("s" + i));
+            }
+            byte[] bytes = sketch.toBytes();
+            HyperLogLog copy = HyperLogLog.fromBytes(bytes);
+
+            assertEquals(14, copy.precision());
+            assertEquals(sketch.estimate(), copy.estimate());
+            assertArrayEquals(bytes, copy.toBytes());
+            if (cardinality == 20) {
+                assertTrue(bytes.length < 100, "sparse form is " + bytes.length + " bytes");
+            }
+        }
+    }
+
+    // ----------------------------------------------------
+    // 5️⃣ Corrupt Bytes Are Rejected
+    // ----------------------------------------------------
+    @Test
+    void shouldRejectInvalidBytes() {
+
+        HyperLogLog sketch = new HyperLogLog(12);
+        sketch.add(Hashing.hash64("x"));
+        byte[] valid = sketch.toBytes();
+
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[] { 30, 0, 0 }));
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[] { 12, 7, 0 }));
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(Arrays.copyOf(valid, valid.length - 1)));
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[] { 12, 1, 5 }));
+    }
+
+    // ----------------------------------------------------
+    // 6️⃣ Concurrent Adds Lose Nothing
+    // ----------------------------------------------------
+    @Test
+    void shouldMatchSequentialSketchUnderConcurrentAdds() throws InterruptedException {
+
+        int threads = 4;
+        int perThread = 25_000;
+        HyperLogLog shared = new HyperLogLog(12);
+        HyperLogLog sequential = new HyperLogLog(12);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers.add(new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    shared.add(Hashing.hash64(id + ":" + i));
+                }
+            }));
+            for (int i = 0; i < perThread; i++) {
+                sequential.add(Hashing.hash64(id + ":" + i));
+            }
+        }
+        workers.forEach(Thread::start);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertArrayEquals(sequential.toBytes(), shared.toBytes());
+    }
+}
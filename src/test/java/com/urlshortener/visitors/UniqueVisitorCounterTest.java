@@ -0,0 +1,111 @@
+package com.urlshortener.visitors;
+
+import com.urlshortener.memory.MemoryEstimator;
+import com.urlshortener.util.Hashing;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UniqueVisitorCounterTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-07T12:00:00Z");
+
+    private final AtomicLong clock = new AtomicLong(NOW.toEpochMilli());
+    private final UniqueVisitorCounter counter = new UniqueVisitorCounter(12, 7, clock::get);
+
+    // ----------------------------------------------------
+    // 1️⃣ Windows Merge The Daily Sketches
+    // ----------------------------------------------------
+    @Test
+    void shouldCountUniqueVisitorsPerDayAndWindow() {
+
+        visit("abc", 0, 100);           // 100 visitors on day one
+        nextDay();
+        visit("abc", 50, 150);          // 100 visitors, half of them returning
+        visit("abc", 50, 150);
+
+        assertEquals(150, counter.sketch("abc", 2).orElseThrow().estimate(), 3);
+        assertEquals(100, counter.sketch("abc", 1).orElseThrow().estimate(), 2);
+
+        List<UniqueVisitorCounter.DailyEstimate> daily = counter.daily("abc", 3);
+        assertEquals(LocalDate.of(2024, 3, 6), daily.get(0).date());
+        assertEquals(0, daily.get(0).uniqueVisitors());
+        assertEquals(100, daily.get(1).uniqueVisitors(), 2);
+        assertEquals(LocalDate.of(2024, 3, 8), daily.get(2).date());
+
+        assertTrue(counter.sketch("unknown", 7).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> counter.sketch("abc", 8));
+        assertThrows(IllegalArgumentException.class, () -> counter.daily("abc", 0));
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Old Days Roll Off And Idle Links Are Swept
+    // ----------------------------------------------------
+    @Test
+    void shouldForgetDaysOutsideRetention() {
+
+        visit("old", 0, 10);
+        visit("busy", 0, 10);
+        for (int day = 0; day < 7; day++) {
+            nextDay();
+            visit("busy", 1_000 * day, 1_000 * day + 10);
+        }
+
+        assertTrue(counter.sketch("old", 7).isEmpty());
+        assertEquals(70, counter.sketch("busy", 7).orElseThrow().estimate(), 2);
+        // The first visit of each day also sweeps in the background, so "old" may already be gone
+        counter.sweep();
+        assertEquals(1, counter.memoryFootprint().get(0).entries());
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ Memory Stays Within The Per-Link Budget
+    // ----------------------------------------------------
+    @Test
+    void shouldStayWithinMemoryBudget() {
+
+        visit("quiet", 0, 5);
+        long quiet = counter.memoryFootprint().get(0).bytes();
+        assertTrue(quiet < 400, "a sparse link takes " + quiet + " bytes");
+
+        UniqueVisitorCounter loud = new UniqueVisitorCounter(12, 7, clock::get);
+        for (int day = 0; day < 10; day++) {
+            for (int i = 0; i < 20_000; i++) {
+                loud.record("hot", Hashing.hash64("v" + day + ":" + i));
+            }
+            nextDay();
+        }
+        long bytes = loud.memoryFootprint().get(0).bytes() - MemoryEstimator.concurrentHashMap(1);
+        assertTrue(bytes <= loud.maxBytesPerLink(), bytes + " > " + loud.maxBytesPerLink());
+        assertTrue(loud.maxBytesPerLink() < 32 * 1024);
+
+        loud.remove("hot");
+        assertEquals(0, loud.memoryFootprint().get(0).entries());
+    }
+
+    // ----------------------------------------------------
+    // 4️⃣ Invalid Settings Are Rejected
+    // ----------------------------------------------------
+    @Test
+    void shouldRejectInvalidSettings() {
+
+        assertThrows(IllegalArgumentException.class, () -> new UniqueVisitorCounter(3, 7));
+        assertThrows(IllegalArgumentException.class, () -> new UniqueVisitorCounter(12, 0));
+    }
+
+    private void visit(String code, int from, int to) {
+        for (int i = from; i < to; i++) {
+            counter.record(code, Hashing.hash64("visitor-" + i));
+        }
+    }
+
+    private void nextDay() {
+        clock.addAndGet(Duration.ofDays(1).toMillis());
+    }
+}
@@ -0,0 +1,79 @@
+package com.urlshortener.warmup;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotCodeTrackerTest {
+
+    @TempDir
+    Path directory;
+
+    // ----------------------------------------------------
+    // 1️⃣ The Hottest Codes Are Saved And Loaded In Order
+    // ----------------------------------------------------
+    @Test
+    void shouldSaveHottestCodesFirst() throws Exception {
+
+        Path file = directory.resolve("hot-codes");
+        HotCodeTracker tracker = new HotCodeTracker(file, 100, 0);
+        for (int i = 0; i < 10; i++) {
+            for (int n = 0; n <= i; n++) {
+                tracker.count("code" + i);
+            }
+        }
+        tracker.close();
+
+        assertEquals(List.of("code9", "code8", "code7"), HotCodeTracker.load(file, 3));
+        assertEquals(10, HotCodeTracker.load(file, 1_000).size());
+    }
+
+    // ----------------------------------------------------
+    // 2️⃣ Trimming Keeps Hot Codes Over A Stream Of One-Offs
+    // ----------------------------------------------------
+    @Test
+    void shouldKeepHotCodesWhenTrimming() {
+
+        HotCodeTracker tracker = new HotCodeTracker(directory.resolve("hot-codes"), 50, 0);
+        for (int i = 0; i < 10_000; i++) {
+            tracker.count("once" + i);
+            if (i % 10 == 0) {
+                tracker.count("hot" + (i / 10) % 20);
+            }
+        }
+
+        List<String> top = tracker.top(20);
+        assertEquals(20, top.size());
+        assertTrue(top.stream().allMatch(code -> code.startsWith("hot")), top.toString());
+        assertTrue(tracker.top(1_000).size() <= 100);
+    }
+
+    // ----------------------------------------------------
+    // 3️⃣ A Run Without Redirects Keeps The Previous File
+    // ----------------------------------------------------
+    @Test
+    void shouldKeepPreviousFileWhenNothingWasCounted() throws Exception {
+
+        Path file = directory.resolve("hot-codes");
+        assertEquals(List.of(), HotCodeTracker.load(file, 10));
+
+        Files.write(file, List.of("code1", "", "code2"));
+        new HotCodeTracker(file, 10, 0).close();
+
+        assertEquals(List.of("code1", "code2"), HotCodeTracker.load(file, 10));
+    }
+
+    // ----------------------------------------------------
+    // 4️⃣ Synthetic Traffic Runs On Its Own Scratch Repository
+    // ----------------------------------------------------
+    @Test
+    void shouldRunSyntheticTraffic() {
+
+        assertDoesNotThrow(() -> WarmupRunner.runSyntheticTraffic(500));
+    }
+}
@@ -0,0 +1,245 @@
+package com.urlshortener.warmup;
+
+import com.urlshortener.UrlShortenerApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Latency in the first minute after the application reports ready, with and
+ * without the warm-up, each in a freshly started JVM.
+ *
+ * Both runs import the same links at startup; the warm-up run also finds a
+ * hot-codes file listing the codes the load hits most, as a previous run
+ * would have left it. Clients hold keep-alive connections and send redirects
+ * to a skewed set of codes, with one POST /shorten in twenty, from the
+ * moment /health/ready first answers 200. Latency is reported per slice of
+ * the minute, so the cold start shows up as the p99 of the first slices.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=WarmupBenchmark -DargLine=-Xmx4g
+ * (-Dbenchmark.seconds=20 for a shorter run)
+ */
+@Tag("benchmark")
+class WarmupBenchmark {
+
+    private static final int LINKS = 200_000;
+    private static final int HOT_CODES = 10_000;
+    private static final int CLIENTS = 4;
+    private static final long[] SLICE_SECONDS = { 1, 5, 15, 60 };
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void firstMinuteWithAndWithoutWarmup() throws Exception {
+        long seconds = Long.getLong("benchmark.seconds", 60);
+        Path links = directory.resolve("links.csv");
+        List<String> lines = new ArrayList<>(LINKS);
+        for (int i = 0; i < LINKS; i++) {
+            lines.add("code" + i + ",https://site" + (i % 5_000) + ".com/page/" + i);
+        }
+        Files.write(links, lines);
+        Path hotCodes = directory.resolve("hot-codes");
+        List<String> hot = new ArrayList<>(HOT_CODES);
+        for (int i = 0; i < HOT_CODES; i++) {
+            hot.add("code" + i);
+        }
+        Files.write(hotCodes, hot);
+
+        System.out.printf("links=%,d  clients=%d  cpus=%d%n", LINKS, CLIENTS, Runtime.getRuntime().availableProcessors());
+        run("no warm-up", false, links, hotCodes, seconds);
+        run("warm-up", true, links, hotCodes, seconds);
+    }
+
+    private void run(String label, boolean warmup, Path links, Path hotCodes, long seconds) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process app = new ProcessBuilder(java, "-Xmx1g", "-cp", System.getProperty("java.class.path"),
+                UrlShortenerApplication.class.getName(),
+                "--server.port=" + port, "--server.tomcat.max-keep-alive-requests=-1",
+                "--app.rate-limit.enabled=false", "--app.concurrency-limit.enabled=false",
+                "--app.import.file=" + links, "--app.warmup.enabled=" + warmup,
+                "--app.warmup.hot-codes-file=" + hotCodes, "--app.warmup.save-interval-seconds=0",
+                "--logging.level.root=WARN")
+                .redirectErrorStream(true)
+                .redirectOutput(new File(directory.toFile(), label.replace(' ', '-') + ".log"))
+                .start();
+        try {
+            long launched = System.nanoTime();
+            while (!isReady(port)) {
+                Thread.sleep(20);
+            }
+            long readyMillis = (System.nanoTime() - launched) / 1_000_000;
+            long start = System.nanoTime();
+            long end = start + seconds * 1_000_000_000L;
+            // Pairs of (nanos since ready, latency nanos)
+            ConcurrentLinkedQueue<long[]> samples = new ConcurrentLinkedQueue<>();
+            List<Thread> threads = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                int seed = c;
+                threads.add(new Thread(() -> samples.add(load(port, seed, start, end))));
+            }
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            System.out.printf("  %-10s ready after %,6d ms%n", label, readyMillis);
+            long from = 0;
+            for (long slice : SLICE_SECONDS) {
+                long to = Math.min(slice, seconds);
+                if (to <= from) {
+                    break;
+                }
+                long[] latencies = inSlice(samples, from * 1_000_000_000L, to * 1_000_000_000L);
+                System.out.printf("    %2d-%2d s  %,9d requests  p50 %,7d us  p99 %,7d us  max %,7d us%n",
+                        from, to, latencies.length, percentile(latencies, 0.5) / 1_000,
+                        percentile(latencies, 0.99) / 1_000, percentile(latencies, 1.0) / 1_000);
+                from = to;
+            }
+            long[] all = inSlice(samples, 0, Long.MAX_VALUE);
+            System.out.printf("    all      %,9d requests  p50 %,7d us  p99 %,7d us  max %,7d us%n",
+                    all.length, percentile(all, 0.5) / 1_000, percentile(all, 0.99) / 1_000,
+                    percentile(all, 1.0) / 1_000);
+        } finally {
+            app.destroy();
+            app.waitFor();
+        }
+    }
+
+    private static long[] load(int port, int seed, long start, long end) {
+        long[] samples = new long[1 << 23];
+        int count = 0;
+        int posted = 0;
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.setTcpNoDelay(true);
+            OutputStream out = socket.getOutputStream();
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            long state = seed * 0x9E3779B97F4A7C15L + 1;
+            for (int i = 0; count < samples.length - 1; i++) {
+                long now = System.nanoTime();
+                if (now >= end) {
+                    break;
+                }
+                state ^= state << 13;
+                state ^= state >>> 7;
+                state ^= state << 17;
+                byte[] request;
+                if (i % 20 == 19) {
+                    String body = "{\"url\":\"https://new" + seed + ".example/" + posted++ + "\"}";
+                    request = ("POST /shorten HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/json\r\n"
+                            + "Content-Length: " + body.length() + "\r\n\r\n" + body)
+                            .getBytes(StandardCharsets.US_ASCII);
+                } else {
+                    // Nine in ten redirects go to the hot codes
+                    long r = state >>> 1;
+                    int code = (int) (r % 10 == 0 ? (r >>> 4) % LINKS : (r >>> 4) % HOT_CODES);
+                    request = ("GET /code" + code + " HTTP/1.1\r\nHost: localhost\r\n\r\n")
+                            .getBytes(StandardCharsets.US_ASCII);
+                }
+                out.write(request);
+                out.flush();
+                readResponse(in);
+                samples[count++] = now - start;
+                samples[count++] = System.nanoTime() - now;
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return Arrays.copyOf(samples, count);
+    }
+
+    private static long[] inSlice(ConcurrentLinkedQueue<long[]> samples, long from, long to) {
+        long[] latencies = samples.stream()
+                .flatMapToLong(pairs -> {
+                    long[] slice = new long[pairs.length / 2];
+                    int n = 0;
+                    for (int i = 0; i < pairs.length; i += 2) {
+                        if (pairs[i] >= from && pairs[i] < to) {
+                            slice[n++] = pairs[i + 1];
+                        }
+                    }
+                    return Arrays.stream(slice, 0, n);
+                })
+                .toArray();
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted.length == 0 ? 0 : sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))];
+    }
+
+    private static boolean isReady(int port) {
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.getOutputStream().write("GET /health/ready HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n"
+                    .getBytes(StandardCharsets.US_ASCII));
+            byte[] status = socket.getInputStream().readNBytes(12);
+            return new String(status, StandardCharsets.US_ASCII).equals("HTTP/1.1 200");
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads one response head and its Content-Length or chunked body, and
+     * checks it is a 302 or 201.
+     */
+    private static void readResponse(InputStream in) throws IOException {
+        String head = readLine(in, new StringBuilder(256));
+        if (!head.startsWith("HTTP/1.1 302") && !head.startsWith("HTTP/1.1 201")) {
+            throw new IOException("Unexpected response: " + head);
+        }
+        long length = 0;
+        boolean chunked = false;
+        StringBuilder line = new StringBuilder(128);
+        for (String header = readLine(in, line); !header.isEmpty(); header = readLine(in, line)) {
+            String lower = header.toLowerCase();
+            if (lower.startsWith("content-length:")) {
+                length = Long.parseLong(lower.substring(15).trim());
+            } else if (lower.startsWith("transfer-encoding:") && lower.contains("chunked")) {
+                chunked = true;
+            }
+        }
+        if (!chunked) {
+            in.skipNBytes(length);
+            return;
+        }
+        for (long size = Long.parseLong(readLine(in, line).trim(), 16); size > 0;
+                size = Long.parseLong(readLine(in, line).trim(), 16)) {
+            in.skipNBytes(size + 2);
+        }
+        readLine(in, line);
+    }
+
+    private static String readLine(InputStream in, StringBuilder line) throws IOException {
+        line.setLength(0);
+        for (int b = in.read(); b != '\n'; b = in.read()) {
+            if (b < 0) {
+                throw new IOException("Connection closed");
+            }
+            if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+        return line.toString();
+    }
+}